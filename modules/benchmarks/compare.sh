@@ -0,0 +1,64 @@
+#!/bin/bash -e
+# Runs the JMH benchmarks against a baseline git reference and against the current working tree,
+# then prints a markdown table comparing the two runs, ready to be attached to a pull request.
+#
+# Usage: modules/benchmarks/compare.sh <baseline-ref> [JMH options]
+#
+# Examples:
+#   modules/benchmarks/compare.sh main
+#   modules/benchmarks/compare.sh main ECQLBenchmark -f 2 -wi 3 -i 5
+#
+# The benchmark sources of the current tree are used on both sides, so that the very same code
+# is measured. Benchmarks using APIs missing in older versions are listed in BRANCH_ONLY and are
+# removed from the baseline copy, they run on the current tree only and show "n/a" as baseline.
+# Both builds install into the local Maven repository, the current tree one last.
+
+if [ -z "$1" ]; then
+    echo "Usage: $0 <baseline-ref> [JMH options]"
+    exit 1
+fi
+BASELINE=$1
+shift
+
+MODULE_DIR=$(cd "$(dirname "$0")" && pwd)
+ROOT_DIR=$(cd "$MODULE_DIR/../.." && pwd)
+WORK_DIR=$MODULE_DIR/target/compare
+DEPENDENCIES=modules/library/sample-data,modules/library/referencing,modules/library/cql,modules/library/render,modules/plugin/shapefile
+# benchmarks that do not compile against older baselines, only run on the current tree
+BRANCH_ONLY="ShapefileLazyAttributesBenchmark"
+
+# builds the benchmarks jar in the given tree and runs it, writing the results in the given file
+run_benchmarks() {
+    local tree=$1
+    local results=$2
+    shift 2
+    printf "\n\nBuilding $tree\n"
+    (cd "$tree" && mvn -B -q install -DskipTests -Dspotless.apply.skip=true -pl $DEPENDENCIES -am)
+    (cd "$tree/modules/benchmarks" && mvn -B -q package -DskipTests -Dspotless.apply.skip=true)
+    printf "\n\nRunning benchmarks on $tree\n"
+    java -jar "$tree/modules/benchmarks/target/benchmarks.jar" -rf csv -rff "$results" "$@"
+}
+
+cleanup() {
+    git -C "$ROOT_DIR" worktree remove --force "$WORK_DIR/baseline" > /dev/null 2>&1 || true
+}
+
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR"
+trap cleanup EXIT
+git -C "$ROOT_DIR" worktree add --detach "$WORK_DIR/baseline" "$BASELINE"
+
+# measure the baseline with the current benchmark sources
+rm -rf "$WORK_DIR/baseline/modules/benchmarks"
+mkdir -p "$WORK_DIR/baseline/modules/benchmarks"
+(cd "$MODULE_DIR" && tar cf - --exclude=./target .) | (cd "$WORK_DIR/baseline/modules/benchmarks" && tar xf -)
+for benchmark in $BRANCH_ONLY; do
+    rm -f "$WORK_DIR/baseline/modules/benchmarks/src/main/java/org/geotools/benchmarks/$benchmark.java"
+done
+
+run_benchmarks "$WORK_DIR/baseline" "$WORK_DIR/baseline.csv" "$@"
+run_benchmarks "$ROOT_DIR" "$WORK_DIR/branch.csv" "$@"
+
+printf "\n\nBaseline: $BASELINE ($(git -C "$ROOT_DIR" rev-parse --short "$BASELINE")), branch: $(git -C "$ROOT_DIR" rev-parse --short HEAD) + working tree\n\n"
+java -cp "$MODULE_DIR/target/benchmarks.jar" org.geotools.benchmarks.CompareResults \
+    "$WORK_DIR/baseline.csv" "$WORK_DIR/branch.csv" | tee "$WORK_DIR/comparison.md"
@@ -0,0 +1,73 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.geotools.TestData;
+
+/**
+ * Extracts the shapefiles shipped in the {@code sample-data} module to a temporary directory.
+ *
+ * <p>The benchmarks run from a self contained jar, where the sample data is not available as plain
+ * files. Copying them out makes sure the shapefile store can use memory mapping and its usual file
+ * based code paths, which is what production setups exercise.
+ */
+public class BenchmarkData {
+
+    static final String[] SHAPEFILE_EXTENSIONS = {"shp", "shx", "dbf", "prj"};
+
+    private final Path directory;
+
+    public BenchmarkData() throws IOException {
+        this.directory = Files.createTempDirectory("gt-benchmarks");
+    }
+
+    /**
+     * Copies the shapefile with the given base name (e.g. {@code statepop}) from the {@code shapes}
+     * sample data directory, and returns the location of the {@code .shp} file
+     */
+    public File shapefile(String name) throws IOException {
+        for (String extension : SHAPEFILE_EXTENSIONS) {
+            String resource = "shapes/" + name + "." + extension;
+            if (TestData.getResource(TestData.class, resource) == null) {
+                // .prj is optional in the sample data
+                continue;
+            }
+            try (InputStream is = TestData.openStream(resource)) {
+                Files.copy(
+                        is,
+                        directory.resolve(name + "." + extension),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return directory.resolve(name + ".shp").toFile();
+    }
+
+    /** Removes the temporary directory and all its contents */
+    public void dispose() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
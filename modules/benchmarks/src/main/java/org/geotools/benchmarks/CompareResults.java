@@ -0,0 +1,173 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with {@code -rf csv}, typically one produced on the
+ * baseline branch and one on the branch under review, and prints a markdown table that can be
+ * pasted in a pull request.
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar org.geotools.benchmarks.CompareResults baseline.csv
+ * branch.csv}
+ */
+public class CompareResults {
+
+    /** A single benchmark score, as found in a JMH CSV result file */
+    static class Result {
+        String mode;
+        double score;
+        double error;
+        String unit;
+
+        /** Throughput modes report operations per time unit, the others time per operation */
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.csv> <branch.csv>");
+            System.exit(1);
+        }
+        Map<String, Result> baseline = parse(args[0]);
+        Map<String, Result> branch = parse(args[1]);
+        print(baseline, branch, System.out);
+    }
+
+    static void print(Map<String, Result> baseline, Map<String, Result> branch, PrintStream out) {
+        out.println("| Benchmark | Mode | Baseline | Branch | Unit | Speedup |");
+        out.println("|---|---|---:|---:|---|---:|");
+        for (Map.Entry<String, Result> entry : branch.entrySet()) {
+            Result current = entry.getValue();
+            Result base = baseline.get(entry.getKey());
+            String speedup = "n/a";
+            String baseScore = "n/a";
+            if (base != null) {
+                baseScore = format(base);
+                double ratio =
+                        current.higherIsBetter()
+                                ? current.score / base.score
+                                : base.score / current.score;
+                // differences within the confidence intervals are just noise
+                boolean significant =
+                        Math.abs(current.score - base.score) > current.error + base.error;
+                speedup =
+                        String.format(Locale.ENGLISH, "%.2fx%s", ratio, significant ? "" : " (~)");
+            }
+            out.println(
+                    "| "
+                            + entry.getKey()
+                            + " | "
+                            + current.mode
+                            + " | "
+                            + baseScore
+                            + " | "
+                            + format(current)
+                            + " | "
+                            + current.unit
+                            + " | "
+                            + speedup
+                            + " |");
+        }
+    }
+
+    private static String format(Result result) {
+        return String.format(Locale.ENGLISH, "%.3f \u00b1 %.3f", result.score, result.error);
+    }
+
+    /** Parses a JMH CSV result file, keyed by benchmark name plus parameter values */
+    static Map<String, Result> parse(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = split(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> values = split(line);
+            StringBuilder key = new StringBuilder(values.get(0));
+            Result result = new Result();
+            for (int i = 1; i < header.size() && i < values.size(); i++) {
+                String column = header.get(i);
+                String value = values.get(i);
+                if ("Mode".equals(column)) {
+                    result.mode = value;
+                } else if ("Score".equals(column)) {
+                    result.score = parseDouble(value);
+                } else if (column.startsWith("Score Error")) {
+                    result.error = parseDouble(value);
+                } else if ("Unit".equals(column)) {
+                    result.unit = value;
+                } else if (column.startsWith("Param: ") && !value.isEmpty()) {
+                    key.append(' ')
+                            .append(column.substring("Param: ".length()))
+                            .append('=')
+                            .append(value);
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double parseDouble(String value) {
+        if (value.isEmpty() || "NaN".equals(value)) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(value);
+    }
+
+    /** Splits a CSV line, honoring double quoted values */
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.filter.Filter;
+import org.geotools.filter.text.ecql.ECQL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures {@link ECQL#toFilter(String)} over a few filters typical of WMS/WFS requests. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ECQLBenchmark {
+
+    @Param({"comparison", "logical", "bbox", "spatial", "function"})
+    public String filter;
+
+    private String cql;
+
+    @Setup
+    public void setup() {
+        switch (filter) {
+            case "comparison":
+                cql = "PERSONS > 1000000";
+                break;
+            case "logical":
+                cql =
+                        "STATE_NAME = 'Texas' OR (PERSONS BETWEEN 100000 AND 2000000 "
+                                + "AND SUB_REGION IN ('Mtn', 'Pacific') AND STATE_ABBR LIKE 'N%')";
+                break;
+            case "bbox":
+                cql = "BBOX(the_geom, -110.5, 35.25, -95.75, 45.5, 'EPSG:4326')";
+                break;
+            case "spatial":
+                cql =
+                        "INTERSECTS(the_geom, POLYGON((-110 35, -95 35, -95 45, -100 47, "
+                                + "-110 45, -110 35))) "
+                                + "AND DWITHIN(the_geom, POINT(-100 40), 10, kilometers)";
+                break;
+            case "function":
+                cql = "strToLowerCase(STATE_NAME) = 'texas' AND area(the_geom) > 10";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter " + filter);
+        }
+    }
+
+    @Benchmark
+    public Filter toFilter() throws Exception {
+        return ECQL.toFilter(cql);
+    }
+}
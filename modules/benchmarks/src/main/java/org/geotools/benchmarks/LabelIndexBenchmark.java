@@ -0,0 +1,166 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.renderer.label.LabelIndex;
+import org.geotools.renderer.lite.RendererUtilities;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the label conflict detection of {@link LabelIndex} in isolation from the rest of the
+ * labelling machinery. Candidate label bounds are generated walking the {@code roads} sample data
+ * lines every few pixels, the same way the label cache walks lines looking for a free spot, so that
+ * the larger map sizes result in a dense road network with tens of thousands of candidates.
+ *
+ * <p>Only the {@link Rectangle2D} based methods are used, as they are available in all versions of
+ * {@link LabelIndex}, so that the results can be compared with older baselines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LabelIndexBenchmark {
+
+    /** Size of the candidate label bounds, in pixels */
+    static final double LABEL_WIDTH = 80, LABEL_HEIGHT = 12;
+
+    /** Distance between candidate positions along a line, in pixels */
+    static final double STEP = 4;
+
+    /** Minimum distance between labels */
+    static final double SPACE_AROUND = 2;
+
+    @Param({"1024", "4096"})
+    public int size;
+
+    /** Candidate bounds, built once so that the measured loops do not allocate */
+    private List<Rectangle2D> candidates;
+
+    /** The index holding the labels placed by a greedy pass over the candidates */
+    private LabelIndex placed;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkData data = new BenchmarkData();
+        ShapefileDataStore store = new ShapefileDataStore(data.shapefile("roads").toURI().toURL());
+        try {
+            SimpleFeatureSource source = store.getFeatureSource();
+            ReferencedEnvelope bounds = source.getBounds();
+            AffineTransform worldToScreen =
+                    RendererUtilities.worldToScreenTransform(
+                            bounds, new Rectangle(0, 0, size, size));
+            candidates = new ArrayList<>();
+            try (SimpleFeatureIterator fi = source.getFeatures().features()) {
+                while (fi.hasNext()) {
+                    Geometry geometry = (Geometry) fi.next().getDefaultGeometry();
+                    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                        addCandidates((LineString) geometry.getGeometryN(i), worldToScreen);
+                    }
+                }
+            }
+        } finally {
+            store.dispose();
+            data.dispose();
+        }
+        placed = place();
+    }
+
+    /** Walks the line in screen space, adding the bounds of a label centered every few pixels */
+    private void addCandidates(LineString line, AffineTransform worldToScreen) {
+        Coordinate[] coordinates = line.getCoordinates();
+        double[] points = new double[coordinates.length * 2];
+        for (int i = 0; i < coordinates.length; i++) {
+            points[i * 2] = coordinates[i].x;
+            points[i * 2 + 1] = coordinates[i].y;
+        }
+        worldToScreen.transform(points, 0, points, 0, coordinates.length);
+
+        double residual = 0;
+        for (int i = 2; i < points.length; i += 2) {
+            double dx = points[i] - points[i - 2];
+            double dy = points[i + 1] - points[i - 1];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length == 0) continue;
+            // half extents of the label rotated along the segment
+            double cos = Math.abs(dx / length), sin = Math.abs(dy / length);
+            double hw = (LABEL_WIDTH * cos + LABEL_HEIGHT * sin) / 2;
+            double hh = (LABEL_WIDTH * sin + LABEL_HEIGHT * cos) / 2;
+            double position = residual;
+            for (; position < length; position += STEP) {
+                double x = points[i - 2] + dx * position / length;
+                double y = points[i - 1] + dy * position / length;
+                candidates.add(new Rectangle2D.Double(x - hw, y - hh, hw * 2, hh * 2));
+            }
+            residual = position - length;
+        }
+    }
+
+    /** Greedy placement, each candidate not conflicting with the already placed ones is placed */
+    private LabelIndex place() {
+        LabelIndex index = new LabelIndex();
+        for (Rectangle2D candidate : candidates) {
+            if (!index.labelsWithinDistance(candidate, SPACE_AROUND)) {
+                index.addLabel(null, candidate);
+            }
+        }
+        return index;
+    }
+
+    /** Collision tests only, against the placed labels */
+    @Benchmark
+    public int collisionTests() {
+        int collisions = 0;
+        for (Rectangle2D candidate : candidates) {
+            if (placed.labelsWithinDistance(candidate, SPACE_AROUND)) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
+
+    /** Collision tests and insertions, as performed by the label cache while placing labels */
+    @Benchmark
+    public LabelIndex placement() {
+        return place();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.awt.geom.AffineTransform;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.parameter.ParameterValueGroup;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.referencing.operation.DefaultMathTransformFactory;
+import org.geotools.referencing.operation.transform.ProjectiveTransform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the bulk {@link MathTransform#transform(double[], int, double[], int, int)} path of the
+ * transforms created by {@link DefaultMathTransformFactory}, both standalone and concatenated with
+ * an axis swapping affine, as it happens when the source CRS is in latitude/longitude order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MathTransformBenchmark {
+
+    @Param({
+        "Transverse_Mercator",
+        "Mercator_1SP",
+        "Lambert_Conformal_Conic_2SP",
+        "Albers_Conic_Equal_Area",
+        "Ellipsoid_To_Geocentric"
+    })
+    public String method;
+
+    @Param({"false", "true"})
+    public boolean concatenated;
+
+    @Param({"10000"})
+    public int points;
+
+    private MathTransform transform;
+
+    private double[] source;
+
+    private double[] target;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        DefaultMathTransformFactory factory = new DefaultMathTransformFactory();
+        ParameterValueGroup parameters = factory.getDefaultParameters(method);
+        parameters.parameter("semi_major").setValue(6378137.0);
+        parameters.parameter("semi_minor").setValue(6356752.314245179);
+        if ("Transverse_Mercator".equals(method)) {
+            parameters.parameter("central_meridian").setValue(9);
+            parameters.parameter("scale_factor").setValue(0.9996);
+            parameters.parameter("false_easting").setValue(500000);
+        } else if ("Lambert_Conformal_Conic_2SP".equals(method)) {
+            parameters.parameter("central_meridian").setValue(3);
+            parameters.parameter("latitude_of_origin").setValue(46.5);
+            parameters.parameter("standard_parallel_1").setValue(49);
+            parameters.parameter("standard_parallel_2").setValue(44);
+        } else if ("Albers_Conic_Equal_Area".equals(method)) {
+            parameters.parameter("longitude_of_center").setValue(10);
+            parameters.parameter("latitude_of_center").setValue(30);
+            parameters.parameter("standard_parallel_1").setValue(43);
+            parameters.parameter("standard_parallel_2").setValue(62);
+        }
+        transform = factory.createParameterizedTransform(parameters);
+        if (concatenated) {
+            MathTransform swap = ProjectiveTransform.create(new AffineTransform(0, 1, 1, 0, 0, 0));
+            transform = factory.createConcatenatedTransform(swap, transform);
+        }
+
+        // random points over central Europe, between 5E-15E and 40N-50N
+        Random random = new Random(0);
+        source = new double[points * 2];
+        for (int i = 0; i < points; i++) {
+            double lon = 5 + random.nextDouble() * 10;
+            double lat = 40 + random.nextDouble() * 10;
+            source[i * 2] = concatenated ? lat : lon;
+            source[i * 2 + 1] = concatenated ? lon : lat;
+        }
+        target = new double[points * transform.getTargetDimensions()];
+    }
+
+    @Benchmark
+    public double[] transform() throws Exception {
+        transform.transform(source, 0, target, 0, points);
+        return target;
+    }
+}
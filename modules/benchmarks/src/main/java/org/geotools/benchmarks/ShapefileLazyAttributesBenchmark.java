@@ -0,0 +1,92 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a shapefile feature scan accessing a single attribute, with and without the lazy
+ * decoding of the DBF attributes enabled by {@link ShapefileDataStore#setLazyAttributes(boolean)}.
+ *
+ * <p>This benchmark uses an API missing in older versions, so {@code compare.sh} does not build it
+ * on the baseline, compare the two parameter values of the branch run instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShapefileLazyAttributesBenchmark {
+
+    @Param({"statepop", "roads"})
+    public String shapefile;
+
+    /** Decode DBF attributes only when accessed, the feature scan uses just one of them */
+    @Param({"false", "true"})
+    public boolean lazyAttributes;
+
+    private BenchmarkData data;
+
+    private ShapefileDataStore store;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        data = new BenchmarkData();
+        store = new ShapefileDataStore(data.shapefile(shapefile).toURI().toURL());
+        store.setLazyAttributes(lazyAttributes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.dispose();
+        data.dispose();
+    }
+
+    @Benchmark
+    public void readFeatures(Blackhole bh) throws Exception {
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                store.getFeatureReader(
+                        new Query(store.getTypeNames()[0]), Transaction.AUTO_COMMIT)) {
+            while (reader.hasNext()) {
+                SimpleFeature feature = reader.next();
+                bh.consume(feature.getDefaultGeometry());
+                bh.consume(feature.getAttribute(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.shapefile.dbf.DbaseFileReader;
+import org.geotools.data.shapefile.files.ShpFiles;
+import org.geotools.data.shapefile.shp.ShapefileReader;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a full scan of a sample data shapefile, both through the data store feature reader
+ * (geometry and attributes) and through the low level {@link ShapefileReader} and {@link
+ * DbaseFileReader} in isolation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShapefileReaderBenchmark {
+
+    @Param({"statepop", "roads"})
+    public String shapefile;
+
+    @Param({"true", "false"})
+    public boolean memoryMapped;
+
+    private BenchmarkData data;
+
+    private File file;
+
+    private ShapefileDataStore store;
+
+    private GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        data = new BenchmarkData();
+        file = data.shapefile(shapefile);
+        store = new ShapefileDataStore(file.toURI().toURL());
+        store.setMemoryMapped(memoryMapped);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.dispose();
+        data.dispose();
+    }
+
+    @Benchmark
+    public void readFeatures(Blackhole bh) throws Exception {
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                store.getFeatureReader(
+                        new Query(store.getTypeNames()[0]), Transaction.AUTO_COMMIT)) {
+            while (reader.hasNext()) {
+                SimpleFeature feature = reader.next();
+                bh.consume(feature.getDefaultGeometry());
+                bh.consume(feature.getAttribute(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readGeometries(Blackhole bh) throws Exception {
+        ShpFiles files = new ShpFiles(file);
+        try (ShapefileReader reader =
+                new ShapefileReader(files, true, memoryMapped, geometryFactory)) {
+            while (reader.hasNext()) {
+                bh.consume(reader.nextRecord().shape());
+            }
+        } finally {
+            files.dispose();
+        }
+    }
+
+    @Benchmark
+    public void readAttributes(Blackhole bh) throws Exception {
+        ShpFiles files = new ShpFiles(file);
+        try (DbaseFileReader reader =
+                new DbaseFileReader(files, memoryMapped, StandardCharsets.ISO_8859_1)) {
+            Object[] entry = new Object[reader.getHeader().getNumFields()];
+            while (reader.hasNext()) {
+                bh.consume(reader.readEntry(entry));
+            }
+        } finally {
+            files.dispose();
+        }
+    }
+}
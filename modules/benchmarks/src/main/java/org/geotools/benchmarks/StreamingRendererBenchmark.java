@@ -0,0 +1,141 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.style.Style;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.renderer.lite.StreamingRenderer;
+import org.geotools.styling.SLD;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link StreamingRenderer#paint(Graphics2D, Rectangle, ReferencedEnvelope)} over the
+ * {@code statepop} polygons and {@code roads} lines of the sample data, optionally with labels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamingRendererBenchmark {
+
+    @Param({"256", "1024"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean labels;
+
+    private BenchmarkData data;
+
+    private ShapefileDataStore states;
+
+    private ShapefileDataStore roads;
+
+    private MapContent statesMap;
+
+    private MapContent roadsMap;
+
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        data = new BenchmarkData();
+        states = openStore(data.shapefile("statepop"));
+        roads = openStore(data.shapefile("roads"));
+
+        SimpleFeatureSource statesSource = states.getFeatureSource();
+        SimpleFeatureSource roadsSource = roads.getFeatureSource();
+        Style statesStyle =
+                SLD.createPolygonStyle(
+                        Color.DARK_GRAY, Color.ORANGE, 0.5f, labels ? "STATE_NAME" : null, null);
+        Style roadsStyle = SLD.createLineStyle(Color.BLUE, 2, labels ? "CAT_DESC" : null, null);
+
+        statesMap = new MapContent();
+        statesMap.addLayer(new FeatureLayer(statesSource, statesStyle));
+        roadsMap = new MapContent();
+        roadsMap.addLayer(new FeatureLayer(roadsSource, roadsStyle));
+
+        image = new BufferedImage(size, size, BufferedImage.TYPE_4BYTE_ABGR);
+    }
+
+    private static ShapefileDataStore openStore(File file) throws Exception {
+        ShapefileDataStore store = new ShapefileDataStore(file.toURI().toURL());
+        store.setMemoryMapped(true);
+        return store;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        statesMap.dispose();
+        roadsMap.dispose();
+        states.dispose();
+        roads.dispose();
+        data.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintStates() throws Exception {
+        return paint(statesMap, states.getFeatureSource().getBounds());
+    }
+
+    @Benchmark
+    public BufferedImage paintRoads() throws Exception {
+        return paint(roadsMap, roads.getFeatureSource().getBounds());
+    }
+
+    private BufferedImage paint(MapContent mapContent, ReferencedEnvelope envelope) {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mapContent);
+        renderer.setJava2DHints(
+                new RenderingHints(
+                        RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
+
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, size, size);
+            renderer.paint(graphics, new Rectangle(size, size), envelope);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Decodes the values of a geometry column, row after row, for a single query. Instances are created
+ * by {@link SQLDialect#createGeometryDecoder} before reading the first row, allowing dialects to
+ * take once the decisions that depend only on the column and query, and to reuse parsers and
+ * buffers across rows.
+ *
+ * <p>Implementations are not required to be thread safe, as a decoder is used by a single reader.
+ */
+@FunctionalInterface
+public interface GeometryDecoder {
+
+    /**
+     * Decodes the geometry found in the specified column of the current result set row.
+     *
+     * @param rs The result set, positioned on the row to be decoded
+     * @param column The column index, starting from 1
+     * @return The decoded geometry, or null if the column value is null
+     */
+    Geometry decode(ResultSet rs, int column) throws IOException, SQLException;
+}
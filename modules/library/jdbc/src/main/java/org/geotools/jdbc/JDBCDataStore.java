@@ -90,12 +90,16 @@
 import org.geotools.feature.AttributeTypeBuilder;
 import org.geotools.feature.NameImpl;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.FeatureCalc;
+import org.geotools.feature.visitor.GroupByAggregatesVisitor;
 import org.geotools.feature.visitor.GroupByVisitor;
 import org.geotools.feature.visitor.LimitingVisitor;
 import org.geotools.feature.visitor.UniqueCountVisitor;
 import org.geotools.feature.visitor.UniqueVisitor;
 import org.geotools.filter.FilterCapabilities;
+import org.geotools.filter.visitor.DefaultFilterVisitor;
 import org.geotools.filter.visitor.ExpressionTypeVisitor;
 import org.geotools.filter.visitor.PostPreProcessFilterSplittingVisitor;
 import org.geotools.geometry.jts.CurvedGeometry;
@@ -219,6 +223,23 @@ public final class JDBCDataStore extends ContentDataStore implements GmlObjectSt
     /** Max number of ids to use for the optimized locks checking filter. */
     public static final int MAX_IDS_IN_FILTER = 100;
 
+    /**
+     * Query hints used in the generation of the SQL selecting features, besides the dialect ones
+     */
+    private static final Set<Hints.Key> SQL_HINTS =
+            Set.of(
+                    Hints.GEOMETRY_GENERALIZATION,
+                    Hints.GEOMETRY_SIMPLIFICATION,
+                    Hints.FEATURE_2D,
+                    Hints.VIRTUAL_TABLE_PARAMETERS);
+
+    /**
+     * Query hints whose values are inlined in the SQL and are expected to change at every request,
+     * such as the per tile clip envelope, the SQL of queries using them is not cached
+     */
+    private static final Set<Hints.Key> PER_REQUEST_SQL_HINTS =
+            Set.of(Hints.GEOMETRY_CLIP_ENVELOPE);
+
     /** data source */
     protected DataSource dataSource;
 
@@ -295,6 +316,15 @@ public final class JDBCDataStore extends ContentDataStore implements GmlObjectSt
 
     protected JDBCCallbackFactory callbackFactory = JDBCCallbackFactory.NULL;
 
+    /**
+     * Caches the SQL generated for feature queries, available only with {@link
+     * PreparedStatementSQLDialect prepared statement dialects}
+     */
+    protected volatile SQLStatementCache statementCache;
+
+    /** Maximum number of cached SQL statements */
+    private int statementCacheSize = SQLStatementCache.DEFAULT_MAX_SIZE;
+
     private volatile NamePatternEscaping namePatternEscaping;
 
     public JDBCDataStore() {
@@ -325,6 +355,7 @@ public JDBCFeatureSource getAbsoluteFeatureSource(String typeName) throws IOExce
     public void createVirtualTable(VirtualTable vtable) throws IOException {
         try {
             virtualTables.put(vtable.getName(), new VirtualTable(vtable));
+            clearStatementCache();
             // the new vtable might be overriding a previous definition
             entries.remove(new NameImpl(namespaceURI, vtable.getName()));
             getSchema(vtable.getName());
@@ -345,6 +376,7 @@ public VirtualTable dropVirtualTable(String name) {
         VirtualTable vt = virtualTables.remove(name);
         if (vt != null) {
             entries.remove(new NameImpl(namespaceURI, name));
+            clearStatementCache();
         }
         return vt;
     }
@@ -382,6 +414,34 @@ public void setFetchSize(int fetchSize) {
         this.fetchSize = fetchSize;
     }
 
+    /**
+     * The cache of the SQL generated for feature queries, which also provides hit and miss
+     * statistics, or null if the dialect is not a {@link PreparedStatementSQLDialect}, as the SQL
+     * of the other dialects contains the query literals.
+     */
+    public SQLStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Sets the maximum number of SQL statements cached for feature queries, zero or less disables
+     * the cache.
+     */
+    public void setStatementCacheSize(int size) {
+        this.statementCacheSize = size;
+        SQLStatementCache cache = statementCache;
+        if (cache != null) {
+            cache.setMaxSize(size);
+        }
+    }
+
+    private void clearStatementCache() {
+        SQLStatementCache cache = statementCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     /** @return the number of features to bufferize while inserting in order to do batch inserts. */
     public int getBatchInsertSize() {
         return batchInsertSize;
@@ -440,6 +500,10 @@ public void setSQLDialect(SQLDialect dialect) {
         }
 
         this.dialect = dialect;
+        this.statementCache =
+                dialect instanceof PreparedStatementSQLDialect
+                        ? new SQLStatementCache(statementCacheSize)
+                        : null;
     }
 
     /**
@@ -507,6 +571,7 @@ public String getDatabaseSchema() {
      */
     public void setDatabaseSchema(String databaseSchema) {
         this.databaseSchema = databaseSchema;
+        clearStatementCache();
     }
 
     /**
@@ -1423,6 +1488,55 @@ protected int getCount(SimpleFeatureType featureType, Query query, Connection cx
         return v.getCount();
     }
 
+    /**
+     * Returns the minimum and maximum value of a primary key column, among the rows matching the
+     * filter, or null if no row matches. Used to split scans in ranges.
+     */
+    Number[] getPrimaryKeyRange(
+            SimpleFeatureType featureType, PrimaryKeyColumn column, Filter filter, Connection cx)
+            throws IOException {
+        StringBuffer sql = new StringBuffer("SELECT min(");
+        dialect.encodeColumnName(null, column.getName(), sql);
+        sql.append("), max(");
+        dialect.encodeColumnName(null, column.getName(), sql);
+        sql.append(") FROM ");
+        Statement st = null;
+        ResultSet rs = null;
+        try {
+            encodeTableName(featureType.getTypeName(), sql, null);
+            FilterToSQL toSQL = null;
+            if (filter != null && !Filter.INCLUDE.equals(filter)) {
+                sql.append(" WHERE ");
+                toSQL = filter(featureType, filter, sql);
+            }
+            LOGGER.fine(sql.toString());
+
+            if (dialect instanceof PreparedStatementSQLDialect) {
+                PreparedStatement ps = cx.prepareStatement(sql.toString());
+                st = ps;
+                if (toSQL != null) {
+                    setPreparedFilterValues(ps, (PreparedFilterToSQL) toSQL, 0, cx);
+                }
+                rs = ps.executeQuery();
+            } else {
+                st = cx.createStatement();
+                rs = st.executeQuery(sql.toString());
+            }
+
+            if (!rs.next()) {
+                return null;
+            }
+            Number min = (Number) rs.getObject(1);
+            Number max = (Number) rs.getObject(2);
+            return min == null || max == null ? null : new Number[] {min, max};
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            closeSafe(rs);
+            closeSafe(st);
+        }
+    }
+
     /**
      * Results the value of an aggregate function over a query.
      *
@@ -1431,6 +1545,10 @@ protected int getCount(SimpleFeatureType featureType, Query query, Connection cx
     protected Object getAggregateValue(
             FeatureVisitor visitor, SimpleFeatureType featureType, Query query, Connection cx)
             throws IOException {
+        if (visitor instanceof GroupByAggregatesVisitor) {
+            return getGroupByAggregatesValue(
+                    (GroupByAggregatesVisitor) visitor, featureType, query, cx);
+        }
         // check if group by is supported by the underlying store
         if (isGroupByVisitor(visitor)
                 && (!dialect.isGroupBySupported()
@@ -1567,6 +1685,197 @@ protected Object getAggregateValue(
         }
     }
 
+    /**
+     * Computes the groups of a {@link GroupByAggregatesVisitor} with a single query, grouping and
+     * computing all the aggregates in the database. The having filter, if any, is encoded as a
+     * filter on the grouping sub-query.
+     *
+     * @return the result rows, or null if the visitor cannot be fully encoded in SQL
+     */
+    private Object getGroupByAggregatesValue(
+            GroupByAggregatesVisitor visitor,
+            SimpleFeatureType featureType,
+            Query query,
+            Connection cx)
+            throws IOException {
+        if (!dialect.isGroupBySupported()
+                || !query.getJoins().isEmpty()
+                || checkLimitOffset(query.getStartIndex(), query.getMaxFeatures())) {
+            return null;
+        }
+        FilterCapabilities caps = getFilterCapabilities();
+        PostPreProcessFilterSplittingVisitor splitter =
+                new PostPreProcessFilterSplittingVisitor(caps, featureType, null);
+        query.getFilter().accept(splitter, null);
+        if (!splitter.getFilterPost().equals(Filter.INCLUDE)) {
+            return null;
+        }
+
+        // group by values are read back as plain values, no geometries
+        ExpressionTypeVisitor typeVisitor = new ExpressionTypeVisitor(featureType);
+        for (Expression groupBy : visitor.getGroupByAttributes()) {
+            Class<?> type = (Class<?>) groupBy.accept(typeVisitor, null);
+            if (!fullySupports(groupBy) || type != null && Geometry.class.isAssignableFrom(type)) {
+                return null;
+            }
+        }
+
+        // match the aggregates with SQL functions
+        List<String> functions = new ArrayList<>();
+        List<Expression> expressions = new ArrayList<>();
+        List<java.util.function.Function<Object, Object>> converters = new ArrayList<>();
+        for (GroupByAggregatesVisitor.Aggregation aggregation : visitor.getAggregations()) {
+            FeatureCalc calc = aggregation.getAggregate().create(aggregation.getExpression());
+            String function = getAggregateFunctions().get(calc.getClass());
+            if (function == null || isEncodeOnceFunction(function)) {
+                return null;
+            }
+            Expression expression = null;
+            if (!(calc instanceof CountVisitor)) {
+                List<Expression> calcExpressions = getExpressions(calc);
+                if (calcExpressions == null
+                        || calcExpressions.size() != 1
+                        || !fullySupports(calcExpressions)) {
+                    return null;
+                }
+                expression = calcExpressions.get(0);
+            }
+            functions.add(function);
+            expressions.add(expression);
+            converters.add(dialect.getAggregateConverter(calc, featureType));
+        }
+
+        // the having filter works against the group values. The group type is named after the
+        // table, as setting up the filter encoder requires looking up its primary key
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.init(visitor.getGroupFeatureType(featureType));
+        tb.setName(featureType.getName());
+        SimpleFeatureType groupType = tb.buildFeatureType();
+        if (!Filter.INCLUDE.equals(visitor.getHaving())) {
+            PostPreProcessFilterSplittingVisitor havingSplitter =
+                    new PostPreProcessFilterSplittingVisitor(caps, groupType, null);
+            visitor.getHaving().accept(havingSplitter, null);
+            if (!havingSplitter.getFilterPost().equals(Filter.INCLUDE)) {
+                return null;
+            }
+        }
+
+        int groupCount = visitor.getGroupByAttributes().size();
+        Statement st = null;
+        ResultSet rs = null;
+        try {
+            StringBuffer sql = new StringBuffer();
+            List<FilterToSQL> toSQL =
+                    selectGroupByAggregatesSQL(
+                            visitor, functions, expressions, featureType, groupType, query, sql);
+            LOGGER.fine(sql.toString());
+            if (dialect instanceof PreparedStatementSQLDialect) {
+                PreparedStatement ps =
+                        cx.prepareStatement(
+                                sql.toString(),
+                                ResultSet.TYPE_FORWARD_ONLY,
+                                ResultSet.CONCUR_READ_ONLY);
+                st = ps;
+                ps.setFetchSize(fetchSize);
+                setPreparedFilterValues(ps, toSQL, cx);
+                rs = ps.executeQuery();
+            } else {
+                st = cx.createStatement();
+                st.setFetchSize(fetchSize);
+                rs = st.executeQuery(sql.toString());
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                Object[] row = new Object[groupCount + functions.size()];
+                for (int i = 0; i < groupCount; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                for (int i = 0; i < functions.size(); i++) {
+                    row[groupCount + i] = converters.get(i).apply(rs.getObject(groupCount + i + 1));
+                }
+                rows.add(row);
+            }
+            visitor.setValue(rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            closeSafe(rs);
+            closeSafe(st);
+        }
+    }
+
+    /**
+     * Encodes the query computing the groups of a {@link GroupByAggregatesVisitor}, returning the
+     * filter encoders used, in the order they appear in the query.
+     */
+    List<FilterToSQL> selectGroupByAggregatesSQL(
+            GroupByAggregatesVisitor visitor,
+            List<String> functions,
+            List<Expression> expressions,
+            SimpleFeatureType featureType,
+            SimpleFeatureType groupType,
+            Query query,
+            StringBuffer sql)
+            throws SQLException, IOException {
+        List<FilterToSQL> toSQL = new ArrayList<>();
+        List<Expression> groupByExpressions = visitor.getGroupByAttributes();
+        List<String> groupByNames = visitor.getGroupByNames();
+        List<GroupByAggregatesVisitor.Aggregation> aggregations = visitor.getAggregations();
+        sql.append("SELECT ");
+        FilterToSQL selectToSQL = getFilterToSQL(featureType);
+        try {
+            for (int i = 0; i < groupByExpressions.size(); i++) {
+                sql.append(selectToSQL.encodeToString(groupByExpressions.get(i)));
+                sql.append(" AS ");
+                dialect.encodeColumnName(null, groupByNames.get(i), sql);
+                sql.append(", ");
+            }
+        } catch (FilterToSQLException e) {
+            throw new RuntimeException("Failed to encode group by expressions", e);
+        }
+        for (int i = 0; i < functions.size(); i++) {
+            Expression expression = expressions.get(i);
+            encodeFunction(
+                    functions.get(i),
+                    expression == null ? null : Arrays.asList(expression),
+                    sql,
+                    selectToSQL);
+            sql.append(" AS ");
+            dialect.encodeColumnName(null, aggregations.get(i).getName(), sql);
+            sql.append(", ");
+        }
+        sql.setLength(sql.length() - 2);
+        toSQL.add(selectToSQL);
+
+        sql.append(" FROM ");
+        encodeTableName(featureType.getTypeName(), sql, setKeepWhereClausePlaceHolderHint(query));
+        Filter filter = query.getFilter();
+        if (filter != null && !Filter.INCLUDE.equals(filter)) {
+            sql.append(" WHERE ");
+            toSQL.add(filter(featureType, filter, sql));
+        }
+
+        FilterToSQL groupByToSQL = getFilterToSQL(featureType);
+        encodeGroupByStatement(groupByExpressions, sql, groupByToSQL, false);
+        toSQL.add(groupByToSQL);
+
+        // filter the groups wrapping the grouping query, as the having filter refers to the
+        // aliases of the grouped values
+        Filter having = visitor.getHaving();
+        if (!Filter.INCLUDE.equals(having)) {
+            sql.insert(0, "SELECT * FROM (");
+            sql.append(")");
+            dialect.encodeTableAlias("gt_grouped_", sql);
+            sql.append(" WHERE ");
+            FilterToSQL havingToSQL = getFilterToSQL(groupType);
+            toSQL.add(filter(groupType, having, sql, havingToSQL));
+        }
+
+        return toSQL;
+    }
+
     private static boolean isSortAttributesPartOfUnique(UniqueVisitor visitor, Query query) {
         Set<String> uniqueAttributes = new HashSet<>(visitor.getAttrNames());
         Set<String> sortAttributes =
@@ -1906,6 +2215,9 @@ protected void insert(
         // first to figure out what the id will be, then the insert statement
         synchronized (this) {
             try {
+                if (features.size() > 1 && dialect.isBulkInsertSupported(featureType)) {
+                    features = insertBulk(features, featureType, cx, key);
+                }
                 if (dialect instanceof PreparedStatementSQLDialect) {
                     Map<InsertionClassifier, Collection<SimpleFeature>> kinds =
                             InsertionClassifier.classify(featureType, features);
@@ -2008,6 +2320,223 @@ private void insertPS(
         }
     }
 
+    /**
+     * Bulk insertion, for dialects supporting it. Features whose keys cannot be computed before the
+     * insert are not inserted, and returned to be handled by the regular insert path.
+     */
+    private List<SimpleFeature> insertBulk(
+            Collection<? extends SimpleFeature> features,
+            SimpleFeatureType featureType,
+            Connection cx,
+            PrimaryKey key)
+            throws IOException, SQLException {
+        List<SimpleFeature> useExistings = new ArrayList<>();
+        List<SimpleFeature> notUseExistings = new ArrayList<>();
+        for (SimpleFeature cur : features) {
+            (InsertionClassifier.useExisting(cur) ? useExistings : notUseExistings).add(cur);
+        }
+
+        List<SimpleFeature> remaining = new ArrayList<>();
+        for (List<SimpleFeature> group : Arrays.asList(useExistings, notUseExistings)) {
+            if (group.isEmpty()) {
+                continue;
+            }
+            KeysFetcher keysFetcher = KeysFetcher.create(this, cx, group == useExistings, key);
+            if (keysFetcher.isBulkInsertSupported()) {
+                insertBulk(group, featureType, cx, keysFetcher);
+            } else {
+                remaining.addAll(group);
+            }
+        }
+        return remaining;
+    }
+
+    private void insertBulk(
+            List<SimpleFeature> features,
+            SimpleFeatureType featureType,
+            Connection cx,
+            KeysFetcher keysFetcher)
+            throws IOException, SQLException {
+        List<String> columns = new ArrayList<>();
+        List<AttributeDescriptor> descriptors = new ArrayList<>();
+        for (AttributeDescriptor att : featureType.getAttributeDescriptors()) {
+            // skip the pk columns in case we have exposed them, we grab the
+            // value from the pk itself
+            if (!keysFetcher.isKey(att.getLocalName())) {
+                columns.add(att.getLocalName());
+                descriptors.add(att);
+            }
+        }
+        for (String keyColumn : keysFetcher.getColumnNames()) {
+            columns.add(keyColumn);
+            descriptors.add(null);
+        }
+
+        List<List<Object>> keyValues = keysFetcher.setBulkKeyValues(cx, featureType, features);
+        List<Object[]> rows = new ArrayList<>(features.size());
+        for (int f = 0; f < features.size(); f++) {
+            SimpleFeature feature = features.get(f);
+            Object[] row = new Object[columns.size()];
+            int i = 0;
+            for (AttributeDescriptor att : descriptors) {
+                if (att == null) {
+                    break;
+                }
+                String colName = att.getLocalName();
+                Class<?> binding = att.getType().getBinding();
+                Object value = feature.getAttribute(colName);
+                if (value == null && !att.isNillable()) {
+                    throw new IOException(
+                            "Cannot set a NULL value on the not null column " + colName);
+                }
+                EnumMapper mapper = (EnumMapper) att.getUserData().get(JDBCDataStore.JDBC_ENUM_MAP);
+                if (Geometry.class.isAssignableFrom(binding)) {
+                    value = linearize(value, binding);
+                } else if (mapper != null) {
+                    value = mapper.fromString((String) value);
+                }
+                row[i++] = value;
+            }
+            for (Object keyValue : keyValues.get(f)) {
+                row[i++] = keyValue;
+            }
+            rows.add(row);
+        }
+
+        LOGGER.log(
+                Level.FINE,
+                "Bulk inserting {0} features into {1}",
+                new Object[] {features.size(), featureType.getTypeName()});
+        dialect.insertBulk(featureType, columns, descriptors, rows, cx);
+    }
+
+    /**
+     * Inserts the rows prepared for a {@linkplain SQLDialect#insertBulk bulk insert} one at a time,
+     * with regular insert statements. Used by the dialects lacking a bulk loading facility.
+     */
+    void insertRows(
+            SimpleFeatureType featureType,
+            List<String> columns,
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows,
+            Connection cx)
+            throws IOException, SQLException {
+        StringBuffer header = new StringBuffer();
+        header.append("INSERT INTO ");
+        encodeTableName(featureType.getTypeName(), header, null);
+        header.append(" ( ");
+        for (String column : columns) {
+            dialect.encodeColumnName(null, column, header);
+            header.append(",");
+        }
+        header.setLength(header.length() - 1);
+        header.append(" ) VALUES ( ");
+
+        if (dialect instanceof PreparedStatementSQLDialect) {
+            for (Object[] row : rows) {
+                insertRowPS(featureType, header, descriptors, row, cx);
+            }
+        } else {
+            BasicSQLDialect dialect = (BasicSQLDialect) this.dialect;
+            Statement st = cx.createStatement();
+            try {
+                for (Object[] row : rows) {
+                    StringBuffer sql = new StringBuffer(header);
+                    for (int i = 0; i < row.length; i++) {
+                        AttributeDescriptor att = descriptors.get(i);
+                        Object value = row[i];
+                        if (value == null) {
+                            sql.append("null");
+                        } else if (value instanceof Geometry) {
+                            Geometry g = (Geometry) value;
+                            int srid = getGeometrySRID(g, att);
+                            int dimension = getGeometryDimension(g, att);
+                            dialect.encodeGeometryValue(g, dimension, srid, sql);
+                        } else {
+                            dialect.encodeValue(value, getRowBinding(att, value), sql);
+                        }
+                        sql.append(",");
+                    }
+                    sql.setLength(sql.length() - 1);
+                    sql.append(")");
+
+                    dialect.onInsert(st, cx, featureType);
+                    LOGGER.log(Level.FINE, "Inserting new feature: {0}", sql);
+                    st.executeUpdate(sql.toString());
+                }
+            } finally {
+                closeSafe(st);
+            }
+        }
+    }
+
+    /** Inserts a single row prepared for a bulk insert, with a prepared statement */
+    private void insertRowPS(
+            SimpleFeatureType featureType,
+            StringBuffer header,
+            List<AttributeDescriptor> descriptors,
+            Object[] row,
+            Connection cx)
+            throws IOException, SQLException {
+        PreparedStatementSQLDialect dialect = (PreparedStatementSQLDialect) this.dialect;
+        StringBuffer sql = new StringBuffer(header);
+        for (int i = 0; i < row.length; i++) {
+            AttributeDescriptor att = descriptors.get(i);
+            if (att instanceof GeometryDescriptor) {
+                Class<? extends Geometry> geometryClass =
+                        row[i] == null ? null : ((Geometry) row[i]).getClass();
+                dialect.prepareGeometryValue(
+                        geometryClass,
+                        getDescriptorDimension(att),
+                        getDescriptorSRID(att),
+                        att.getType().getBinding(),
+                        sql);
+            } else {
+                sql.append("?");
+            }
+            sql.append(",");
+        }
+        sql.setLength(sql.length() - 1);
+        sql.append(")");
+
+        LOGGER.log(Level.FINE, "Inserting new feature with ps: {0}", sql);
+        PreparedStatement ps = cx.prepareStatement(sql.toString());
+        try {
+            for (int i = 0; i < row.length; i++) {
+                AttributeDescriptor att = descriptors.get(i);
+                Object value = row[i];
+                if (att instanceof GeometryDescriptor) {
+                    Geometry g = (Geometry) value;
+                    int srid = getGeometrySRID(g, att);
+                    int dimension = getGeometryDimension(g, att);
+                    Class<?> binding = att.getType().getBinding();
+                    dialect.setGeometryValue(g, dimension, srid, binding, ps, i + 1);
+                } else if (att != null && this.dialect.isArray(att)) {
+                    dialect.setArrayValue(value, att, ps, i + 1, cx);
+                } else {
+                    dialect.setValue(value, getRowBinding(att, value), att, ps, i + 1, cx);
+                }
+            }
+            dialect.onInsert(ps, cx, featureType);
+            ps.executeUpdate();
+        } finally {
+            closeSafe(ps);
+        }
+    }
+
+    /**
+     * Returns the binding of a value prepared for a bulk insert, enumerations are already mapped to
+     * their integer codes, and the key columns have no descriptor
+     */
+    private Class<?> getRowBinding(AttributeDescriptor att, Object value) {
+        if (att == null) {
+            return value == null ? Object.class : value.getClass();
+        } else if (att.getUserData().get(JDBCDataStore.JDBC_ENUM_MAP) != null) {
+            return Integer.class;
+        }
+        return att.getType().getBinding();
+    }
+
     @SuppressWarnings("unchecked")
     private Geometry linearize(Object value, Class<?> binding) {
         Geometry g = (Geometry) value;
@@ -3543,6 +4072,41 @@ private String[] getSQLTypeNames(List<AttributeDescriptor> descriptors, Connecti
      */
     protected String selectSQL(SimpleFeatureType featureType, Query query)
             throws IOException, SQLException {
+        String filterSql = null;
+        Filter filter = query.getFilter();
+        if (filter != null && !Filter.INCLUDE.equals(filter)) {
+            SimpleFeatureType fullSchema = getSchema(featureType.getTypeName());
+            filterSql = encodeFilter(getFilterToSQL(fullSchema), filter);
+        }
+        return getSelectSQL(featureType, query, filterSql, null);
+    }
+
+    /**
+     * Returns the SQL selecting the features, from the cache if possible
+     *
+     * @param filterSql the encoded filter, or null if there is no filter
+     * @param cache the statement cache, or null if the SQL cannot be cached
+     */
+    private String getSelectSQL(
+            SimpleFeatureType featureType, Query query, String filterSql, SQLStatementCache cache)
+            throws IOException, SQLException {
+        SQLStatementCache.SelectKey key = null;
+        if (cache != null) {
+            key =
+                    new SQLStatementCache.SelectKey(
+                            featureType.getTypeName(),
+                            featureType.getAttributeDescriptors(),
+                            filterSql,
+                            query.getSortBy(),
+                            query.getStartIndex(),
+                            query.getMaxFeatures(),
+                            getSQLHints(query.getHints()));
+            String sql = cache.get(key);
+            if (sql != null) {
+                return sql;
+            }
+        }
+
         StringBuffer sql = new StringBuffer();
         sql.append("SELECT ");
 
@@ -3556,11 +4120,9 @@ protected String selectSQL(SimpleFeatureType featureType, Query query)
         encodeTableName(featureType.getTypeName(), sql, setKeepWhereClausePlaceHolderHint(query));
 
         // filtering
-        Filter filter = query.getFilter();
-        if (filter != null && !Filter.INCLUDE.equals(filter)) {
+        if (filterSql != null) {
             sql.append(" WHERE ");
-            // encode filter
-            filter(featureType, filter, sql);
+            appendFilter(filterSql, sql);
         }
 
         // sorting
@@ -3572,7 +4134,69 @@ protected String selectSQL(SimpleFeatureType featureType, Query query)
         // add search hints if the dialect supports them
         applySearchHints(featureType, query, sql);
 
-        return sql.toString();
+        String result = sql.toString();
+        if (key != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the statement cache if the SQL of the prepared query can be cached, that is, the
+     * encoded filter contains only bind parameters, and there are no hints whose value is inlined
+     * at each request, null otherwise.
+     */
+    private SQLStatementCache getStatementCacheFor(
+            Query query, Filter filter, PreparedFilterToSQL toSQL) {
+        SQLStatementCache cache = statementCache;
+        if (cache == null || !cache.isEnabled()) {
+            return null;
+        }
+        Hints hints = query.getHints();
+        if (hints != null && PER_REQUEST_SQL_HINTS.stream().anyMatch(k -> hints.get(k) != null)) {
+            return null;
+        }
+        if (toSQL != null) {
+            if (toSQL.getInlinedLiteralCount() > 0) {
+                return null;
+            }
+            // dialects can also encode literals directly, without binding them
+            int[] literals = {0};
+            filter.accept(
+                    new DefaultFilterVisitor() {
+                        @Override
+                        public Object visit(Literal expression, Object data) {
+                            literals[0]++;
+                            return data;
+                        }
+                    },
+                    null);
+            if (toSQL.getPreparedLiteralCount() < literals[0]) {
+                return null;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the query hints that can alter the SQL generated for a query, that is, the geometry
+     * reduction ones, the virtual table parameters, and the ones declared as supported by the
+     * dialect.
+     */
+    private Map<Hints.Key, Object> getSQLHints(Hints hints) {
+        if (hints == null || hints.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Hints.Key> keys = new HashSet<>(SQL_HINTS);
+        dialect.addSupportedHints(keys);
+        Map<Hints.Key, Object> result = new HashMap<>();
+        for (Hints.Key key : keys) {
+            Object value = hints.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
     }
 
     private void applySearchHints(SimpleFeatureType featureType, Query query, StringBuffer sql) {
@@ -3685,29 +4309,37 @@ FilterToSQL filter(SimpleFeatureType featureType, Filter filter, StringBuffer sq
     FilterToSQL filter(
             SimpleFeatureType featureType, Filter filter, StringBuffer sql, FilterToSQL toSQL)
             throws IOException {
+        appendFilter(encodeFilter(toSQL, filter), sql);
+        return toSQL;
+    }
 
+    /** Encodes the filter, for prepared statements the values to bind are collected in toSQL */
+    private String encodeFilter(FilterToSQL toSQL, Filter filter) {
         try {
             // grab the full feature type, as we might be encoding a filter
             // that uses attributes that aren't returned in the results
             toSQL.setInline(true);
 
-            String filterSql = toSQL.encodeToString(filter);
-            int whereClauseIndex = sql.indexOf(WHERE_CLAUSE_PLACE_HOLDER);
-            if (whereClauseIndex != -1) {
-                sql.replace(
-                        whereClauseIndex,
-                        whereClauseIndex + WHERE_CLAUSE_PLACE_HOLDER_LENGTH,
-                        "AND " + filterSql);
-                sql.append("1 = 1");
-            } else {
-                sql.append(filterSql);
-            }
-            return toSQL;
+            return toSQL.encodeToString(filter);
         } catch (FilterToSQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /** Appends the encoded filter, into the virtual table where clause placeholder if present */
+    private void appendFilter(String filterSql, StringBuffer sql) {
+        int whereClauseIndex = sql.indexOf(WHERE_CLAUSE_PLACE_HOLDER);
+        if (whereClauseIndex != -1) {
+            sql.replace(
+                    whereClauseIndex,
+                    whereClauseIndex + WHERE_CLAUSE_PLACE_HOLDER_LENGTH,
+                    "AND " + filterSql);
+            sql.append("1 = 1");
+        } else {
+            sql.append(filterSql);
+        }
+    }
+
     private FilterToSQL getFilterToSQL(SimpleFeatureType fullSchema) {
         return dialect instanceof PreparedStatementSQLDialect
                 ? createPreparedFilterToSQL(fullSchema)
@@ -3765,40 +4397,23 @@ protected PreparedStatement selectSQLPS(
             SimpleFeatureType featureType, Query query, Connection cx)
             throws SQLException, IOException {
 
-        StringBuffer sql = new StringBuffer();
-        sql.append("SELECT ");
-
-        // column names
-        selectColumns(featureType, null, query, sql);
-        sql.setLength(sql.length() - 1);
-        dialect.encodePostSelect(featureType, sql);
-
-        sql.append(" FROM ");
-        encodeTableName(featureType.getTypeName(), sql, setKeepWhereClausePlaceHolderHint(query));
-
-        // filtering
+        // filtering, the filter is always encoded as it collects the values to be bound
         PreparedFilterToSQL toSQL = null;
+        String filterSql = null;
         Filter filter = query.getFilter();
         if (filter != null && !Filter.INCLUDE.equals(filter)) {
-            sql.append(" WHERE ");
-
-            // encode filter
-            toSQL = (PreparedFilterToSQL) filter(featureType, filter, sql);
+            SimpleFeatureType fullSchema = getSchema(featureType.getTypeName());
+            toSQL = (PreparedFilterToSQL) getFilterToSQL(fullSchema);
+            filterSql = encodeFilter(toSQL, filter);
         }
 
-        // sorting
-        sort(featureType, query.getSortBy(), null, sql);
+        String sql =
+                getSelectSQL(
+                        featureType, query, filterSql, getStatementCacheFor(query, filter, toSQL));
 
-        // finally encode limit/offset, if necessary
-        applyLimitOffset(sql, query.getStartIndex(), query.getMaxFeatures());
-
-        // add search hints if the dialect supports them
-        applySearchHints(featureType, query, sql);
-
-        LOGGER.fine(sql.toString());
+        LOGGER.fine(sql);
         PreparedStatement ps =
-                cx.prepareStatement(
-                        sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                cx.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
         ps.setFetchSize(fetchSize);
 
         if (toSQL != null) {
@@ -5148,7 +5763,7 @@ protected void encodeGeometryColumn(
 
         if (isSimplificationRequired(hints, gatt) == true) {
             Double distance = (Double) hints.get(Hints.GEOMETRY_SIMPLIFICATION);
-            dialect.encodeGeometryColumnSimplified(gatt, prefix, srid, sql, distance);
+            dialect.encodeGeometryColumnSimplified(gatt, prefix, srid, sql, distance, hints);
             return;
         }
 
@@ -62,6 +62,7 @@
 import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 
 /**
  * Reader for jdbc datastore
@@ -127,6 +128,12 @@ public class JDBCFeatureReader implements FeatureReader<SimpleFeatureType, Simpl
     /** enum support */
     EnumMapper[] enumMappers;
 
+    /** How to read the rows, built lazily when the first one is read */
+    private AccessPlan accessPlan;
+
+    /** Row values holder, reused across rows */
+    private Object[] rowValues;
+
     public JDBCFeatureReader(
             String sql,
             Connection cx,
@@ -346,6 +353,89 @@ public boolean hasNext() throws IOException {
     }
 
     protected SimpleFeature readNextFeature() throws IOException {
+        if (rowValues == null) {
+            rowValues = new Object[featureType.getAttributeCount()];
+        }
+        String fid = readNextRow(rowValues);
+        if (fid == null) {
+            return null;
+        }
+
+        // create the feature
+        try {
+            builder.addAll(rowValues);
+            return builder.buildFeature(fid);
+        } catch (IllegalAttributeException e) {
+            builder.reset();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the attributes of the next feature in the provided array, without building a {@link
+     * SimpleFeature}. Meant for consumers that use the attribute values right away and have no need
+     * for feature objects, e.g., to render or encode them. The values are the ones read from the
+     * database, after geometry decoding and type conversion, null values are not replaced with the
+     * attribute defaults.
+     *
+     * <p>Rows skipped by the screenmap, if any, are not returned. Calls to this method can be mixed
+     * with {@link #hasNext()} and {@link #next()}, a feature already read by {@link #hasNext()} is
+     * returned first.
+     *
+     * @param values The array receiving the attribute values, in feature type order. Its length
+     *     must be at least the feature type attribute count, the array can be reused across calls.
+     * @return The id of the feature whose attributes have been read, or null if there are no more
+     *     features
+     */
+    public String nextAttributes(Object[] values) throws IOException {
+        ensureOpen();
+        try {
+            if (nextFeature != null) {
+                List<Object> attributes = nextFeature.getAttributes();
+                for (int i = 0; i < attributes.size(); i++) {
+                    values[i] = attributes.get(i);
+                }
+                return nextFeature.getID();
+            }
+            if (Boolean.FALSE.equals(next)) {
+                return null;
+            }
+
+            String fid = null;
+            while (fid == null) {
+                callback.beforeNext(rs);
+                boolean found = rs.next();
+                callback.afterNext(rs, found);
+                if (!found) {
+                    next = Boolean.FALSE;
+                    callback.finish(this);
+                    return null;
+                }
+                fid = readNextRow(values);
+            }
+            return fid;
+        } catch (SQLException e) {
+            callback.rowError(e);
+            throw new IOException(e);
+        } finally {
+            if (!Boolean.FALSE.equals(next)) {
+                nextFeature = null;
+                next = null;
+            }
+        }
+    }
+
+    /**
+     * Reads the current row into the provided array.
+     *
+     * @return The feature id, or null if the row has to be skipped (outer join with no match, or
+     *     location already busy in the screenmap)
+     */
+    private String readNextRow(Object[] values) throws IOException {
+        if (accessPlan == null) {
+            accessPlan = new AccessPlan();
+        }
+
         // figure out the fid
         String fid;
 
@@ -356,35 +446,28 @@ protected SimpleFeature readNextFeature() throws IOException {
                 return null;
             }
             // wrap the fid in the type name
-            fid = featureType.getTypeName() + "." + fid;
+            fid = accessPlan.fidPrefix + fid;
         } catch (Exception e) {
             throw new RuntimeException("Could not determine fid from primary key", e);
         }
 
         // round up attributes
-        final int attributeCount = featureType.getAttributeCount();
-        for (int i = 0; i < attributeCount; i++) {
-            AttributeDescriptor type = featureType.getDescriptor(i);
+        final AttributeDescriptor[] descriptors = accessPlan.descriptors;
+        final GeometryDecoder[] decoders = accessPlan.geometryDecoders;
+        for (int i = 0; i < descriptors.length; i++) {
+            AttributeDescriptor type = descriptors[i];
 
             try {
                 Object value = null;
+                int column = offset + attributeRsIndex[i];
 
                 // is this a geometry?
-                if (type instanceof GeometryDescriptor) {
+                if (decoders[i] != null) {
                     GeometryDescriptor gatt = (GeometryDescriptor) type;
 
                     // read the geometry
                     try {
-                        value =
-                                dataStore
-                                        .getSQLDialect()
-                                        .decodeGeometryValue(
-                                                gatt,
-                                                rs,
-                                                offset + attributeRsIndex[i],
-                                                geometryFactory,
-                                                cx,
-                                                hints);
+                        value = decoders[i].decode(rs, column);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
@@ -399,10 +482,17 @@ protected SimpleFeature readNextFeature() throws IOException {
 
                         try {
                             // is position already busy skip it
-                            if (screenMap != null) {
+                            if (screenMap != null
+                                    && geometry instanceof Point
+                                    && !geometry.isEmpty()) {
+                                // fast path, no envelope needed and nothing to simplify
+                                Point point = (Point) geometry;
+                                if (screenMap.checkAndSetPoint(point.getX(), point.getY())) {
+                                    return null;
+                                }
+                            } else if (screenMap != null) {
                                 if (screenMap.canSimplify(geometry.getEnvelopeInternal())) {
                                     if (screenMap.checkAndSet(geometry.getEnvelopeInternal())) {
-                                        builder.reset();
                                         return null;
                                     } else {
                                         value = screenMap.getSimplifiedShape(geometry);
@@ -420,7 +510,7 @@ protected SimpleFeature readNextFeature() throws IOException {
                     }
 
                 } else {
-                    value = rs.getObject(offset + attributeRsIndex[i]);
+                    value = rs.getObject(column);
                 }
 
                 // they value may need conversion. We let converters chew the initial
@@ -451,18 +541,42 @@ protected SimpleFeature readNextFeature() throws IOException {
                     }
                 }
 
-                builder.add(value);
+                values[i] = value;
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
         }
 
-        // create the feature
-        try {
-            return builder.buildFeature(fid);
-        } catch (IllegalAttributeException e) {
-            builder.reset();
-            throw new RuntimeException(e);
+        return fid;
+    }
+
+    /**
+     * The per query information needed to read the rows, computed once before reading the first one
+     */
+    private class AccessPlan {
+        final String fidPrefix = featureType.getTypeName() + ".";
+
+        final AttributeDescriptor[] descriptors =
+                featureType.getAttributeDescriptors().toArray(new AttributeDescriptor[0]);
+
+        final GeometryDecoder[] geometryDecoders = new GeometryDecoder[descriptors.length];
+
+        AccessPlan() throws IOException {
+            SQLDialect dialect = dataStore.getSQLDialect();
+            for (int i = 0; i < descriptors.length; i++) {
+                if (descriptors[i] instanceof GeometryDescriptor) {
+                    try {
+                        geometryDecoders[i] =
+                                dialect.createGeometryDecoder(
+                                        (GeometryDescriptor) descriptors[i],
+                                        geometryFactory,
+                                        cx,
+                                        hints);
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                }
+            }
         }
     }
 
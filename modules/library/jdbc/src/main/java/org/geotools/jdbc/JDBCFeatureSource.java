@@ -17,6 +17,7 @@
 package org.geotools.jdbc;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -27,8 +28,12 @@
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotools.api.data.FeatureReader;
@@ -46,6 +51,7 @@
 import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.DataUtilities;
 import org.geotools.data.FilteringFeatureReader;
 import org.geotools.data.MaxFeatureReader;
 import org.geotools.data.ReTypeFeatureReader;
@@ -53,6 +59,8 @@
 import org.geotools.data.store.ContentFeatureSource;
 import org.geotools.feature.AttributeTypeBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.feature.visitor.CalcResult;
+import org.geotools.feature.visitor.FeatureCalc;
 import org.geotools.feature.visitor.MaxVisitor;
 import org.geotools.feature.visitor.MinVisitor;
 import org.geotools.feature.visitor.NearestVisitor;
@@ -783,6 +791,172 @@ private boolean handleNearestVisitor(Query query, FeatureVisitor visitor) throws
         return true;
     }
 
+    /**
+     * Returns a reader that scans the features matching the query in parallel, splitting the query
+     * in up to {@code partitions} ranges of the primary key, each one read on a separate
+     * connection. The features are returned in no particular order.
+     *
+     * <p>Parallel scans are only possible for tables with a single integral primary key column,
+     * outside of transactions, and for queries that are not sorted, paged or joined. In all other
+     * cases a normal reader is returned. The reader must be closed to release the connections.
+     *
+     * @param query The query to run
+     * @param partitions The maximum number of concurrent scans
+     */
+    public FeatureReader<SimpleFeatureType, SimpleFeature> getParallelReader(
+            Query query, int partitions) throws IOException {
+        List<Query> queries = getPartitionQueries(query, partitions);
+        if (queries.size() == 1) {
+            return getReader(queries.get(0));
+        }
+        // compute the schema in the caller thread, getReader would do it in each scan
+        SimpleFeatureType featureType = getFeatures(query).getSchema();
+        return new JDBCParallelFeatureReader(this, featureType, queries);
+    }
+
+    /**
+     * Computes an aggregate over the features matching the query. If the database cannot compute
+     * the aggregate directly, the query is split in up to {@code partitions} ranges of the primary
+     * key (see {@link #getParallelReader(Query, int)}), a visitor is run on each range in parallel,
+     * and the partial results are merged.
+     *
+     * @param query The query to run
+     * @param visitors Provides a new visitor for each partition, the partial results must be
+     *     mergeable using {@link CalcResult#merge(CalcResult)}
+     * @param partitions The maximum number of concurrent scans
+     * @return The merged result
+     */
+    public CalcResult visitParallel(
+            Query query, Supplier<? extends FeatureCalc> visitors, int partitions)
+            throws IOException {
+        FeatureCalc visitor = visitors.get();
+        Query simplified = DataUtilities.simplifyFilter(query);
+        if (handleVisitor(simplified, visitor)) {
+            return visitor.getResult();
+        }
+        List<Query> queries = getPartitionQueries(simplified, partitions);
+        if (queries.size() == 1) {
+            accepts(queries.get(0), visitor, null);
+            return visitor.getResult();
+        }
+
+        List<Future<CalcResult>> results = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            FeatureCalc partitionVisitor = i == 0 ? visitor : visitors.get();
+            Query partition = queries.get(i);
+            results.add(
+                    JDBCParallelFeatureReader.SCANNERS.submit(
+                            () -> {
+                                accepts(partition, partitionVisitor, null);
+                                return partitionVisitor.getResult();
+                            }));
+        }
+        CalcResult merged = CalcResult.NULL_RESULT;
+        try {
+            for (Future<CalcResult> future : results) {
+                CalcResult partial = future.get();
+                if (partial == null || partial == CalcResult.NULL_RESULT) {
+                    // empty partition
+                    continue;
+                }
+                if (!merged.isCompatible(partial)) {
+                    throw new IOException(
+                            "Partial results cannot be merged: " + merged + ", " + partial);
+                }
+                merged = merged.merge(partial);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the parallel visit", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to visit a partition of the parallel scan", e.getCause());
+        } finally {
+            // on failure, avoid starting the partitions still waiting in the queue
+            for (Future<CalcResult> future : results) {
+                future.cancel(false);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Splits the query in up to {@code partitions} queries, each one matching the rows in a range
+     * of the primary key. Returns a list containing just the original query if the split is not
+     * possible.
+     */
+    List<Query> getPartitionQueries(Query query, int partitions) throws IOException {
+        List<Query> single = Collections.singletonList(query);
+        if (partitions <= 1
+                || getState().getTransaction() != Transaction.AUTO_COMMIT
+                || (query.getSortBy() != null && query.getSortBy().length > 0)
+                || query.getStartIndex() != null
+                || !query.isMaxFeaturesUnlimited()
+                || (query.getJoins() != null && !query.getJoins().isEmpty())) {
+            return single;
+        }
+        List<PrimaryKeyColumn> columns = getPrimaryKey().getColumns();
+        if (columns.size() != 1) {
+            return single;
+        }
+        PrimaryKeyColumn column = columns.get(0);
+        Class<?> type = column.getType();
+        if (type != Byte.class
+                && type != Short.class
+                && type != Integer.class
+                && type != Long.class
+                && type != BigInteger.class) {
+            return single;
+        }
+
+        // the ranges are expressed as native filters, check the dialect can encode them
+        FilterFactory ff = getDataStore().getFilterFactory();
+        SQLDialect dialect = getDataStore().getSQLDialect();
+        StringBuffer encodedColumn = new StringBuffer();
+        dialect.encodeColumnName(null, column.getName(), encodedColumn);
+        if (splitFilter(ff.nativeFilter(encodedColumn + " >= 0"))[1] != Filter.INCLUDE) {
+            return single;
+        }
+
+        Number[] range;
+        Connection cx = getDataStore().getConnection(getState());
+        try {
+            Filter preFilter = splitFilter(joinQuery(query).getFilter())[0];
+            range = getDataStore().getPrimaryKeyRange(getSchema(), column, preFilter, cx);
+        } finally {
+            getDataStore().releaseConnection(cx, getState());
+        }
+        if (range == null) {
+            return single;
+        }
+
+        BigInteger min = new BigInteger(range[0].toString());
+        BigInteger max = new BigInteger(range[1].toString());
+        BigInteger size = max.subtract(min).add(BigInteger.ONE);
+        BigInteger count = size.min(BigInteger.valueOf(partitions));
+        if (count.compareTo(BigInteger.ONE) <= 0) {
+            return single;
+        }
+        // round up, the last range might be smaller than the others
+        BigInteger step = size.add(count).subtract(BigInteger.ONE).divide(count);
+        List<Query> result = new ArrayList<>();
+        for (BigInteger lo = min; lo.compareTo(max) <= 0; lo = lo.add(step)) {
+            BigInteger hi = lo.add(step);
+            // first and last ranges are open ended, so that the ranges cover all possible values
+            String sql;
+            if (lo.equals(min)) {
+                sql = encodedColumn + " < " + hi;
+            } else if (hi.compareTo(max) > 0) {
+                sql = encodedColumn + " >= " + lo;
+            } else {
+                sql = encodedColumn + " >= " + lo + " AND " + encodedColumn + " < " + hi;
+            }
+            Query partition = new Query(query);
+            partition.setFilter(ff.and(query.getFilter(), ff.nativeFilter(sql)));
+            result.add(partition);
+        }
+        return result;
+    }
+
     /** Computes the column metadata from a plain database table */
     List<ColumnMetadata> getColumnMetadata(
             Connection cx, String databaseSchema, String tableName, SQLDialect dialect)
@@ -165,6 +165,23 @@ public SimpleFeature next()
         return f;
     }
 
+    /**
+     * Reads the next joined feature and copies its attributes in the provided array, the joined
+     * features come after the attributes of the main feature, so the array length must be at least
+     * the attribute count plus the number of joins.
+     */
+    @Override
+    public String nextAttributes(Object[] values) throws IOException {
+        if (!hasNext()) {
+            return null;
+        }
+        SimpleFeature f = next();
+        for (int i = 0; i < f.getAttributeCount(); i++) {
+            values[i] = f.getAttribute(i);
+        }
+        return f.getID();
+    }
+
     @Override
     public void close() throws IOException {
         super.close();
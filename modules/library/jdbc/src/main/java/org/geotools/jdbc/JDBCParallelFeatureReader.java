@@ -0,0 +1,180 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Reads the partitions of a query in parallel, each one on its own connection, returning the
+ * features in no particular order. The partitions are read by background threads that push the
+ * features in a bounded queue, closing the reader stops them.
+ */
+class JDBCParallelFeatureReader implements FeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    static final Logger LOGGER = Logging.getLogger(JDBCParallelFeatureReader.class);
+
+    /** Runs the partition scans, shared among all parallel readers and visits */
+    static final ExecutorService SCANNERS =
+            Executors.newCachedThreadPool(
+                    new ThreadFactory() {
+                        final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread t =
+                                    new Thread(r, "JDBC parallel scan " + count.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+
+    /** Number of features buffered for each partition */
+    static final int BUFFER_PER_PARTITION = 256;
+
+    /** Marks the end of a partition */
+    private static final Object END = new Object();
+
+    /** Wraps a failure occurred while reading a partition */
+    private static class Failure {
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+
+    private final SimpleFeatureType featureType;
+
+    private final BlockingQueue<Object> queue;
+
+    private final List<Future<?>> scans = new ArrayList<>();
+
+    private volatile boolean closed;
+
+    private int running;
+
+    private SimpleFeature next;
+
+    JDBCParallelFeatureReader(
+            JDBCFeatureSource source, SimpleFeatureType featureType, List<Query> partitions) {
+        this.featureType = featureType;
+        this.queue = new ArrayBlockingQueue<>(BUFFER_PER_PARTITION * partitions.size());
+        this.running = partitions.size();
+        for (Query partition : partitions) {
+            scans.add(SCANNERS.submit(() -> scan(source, partition)));
+        }
+    }
+
+    private void scan(JDBCFeatureSource source, Query partition) {
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader = source.getReader(partition)) {
+            while (!closed && reader.hasNext()) {
+                put(reader.next());
+            }
+        } catch (Throwable t) {
+            put(new Failure(t));
+        } finally {
+            put(END);
+        }
+    }
+
+    /** Adds to the queue, giving up if the reader gets closed while waiting */
+    private void put(Object item) {
+        try {
+            while (!closed) {
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return featureType;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (closed) {
+            throw new IOException("reader already closed");
+        }
+        try {
+            while (next == null && running > 0) {
+                Object item = queue.take();
+                if (item == END) {
+                    running--;
+                } else if (item instanceof Failure) {
+                    Throwable cause = ((Failure) item).cause;
+                    close();
+                    throw new IOException("Failed to read a partition of the parallel scan", cause);
+                } else {
+                    next = (SimpleFeature) item;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IOException("Interrupted while waiting for the parallel scan", e);
+        }
+        return next != null;
+    }
+
+    @Override
+    public SimpleFeature next() throws IOException, NoSuchElementException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more features in this reader");
+        }
+        SimpleFeature result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        // the scans notice the flag, stop reading and close their readers (and connections)
+        closed = true;
+        queue.clear();
+        for (Future<?> scan : scans) {
+            if (scan.cancel(false) && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Cancelled a partition scan before it started");
+            }
+        }
+    }
+}
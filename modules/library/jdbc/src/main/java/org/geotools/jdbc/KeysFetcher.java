@@ -124,6 +124,23 @@ public void setKeyValues(
         }
     }
 
+    /**
+     * Computes the key values for a bulk insert, reporting the feature ids as user data.
+     *
+     * @return the key values of each feature
+     */
+    public List<List<Object>> setBulkKeyValues(
+            Connection cx, SimpleFeatureType featureType, List<? extends SimpleFeature> features)
+            throws IOException, SQLException {
+        List<List<Object>> keyValues = getNextValues(cx, features);
+        for (int i = 0; i < features.size(); i++) {
+            String fid =
+                    featureType.getTypeName() + "." + JDBCDataStore.encodeFID(keyValues.get(i));
+            features.get(i).getUserData().put("fid", fid);
+        }
+        return keyValues;
+    }
+
     public abstract void addKeyColumns(StringBuffer sql);
 
     public abstract void addKeyBindings(StringBuffer sql);
@@ -152,6 +169,23 @@ public boolean hasAutoGeneratedKeys() {
     protected abstract List<Object> getNextValues(Connection cx, SimpleFeature feature)
             throws IOException, SQLException;
 
+    /** Returns the key values of several features, in a single round trip when possible. */
+    protected List<List<Object>> getNextValues(
+            Connection cx, List<? extends SimpleFeature> features)
+            throws IOException, SQLException {
+        List<List<Object>> ret = new ArrayList<>(features.size());
+        for (SimpleFeature feature : features) {
+            ret.add(getNextValues(cx, feature));
+        }
+        return ret;
+    }
+
+    /**
+     * @return true if all the key values can be computed before the insert, as required by bulk
+     *     inserts, which cannot return the generated keys
+     */
+    public abstract boolean isBulkInsertSupported();
+
     /** @return true if the given field is part of the primary key. */
     public boolean isKey(String name) {
         return columnNames.contains(name);
@@ -216,6 +250,11 @@ public boolean isPostInsert() {
         public List<Object> getNextValues(Connection cx, SimpleFeature feature) {
             return JDBCDataStore.decodeFID(key, feature.getID(), true);
         }
+
+        @Override
+        public boolean isBulkInsertSupported() {
+            return true;
+        }
     }
 
     /** Class for a PK that has its value computed from the database. */
@@ -344,6 +383,26 @@ public List<Object> getNextValues(Connection cx, SimpleFeature feature)
             return ret;
         }
 
+        @Override
+        protected List<List<Object>> getNextValues(
+                Connection cx, List<? extends SimpleFeature> features)
+                throws IOException, SQLException {
+            int count = features.size();
+            List<List<Object>> columns = new ArrayList<>(fetchers.size());
+            for (KeyFetcher fetcher : fetchers) {
+                columns.add(fetcher.getNext(cx, count));
+            }
+            List<List<Object>> ret = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                List<Object> values = new ArrayList<>(fetchers.size());
+                for (List<Object> column : columns) {
+                    values.add(column.get(i));
+                }
+                ret.add(values);
+            }
+            return ret;
+        }
+
         @Override
         public boolean hasAutoGeneratedKeys() {
             for (KeyFetcher fetcher : fetchers) {
@@ -353,6 +412,16 @@ public boolean hasAutoGeneratedKeys() {
             }
             return false;
         }
+
+        @Override
+        public boolean isBulkInsertSupported() {
+            for (KeyFetcher fetcher : fetchers) {
+                if (!fetcher.isBulkInsertSupported()) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     /** Base class to handle a PK column coming from the DB. */
@@ -362,6 +431,15 @@ private abstract static class KeyFetcher {
 
         public abstract Object getNext(Connection cx) throws IOException, SQLException;
 
+        /** Returns the next <code>count</code> values, used for bulk inserts */
+        public List<Object> getNext(Connection cx, int count) throws IOException, SQLException {
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(getNext(cx));
+            }
+            return values;
+        }
+
         KeyFetcher(JDBCDataStore ds, PrimaryKeyColumn col) {
             this.col = col;
             StringBuffer colName = new StringBuffer();
@@ -393,6 +471,11 @@ public Object getLastValue(Connection cx) throws SQLException {
         public boolean isAutoGenerated() {
             return false;
         }
+
+        /** Returns true if the values can be computed before a bulk insert */
+        public boolean isBulkInsertSupported() {
+            return !isPostInsert();
+        }
     }
 
     private static class FromRandom extends KeyFetcher {
@@ -603,5 +686,18 @@ public Object getNext(Connection cx) throws IOException, SQLException {
                         .getNextSequenceValue(ds.getDatabaseSchema(), sequenceName, cx);
             }
         }
+
+        @Override
+        public List<Object> getNext(Connection cx, int count) throws SQLException {
+            // bulk inserts cannot return the generated keys, grab them from the sequence upfront
+            String sequenceName = ((SequencedPrimaryKeyColumn) col).getSequenceName();
+            return ds.getSQLDialect()
+                    .getNextSequenceValues(ds.getDatabaseSchema(), sequenceName, count, cx);
+        }
+
+        @Override
+        public boolean isBulkInsertSupported() {
+            return true;
+        }
     }
 }
@@ -53,6 +53,12 @@ public class PreparedFilterToSQL extends FilterToSQL {
     protected PreparedStatementSQLDialect dialect;
     boolean prepareEnabled = true;
 
+    /** Number of literals encoded as bind parameters */
+    int preparedLiterals;
+
+    /** Number of literals encoded in the SQL text, while the prepared mode was disabled */
+    int inlinedLiterals;
+
     /**
      * Contructor taking a reference to the SQL dialect, will use it to encode geometry placeholders
      */
@@ -78,7 +84,11 @@ public PreparedFilterToSQL(Writer out) {
 
     @Override
     public Object visit(Literal expression, Object context) throws RuntimeException {
-        if (!prepareEnabled) return super.visit(expression, context);
+        if (!prepareEnabled) {
+            inlinedLiterals++;
+            return super.visit(expression, context);
+        }
+        preparedLiterals++;
 
         Class clazz = getTargetClassFromContext(context);
 
@@ -236,4 +246,14 @@ public List<Integer> getDimensions() {
     public List<AttributeDescriptor> getDescriptors() {
         return descriptors;
     }
+
+    /** Returns the number of literals encoded as bind parameters */
+    public int getPreparedLiteralCount() {
+        return preparedLiterals;
+    }
+
+    /** Returns the number of literals encoded in the SQL text, as prepare was disabled */
+    public int getInlinedLiteralCount() {
+        return inlinedLiterals;
+    }
 }
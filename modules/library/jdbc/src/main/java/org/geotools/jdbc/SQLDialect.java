@@ -757,6 +757,24 @@ public void encodeGeometryColumnSimplified(
         throw new UnsupportedOperationException("Geometry simplification not supported");
     }
 
+    /**
+     * Encodes a simplified geometry column, with access to the query hints, for dialects that can
+     * apply further hints along with the simplification. Delegates to {@link
+     * #encodeGeometryColumnSimplified(GeometryDescriptor, String, int, StringBuffer, Double)} by
+     * default.
+     *
+     * @param hints The query hints, may be null
+     */
+    public void encodeGeometryColumnSimplified(
+            GeometryDescriptor gatt,
+            String prefix,
+            int srid,
+            StringBuffer sql,
+            Double distance,
+            Hints hints) {
+        encodeGeometryColumnSimplified(gatt, prefix, srid, sql, distance);
+    }
+
     /**
      * Decodes a geometry value from the result of a query.
      *
@@ -807,6 +825,21 @@ public Geometry decodeGeometryValue(
         return decodeGeometryValue(descriptor, rs, columnName, factory, cx, hints);
     }
 
+    /**
+     * Creates a decoder for the values of a geometry column, that will be used by a feature reader
+     * to decode all the rows of a single query.
+     *
+     * <p>The default implementation delegates to {@link #decodeGeometryValue(GeometryDescriptor,
+     * ResultSet, int, GeometryFactory, Connection, Hints)} for each row. Subclasses can override to
+     * perform once the checks depending on the descriptor and hints, and to hold on parsers and
+     * buffers to be reused for each row.
+     */
+    public GeometryDecoder createGeometryDecoder(
+            GeometryDescriptor descriptor, GeometryFactory factory, Connection cx, Hints hints)
+            throws IOException, SQLException {
+        return (rs, column) -> decodeGeometryValue(descriptor, rs, column, factory, cx, hints);
+    }
+
     /**
      * Encodes the primary key definition in a CREATE TABLE statement.
      *
@@ -1107,6 +1140,67 @@ public Object getNextSequenceValue(String schemaName, String sequenceName, Conne
         return null;
     }
 
+    /**
+     * Obtains the next <code>count</code> values of a sequence, used to compute the keys before a
+     * {@link #insertBulk(SimpleFeatureType, List, List, List, Connection) bulk insert}.
+     *
+     * <p>The default implementation calls {@link #getNextSequenceValue(String, String, Connection)}
+     * repeatedly, subclasses are encouraged to fetch all the values with a single query.
+     *
+     * @param schemaName The schema name, this might be <code>null</code>.
+     * @param sequenceName The name of the sequence.
+     * @param count The number of values to fetch.
+     * @param cx The database connection.
+     * @return The next values of the sequence.
+     */
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx) throws SQLException {
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(getNextSequenceValue(schemaName, sequenceName, cx));
+        }
+        return values;
+    }
+
+    /**
+     * Returns true if the features of the given type can be inserted with {@link
+     * #insertBulk(SimpleFeatureType, List, List, List, Connection)}, instead of going through
+     * regular insert statements. Defaults to false.
+     */
+    public boolean isBulkInsertSupported(SimpleFeatureType featureType) {
+        return false;
+    }
+
+    /**
+     * Inserts rows in bulk, using a database specific loading facility. Only called if {@link
+     * #isBulkInsertSupported(SimpleFeatureType)} returns true, and when all the key values are
+     * known before the insert, as the generated keys cannot be retrieved.
+     *
+     * <p>This method is given a direct connection to the database, but this connection should never
+     * be closed. However any statements or result sets instantiated from the connection must be
+     * closed.
+     *
+     * <p>The default implementation inserts the rows one at a time, with regular insert statements,
+     * subclasses are encouraged to use a faster loading facility.
+     *
+     * @param featureType The feature type of the target table.
+     * @param columns The names of the columns being filled, not encoded.
+     * @param descriptors The attribute descriptors of the columns, <code>null</code> for the
+     *     primary key columns that are not exposed as attributes.
+     * @param rows The values to insert, in the same order as the columns. Geometries are already
+     *     linearized as required by the column type.
+     * @param cx The database connection.
+     */
+    public void insertBulk(
+            SimpleFeatureType featureType,
+            List<String> columns,
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows,
+            Connection cx)
+            throws IOException, SQLException {
+        dataStore.insertRows(featureType, columns, descriptors, rows, cx);
+    }
+
     /**
      * Encodes how to get the next sequence value from the DB.
      *
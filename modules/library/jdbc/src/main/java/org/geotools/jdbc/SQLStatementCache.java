@@ -0,0 +1,247 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.sort.SortBy;
+
+/**
+ * A size bounded, least recently used cache of the SQL text generated by {@link JDBCDataStore} for
+ * feature queries, keyed by the shape of the query. The cache is used only with {@link
+ * PreparedStatementSQLDialect prepared statement dialects}.
+ *
+ * <p>The filter is still encoded for each query, as it is also the step collecting the values to be
+ * bound to the prepared statement. The encoded filter only contains placeholders, so all queries
+ * differing only in their literals (e.g., the bounding box of a map tile) share the same cache
+ * entry, while queries whose SQL contains inlined values bypass the cache. The rest of the
+ * statement (selected columns, table, sorting, paging, hints) is not encoded again on cache hits.
+ * Since the cached SQL text is stable, the prepared statement pooling of the connection pool, or
+ * the driver server side statement cache, can in turn reuse the parsed statements on each
+ * connection.
+ *
+ * <p>Lookups do not lock, the least recently used entries are evicted when adding new ones. The
+ * hit, miss and eviction counts can be used to monitor the cache effectiveness. A maximum size of
+ * zero, or less, disables the cache.
+ */
+public class SQLStatementCache {
+
+    /** The default number of cached statements */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    /** A cached statement, along with its last access time */
+    private static final class Entry {
+        final String sql;
+
+        volatile long lastAccess;
+
+        Entry(String sql, long lastAccess) {
+            this.sql = sql;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final ConcurrentHashMap<Object, Entry> statements = new ConcurrentHashMap<>();
+
+    /** Logical clock ordering the accesses */
+    private final AtomicLong clock = new AtomicLong();
+
+    private volatile int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public SQLStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** Returns true if the cache is enabled, that is, its maximum size is positive */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /** Returns the cached SQL for the given key, or null if not found */
+    String get(Object key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = statements.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.lastAccess = clock.incrementAndGet();
+        return entry.sql;
+    }
+
+    /** Caches the SQL for the given key, evicting the least recently used entries if needed */
+    void put(Object key, String sql) {
+        if (maxSize <= 0) {
+            return;
+        }
+        statements.put(key, new Entry(sql, clock.incrementAndGet()));
+        evict();
+    }
+
+    /** Evicts the least recently used entries, only one thread at a time scans the entries */
+    private synchronized void evict() {
+        while (statements.size() > Math.max(maxSize, 0)) {
+            Map.Entry<Object, Entry> oldest = null;
+            for (Map.Entry<Object, Entry> e : statements.entrySet()) {
+                if (oldest == null || e.getValue().lastAccess < oldest.getValue().lastAccess) {
+                    oldest = e;
+                }
+            }
+            if (oldest == null) {
+                break;
+            }
+            if (statements.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /** Drops all cached statements, the statistics are preserved */
+    public void clear() {
+        statements.clear();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Sets the maximum number of cached statements, zero or less disables the cache */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /** Number of lookups that found the SQL in the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Number of lookups that did not find the SQL in the cache */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Number of statements removed to respect the maximum size */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Number of statements currently cached */
+    public int getSize() {
+        return statements.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SQLStatementCache[size="
+                + statements.size()
+                + ", maxSize="
+                + maxSize
+                + ", hits="
+                + hits
+                + ", misses="
+                + misses
+                + ", evictions="
+                + evictions
+                + "]";
+    }
+
+    /**
+     * Key for a feature selection. The attribute descriptors are compared by identity, as the query
+     * feature types are built out of the descriptors of the cached native schema, a schema reload
+     * will simply result in cache misses.
+     */
+    static final class SelectKey {
+        final String typeName;
+        final AttributeDescriptor[] attributes;
+        final String filterSql;
+        final SortBy[] sortBy;
+        final Integer startIndex;
+        final int maxFeatures;
+        final Map<?, ?> hints;
+        final int hashCode;
+
+        SelectKey(
+                String typeName,
+                List<AttributeDescriptor> attributes,
+                String filterSql,
+                SortBy[] sortBy,
+                Integer startIndex,
+                int maxFeatures,
+                Map<?, ?> hints) {
+            this.typeName = typeName;
+            this.attributes = attributes.toArray(new AttributeDescriptor[attributes.size()]);
+            this.filterSql = filterSql;
+            this.sortBy = sortBy;
+            this.startIndex = startIndex;
+            this.maxFeatures = maxFeatures;
+            this.hints = hints;
+
+            int result = Objects.hash(typeName, filterSql, startIndex, maxFeatures, hints);
+            for (AttributeDescriptor ad : this.attributes) {
+                result = 31 * result + System.identityHashCode(ad);
+            }
+            this.hashCode = 31 * result + Arrays.hashCode(sortBy);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SelectKey)) {
+                return false;
+            }
+            SelectKey other = (SelectKey) obj;
+            if (hashCode != other.hashCode
+                    || maxFeatures != other.maxFeatures
+                    || attributes.length != other.attributes.length) {
+                return false;
+            }
+            for (int i = 0; i < attributes.length; i++) {
+                if (attributes[i] != other.attributes[i]) {
+                    return false;
+                }
+            }
+            return Objects.equals(typeName, other.typeName)
+                    && Objects.equals(filterSql, other.filterSql)
+                    && Objects.equals(startIndex, other.startIndex)
+                    && Arrays.equals(sortBy, other.sortBy)
+                    && Objects.equals(hints, other.hints);
+        }
+    }
+}
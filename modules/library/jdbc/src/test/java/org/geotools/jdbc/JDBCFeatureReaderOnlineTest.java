@@ -17,15 +17,21 @@
 package org.geotools.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.geotools.api.data.DelegatingFeatureReader;
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.PropertyDescriptor;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.junit.Test;
@@ -65,4 +71,40 @@ public void testNext() throws Exception {
             assertTrue(g.getUserData() instanceof CoordinateReferenceSystem);
         }
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNextAttributes() throws Exception {
+        Query query = new Query(tname("ft1"));
+        List<SimpleFeature> features = new ArrayList<>();
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                dataStore.getFeatureReader(query, Transaction.AUTO_COMMIT)) {
+            while (reader.hasNext()) {
+                features.add(reader.next());
+            }
+        }
+
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                dataStore.getFeatureReader(query, Transaction.AUTO_COMMIT)) {
+            FeatureReader<SimpleFeatureType, SimpleFeature> r = reader;
+            while (!(r instanceof JDBCFeatureReader) && r instanceof DelegatingFeatureReader) {
+                r = ((DelegatingFeatureReader<SimpleFeatureType, SimpleFeature>) r).getDelegate();
+            }
+            JDBCFeatureReader jdbcReader = (JDBCFeatureReader) r;
+
+            // a feature already read by hasNext is returned first
+            assertTrue(jdbcReader.hasNext());
+            SimpleFeatureType schema = jdbcReader.getFeatureType();
+            int geometryIndex = schema.indexOf(schema.getGeometryDescriptor().getLocalName());
+            Object[] values = new Object[schema.getAttributeCount()];
+            for (SimpleFeature feature : features) {
+                assertEquals(feature.getID(), jdbcReader.nextAttributes(values));
+                assertEquals(feature.getAttributes(), Arrays.asList(values));
+                Geometry g = (Geometry) values[geometryIndex];
+                assertTrue(g.getUserData() instanceof CoordinateReferenceSystem);
+            }
+            assertNull(jdbcReader.nextAttributes(values));
+            assertFalse(jdbcReader.hasNext());
+        }
+    }
 }
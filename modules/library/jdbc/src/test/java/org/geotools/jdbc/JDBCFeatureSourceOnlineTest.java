@@ -19,14 +19,19 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.QueryCapabilities;
 import org.geotools.api.data.Transaction;
@@ -40,6 +45,7 @@
 import org.geotools.api.filter.Or;
 import org.geotools.api.filter.PropertyIsEqualTo;
 import org.geotools.api.filter.PropertyIsLike;
+import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.expression.Function;
 import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.api.filter.expression.Subtract;
@@ -52,6 +58,8 @@
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.visitor.CalcResult;
+import org.geotools.feature.visitor.SumVisitor;
 import org.geotools.filter.function.FilterFunction_strToLowerCase;
 import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -761,4 +769,103 @@ public void testStrMatchesFilter() throws Exception {
 
         assertEquals(1, featureSource.getCount(new Query(null, StrMatchFunction)));
     }
+
+    @Test
+    public void testParallelReader() throws Exception {
+        JDBCFeatureSource source = featureSource.getFeatureSource();
+        FilterFactory ff = dataStore.getFilterFactory();
+        Query query =
+                new Query(
+                        tname("ft1"), ff.greater(ff.property(aname("intProperty")), ff.literal(0)));
+        List<Query> partitions = source.getPartitionQueries(query, 4);
+        Class<?> pkType = source.getPrimaryKey().getColumns().get(0).getType();
+        if (Number.class.isAssignableFrom(pkType) && pkType != BigDecimal.class) {
+            assertTrue(partitions.size() > 1);
+        }
+
+        Set<String> fids = new HashSet<>();
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                source.getParallelReader(query, 4)) {
+            assertEquals(featureSource.getSchema(), reader.getFeatureType());
+            while (reader.hasNext()) {
+                SimpleFeature f = reader.next();
+                assertTrue(((Number) f.getAttribute(aname("intProperty"))).intValue() > 0);
+                assertTrue(fids.add(f.getID()));
+            }
+        }
+        assertEquals(2, fids.size());
+    }
+
+    @Test
+    public void testParallelReaderEarlyClose() throws Exception {
+        JDBCFeatureSource source = featureSource.getFeatureSource();
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                source.getParallelReader(new Query(tname("ft1")), 3)) {
+            assertTrue(reader.hasNext());
+            assertNotNull(reader.next());
+        }
+        // connections have been released, the store is still usable
+        assertEquals(3, featureSource.getCount(Query.ALL));
+    }
+
+    @Test
+    public void testVisitParallel() throws Exception {
+        JDBCFeatureSource source = featureSource.getFeatureSource();
+        FilterFactory ff = dataStore.getFilterFactory();
+        // a function that is not going to be encoded in SQL, forcing a scan
+        Expression ex =
+                ff.function(
+                        "strLength",
+                        ff.function("strToLowerCase", ff.property(aname("stringProperty"))));
+        CalcResult result =
+                source.visitParallel(new Query(tname("ft1")), () -> new SumVisitor(ex), 3);
+
+        SumVisitor sequential = new SumVisitor(ex);
+        featureSource.getFeatures().accepts(sequential, null);
+        assertEquals(sequential.getResult().toInt(), result.toInt());
+    }
+
+    @Test
+    public void testStatementCache() throws Exception {
+        SQLStatementCache cache = dataStore.getStatementCache();
+        if (!(dataStore.getSQLDialect() instanceof PreparedStatementSQLDialect)) {
+            // literals are part of the SQL, caching would not help
+            assertNull(cache);
+            return;
+        }
+        cache.clear();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+
+        // same query shape, different literals
+        FilterFactory ff = dataStore.getFilterFactory();
+        PropertyName property = ff.property(aname("stringProperty"));
+        assertEquals(1, count(ff.equals(property, ff.literal("one"))));
+        assertEquals(1, count(ff.equals(property, ff.literal("two"))));
+        assertEquals(1, cache.getSize());
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(hits + 1, cache.getHits());
+
+        // per request hints are inlined in the SQL, not cached
+        Query query = new Query(tname("ft1"), ff.equals(property, ff.literal("one")));
+        query.getHints()
+                .put(Hints.GEOMETRY_CLIP_ENVELOPE, new ReferencedEnvelope(0, 1, 0, 1, null));
+        assertEquals(1, DataUtilities.list(featureSource.getFeatures(query)).size());
+        assertEquals(1, cache.getSize());
+        assertEquals(hits + 1, cache.getHits());
+
+        // disabled cache
+        dataStore.setStatementCacheSize(0);
+        try {
+            assertEquals(3, count(Filter.INCLUDE));
+            assertEquals(0, cache.getSize());
+        } finally {
+            dataStore.setStatementCacheSize(SQLStatementCache.DEFAULT_MAX_SIZE);
+        }
+    }
+
+    /** Counts the features by reading them, the count is not delegated to the database */
+    private int count(Filter filter) throws Exception {
+        return DataUtilities.list(featureSource.getFeatures(filter)).size();
+    }
 }
@@ -26,6 +26,7 @@
 import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
@@ -40,6 +41,8 @@
 import org.geotools.data.store.ContentFeatureSource;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.visitor.Aggregate;
+import org.geotools.feature.visitor.GroupByAggregatesVisitor;
+import org.geotools.feature.visitor.GroupByAggregatesVisitor.Aggregation;
 import org.geotools.feature.visitor.GroupByVisitor;
 import org.geotools.feature.visitor.GroupByVisitorBuilder;
 import org.geotools.filter.FilterCapabilities;
@@ -409,6 +412,30 @@ public void testWithMinWithLimitOffset() throws Exception {
         assertTrue(value.size() <= 3);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultipleAggregatesWithHaving() throws Exception {
+        FilterFactory ff = dataStore.getFilterFactory();
+        PropertyName energy = ff.property(aname("energy_consumption"));
+        GroupByAggregatesVisitor visitor =
+                new GroupByAggregatesVisitor(
+                        Arrays.asList(ff.property(aname("building_type"))),
+                        Arrays.asList(
+                                new Aggregation(Aggregate.COUNT, null, aname("cnt")),
+                                new Aggregation(Aggregate.MAX, energy, aname("maxEnergy")),
+                                new Aggregation(Aggregate.SUM, energy, aname("total"))),
+                        ff.greater(ff.property(aname("total")), ff.literal(100)));
+        ContentFeatureSource featureSource =
+                dataStore.getFeatureSource(tname("buildings_group_by_tests"));
+        featureSource.accepts(Query.ALL, visitor, null);
+        assertTrue(visitor.wasOptimized());
+
+        List<Object[]> value = visitor.getResult().toList();
+        assertEquals(2, value.size());
+        checkValueContains(value, "SCHOOL", "6", "60.0", "180.0");
+        checkValueContains(value, "FABRIC", "4", "500.0", "700.0");
+    }
+
     private Query queryWithLimits(int lower, int upper) {
         Query query = new Query(tname("buildings"));
         query.setStartIndex(lower);
@@ -25,10 +25,14 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import org.geotools.api.data.DelegatingFeatureReader;
+import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.Join;
 import org.geotools.api.data.Join.Type;
 import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.AttributeDescriptor;
@@ -77,6 +81,51 @@ public void testJoinSchema() throws Exception {
         assertEquals(dataStore.getSchema(tname("ftjoin")), joinedSchema);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJoinNextAttributes() throws Exception {
+        FilterFactory ff = dataStore.getFilterFactory();
+        Query q = new Query(tname("ft1"));
+        q.getJoins()
+                .add(
+                        new Join(
+                                tname("ftjoin"),
+                                ff.equal(
+                                        ff.property(aname("stringProperty")),
+                                        ff.property(aname("name")),
+                                        true)));
+        List<SimpleFeature> features =
+                DataUtilities.list(dataStore.getFeatureSource(tname("ft1")).getFeatures(q));
+        assertFalse(features.isEmpty());
+
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                dataStore.getFeatureReader(q, Transaction.AUTO_COMMIT)) {
+            FeatureReader<SimpleFeatureType, SimpleFeature> r = reader;
+            while (!(r instanceof JDBCJoiningFeatureReader)
+                    && r instanceof DelegatingFeatureReader) {
+                r = ((DelegatingFeatureReader<SimpleFeatureType, SimpleFeature>) r).getDelegate();
+            }
+            JDBCJoiningFeatureReader joinReader = (JDBCJoiningFeatureReader) r;
+
+            Object[] values = new Object[features.get(0).getAttributeCount()];
+            for (SimpleFeature feature : features) {
+                assertEquals(feature.getID(), joinReader.nextAttributes(values));
+                for (int i = 0; i < values.length; i++) {
+                    Object expected = feature.getAttribute(i);
+                    if (expected instanceof SimpleFeature) {
+                        // the joined feature
+                        assertEquals(
+                                ((SimpleFeature) expected).getAttributes(),
+                                ((SimpleFeature) values[i]).getAttributes());
+                    } else {
+                        assertEquals(expected, values[i]);
+                    }
+                }
+            }
+            assertNull(joinReader.nextAttributes(values));
+        }
+    }
+
     void doTestSimpleJoin(boolean exposePrimaryKeys) throws Exception {
         dataStore.setExposePrimaryKeyColumns(exposePrimaryKeys);
         try (SimpleFeatureIterator ita =
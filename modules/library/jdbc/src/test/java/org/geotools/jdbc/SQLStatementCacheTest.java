@@ -0,0 +1,138 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.jdbc.SQLStatementCache.SelectKey;
+import org.junit.Test;
+
+public class SQLStatementCacheTest {
+
+    @Test
+    public void testStatistics() {
+        SQLStatementCache cache = new SQLStatementCache(2);
+        assertNull(cache.get("a"));
+        cache.put("a", "SELECT a");
+        cache.put("b", "SELECT b");
+        assertEquals("SELECT a", cache.get("a"));
+        // b is the least recently used, gets evicted
+        cache.put("c", "SELECT c");
+        assertNull(cache.get("b"));
+        assertEquals("SELECT c", cache.get("c"));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testDisabled() {
+        SQLStatementCache cache = new SQLStatementCache(1);
+        cache.put("a", "SELECT a");
+        cache.setMaxSize(0);
+        assertFalse(cache.isEnabled());
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+
+        cache.put("a", "SELECT a");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        SQLStatementCache cache = new SQLStatementCache(16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    for (int i = 0; i < 1000; i++) {
+                                        String key = "k" + (i % 64);
+                                        if (cache.get(key) == null) {
+                                            cache.put(key, "SELECT " + key);
+                                        }
+                                    }
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.getSize() <= 16);
+        assertEquals(8000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getEvictions() >= 48);
+    }
+
+    @Test
+    public void testSelectKey() throws Exception {
+        SimpleFeatureType schema = DataUtilities.createType("roads", "name:String,length:Double");
+        List<AttributeDescriptor> attributes = schema.getAttributeDescriptors();
+        SelectKey key = key(attributes, "\"name\" = ?", Integer.MAX_VALUE);
+
+        // same shape, retyped schema sharing the descriptors
+        SimpleFeatureType retyped = SimpleFeatureTypeBuilder.retype(schema, "name", "length");
+        assertEquals(
+                key, key(retyped.getAttributeDescriptors(), "\"name\" = ?", Integer.MAX_VALUE));
+        assertEquals(
+                key.hashCode(),
+                key(retyped.getAttributeDescriptors(), "\"name\" = ?", Integer.MAX_VALUE)
+                        .hashCode());
+
+        // different filter, paging, or an equal but rebuilt schema
+        assertNotEquals(key, key(attributes, "\"name\" <> ?", Integer.MAX_VALUE));
+        assertNotEquals(key, key(attributes, "\"name\" = ?", 10));
+        SimpleFeatureType rebuilt = DataUtilities.createType("roads", "name:String,length:Double");
+        assertNotEquals(key, key(rebuilt.getAttributeDescriptors(), "\"name\" = ?", 10));
+    }
+
+    private SelectKey key(List<AttributeDescriptor> attributes, String filter, int maxFeatures) {
+        return new SelectKey(
+                "roads",
+                attributes,
+                filter,
+                new SortBy[] {SortBy.NATURAL_ORDER},
+                null,
+                maxFeatures,
+                Collections.emptyMap());
+    }
+}
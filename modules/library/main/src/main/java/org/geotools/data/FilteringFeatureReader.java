@@ -25,7 +25,7 @@
 import org.geotools.api.feature.IllegalAttributeException;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.filter.Filter;
-import org.geotools.filter.visitor.BindingFilterVisitor;
+import org.geotools.filter.visitor.CompilingFilterVisitor;
 
 /**
  * Basic support for a FeatureReader<SimpleFeatureType, SimpleFeature> that does filtering. I think
@@ -57,10 +57,7 @@
      */
     public FilteringFeatureReader(FeatureReader<T, F> featureReader, Filter filter) {
         this.featureReader = featureReader;
-        this.filter =
-                (Filter)
-                        filter.accept(
-                                new BindingFilterVisitor(featureReader.getFeatureType()), null);
+        this.filter = CompilingFilterVisitor.compile(filter, featureReader.getFeatureType());
         next = null;
     }
 
@@ -0,0 +1,363 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.util.Converters;
+
+/**
+ * An in memory index of simple features on the values of one of their attributes, used to find the
+ * candidate matches of equality and range comparisons without scanning all the features.
+ *
+ * <p>A {@link Type#HASH} index supports only equality lookups, a {@link Type#SORTED} one supports
+ * range lookups too. Lookups return a superset of the features matching the comparison, which still
+ * needs to be evaluated against the candidates: features whose value cannot be indexed (e.g., a
+ * value of a type other than the attribute binding, or a NaN) are returned by every lookup, while
+ * features with a null value, which cannot match a comparison, are never returned.
+ *
+ * <p>Numbers are indexed as doubles, as the filters compare them, while strings, dates and booleans
+ * are indexed as is. The index is not thread safe, and a feature must be removed from it before its
+ * value is modified.
+ */
+public class AttributeIndex {
+
+    /** The index types */
+    public enum Type {
+        /** Hash based index, supports equality lookups */
+        HASH,
+        /** Sorted index, supports both equality and range lookups */
+        SORTED
+    }
+
+    /** The attribute types that can be indexed */
+    static final Set<Class<?>> SUPPORTED_BINDINGS =
+            Set.of(
+                    Byte.class,
+                    Short.class,
+                    Integer.class,
+                    Long.class,
+                    Float.class,
+                    Double.class,
+                    String.class,
+                    Boolean.class,
+                    Date.class,
+                    java.sql.Date.class,
+                    Time.class,
+                    Timestamp.class);
+
+    /** Marks values that cannot be indexed */
+    private static final Object UNINDEXED = new Object();
+
+    private final String attribute;
+
+    private final Class<?> binding;
+
+    private final Type type;
+
+    /** Integral types range, literals outside of it might be converted in unexpected ways */
+    private final double minIntegral;
+
+    private final double maxIntegral;
+
+    private final Map<Object, List<SimpleFeature>> index;
+
+    /** Features whose value cannot be indexed, candidates for any lookup */
+    private final List<SimpleFeature> unindexed = new ArrayList<>();
+
+    /**
+     * Builds an empty index
+     *
+     * @param schema The type of the features to be indexed
+     * @param attribute The attribute to be indexed
+     * @param type The index type
+     * @throws IllegalArgumentException If the attribute is not found, or its type is not supported
+     */
+    public AttributeIndex(SimpleFeatureType schema, String attribute, Type type) {
+        AttributeDescriptor descriptor = schema.getDescriptor(attribute);
+        if (descriptor == null) {
+            throw new IllegalArgumentException(
+                    "Attribute " + attribute + " not found in " + schema.getTypeName());
+        }
+        this.attribute = attribute;
+        this.binding = descriptor.getType().getBinding();
+        this.type = type;
+        if (!SUPPORTED_BINDINGS.contains(binding)) {
+            throw new IllegalArgumentException(
+                    "Cannot index attribute " + attribute + " of type " + binding.getName());
+        }
+        if (binding == Byte.class) {
+            minIntegral = Byte.MIN_VALUE;
+            maxIntegral = Byte.MAX_VALUE;
+        } else if (binding == Short.class) {
+            minIntegral = Short.MIN_VALUE;
+            maxIntegral = Short.MAX_VALUE;
+        } else if (binding == Integer.class) {
+            minIntegral = Integer.MIN_VALUE;
+            maxIntegral = Integer.MAX_VALUE;
+        } else {
+            // longs beyond 2^53 cannot be represented exactly as doubles
+            minIntegral = -0x1p53;
+            maxIntegral = 0x1p53;
+        }
+        this.index = type == Type.SORTED ? new TreeMap<>() : new HashMap<>();
+    }
+
+    /** The indexed attribute */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /** The index type */
+    public Type getType() {
+        return type;
+    }
+
+    /** Adds the feature to the index */
+    public void add(SimpleFeature feature) {
+        Object key = toKey(feature.getAttribute(attribute));
+        if (key == UNINDEXED) {
+            unindexed.add(feature);
+        } else if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(feature);
+        }
+    }
+
+    /**
+     * Removes the feature from the index. The feature attribute must have the same value it had
+     * when the feature was added.
+     */
+    public void remove(SimpleFeature feature) {
+        Object key = toKey(feature.getAttribute(attribute));
+        if (key == UNINDEXED) {
+            removeInstance(unindexed, feature);
+        } else if (key != null) {
+            List<SimpleFeature> features = index.get(key);
+            if (features != null && removeInstance(features, feature) && features.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static boolean removeInstance(List<SimpleFeature> features, SimpleFeature feature) {
+        for (int i = 0; i < features.size(); i++) {
+            if (features.get(i) == feature) {
+                features.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Removes all features from the index */
+    public void clear() {
+        index.clear();
+        unindexed.clear();
+    }
+
+    /**
+     * Returns the candidate features whose value can be equal to the literal, or null if the
+     * literal cannot be looked up in this index
+     *
+     * @param literal The literal value
+     * @param matchCase Whether string comparison is case sensitive
+     */
+    public List<SimpleFeature> equalTo(Object literal, boolean matchCase) {
+        if (literal == null) {
+            return null;
+        }
+        List<Object> keys = new ArrayList<>(2);
+        if (Number.class.isAssignableFrom(binding)) {
+            Double value = toDouble(literal);
+            if (value == null) {
+                return null;
+            } else if (binding == Float.class) {
+                // the literal gets converted to a float before the comparison
+                keys.add(normalize((double) value.floatValue()));
+            } else if (binding == Double.class) {
+                keys.add(value);
+            } else {
+                // a non integral literal might be truncated or rounded
+                keys.add(normalize(Math.floor(value)));
+                if (Math.ceil(value) != Math.floor(value)) {
+                    keys.add(normalize(Math.ceil(value)));
+                }
+            }
+        } else if (binding == String.class) {
+            // case insensitive and number to string comparisons are not a simple lookup
+            if (!(literal instanceof String) || !matchCase) {
+                return null;
+            }
+            keys.add(literal);
+        } else {
+            Object converted = Converters.convert(literal, binding);
+            if (converted == null || converted.getClass() != binding) {
+                return null;
+            }
+            keys.add(converted);
+        }
+
+        List<SimpleFeature> result = new ArrayList<>(unindexed);
+        for (Object key : keys) {
+            List<SimpleFeature> features = index.get(key);
+            if (features != null) {
+                result.addAll(features);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the candidate features whose value can be between the two literals, or null if this
+     * index is not sorted, or the literals cannot be looked up in it. The range is always treated
+     * as inclusive, as that does not change the superset nature of the result.
+     *
+     * @param lower The lower bound, or null if the range is open below
+     * @param upper The upper bound, or null if the range is open above
+     */
+    @SuppressWarnings("unchecked")
+    public List<SimpleFeature> range(Object lower, Object upper) {
+        if (type != Type.SORTED || (lower == null && upper == null)) {
+            return null;
+        }
+        Object lowerKey = null;
+        Object upperKey = null;
+        if (lower != null && (lowerKey = toBound(lower, false)) == null) {
+            return null;
+        }
+        if (upper != null && (upperKey = toBound(upper, true)) == null) {
+            return null;
+        }
+
+        NavigableMap<Object, List<SimpleFeature>> sorted =
+                (NavigableMap<Object, List<SimpleFeature>>) index;
+        Collection<List<SimpleFeature>> matches;
+        if (lowerKey == null) {
+            matches = sorted.headMap(upperKey, true).values();
+        } else if (upperKey == null) {
+            matches = sorted.tailMap(lowerKey, true).values();
+        } else if (((Comparable<Object>) lowerKey).compareTo(upperKey) > 0) {
+            matches = List.of();
+        } else {
+            matches = sorted.subMap(lowerKey, true, upperKey, true).values();
+        }
+
+        List<SimpleFeature> result = new ArrayList<>(unindexed);
+        for (List<SimpleFeature> features : matches) {
+            result.addAll(features);
+        }
+        return result;
+    }
+
+    /** Returns the index key of a literal range bound, or null if it cannot be looked up */
+    private Object toBound(Object literal, boolean upper) {
+        if (Number.class.isAssignableFrom(binding)) {
+            Double value = toDouble(literal);
+            if (value == null) {
+                return null;
+            } else if (binding == Float.class) {
+                // the literal might be converted to a float, rounding it either way
+                float f = value.floatValue();
+                return normalize((double) (upper ? Math.nextUp(f) : Math.nextDown(f)));
+            } else if (binding == Double.class) {
+                return value;
+            } else {
+                return normalize(upper ? Math.ceil(value) : Math.floor(value));
+            }
+        } else if (binding == String.class) {
+            // strings that can be parsed as numbers get compared as numbers
+            if (!(literal instanceof String) || isNumber((String) literal)) {
+                return null;
+            }
+            return literal;
+        } else {
+            Object converted = Converters.convert(literal, binding);
+            if (converted == null || converted.getClass() != binding) {
+                return null;
+            }
+            return converted;
+        }
+    }
+
+    /**
+     * Converts a literal compared to a numeric attribute to a double, returns null if not possible
+     * or if the literal might be converted to the attribute type in unexpected ways
+     */
+    private Double toDouble(Object literal) {
+        double value;
+        if (literal instanceof Number) {
+            value = ((Number) literal).doubleValue();
+        } else if (literal instanceof String) {
+            Double converted = Converters.convert(literal, Double.class);
+            if (converted == null) {
+                return null;
+            }
+            value = converted;
+        } else {
+            return null;
+        }
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        if (binding != Float.class
+                && binding != Double.class
+                && (value < minIntegral || value > maxIntegral)) {
+            return null;
+        }
+        return normalize(value);
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Returns the index key for an attribute value, null for null values */
+    private Object toKey(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value.getClass() != binding) {
+            return UNINDEXED;
+        } else if (value instanceof Number) {
+            double d = ((Number) value).doubleValue();
+            // NaN compares as smaller than any other number in filters
+            return Double.isNaN(d) ? UNINDEXED : normalize(d);
+        }
+        return value;
+    }
+
+    /** Turns -0.0 into 0.0, as they compare equal in filters */
+    private static Double normalize(double value) {
+        return value + 0.0;
+    }
+}
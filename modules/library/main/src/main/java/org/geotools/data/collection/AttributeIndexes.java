@@ -0,0 +1,247 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.BinaryComparisonOperator;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.MultiValuedFilter.MatchAction;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsBetween;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.PropertyIsGreaterThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsLessThan;
+import org.geotools.api.filter.PropertyIsLessThanOrEqualTo;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.identity.Identifier;
+
+/**
+ * A set of {@link AttributeIndex} on the attributes of a feature type, along with a simple planner
+ * using them to find the candidate features for a filter:
+ *
+ * <ul>
+ *   <li>{@link PropertyIsEqualTo} and the other comparisons between an attribute and a literal,
+ *       along with {@link PropertyIsBetween}, are looked up in the attribute index, if any
+ *   <li>{@link Id} filters are looked up in the id index provided by the caller, if any
+ *   <li>{@link Or} filters are the union of their children candidates, as long as all children can
+ *       use an index (this includes the IN predicate, which is encoded as an OR of equalities)
+ *   <li>{@link And} filters use the most selective child that can use an index
+ * </ul>
+ *
+ * The candidates are a superset of the features matching the filter, which still needs to be
+ * evaluated against them. Like {@link AttributeIndex}, this class is not thread safe.
+ */
+public class AttributeIndexes {
+
+    private final SimpleFeatureType schema;
+
+    private final Map<String, AttributeIndex> indexes = new LinkedHashMap<>();
+
+    public AttributeIndexes(SimpleFeatureType schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Adds an index on the specified attribute, replacing the existing one, if any
+     *
+     * @param attribute The attribute to be indexed
+     * @param type The index type
+     * @param features The features to be indexed
+     * @return The new index
+     * @throws IllegalArgumentException If the attribute is not found, or its type is not supported
+     */
+    public AttributeIndex addIndex(
+            String attribute, AttributeIndex.Type type, Iterable<SimpleFeature> features) {
+        AttributeIndex index = new AttributeIndex(schema, attribute, type);
+        for (SimpleFeature feature : features) {
+            index.add(feature);
+        }
+        indexes.put(attribute, index);
+        return index;
+    }
+
+    /**
+     * Removes the index on the specified attribute
+     *
+     * @return True if the index was found and removed
+     */
+    public boolean removeIndex(String attribute) {
+        return indexes.remove(attribute) != null;
+    }
+
+    /** Returns the index on the specified attribute, or null if not found */
+    public AttributeIndex getIndex(String attribute) {
+        return indexes.get(attribute);
+    }
+
+    /** Returns true if there are no attribute indexes */
+    public boolean isEmpty() {
+        return indexes.isEmpty();
+    }
+
+    /** Adds the feature to all the indexes */
+    public void add(SimpleFeature feature) {
+        for (AttributeIndex index : indexes.values()) {
+            index.add(feature);
+        }
+    }
+
+    /**
+     * Removes the feature from all the indexes, see {@link AttributeIndex#remove(SimpleFeature)}
+     */
+    public void remove(SimpleFeature feature) {
+        for (AttributeIndex index : indexes.values()) {
+            index.remove(feature);
+        }
+    }
+
+    /** Removes all the features from the indexes, the indexes themselves are preserved */
+    public void clear() {
+        for (AttributeIndex index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Returns the candidate features for the filter, or null if the filter cannot be resolved using
+     * the indexes
+     *
+     * @param filter The filter
+     * @param ids Looks up the features with a given id, or null if there is no id index
+     */
+    public List<SimpleFeature> getCandidates(
+            Filter filter, Function<String, Collection<SimpleFeature>> ids) {
+        if (filter instanceof Id) {
+            if (ids == null) {
+                return null;
+            }
+            List<SimpleFeature> result = new ArrayList<>();
+            for (Identifier identifier : ((Id) filter).getIdentifiers()) {
+                Object id = identifier.getID();
+                Collection<SimpleFeature> features = id == null ? null : ids.apply(id.toString());
+                if (features != null) {
+                    result.addAll(features);
+                }
+            }
+            return result;
+        } else if (filter instanceof And) {
+            // the smallest candidate set wins
+            List<SimpleFeature> best = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                List<SimpleFeature> candidates = getCandidates(child, ids);
+                if (candidates != null && (best == null || candidates.size() < best.size())) {
+                    best = candidates;
+                }
+            }
+            return best;
+        } else if (filter instanceof Or) {
+            List<SimpleFeature> result = new ArrayList<>();
+            Set<SimpleFeature> found = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Filter child : ((Or) filter).getChildren()) {
+                List<SimpleFeature> candidates = getCandidates(child, ids);
+                if (candidates == null) {
+                    return null;
+                }
+                for (SimpleFeature candidate : candidates) {
+                    if (found.add(candidate)) {
+                        result.add(candidate);
+                    }
+                }
+            }
+            return result;
+        } else if (filter instanceof PropertyIsBetween) {
+            PropertyIsBetween between = (PropertyIsBetween) filter;
+            AttributeIndex index = getIndex(between.getExpression(), between.getMatchAction());
+            if (index == null
+                    || !(between.getLowerBoundary() instanceof Literal)
+                    || !(between.getUpperBoundary() instanceof Literal)) {
+                return null;
+            }
+            Object lower = ((Literal) between.getLowerBoundary()).getValue();
+            Object upper = ((Literal) between.getUpperBoundary()).getValue();
+            if (lower == null || upper == null) {
+                return null;
+            }
+            return index.range(lower, upper);
+        } else if (filter instanceof BinaryComparisonOperator) {
+            return getComparisonCandidates((BinaryComparisonOperator) filter);
+        }
+        return null;
+    }
+
+    private List<SimpleFeature> getComparisonCandidates(BinaryComparisonOperator comparison) {
+        Expression expression1 = comparison.getExpression1();
+        Expression expression2 = comparison.getExpression2();
+        AttributeIndex index;
+        Object value;
+        boolean literalFirst;
+        if (expression1 instanceof PropertyName && expression2 instanceof Literal) {
+            index = getIndex(expression1, comparison.getMatchAction());
+            value = ((Literal) expression2).getValue();
+            literalFirst = false;
+        } else if (expression1 instanceof Literal && expression2 instanceof PropertyName) {
+            index = getIndex(expression2, comparison.getMatchAction());
+            value = ((Literal) expression1).getValue();
+            literalFirst = true;
+        } else {
+            return null;
+        }
+        if (index == null || value == null) {
+            return null;
+        }
+
+        if (comparison instanceof PropertyIsEqualTo) {
+            return index.equalTo(value, comparison.isMatchingCase());
+        }
+        boolean greater =
+                comparison instanceof PropertyIsGreaterThan
+                        || comparison instanceof PropertyIsGreaterThanOrEqualTo;
+        boolean less =
+                comparison instanceof PropertyIsLessThan
+                        || comparison instanceof PropertyIsLessThanOrEqualTo;
+        if (!greater && !less) {
+            return null;
+        }
+        // the attribute is greater than the literal also if the literal is on the left of a less
+        boolean attributeGreater = greater != literalFirst;
+        return attributeGreater ? index.range(value, null) : index.range(null, value);
+    }
+
+    /** Returns the index for the property, or null if not a property or not indexed */
+    private AttributeIndex getIndex(Expression expression, MatchAction matchAction) {
+        // only single valued attributes are indexed, but be careful with matchAction anyways
+        if (!(expression instanceof PropertyName) || matchAction == MatchAction.ALL) {
+            return null;
+        }
+        return indexes.get(((PropertyName) expression).getPropertyName());
+    }
+}
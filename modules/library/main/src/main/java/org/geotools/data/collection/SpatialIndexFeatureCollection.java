@@ -20,8 +20,10 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,6 +54,9 @@
  * <p>Please note that this feature collection cannot be modified after the spatial index is
  * created.
  *
+ * <p>Optional attribute indexes can be added with {@link #addIndex(String, AttributeIndex.Type)},
+ * to speed up {@link #subCollection(Filter)} calls with attribute and id filters.
+ *
  * @author Jody
  */
 public class SpatialIndexFeatureCollection implements SimpleFeatureCollection {
@@ -66,6 +71,12 @@ public class SpatialIndexFeatureCollection implements SimpleFeatureCollection {
     /** Listeners */
     protected List<CollectionListener> listeners = null;
 
+    /** Optional attribute indexes, null if none was added */
+    protected AttributeIndexes attributeIndexes;
+
+    /** Features by id, maintained along with the attribute indexes */
+    protected Map<String, List<SimpleFeature>> ids;
+
     public SpatialIndexFeatureCollection() {
         this.index = new STRtree();
     }
@@ -144,6 +155,51 @@ public SimpleFeatureCollection sort(SortBy order) {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Adds an index on the specified attribute, used by {@link #subCollection(Filter)} to find the
+     * candidate features for filters comparing the attribute with literals, or matching feature
+     * ids. The existing features are indexed too, which requires building the spatial index: add
+     * the attribute indexes before the features, if more features are going to be added.
+     *
+     * @param attribute The attribute to be indexed
+     * @param type The index type, {@link AttributeIndex.Type#SORTED} supports range lookups
+     * @throws IllegalArgumentException If the attribute is not found, or its type is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void addIndex(String attribute, AttributeIndex.Type type) {
+        if (schema == null) {
+            throw new IllegalStateException("Cannot add attribute indexes without a schema");
+        }
+        List<SimpleFeature> features =
+                index.size() == 0
+                        ? Collections.emptyList()
+                        : (List<SimpleFeature>) index.query(everything());
+        if (attributeIndexes == null) {
+            attributeIndexes = new AttributeIndexes(schema);
+            ids = new HashMap<>();
+            for (SimpleFeature feature : features) {
+                ids.computeIfAbsent(feature.getID(), id -> new ArrayList<>(1)).add(feature);
+            }
+        }
+        attributeIndexes.addIndex(attribute, type, features);
+    }
+
+    /** Adds the feature to the attribute and id indexes, if any */
+    private void addToAttributeIndexes(SimpleFeature feature) {
+        if (attributeIndexes != null) {
+            attributeIndexes.add(feature);
+            ids.computeIfAbsent(feature.getID(), id -> new ArrayList<>(1)).add(feature);
+        }
+    }
+
+    private static Envelope everything() {
+        return new Envelope(
+                Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY);
+    }
+
     @Override
     public SimpleFeatureCollection subCollection(Filter filter) {
         // split out the spatial part of the filter
@@ -154,8 +210,17 @@ public SimpleFeatureCollection subCollection(Filter filter) {
             LOGGER.fine("Found no spatial element in " + filter);
             LOGGER.fine("Just going to iterate");
         }
+        // use the attribute indexes too, and go with the smallest candidate set
+        List<SimpleFeature> attributeResults =
+                attributeIndexes == null ? null : attributeIndexes.getCandidates(filter, ids::get);
         @SuppressWarnings("unchecked")
-        List<SimpleFeature> queryResults = (List<SimpleFeature>) index.query(env);
+        List<SimpleFeature> queryResults =
+                attributeResults != null && Double.isInfinite(env.getWidth())
+                        ? attributeResults
+                        : (List<SimpleFeature>) index.query(env);
+        if (attributeResults != null && attributeResults.size() < queryResults.size()) {
+            queryResults = attributeResults;
+        }
         for (SimpleFeature sample : queryResults) {
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.finest("Looking at " + sample);
@@ -217,6 +282,7 @@ public void visitItem(Object item) {
     public boolean add(SimpleFeature feature) {
         ReferencedEnvelope bounds = ReferencedEnvelope.reference(feature.getBounds());
         index.insert(bounds, feature);
+        addToAttributeIndexes(feature);
 
         return false;
     }
@@ -226,6 +292,7 @@ public boolean addAll(Collection<? extends SimpleFeature> collection) {
             try {
                 ReferencedEnvelope bounds = ReferencedEnvelope.reference(feature.getBounds());
                 index.insert(bounds, feature);
+                addToAttributeIndexes(feature);
             } catch (Throwable t) {
             }
         }
@@ -240,6 +307,7 @@ public boolean addAll(
                     SimpleFeature feature = iter.next();
                     ReferencedEnvelope bounds = ReferencedEnvelope.reference(feature.getBounds());
                     index.insert(bounds, feature);
+                    addToAttributeIndexes(feature);
                 } catch (Throwable t) {
                 }
             }
@@ -250,6 +318,10 @@ public boolean addAll(
     public synchronized void clear() {
         index = null;
         index = new STRtree();
+        if (attributeIndexes != null) {
+            attributeIndexes.clear();
+            ids.clear();
+        }
         listeners.clear();
         listeners = null;
     }
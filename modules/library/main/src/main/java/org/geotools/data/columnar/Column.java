@@ -0,0 +1,612 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The values of one attribute for all the features of a {@link ColumnarTable}. Values are appended
+ * while loading the table, and read by row index afterwards.
+ *
+ * <p>Primitive values are stored in primitive arrays, with a bit set tracking the nulls, strings
+ * are dictionary encoded, geometries are stored off heap by {@link GeometryColumn}. Other types are
+ * stored as plain objects by {@link ObjectColumn}, which is also used as a fallback when a value
+ * does not match the attribute binding.
+ *
+ * <p>The min, max, sum and unique methods support the visitor optimizations: they return values
+ * identical to the ones the corresponding visitors would compute scanning the features.
+ */
+abstract class Column {
+
+    /** Marks an unsupported aggregate */
+    static final Object UNSUPPORTED = new Object();
+
+    /** Creates an empty column for the given attribute */
+    static Column create(AttributeDescriptor descriptor) {
+        Class<?> binding = descriptor.getType().getBinding();
+        if (Geometry.class.isAssignableFrom(binding)) {
+            return new GeometryColumn();
+        } else if (binding == Integer.class || binding == Short.class || binding == Byte.class) {
+            return new IntColumn(binding);
+        } else if (binding == Long.class) {
+            return new LongColumn();
+        } else if (binding == Double.class || binding == Float.class) {
+            return new DoubleColumn(binding);
+        } else if (binding == Boolean.class) {
+            return new BooleanColumn();
+        } else if (binding == String.class) {
+            return new StringColumn();
+        } else if (binding == Date.class
+                || binding == java.sql.Date.class
+                || binding == Time.class) {
+            return new DateColumn(binding);
+        }
+        return new ObjectColumn();
+    }
+
+    /**
+     * Appends a value to the column
+     *
+     * @return false if the value is not supported by this column, in which case nothing is added
+     */
+    abstract boolean add(Object value);
+
+    /** Returns the value at the given row, a new object at each call for mutable types */
+    abstract Object get(int row);
+
+    /** Number of values in the column */
+    abstract int size();
+
+    /** Releases the excess capacity allocated while loading */
+    void trim() {}
+
+    /** Releases the column resources */
+    void dispose() {}
+
+    /**
+     * Returns the minimum or maximum value as {@link Comparable#compareTo(Object)} sees it, null if
+     * all values are null, or {@link #UNSUPPORTED} if the values are not comparable
+     */
+    @SuppressWarnings("unchecked")
+    Object extreme(boolean max) {
+        Comparable<Object> result = null;
+        for (int row = 0, size = size(); row < size; row++) {
+            Object value = get(row);
+            if (value == null) {
+                continue;
+            } else if (!(value instanceof Comparable)) {
+                return UNSUPPORTED;
+            }
+            Comparable<Object> comparable = (Comparable<Object>) value;
+            int comparison = result == null ? 0 : comparable.compareTo(result);
+            if (result == null || (max ? comparison > 0 : comparison < 0)) {
+                result = comparable;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of the values, accumulated in the same type as the sum visitor does, null if
+     * all values are null, or {@link #UNSUPPORTED} if the values are not numbers
+     */
+    Object sum() {
+        return UNSUPPORTED;
+    }
+
+    /** Returns the distinct non null values, in order of first appearance */
+    Collection<Object> unique() {
+        Set<Object> result = new LinkedHashSet<>();
+        for (int row = 0, size = size(); row < size; row++) {
+            Object value = get(row);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    /** Returns the new capacity for an array that needs to hold one more value */
+    static int grow(int length) {
+        return Math.max(16, length + (length >> 1));
+    }
+
+    /** Base class for columns of primitives, tracks the null values */
+    abstract static class PrimitiveColumn extends Column {
+
+        BitSet nulls = new BitSet();
+
+        int size;
+
+        @Override
+        boolean add(Object value) {
+            if (value == null) {
+                ensureCapacity(size + 1);
+                nulls.set(size++);
+                return true;
+            } else if (!accepts(value)) {
+                return false;
+            }
+            ensureCapacity(size + 1);
+            set(size++, value);
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : getValue(row);
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        /** Returns true if the value can be stored in this column */
+        abstract boolean accepts(Object value);
+
+        abstract void ensureCapacity(int capacity);
+
+        /** Stores a non null value */
+        abstract void set(int row, Object value);
+
+        /** Returns a non null value */
+        abstract Object getValue(int row);
+    }
+
+    /** Integer, short and byte values */
+    static class IntColumn extends PrimitiveColumn {
+
+        final Class<?> binding;
+
+        int[] values = new int[0];
+
+        IntColumn(Class<?> binding) {
+            this.binding = binding;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value.getClass() == binding;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Number) value).intValue();
+        }
+
+        @Override
+        Object getValue(int row) {
+            return box(values[row]);
+        }
+
+        private Object box(int value) {
+            if (binding == Short.class) {
+                return (short) value;
+            } else if (binding == Byte.class) {
+                return (byte) value;
+            }
+            return value;
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object extreme(boolean max) {
+            boolean found = false;
+            int result = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    int value = values[row];
+                    if (!found || (max ? value > result : value < result)) {
+                        result = value;
+                        found = true;
+                    }
+                }
+            }
+            return found ? box(result) : null;
+        }
+
+        @Override
+        Object sum() {
+            if (nulls.cardinality() == size) {
+                return null;
+            }
+            // integers are summed as integers, overflow included, shorts and bytes as doubles
+            if (binding == Integer.class) {
+                int sum = 0;
+                for (int row = 0; row < size; row++) {
+                    if (!nulls.get(row)) {
+                        sum += values[row];
+                    }
+                }
+                return sum;
+            }
+            double sum = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    sum += values[row];
+                }
+            }
+            return sum;
+        }
+    }
+
+    /** Long values */
+    static class LongColumn extends PrimitiveColumn {
+
+        long[] values = new long[0];
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Long;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = (Long) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object extreme(boolean max) {
+            boolean found = false;
+            long result = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    long value = values[row];
+                    if (!found || (max ? value > result : value < result)) {
+                        result = value;
+                        found = true;
+                    }
+                }
+            }
+            return found ? result : null;
+        }
+
+        @Override
+        Object sum() {
+            if (nulls.cardinality() == size) {
+                return null;
+            }
+            long sum = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    sum += values[row];
+                }
+            }
+            return sum;
+        }
+    }
+
+    /** Double and float values, floats are widened to doubles, which is lossless */
+    static class DoubleColumn extends PrimitiveColumn {
+
+        final boolean isFloat;
+
+        double[] values = new double[0];
+
+        DoubleColumn(Class<?> binding) {
+            this.isFloat = binding == Float.class;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value.getClass() == (isFloat ? Float.class : Double.class);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        Object getValue(int row) {
+            return box(values[row]);
+        }
+
+        private Object box(double value) {
+            // not using a conditional expression, it would unbox the float and widen it
+            if (isFloat) {
+                return Float.valueOf((float) value);
+            }
+            return Double.valueOf(value);
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        Object extreme(boolean max) {
+            boolean found = false;
+            double result = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    double value = values[row];
+                    if (max && !isFloat && !Double.isFinite(value)) {
+                        // MaxVisitor skips and counts them, let it do so
+                        return UNSUPPORTED;
+                    }
+                    // same ordering as Double.compareTo, NaN included
+                    int comparison = Double.compare(value, result);
+                    if (!found || (max ? comparison > 0 : comparison < 0)) {
+                        result = value;
+                        found = true;
+                    }
+                }
+            }
+            if (!found) {
+                return null;
+            }
+            return box(result);
+        }
+
+        @Override
+        Object sum() {
+            if (nulls.cardinality() == size) {
+                return null;
+            }
+            if (isFloat) {
+                float sum = 0;
+                for (int row = 0; row < size; row++) {
+                    if (!nulls.get(row)) {
+                        sum += (float) values[row];
+                    }
+                }
+                return sum;
+            }
+            double sum = 0;
+            for (int row = 0; row < size; row++) {
+                if (!nulls.get(row)) {
+                    sum += values[row];
+                }
+            }
+            return sum;
+        }
+    }
+
+    /** Boolean values */
+    static class BooleanColumn extends PrimitiveColumn {
+
+        BitSet values = new BitSet();
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Boolean;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            // bit sets grow on their own
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values.set(row, (Boolean) value);
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values.get(row);
+        }
+    }
+
+    /** Dates, stored as milliseconds since the epoch */
+    static class DateColumn extends PrimitiveColumn {
+
+        final Class<?> binding;
+
+        long[] values = new long[0];
+
+        DateColumn(Class<?> binding) {
+            this.binding = binding;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            // subclasses might carry more information (e.g., nanoseconds in timestamps)
+            return value.getClass() == binding;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Date) value).getTime();
+        }
+
+        @Override
+        Object getValue(int row) {
+            long time = values[row];
+            if (binding == java.sql.Date.class) {
+                return new java.sql.Date(time);
+            } else if (binding == Time.class) {
+                return new Time(time);
+            }
+            return new Date(time);
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Dictionary encoded strings: each distinct string is stored once, and each row holds the index
+     * of its string in the dictionary, or -1 for nulls
+     */
+    static class StringColumn extends Column {
+
+        int[] codes = new int[0];
+
+        int size;
+
+        List<String> dictionary = new ArrayList<>();
+
+        /** Used only while loading, dropped by {@link #trim()} */
+        Map<String, Integer> lookup = new HashMap<>();
+
+        @Override
+        boolean add(Object value) {
+            if (value != null && !(value instanceof String)) {
+                return false;
+            }
+            if (codes.length <= size) {
+                codes = Arrays.copyOf(codes, grow(codes.length));
+            }
+            int code = -1;
+            if (value != null) {
+                code =
+                        lookup.computeIfAbsent(
+                                (String) value,
+                                v -> {
+                                    dictionary.add(v);
+                                    return dictionary.size() - 1;
+                                });
+            }
+            codes[size++] = code;
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void trim() {
+            codes = Arrays.copyOf(codes, size);
+            ((ArrayList<String>) dictionary).trimToSize();
+            lookup = null;
+        }
+
+        @Override
+        Object extreme(boolean max) {
+            // every entry in the dictionary is used by at least one row
+            String result = null;
+            for (String value : dictionary) {
+                if (result == null
+                        || (max ? value.compareTo(result) > 0 : value.compareTo(result) < 0)) {
+                    result = value;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        Collection<Object> unique() {
+            // codes are assigned in order of first appearance
+            return new ArrayList<>(dictionary);
+        }
+    }
+
+    /** Generic values, stored as is */
+    static class ObjectColumn extends Column {
+
+        List<Object> values = new ArrayList<>();
+
+        /** Copies the values of another column, used when a value does not fit the original one */
+        static ObjectColumn copyOf(Column column) {
+            ObjectColumn result = new ObjectColumn();
+            for (int row = 0, size = column.size(); row < size; row++) {
+                result.values.add(column.get(row));
+            }
+            column.dispose();
+            return result;
+        }
+
+        @Override
+        boolean add(Object value) {
+            values.add(value);
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        int size() {
+            return values.size();
+        }
+
+        @Override
+        void trim() {
+            ((ArrayList<Object>) values).trimToSize();
+        }
+    }
+}
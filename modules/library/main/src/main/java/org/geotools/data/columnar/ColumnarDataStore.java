@@ -0,0 +1,135 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.Name;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.data.store.ContentDataStore;
+import org.geotools.data.store.ContentEntry;
+import org.geotools.data.store.ContentFeatureSource;
+
+/**
+ * A read only, in memory data store keeping the features by column, for fast access to large
+ * datasets with a small memory footprint:
+ *
+ * <ul>
+ *   <li>Numbers, booleans and dates are stored in primitive arrays
+ *   <li>Strings are dictionary encoded, each distinct value is stored once
+ *   <li>Geometries are stored off heap, along with their envelopes, which are used to skip the
+ *       features outside of the filter bounds without decoding their geometries
+ *   <li>Features are built only when read
+ * </ul>
+ *
+ * Contents are bulk loaded from other feature sources using {@link #load(SimpleFeatureSource)}, and
+ * can be replaced by loading the same feature type again. Simple aggregates over whole tables
+ * (count, min, max, sum, unique) are computed directly on the columns.
+ */
+public class ColumnarDataStore extends ContentDataStore {
+
+    private final Map<String, ColumnarTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Loads all the features of the source, replacing the contents of the feature type with the
+     * same name, if any
+     *
+     * @param source The feature source to read from
+     * @return The name of the loaded feature type
+     */
+    public String load(SimpleFeatureSource source) throws IOException {
+        return load(source, Query.ALL);
+    }
+
+    /**
+     * Loads the features of the source matching the query, replacing the contents of the feature
+     * type with the same name, if any
+     *
+     * @param source The feature source to read from
+     * @param query The query selecting the features and attributes to be loaded
+     * @return The name of the loaded feature type
+     */
+    public String load(SimpleFeatureSource source, Query query) throws IOException {
+        SimpleFeatureCollection features = source.getFeatures(query);
+        SimpleFeatureType schema = features.getSchema();
+        ColumnarTable table = new ColumnarTable(schema);
+        try (SimpleFeatureIterator it = features.features()) {
+            while (it.hasNext()) {
+                table.add(it.next());
+            }
+        } catch (RuntimeException e) {
+            table.dispose();
+            throw e;
+        }
+        table.complete();
+
+        String typeName = schema.getTypeName();
+        // the previous table is not disposed, as open readers might still be using it, it will be
+        // garbage collected along with its off heap memory
+        tables.put(typeName, table);
+        // forget the cached state, the schema might have changed
+        removeEntry(name(typeName));
+        return typeName;
+    }
+
+    /** Returns the table of the given feature type, or null if not found */
+    ColumnarTable getTable(String typeName) {
+        return tables.get(typeName);
+    }
+
+    @Override
+    protected List<Name> createTypeNames() throws IOException {
+        List<Name> names = new ArrayList<>();
+        for (String typeName : tables.keySet()) {
+            names.add(name(typeName));
+        }
+        names.sort((n1, n2) -> n1.toString().compareTo(n2.toString()));
+        return names;
+    }
+
+    @Override
+    protected ContentFeatureSource createFeatureSource(ContentEntry entry) throws IOException {
+        return new ColumnarFeatureSource(entry, Query.ALL);
+    }
+
+    @Override
+    public void removeSchema(String typeName) throws IOException {
+        tables.remove(typeName);
+        removeEntry(name(typeName));
+    }
+
+    @Override
+    public void removeSchema(Name typeName) throws IOException {
+        removeSchema(typeName.getLocalPart());
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        for (ColumnarTable table : tables.values()) {
+            table.dispose();
+        }
+        tables.clear();
+    }
+}
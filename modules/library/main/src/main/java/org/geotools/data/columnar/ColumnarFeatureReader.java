@@ -0,0 +1,114 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.feature.simple.SimpleFeatureImpl;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.geotools.filter.visitor.ExtractBoundsFilterVisitor;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Reads the features of a {@link ColumnarTable}, building each feature only when {@link #next()} is
+ * called. When the table has a single geometry column, the rows whose envelope does not intersect
+ * the filter bounds are skipped without building the feature. The filter itself is evaluated by the
+ * caller.
+ */
+class ColumnarFeatureReader implements FeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    ColumnarTable table;
+
+    /** The geometry column used for pre-filtering, if any */
+    GeometryColumn geometries;
+
+    Envelope envelope;
+
+    /** The next row to be returned, or the table size when done */
+    int row = -1;
+
+    public ColumnarFeatureReader(ColumnarTable table, Filter filter) {
+        this.table = table;
+        GeometryColumn geometries = null;
+        for (Column column : table.columns) {
+            if (column instanceof GeometryColumn) {
+                if (geometries != null) {
+                    // the filter bounds might refer to either geometry
+                    geometries = null;
+                    break;
+                }
+                geometries = (GeometryColumn) column;
+            }
+        }
+        if (geometries != null && filter != null && filter != Filter.INCLUDE) {
+            Envelope bounds =
+                    (Envelope) filter.accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR, null);
+            if (bounds != null
+                    && !bounds.isNull()
+                    && Double.isFinite(bounds.getWidth())
+                    && Double.isFinite(bounds.getHeight())) {
+                this.geometries = geometries;
+                this.envelope = bounds;
+            }
+        }
+        advance();
+    }
+
+    private void advance() {
+        row++;
+        if (geometries != null) {
+            while (row < table.size && !geometries.intersects(row, envelope)) {
+                row++;
+            }
+        }
+    }
+
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return table.schema;
+    }
+
+    @Override
+    public SimpleFeature next() throws IOException, NoSuchElementException {
+        if (table == null) {
+            throw new IOException("Feature Reader has been closed");
+        } else if (row >= table.size) {
+            throw new NoSuchElementException("There are no more Features");
+        }
+        Object[] values = new Object[table.columns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = table.getValue(i, row);
+        }
+        FeatureIdImpl id = new FeatureIdImpl(table.getFeatureId(row));
+        advance();
+        return new SimpleFeatureImpl(values, table.schema, id, false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return table != null && row < table.size;
+    }
+
+    @Override
+    public void close() {
+        table = null;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.feature.FeatureVisitor;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.data.store.ContentEntry;
+import org.geotools.data.store.ContentFeatureSource;
+import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.MinVisitor;
+import org.geotools.feature.visitor.SumVisitor;
+import org.geotools.feature.visitor.UniqueVisitor;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+/**
+ * Read access to the contents of a {@link ColumnarTable}.
+ *
+ * <p>Counts and bounds of the whole table are returned without scanning the features, while the
+ * {@link CountVisitor}, {@link MinVisitor}, {@link MaxVisitor}, {@link SumVisitor} and {@link
+ * UniqueVisitor} are computed directly on the columns when visiting the whole table.
+ */
+public class ColumnarFeatureSource extends ContentFeatureSource {
+
+    public ColumnarFeatureSource(ContentEntry entry, Query query) {
+        super(entry, query);
+    }
+
+    @Override
+    public ColumnarDataStore getDataStore() {
+        return (ColumnarDataStore) super.getDataStore();
+    }
+
+    ColumnarTable getTable() throws IOException {
+        ColumnarTable table = getDataStore().getTable(entry.getTypeName());
+        if (table == null) {
+            throw new IOException("Type " + entry.getTypeName() + " is no longer available");
+        }
+        return table;
+    }
+
+    @Override
+    protected ReferencedEnvelope getBoundsInternal(Query query) throws IOException {
+        if (query.getFilter() == Filter.INCLUDE) {
+            return getTable().getBounds();
+        }
+        // feature by feature scan required
+        return null;
+    }
+
+    @Override
+    protected int getCountInternal(Query query) throws IOException {
+        if (query.getFilter() == Filter.INCLUDE) {
+            return getTable().size;
+        }
+        // feature by feature count required
+        return -1;
+    }
+
+    @Override
+    protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Query query)
+            throws IOException {
+        return new ColumnarFeatureReader(getTable(), query.getFilter());
+    }
+
+    @Override
+    protected SimpleFeatureType buildFeatureType() throws IOException {
+        return getTable().schema;
+    }
+
+    @Override
+    protected boolean handleVisitor(Query query, FeatureVisitor visitor) throws IOException {
+        // the columns hold the whole table, cannot handle subsets
+        if (query.getFilter() != Filter.INCLUDE
+                || !query.isMaxFeaturesUnlimited()
+                || query.getStartIndex() != null) {
+            return false;
+        }
+        ColumnarTable table = getTable();
+        if (visitor instanceof CountVisitor) {
+            ((CountVisitor) visitor).setValue(table.size);
+            return true;
+        }
+
+        if (visitor instanceof MinVisitor || visitor instanceof MaxVisitor) {
+            boolean max = visitor instanceof MaxVisitor;
+            Expression expression =
+                    max
+                            ? ((MaxVisitor) visitor).getExpression()
+                            : ((MinVisitor) visitor).getExpression();
+            Column column = getColumn(table, expression);
+            Object value = column == null ? Column.UNSUPPORTED : column.extreme(max);
+            if (value == Column.UNSUPPORTED) {
+                return false;
+            } else if (value != null) {
+                if (max) {
+                    ((MaxVisitor) visitor).setValue(value);
+                } else {
+                    ((MinVisitor) visitor).setValue(value);
+                }
+            }
+            return true;
+        } else if (visitor instanceof SumVisitor) {
+            SumVisitor sum = (SumVisitor) visitor;
+            Column column = getColumn(table, sum.getExpression());
+            Object value = column == null ? Column.UNSUPPORTED : column.sum();
+            if (value == Column.UNSUPPORTED) {
+                return false;
+            } else if (value != null) {
+                sum.setValue(value);
+            }
+            return true;
+        } else if (visitor instanceof UniqueVisitor) {
+            UniqueVisitor unique = (UniqueVisitor) visitor;
+            List<Expression> expressions = unique.getExpressions();
+            Column column = expressions.size() == 1 ? getColumn(table, expressions.get(0)) : null;
+            if (column == null || unique.hasLimits()) {
+                return false;
+            }
+            Collection<Object> values = column.unique();
+            if (!values.isEmpty()) {
+                unique.setValue(values);
+            }
+            return true;
+        }
+        return super.handleVisitor(query, visitor);
+    }
+
+    /** Returns the column of the attribute, or null if the expression is not a plain attribute */
+    private Column getColumn(ColumnarTable table, Expression expression) {
+        if (!(expression instanceof PropertyName)) {
+            return null;
+        }
+        int index = table.schema.indexOf(((PropertyName) expression).getPropertyName());
+        return index < 0 ? null : table.columns[index];
+    }
+}
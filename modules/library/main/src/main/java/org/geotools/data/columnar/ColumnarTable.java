@@ -0,0 +1,189 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The contents of a feature type, stored by column. Features are appended by {@link
+ * #add(SimpleFeature)}, the table is then {@link #complete() completed} and becomes read only.
+ */
+class ColumnarTable {
+
+    final SimpleFeatureType schema;
+
+    final Column[] columns;
+
+    final FeatureIdColumn ids = new FeatureIdColumn();
+
+    int size;
+
+    ReferencedEnvelope bounds;
+
+    ColumnarTable(SimpleFeatureType schema) {
+        this.schema = schema;
+        List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+        this.columns = new Column[descriptors.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Column.create(descriptors.get(i));
+        }
+    }
+
+    /** Appends a feature to the table */
+    void add(SimpleFeature feature) {
+        for (int i = 0; i < columns.length; i++) {
+            Object value = feature.getAttribute(i);
+            if (!columns[i].add(value)) {
+                // the value does not match the attribute binding, store it as is
+                columns[i] = Column.ObjectColumn.copyOf(columns[i]);
+                columns[i].add(value);
+            }
+        }
+        ids.add(feature.getID());
+        size++;
+    }
+
+    /** Releases the memory allocated in excess while loading, and computes the bounds */
+    void complete() {
+        for (Column column : columns) {
+            column.trim();
+        }
+        ids.trim();
+
+        bounds = ReferencedEnvelope.create(schema.getCoordinateReferenceSystem());
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof GeometryColumn) {
+                bounds.expandToInclude(((GeometryColumn) columns[i]).getBounds());
+            } else if (schema.getDescriptor(i) instanceof GeometryDescriptor) {
+                for (int row = 0; row < size; row++) {
+                    Object value = columns[i].get(row);
+                    if (value instanceof Geometry) {
+                        bounds.expandToInclude(((Geometry) value).getEnvelopeInternal());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Returns the value of the given attribute at the given row */
+    Object getValue(int column, int row) {
+        return columns[column].get(row);
+    }
+
+    /** Returns the id of the feature at the given row */
+    String getFeatureId(int row) {
+        return ids.get(row);
+    }
+
+    /** Returns the bounds of all the geometries in the table, in the schema CRS */
+    ReferencedEnvelope getBounds() {
+        return new ReferencedEnvelope(bounds);
+    }
+
+    /** Releases the table resources */
+    void dispose() {
+        for (Column column : columns) {
+            column.dispose();
+        }
+    }
+
+    /**
+     * Feature ids, commonly made of a fixed prefix followed by a number. Those are stored as a
+     * dictionary encoded prefix plus a long, other ids are stored as is.
+     */
+    static class FeatureIdColumn {
+
+        /** Max number of digits that surely fit a long */
+        static final int MAX_DIGITS = 18;
+
+        int[] prefixes = new int[0];
+
+        long[] numbers = new long[0];
+
+        int size;
+
+        List<String> dictionary = new ArrayList<>();
+
+        /** Used only while loading, dropped by {@link #trim()} */
+        Map<String, Integer> lookup = new HashMap<>();
+
+        /** The ids that cannot be encoded, by row */
+        Map<Integer, String> others = new HashMap<>();
+
+        void add(String id) {
+            if (prefixes.length <= size) {
+                prefixes = Arrays.copyOf(prefixes, Column.grow(prefixes.length));
+                numbers = Arrays.copyOf(numbers, prefixes.length);
+            }
+            int start = id == null ? 0 : getNumberStart(id);
+            if (id == null || start < 0) {
+                prefixes[size] = -1;
+                others.put(size, id);
+            } else {
+                prefixes[size] =
+                        lookup.computeIfAbsent(
+                                id.substring(0, start),
+                                p -> {
+                                    dictionary.add(p);
+                                    return dictionary.size() - 1;
+                                });
+                numbers[size] = Long.parseLong(id.substring(start));
+            }
+            size++;
+        }
+
+        /**
+         * Returns the start of the trailing number in the id, or -1 if there is no such number, or
+         * it cannot be encoded without losing information (e.g., leading zeroes)
+         */
+        private static int getNumberStart(String id) {
+            int start = id.length();
+            while (start > 0 && id.charAt(start - 1) >= '0' && id.charAt(start - 1) <= '9') {
+                start--;
+            }
+            int digits = id.length() - start;
+            if (digits == 0 || digits > MAX_DIGITS || (digits > 1 && id.charAt(start) == '0')) {
+                return -1;
+            }
+            return start;
+        }
+
+        String get(int row) {
+            int prefix = prefixes[row];
+            if (prefix < 0) {
+                return others.get(row);
+            }
+            return dictionary.get(prefix) + numbers[row];
+        }
+
+        void trim() {
+            prefixes = Arrays.copyOf(prefixes, size);
+            numbers = Arrays.copyOf(numbers, size);
+            lookup = null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Geometry column keeping the geometries off heap, in direct byte buffers, so that they do not
+ * weigh on the garbage collector:
+ *
+ * <ul>
+ *   <li>The envelope of each geometry is stored as four doubles, allowing spatial pre-filtering and
+ *       bounds computation without decoding the geometries
+ *   <li>Two dimensional points are stored only as their envelope, from which they are rebuilt
+ *   <li>Other geometries are stored in WKB format, as packed coordinates
+ * </ul>
+ *
+ * Geometries are decoded at each {@link #get(int)} call, only their X, Y and Z ordinates are
+ * preserved. The direct memory is released when the column is garbage collected.
+ */
+class GeometryColumn extends Column {
+
+    /** Envelope size in bytes, minX, maxX, minY, maxY */
+    static final int ENVELOPE_BYTES = 4 * Double.BYTES;
+
+    static final int ROWS_PER_CHUNK = 1 << 16;
+
+    static final int DATA_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /** Address of null geometries */
+    static final long NULL = -1;
+
+    /** Address of two dimensional points, whose coordinates are in the envelope */
+    static final long POINT = -2;
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    private List<ByteBuffer> envelopes = new ArrayList<>();
+
+    private List<ByteBuffer> data = new ArrayList<>();
+
+    /** The address of the WKB of each geometry, chunk index in the upper 32 bits, or a marker */
+    private long[] addresses = new long[0];
+
+    private int size;
+
+    @Override
+    boolean add(Object value) {
+        if (value != null && !(value instanceof Geometry)) {
+            return false;
+        }
+        if (addresses.length <= size) {
+            addresses = Arrays.copyOf(addresses, grow(addresses.length));
+        }
+        Geometry geometry = (Geometry) value;
+        Envelope envelope = geometry == null ? null : geometry.getEnvelopeInternal();
+        if (geometry == null) {
+            addresses[size] = NULL;
+        } else if (isPoint2D(geometry)) {
+            addresses[size] = POINT;
+        } else {
+            addresses[size] = write(new WKBWriter(getDimension(geometry)).write(geometry));
+        }
+        writeEnvelope(size, envelope);
+        size++;
+        return true;
+    }
+
+    private static boolean isPoint2D(Geometry geometry) {
+        if (!(geometry instanceof Point) || geometry.isEmpty()) {
+            return false;
+        }
+        CoordinateSequence cs = ((Point) geometry).getCoordinateSequence();
+        return !cs.hasM() && (!cs.hasZ() || Double.isNaN(cs.getZ(0)));
+    }
+
+    private static int getDimension(Geometry geometry) {
+        Coordinate coordinate = geometry.getCoordinate();
+        return coordinate != null && !Double.isNaN(coordinate.getZ()) ? 3 : 2;
+    }
+
+    /** Appends the WKB bytes to the data chunks, returns their address */
+    private long write(byte[] wkb) {
+        int length = Integer.BYTES + wkb.length;
+        ByteBuffer chunk = data.isEmpty() ? null : data.get(data.size() - 1);
+        if (chunk == null || chunk.remaining() < length) {
+            chunk = allocate(Math.max(DATA_CHUNK_SIZE, length));
+            data.add(chunk);
+        }
+        long address = ((long) (data.size() - 1) << 32) | chunk.position();
+        chunk.putInt(wkb.length);
+        chunk.put(wkb);
+        return address;
+    }
+
+    private void writeEnvelope(int row, Envelope envelope) {
+        int chunkIndex = row / ROWS_PER_CHUNK;
+        if (chunkIndex == envelopes.size()) {
+            envelopes.add(allocate(ROWS_PER_CHUNK * ENVELOPE_BYTES));
+        }
+        ByteBuffer chunk = envelopes.get(chunkIndex);
+        int offset = (row % ROWS_PER_CHUNK) * ENVELOPE_BYTES;
+        boolean empty = envelope == null || envelope.isNull();
+        chunk.putDouble(offset, empty ? Double.NaN : envelope.getMinX());
+        chunk.putDouble(offset + Double.BYTES, empty ? Double.NaN : envelope.getMaxX());
+        chunk.putDouble(offset + 2 * Double.BYTES, empty ? Double.NaN : envelope.getMinY());
+        chunk.putDouble(offset + 3 * Double.BYTES, empty ? Double.NaN : envelope.getMaxY());
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    Object get(int row) {
+        long address = addresses[row];
+        if (address == NULL) {
+            return null;
+        } else if (address == POINT) {
+            ByteBuffer chunk = envelopes.get(row / ROWS_PER_CHUNK);
+            int offset = (row % ROWS_PER_CHUNK) * ENVELOPE_BYTES;
+            double x = chunk.getDouble(offset);
+            double y = chunk.getDouble(offset + 2 * Double.BYTES);
+            return factory.createPoint(new Coordinate(x, y));
+        }
+
+        ByteBuffer chunk = data.get((int) (address >>> 32));
+        int offset = (int) address;
+        byte[] wkb = new byte[chunk.getInt(offset)];
+        // bulk read on a duplicate, relative reads are not thread safe
+        ByteBuffer view = chunk.duplicate();
+        view.position(offset + Integer.BYTES);
+        view.get(wkb);
+        try {
+            return new WKBReader(factory).read(wkb);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Failed to decode the geometry at row " + row, e);
+        }
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the geometry envelope at the given row intersects the envelope, false if it
+     * does not, or the geometry is null or empty
+     */
+    boolean intersects(int row, Envelope envelope) {
+        ByteBuffer chunk = envelopes.get(row / ROWS_PER_CHUNK);
+        int offset = (row % ROWS_PER_CHUNK) * ENVELOPE_BYTES;
+        double minX = chunk.getDouble(offset);
+        if (Double.isNaN(minX)) {
+            return false;
+        }
+        return minX <= envelope.getMaxX()
+                && chunk.getDouble(offset + Double.BYTES) >= envelope.getMinX()
+                && chunk.getDouble(offset + 2 * Double.BYTES) <= envelope.getMaxY()
+                && chunk.getDouble(offset + 3 * Double.BYTES) >= envelope.getMinY();
+    }
+
+    /** Returns the union of the envelopes of all geometries */
+    Envelope getBounds() {
+        Envelope bounds = new Envelope();
+        for (int row = 0; row < size; row++) {
+            ByteBuffer chunk = envelopes.get(row / ROWS_PER_CHUNK);
+            int offset = (row % ROWS_PER_CHUNK) * ENVELOPE_BYTES;
+            double minX = chunk.getDouble(offset);
+            if (!Double.isNaN(minX)) {
+                bounds.expandToInclude(minX, chunk.getDouble(offset + 2 * Double.BYTES));
+                bounds.expandToInclude(
+                        chunk.getDouble(offset + Double.BYTES),
+                        chunk.getDouble(offset + 3 * Double.BYTES));
+            }
+        }
+        return bounds;
+    }
+
+    @Override
+    void trim() {
+        addresses = Arrays.copyOf(addresses, size);
+        // shrink the last chunks to the used size
+        if (!data.isEmpty()) {
+            int last = data.size() - 1;
+            data.set(last, shrink(data.get(last), data.get(last).position()));
+        }
+        if (!envelopes.isEmpty()) {
+            int last = envelopes.size() - 1;
+            int rows = size - last * ROWS_PER_CHUNK;
+            envelopes.set(last, shrink(envelopes.get(last), rows * ENVELOPE_BYTES));
+        }
+    }
+
+    private static ByteBuffer shrink(ByteBuffer chunk, int used) {
+        if (used == chunk.capacity()) {
+            return chunk;
+        }
+        ByteBuffer copy = allocate(used);
+        ByteBuffer source = chunk.duplicate();
+        source.position(0).limit(used);
+        copy.put(source);
+        return copy;
+    }
+
+    @Override
+    void dispose() {
+        envelopes = new ArrayList<>();
+        data = new ArrayList<>();
+        addresses = new long[0];
+        size = 0;
+    }
+}
@@ -31,6 +31,7 @@
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.Name;
+import org.geotools.data.collection.AttributeIndex;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.store.ContentDataStore;
@@ -239,6 +240,21 @@ private void addFeatureInternal(SimpleFeature feature) {
         }
     }
 
+    /**
+     * Adds an index on an attribute of the specified type, used to find the candidate features for
+     * filters comparing the attribute with literals. See {@link MemoryEntry#addIndex(String,
+     * AttributeIndex.Type)} for details.
+     *
+     * @param typeName The feature type name
+     * @param attribute The attribute to be indexed
+     * @param type The index type
+     * @throws IOException If typeName cannot be found
+     */
+    public void addIndex(String typeName, String attribute, AttributeIndex.Type type)
+            throws IOException {
+        entry(typeName).addIndex(attribute, type);
+    }
+
     /**
      * Access MemoryState for typeName.
      *
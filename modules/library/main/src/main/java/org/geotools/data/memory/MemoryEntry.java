@@ -16,11 +16,19 @@
  */
 package org.geotools.data.memory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.data.collection.AttributeIndex;
+import org.geotools.data.collection.AttributeIndexes;
 import org.geotools.data.store.ContentEntry;
 
 /**
@@ -52,11 +60,15 @@ public class MemoryEntry extends ContentEntry {
      */
     private final Map<String, SimpleFeature> memory;
 
+    /** Attribute indexes, accessed while synchronized on {@link #memory} */
+    private final AttributeIndexes indexes;
+
     /** Entry to store content of the provided SimpleFeatureType. */
     MemoryEntry(MemoryDataStore store, SimpleFeatureType schema) {
         super(store, schema.getName());
         this.schema = schema;
         memory = Collections.synchronizedMap(new LinkedHashMap<>());
+        indexes = new AttributeIndexes(schema);
     }
 
     protected MemoryState createContentState(ContentEntry entry) {
@@ -66,6 +78,8 @@ protected MemoryState createContentState(ContentEntry entry) {
     /**
      * Access the {@link #memory} field used to store feature content.
      *
+     * <p>Changes made directly to the map are not reflected in the attribute indexes, if any.
+     *
      * @return the memory
      */
     public Map<String, SimpleFeature> getMemory() {
@@ -93,6 +107,104 @@ void addFeature(SimpleFeature feature) {
                             + feature.getFeatureType().getTypeName()
                             + ")");
         }
-        getMemory().put(feature.getID(), feature);
+        synchronized (memory) {
+            SimpleFeature previous = memory.put(feature.getID(), feature);
+            if (previous != null) {
+                indexes.remove(previous);
+            }
+            indexes.add(feature);
+        }
+    }
+
+    /**
+     * Removes the feature from the attribute indexes, to be called before removing it from {@link
+     * #memory}, or before modifying it
+     */
+    void unindexFeature(SimpleFeature feature) {
+        synchronized (memory) {
+            indexes.remove(feature);
+        }
+    }
+
+    /** Adds back a feature to the attribute indexes, after it has been modified */
+    void indexFeature(SimpleFeature feature) {
+        synchronized (memory) {
+            indexes.add(feature);
+        }
+    }
+
+    /**
+     * Adds an index on the specified attribute, replacing the existing one, if any. The index is
+     * used to find the candidate features for the filters comparing the attribute with a literal,
+     * see {@link AttributeIndexes} for details, and it's maintained as features are added, modified
+     * and removed through the data store API.
+     *
+     * <p>Features matched using an index are returned in index order, rather than in insertion
+     * order.
+     *
+     * @param attribute The attribute to be indexed
+     * @param type The index type, {@link AttributeIndex.Type#SORTED} supports range lookups
+     * @throws IllegalArgumentException If the attribute is not found, or its type is not supported
+     */
+    public void addIndex(String attribute, AttributeIndex.Type type) {
+        synchronized (memory) {
+            indexes.addIndex(attribute, type, memory.values());
+        }
+    }
+
+    /**
+     * Removes the index on the specified attribute
+     *
+     * @return True if the index was found and removed
+     */
+    public boolean removeIndex(String attribute) {
+        synchronized (memory) {
+            return indexes.removeIndex(attribute);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the features that might match the filter, using the feature ids and the
+     * attribute indexes to avoid a full scan when possible. The filter still needs to be evaluated
+     * against the returned features.
+     *
+     * <p>The features are returned in index order when an attribute index is used, in insertion
+     * order otherwise.
+     */
+    List<SimpleFeature> getCandidates(Filter filter) {
+        synchronized (memory) {
+            if (filter == null) {
+                return new ArrayList<>(memory.values());
+            }
+            if (!indexes.isEmpty()) {
+                List<SimpleFeature> candidates = indexes.getCandidates(filter, null);
+                if (candidates != null) {
+                    return candidates;
+                }
+            }
+            List<SimpleFeature> candidates = indexes.getCandidates(filter, this::getById);
+            if (candidates == null) {
+                return new ArrayList<>(memory.values());
+            }
+            return candidates.size() > 1 ? inInsertionOrder(candidates) : candidates;
+        }
+    }
+
+    /** Sorts the features found by id in insertion order, scanning the memory */
+    private List<SimpleFeature> inInsertionOrder(List<SimpleFeature> candidates) {
+        Set<SimpleFeature> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(candidates);
+        List<SimpleFeature> result = new ArrayList<>(found.size());
+        for (SimpleFeature feature : memory.values()) {
+            if (found.contains(feature)) {
+                result.add(feature);
+            }
+        }
+        return result;
+    }
+
+    private Collection<SimpleFeature> getById(String fid) {
+        SimpleFeature feature = memory.get(fid);
+        return feature == null ? Collections.emptyList() : Collections.singletonList(feature);
     }
 }
@@ -95,6 +95,7 @@ public void remove() throws IOException {
 
         if (live != null) {
             // remove existing content
+            state.getEntry().unindexFeature(live);
             iterator.remove();
             live = null;
             current = null;
@@ -133,6 +134,8 @@ public void write() throws IOException {
             } else {
                 // accept modifications
                 //
+                MemoryEntry entry = state.getEntry();
+                entry.unindexFeature(live);
                 try {
                     live.setAttributes(current.getAttributes());
                 } catch (Exception e) {
@@ -141,6 +144,8 @@ public void write() throws IOException {
                                     + live.getID()
                                     + " on "
                                     + typeName);
+                } finally {
+                    entry.indexFeature(live);
                 }
 
                 ReferencedEnvelope bounds = new ReferencedEnvelope();
@@ -30,7 +30,7 @@
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.FeatureIterator;
 import org.geotools.feature.collection.DecoratingFeatureCollection;
-import org.geotools.filter.visitor.BindingFilterVisitor;
+import org.geotools.filter.visitor.CompilingFilterVisitor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 
 /**
@@ -49,7 +49,7 @@
     public FilteringFeatureCollection(FeatureCollection<T, F> delegate, Filter filter) {
         super(delegate);
         this.delegate = delegate;
-        this.filter = (Filter) filter.accept(new BindingFilterVisitor(delegate.getSchema()), null);
+        this.filter = CompilingFilterVisitor.compile(filter, delegate.getSchema());
     }
 
     @Override
@@ -16,6 +16,7 @@
  */
 package org.geotools.data.util;
 
+import java.util.Arrays;
 import org.geotools.api.referencing.operation.MathTransform;
 import org.geotools.api.referencing.operation.TransformException;
 import org.geotools.geometry.jts.JTS;
@@ -44,9 +45,13 @@
  *       full math transform from data to screen, and the generalization spans must be set
  * </ul>
  *
- * When checkAndSet returns false the geometry sits in a pixel that has been already populated and
+ * When checkAndSet returns true the geometry sits in a pixel that has been already populated and
  * can be skipped.
  *
+ * <p>The bitmap is allocated lazily, and kept when the screenmap is {@link #reset(int, int, int,
+ * int) reset}, so that screen maps can be reused across requests (see {@link ScreenMapPool}). The
+ * number of geometries found on an already busy pixel is tracked, see {@link #getSkippedCount()}.
+ *
  * @author jeichar
  * @author Andrea Aime - OpenGeo
  */
@@ -70,6 +75,8 @@ public class ScreenMap {
 
     BitFieldMatrix bitfield;
 
+    long skipped;
+
     public ScreenMap(int x, int y, int width, int height, MathTransform mt) {
         this.width = width;
         this.height = height;
@@ -83,6 +90,9 @@ public ScreenMap(int x, int y, int width, int height, MathTransform mt) {
     private BitFieldMatrix getBitField() {
         if (this.bitfield == null) {
             this.bitfield = new BitFieldMatrix();
+        } else if (this.bitfield.words < words(width, height)) {
+            // grown after a reset
+            this.bitfield = new BitFieldMatrix();
         }
 
         return bitfield;
@@ -104,6 +114,57 @@ public void setTransform(MathTransform mt) {
         this.mt = mt;
     }
 
+    /** Number of longs needed to store one bit per pixel */
+    static int words(int width, int height) {
+        return (int) (((long) width * height + 63) >>> 6);
+    }
+
+    /**
+     * Resets the screenmap so that it can be reused for a different area: all pixels are cleared,
+     * the transform, spans and skipped count are reset, while the bitmap memory is retained when
+     * large enough.
+     */
+    public void reset(int x, int y, int width, int height) {
+        this.minx = x;
+        this.miny = y;
+        this.width = width;
+        this.height = height;
+        this.mt = null;
+        this.spanX = 0;
+        this.spanY = 0;
+        clear();
+    }
+
+    /**
+     * Grows the screenmap area by the given number of pixels in all directions. All pixels are
+     * cleared, the transform and spans are retained.
+     */
+    public void expand(int expandBy) {
+        this.minx -= expandBy;
+        this.miny -= expandBy;
+        this.width += expandBy * 2;
+        this.height += expandBy * 2;
+        clear();
+    }
+
+    /** Clears all the pixels and the skipped count, retaining the bitmap memory */
+    public void clear() {
+        if (bitfield != null) {
+            bitfield.clear();
+        }
+        skipped = 0;
+    }
+
+    /**
+     * Returns the number of times a geometry has been found sitting on an already busy pixel by
+     * {@link #checkAndSet(Envelope)}, {@link #checkAndSet(int, int)}, {@link
+     * #checkAndSetPoint(double, double)} or {@link #get(Envelope)}, that is, the number of
+     * geometries the callers could skip.
+     */
+    public long getSkippedCount() {
+        return skipped;
+    }
+
     public boolean checkAndSet(Envelope envelope) throws TransformException {
         if (!canSimplify(envelope)) {
             return false;
@@ -117,6 +178,22 @@ public boolean checkAndSet(Envelope envelope) throws TransformException {
         return checkAndSet(r, c);
     }
 
+    /**
+     * Same as {@link #checkAndSet(Envelope)}, but for a point expressed in the same coordinates as
+     * the envelopes, avoids building an envelope for point geometries
+     */
+    public boolean checkAndSetPoint(double x, double y) throws TransformException {
+        // same as canSimplify for an empty envelope
+        if (!(0 < spanX && 0 < spanY)) {
+            return false;
+        }
+
+        point[0] = x;
+        point[1] = y;
+        mt.transform(point, 0, point, 0, 1);
+        return checkAndSet((int) point[0], (int) point[1]);
+    }
+
     public boolean canSimplify(Envelope envelope) {
         return envelope.getWidth() < spanX && envelope.getHeight() < spanY;
     }
@@ -131,7 +208,11 @@ public void setSpans(double spanX, double spanY) {
      * in a pixel that has already been used
      */
     public boolean checkAndSet(int x, int y) {
-        return getBitField().checkAndSet(x, y);
+        if (getBitField().checkAndSet(x, y)) {
+            skipped++;
+            return true;
+        }
+        return false;
     }
 
     public boolean get(Envelope envelope) throws TransformException {
@@ -144,11 +225,19 @@ public boolean get(Envelope envelope) throws TransformException {
         mt.transform(point, 0, point, 0, 1);
         int r = (int) point[0];
         int c = (int) point[1];
-        return get(r, c);
+        if (get(r, c)) {
+            skipped++;
+            return true;
+        }
+        return false;
     }
 
     /** Returns true if the pixel at location x,y is set or out of bounds. */
     public boolean get(int x, int y) {
+        // an untouched screenmap has no busy pixels, no need to allocate the bitmap
+        if (bitfield == null) {
+            return false;
+        }
         return getBitField().get(x, y);
     }
 
@@ -243,35 +332,37 @@ public void set(int x, int y, boolean value) {
      * pixel might ever be set)
      */
     final class BitFieldMatrix {
-        int[] pixels;
+        long[] pixels;
+
+        /** Number of longs in use for the current width and height */
+        int words;
+
+        /** Whether any bit has been set since the last clear */
+        boolean dirty;
 
         public BitFieldMatrix() {
-            int arraySize = ((width * height) / 32) + 1;
-            pixels = new int[arraySize];
+            words = words(width, height);
+            pixels = new long[words];
         }
 
         public boolean checkAndSet(int x, int y) {
             // if it's outside of the screenmap we cannot say whether it's busy or not, and
             // we cannot skip it because rendering or geometry transformation might put the geometry
             // right in the map
-            if ((x - minx) < 0
-                    || (x - minx) > width - 1
-                    || (y - miny) < 0
-                    || (y - miny) > height - 1) return false;
-            int bit = bit(x - minx, y - miny);
-            int index = bit / 32;
-            int offset = bit % 32;
-            int mask = 1 << offset;
-
-            try {
-                if ((pixels[index] & mask) != 0) {
-                    return true;
-                } else {
-                    pixels[index] = pixels[index] | mask;
-                    return false;
-                }
-            } catch (Exception e) {
+            x -= minx;
+            y -= miny;
+            if (x < 0 || x >= width || y < 0 || y >= height) return false;
+            int bit = bit(x, y);
+            int index = bit >>> 6;
+            long mask = 1L << bit;
+
+            long word = pixels[index];
+            if ((word & mask) != 0) {
                 return true;
+            } else {
+                pixels[index] = word | mask;
+                dirty = true;
+                return false;
             }
         }
 
@@ -279,42 +370,34 @@ public boolean get(int x, int y) {
             // if it's outside of the screenmap we cannot say whether it's busy or not, and
             // we cannot skip it because rendering or geometry transformation might put the geometry
             // right in the map
-            if ((x - minx) < 0
-                    || (x - minx) > width - 1
-                    || (y - miny) < 0
-                    || (y - miny) > height - 1) return false;
-            int bit = bit(x - minx, y - miny);
-            int index = bit / 32;
-            int offset = bit % 32;
-            int mask = 1 << offset;
-
-            try {
-                return ((pixels[index] & mask) != 0) ? true : false;
-            } catch (Exception e) {
-
-                return true;
-            }
+            x -= minx;
+            y -= miny;
+            if (x < 0 || x >= width || y < 0 || y >= height) return false;
+            int bit = bit(x, y);
+            return (pixels[bit >>> 6] & (1L << bit)) != 0;
         }
 
         public void set(int x, int y, boolean value) {
-            if ((x - minx) < 0
-                    || (x - minx) > width - 1
-                    || (y - miny) < 0
-                    || (y - miny) > height - 1) return;
-            int bit = bit(x - minx, y - miny);
-            int index = bit / 32;
-            int offset = bit % 32;
-            int mask = 1;
-            mask = mask << offset;
+            x -= minx;
+            y -= miny;
+            if (x < 0 || x >= width || y < 0 || y >= height) return;
+            int bit = bit(x, y);
+            int index = bit >>> 6;
+            long mask = 1L << bit;
 
             if (value) {
-                pixels[index] = pixels[index] | mask;
+                pixels[index] |= mask;
+                dirty = true;
             } else {
-                int tmp = pixels[index];
-                tmp = ~tmp;
-                tmp = (tmp | mask);
-                tmp = ~tmp;
-                pixels[index] = tmp;
+                pixels[index] &= ~mask;
+            }
+        }
+
+        /** Clears all bits, the fill of a plain long[] is vectorized by the JIT */
+        void clear() {
+            if (dirty) {
+                Arrays.fill(pixels, 0L);
+                dirty = false;
             }
         }
 
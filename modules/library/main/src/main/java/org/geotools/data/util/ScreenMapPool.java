@@ -0,0 +1,81 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of {@link ScreenMap} objects, allows to reuse their bitmaps across rendering
+ * requests instead of allocating (and garbage collecting) a new one for each layer being drawn. Map
+ * rendering is a sequence of requests for a limited set of tile and image sizes, so the retained
+ * bitmaps are normally large enough to be reused as is.
+ *
+ * <p>The default pool size can be configured using the {@value #POOL_SIZE_KEY} system variable,
+ * setting it to zero disables pooling.
+ */
+public class ScreenMapPool {
+
+    /** System property controlling the size of the default pool */
+    public static final String POOL_SIZE_KEY = "org.geotools.screenmap.pool";
+
+    /** Screenmaps covering more pixels than this are not retained in the pool */
+    static final long MAX_POOLED_PIXELS = 4096 * 4096;
+
+    private static final ScreenMapPool DEFAULT =
+            new ScreenMapPool(Integer.getInteger(POOL_SIZE_KEY, 128));
+
+    private final BlockingQueue<ScreenMap> pool;
+
+    /** Returns the JVM wide pool */
+    public static ScreenMapPool getDefault() {
+        return DEFAULT;
+    }
+
+    /** Creates a new pool retaining at most the specified number of screenmaps */
+    public ScreenMapPool(int capacity) {
+        this.pool = capacity > 0 ? new ArrayBlockingQueue<>(capacity) : null;
+    }
+
+    /**
+     * Returns a cleared screenmap covering the specified area, either taken from the pool, or newly
+     * created
+     */
+    public ScreenMap acquire(int x, int y, int width, int height) {
+        ScreenMap map = pool != null ? pool.poll() : null;
+        if (map == null) {
+            return new ScreenMap(x, y, width, height);
+        }
+        map.reset(x, y, width, height);
+        return map;
+    }
+
+    /**
+     * Returns the screenmap to the pool. The caller should not use it anymore after this call. If
+     * the pool is full, or the screenmap is too large, it will be left to the garbage collector.
+     */
+    public void release(ScreenMap map) {
+        if (pool != null && map != null && (long) map.width * map.height <= MAX_POOLED_PIXELS) {
+            pool.offer(map);
+        }
+    }
+
+    /** Returns the number of screenmaps currently held in the pool */
+    public int size() {
+        return pool != null ? pool.size() : 0;
+    }
+}
@@ -34,6 +34,7 @@
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.FeatureCollection;
+import org.geotools.filter.visitor.CompilingFilterVisitor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 
 /**
@@ -61,7 +62,8 @@ public FilteringSimpleFeatureCollection(SimpleFeatureCollection delegate, Filter
 
     @Override
     public SimpleFeatureIterator features() {
-        return new FilteringSimpleFeatureIterator(delegate.features(), filter);
+        Filter compiled = CompilingFilterVisitor.compile(filter, delegate.getSchema());
+        return new FilteringSimpleFeatureIterator(delegate.features(), compiled);
     }
 
     public void close(SimpleFeatureIterator close) {
@@ -0,0 +1,333 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.visitor.ExpressionTypeVisitor;
+
+/**
+ * Groups features by one or several expressions and computes several aggregates for each group, in
+ * a single pass. Optionally, a "having" filter can be used to retain only the groups matching it.
+ *
+ * <p>The having filter is evaluated against a feature whose attributes are the group by values,
+ * named after the group by property names (or {@code group<n>} for other expressions, starting from
+ * 1), followed by the aggregate values, named after the {@link Aggregation} names. The same names
+ * describe the result rows, see {@link #getGroupFeatureType(SimpleFeatureType)}.
+ *
+ * <p>Stores can compute the result directly, and set it using {@link #setValue(List)}. When a
+ * result is set, the features visited (if any) are ignored.
+ */
+public class GroupByAggregatesVisitor implements FeatureCalc, FeatureAttributeVisitor {
+
+    /** An aggregate to be computed for each group, along with the name of its result */
+    public static class Aggregation {
+        private final Aggregate aggregate;
+        private final Expression expression;
+        private final String name;
+
+        public Aggregation(Aggregate aggregate, Expression expression, String name) {
+            if (aggregate == null || name == null) {
+                throw new IllegalArgumentException("Aggregate and name are required");
+            }
+            if (expression == null && aggregate != Aggregate.COUNT) {
+                throw new IllegalArgumentException(
+                        "An expression is required for the " + aggregate + " aggregate");
+            }
+            this.aggregate = aggregate;
+            this.expression = expression;
+            this.name = name;
+        }
+
+        public Aggregate getAggregate() {
+            return aggregate;
+        }
+
+        /** The expression being aggregated, can be null for {@link Aggregate#COUNT} */
+        public Expression getExpression() {
+            return expression;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + aggregate + "(" + (expression == null ? "*" : expression) + ")";
+        }
+    }
+
+    private final List<Expression> groupByAttributes;
+    private final List<String> groupByNames;
+    private final List<Aggregation> aggregations;
+    private final Filter having;
+
+    private final Map<List<Object>, FeatureCalc[]> groups = new LinkedHashMap<>();
+    private SimpleFeatureType sourceType;
+    private List<Object[]> optimizedResult;
+
+    /**
+     * Builds a new visitor
+     *
+     * @param groupByAttributes The expressions to group by, at least one is required
+     * @param aggregations The aggregates to be computed for each group, at least one is required
+     * @param having Filter on the group by and aggregate values, can be null
+     */
+    public GroupByAggregatesVisitor(
+            List<Expression> groupByAttributes, List<Aggregation> aggregations, Filter having) {
+        if (groupByAttributes == null || groupByAttributes.isEmpty()) {
+            throw new IllegalArgumentException("At least one group by attribute is required.");
+        }
+        if (aggregations == null || aggregations.isEmpty()) {
+            throw new IllegalArgumentException("At least one aggregation is required.");
+        }
+        this.groupByAttributes = new ArrayList<>(groupByAttributes);
+        this.aggregations = new ArrayList<>(aggregations);
+        this.having = having == null ? Filter.INCLUDE : having;
+
+        this.groupByNames = new ArrayList<>();
+        for (int i = 0; i < groupByAttributes.size(); i++) {
+            Expression ex = groupByAttributes.get(i);
+            if (ex instanceof PropertyName) {
+                groupByNames.add(((PropertyName) ex).getPropertyName());
+            } else {
+                groupByNames.add("group" + (i + 1));
+            }
+        }
+        Set<String> names = new HashSet<>(groupByNames);
+        for (Aggregation aggregation : aggregations) {
+            if (!names.add(aggregation.getName())) {
+                throw new IllegalArgumentException(
+                        "Duplicate name in group by and aggregations: " + aggregation.getName());
+            }
+        }
+    }
+
+    public List<Expression> getGroupByAttributes() {
+        return Collections.unmodifiableList(groupByAttributes);
+    }
+
+    /** The names of the group by values, in the having filter and result rows */
+    public List<String> getGroupByNames() {
+        return Collections.unmodifiableList(groupByNames);
+    }
+
+    public List<Aggregation> getAggregations() {
+        return Collections.unmodifiableList(aggregations);
+    }
+
+    /** The filter on groups, {@link Filter#INCLUDE} if there is none */
+    public Filter getHaving() {
+        return having;
+    }
+
+    /**
+     * Returns the feature type describing the groups computed out of the specified source, with an
+     * attribute for each group by value, followed by one for each aggregation.
+     */
+    public SimpleFeatureType getGroupFeatureType(SimpleFeatureType source) {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName(source.getTypeName() + "_groups");
+        ExpressionTypeVisitor typeVisitor = new ExpressionTypeVisitor(source);
+        for (int i = 0; i < groupByAttributes.size(); i++) {
+            Class<?> binding = (Class<?>) groupByAttributes.get(i).accept(typeVisitor, null);
+            tb.add(groupByNames.get(i), binding == null ? Object.class : binding);
+        }
+        for (Aggregation aggregation : aggregations) {
+            Class<?> binding = Object.class;
+            try {
+                Expression ex = aggregation.getExpression();
+                Class<?> input =
+                        ex == null ? Object.class : (Class<?>) ex.accept(typeVisitor, null);
+                if (input != null) {
+                    binding = aggregation.getAggregate().getTargetType(input);
+                }
+            } catch (IllegalArgumentException e) {
+                // not a type the aggregate can work with, keep a generic type
+            }
+            tb.add(aggregation.getName(), binding);
+        }
+        return tb.buildFeatureType();
+    }
+
+    @Override
+    public void visit(Feature feature) {
+        SimpleFeature sf = (SimpleFeature) feature;
+        if (sourceType == null) {
+            sourceType = sf.getFeatureType();
+        }
+        List<Object> key = new ArrayList<>(groupByAttributes.size());
+        for (Expression ex : groupByAttributes) {
+            key.add(ex.evaluate(sf));
+        }
+        FeatureCalc[] calcs = groups.get(key);
+        if (calcs == null) {
+            calcs = new FeatureCalc[aggregations.size()];
+            for (int i = 0; i < calcs.length; i++) {
+                Aggregation aggregation = aggregations.get(i);
+                calcs[i] = aggregation.getAggregate().create(aggregation.getExpression());
+            }
+            groups.put(key, calcs);
+        }
+        for (FeatureCalc calc : calcs) {
+            calc.visit(sf);
+        }
+    }
+
+    /**
+     * Allows optimizations to set the result directly. Each row contains the group by values
+     * followed by the aggregate values, the rows must already be filtered by the having filter.
+     */
+    public void setValue(List<Object[]> rows) {
+        int groupCount = groupByAttributes.size();
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] normalized = Arrays.copyOf(row, groupCount + aggregations.size());
+            for (int i = 0; i < aggregations.size(); i++) {
+                // use the same result types as the in memory computation
+                Aggregation aggregation = aggregations.get(i);
+                CalcResult wrapped =
+                        aggregation
+                                .getAggregate()
+                                .wrap(aggregation.getExpression(), row[groupCount + i]);
+                normalized[groupCount + i] = wrapped.getValue();
+            }
+            result.add(normalized);
+        }
+        this.optimizedResult = result;
+    }
+
+    public boolean wasOptimized() {
+        return optimizedResult != null;
+    }
+
+    @Override
+    public CalcResult getResult() {
+        if (optimizedResult != null) {
+            return new Result(groupByAttributes.size(), optimizedResult);
+        }
+
+        SimpleFeatureBuilder fb = null;
+        if (having != Filter.INCLUDE && sourceType != null) {
+            fb = new SimpleFeatureBuilder(getGroupFeatureType(sourceType));
+        }
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<List<Object>, FeatureCalc[]> entry : groups.entrySet()) {
+            List<Object> key = entry.getKey();
+            FeatureCalc[] calcs = entry.getValue();
+            Object[] row = Arrays.copyOf(key.toArray(), key.size() + calcs.length);
+            for (int i = 0; i < calcs.length; i++) {
+                row[key.size() + i] = calcs[i].getResult().getValue();
+            }
+            if (fb != null) {
+                fb.addAll(row);
+                if (!having.evaluate(fb.buildFeature(null))) {
+                    continue;
+                }
+            }
+            rows.add(row);
+        }
+        return new Result(groupByAttributes.size(), rows);
+    }
+
+    @Override
+    public List<Expression> getExpressions() {
+        List<Expression> result = new ArrayList<>(groupByAttributes);
+        for (Aggregation aggregation : aggregations) {
+            if (aggregation.getExpression() != null) {
+                result.add(aggregation.getExpression());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The groups computed by {@link GroupByAggregatesVisitor}, as a list of rows, each one made of
+     * the group by values followed by the aggregate values.
+     */
+    public static class Result extends AbstractCalcResult {
+
+        private final int groupCount;
+        private final List<Object[]> rows;
+
+        public Result(int groupCount, List<Object[]> rows) {
+            this.groupCount = groupCount;
+            this.rows = rows;
+        }
+
+        /** The result rows, group by values followed by aggregate values */
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        @Override
+        public Object getValue() {
+            return toArray();
+        }
+
+        @Override
+        public List toList() {
+            return new ArrayList<>(rows);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return rows.toArray();
+        }
+
+        /**
+         * Returns a map from the group by values to the aggregate values, both as lists (arrays
+         * don't have a usable hash code).
+         */
+        @Override
+        public Map toMap() {
+            Map<List<Object>, List<Object>> result = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                List<Object> values = Arrays.asList(row);
+                result.put(values.subList(0, groupCount), values.subList(groupCount, row.length));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (Object[] row : rows) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(Arrays.toString(row));
+            }
+            return sb.append("]").toString();
+        }
+    }
+}
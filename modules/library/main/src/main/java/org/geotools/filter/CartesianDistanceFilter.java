@@ -17,9 +17,15 @@
 package org.geotools.filter;
 
 import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
 import org.geotools.api.filter.spatial.Beyond;
 import org.geotools.api.filter.spatial.DWithin;
 import org.geotools.api.filter.spatial.DistanceBufferOperator;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
 
 /**
  * Defines geometry filters with a distance element.
@@ -48,6 +54,9 @@ public abstract class CartesianDistanceFilter extends GeometryFilterImpl
     /** the distnace units */
     private String units;
 
+    /** The prepared literal geometry, if any, built on first use */
+    private volatile PreparedDistance preparedDistance;
+
     protected CartesianDistanceFilter(Expression e1, Expression e2) {
         super(e1, e2);
     }
@@ -80,6 +89,35 @@ public String getDistanceUnits() {
         return units;
     }
 
+    @Override
+    public void setExpression1(Expression expression) {
+        super.setExpression1(expression);
+        preparedDistance = null;
+    }
+
+    @Override
+    public void setExpression2(Expression expression) {
+        super.setExpression2(expression);
+        preparedDistance = null;
+    }
+
+    /**
+     * Tests if the two geometries are within the filter distance. When only one of the expressions
+     * is a literal geometry, the test uses an indexed version of it, built once and reused for all
+     * evaluations.
+     */
+    protected boolean isWithinDistance(Geometry left, Geometry right) {
+        PreparedDistance prepared = preparedDistance;
+        if (prepared == null) {
+            prepared = PreparedDistance.create(expression1, expression2);
+            preparedDistance = prepared;
+        }
+        if (prepared == PreparedDistance.NONE) {
+            return left.isWithinDistance(right, distance);
+        }
+        return prepared.isWithinDistance(prepared.left ? right : left, distance);
+    }
+
     public void setUnits(String units) {
         this.units = units;
     }
@@ -157,4 +195,71 @@ public int hashCode() {
      * @param visitor The visitor which requires access to this filter, the method must call
      *     visitor.visit(this);
      */
+
+    /**
+     * Distance test against a literal geometry. The literal is prepared, and its segments indexed,
+     * so that each test does not have to scan all of its coordinates. Thread safe.
+     */
+    private static class PreparedDistance {
+
+        /** Marker for filters that do not have a single literal geometry */
+        static final PreparedDistance NONE = new PreparedDistance(null, false);
+
+        final Geometry geometry;
+
+        /** True if the literal is the first expression */
+        final boolean left;
+
+        private final PreparedGeometry prepared;
+
+        private volatile IndexedFacetDistance facetDistance;
+
+        PreparedDistance(Geometry geometry, boolean left) {
+            this.geometry = geometry;
+            this.left = left;
+            this.prepared = geometry != null ? PreparedGeometryFactory.prepare(geometry) : null;
+        }
+
+        static PreparedDistance create(Expression expression1, Expression expression2) {
+            Geometry left = getLiteralGeometry(expression1);
+            Geometry right = getLiteralGeometry(expression2);
+            if (left != null && right == null) {
+                return new PreparedDistance(left, true);
+            } else if (right != null && left == null) {
+                return new PreparedDistance(right, false);
+            }
+            return NONE;
+        }
+
+        private static Geometry getLiteralGeometry(Expression expression) {
+            if (expression instanceof Literal) {
+                Object value = ((Literal) expression).getValue();
+                if (value instanceof Geometry && !((Geometry) value).isEmpty()) {
+                    return (Geometry) value;
+                }
+            }
+            return null;
+        }
+
+        boolean isWithinDistance(Geometry other, double distance) {
+            if (other.isEmpty()) {
+                return geometry.isWithinDistance(other, distance);
+            }
+            Envelope envelope = geometry.getEnvelopeInternal();
+            if (envelope.distance(other.getEnvelopeInternal()) > distance) {
+                return false;
+            }
+            // when the geometries do not intersect their distance is the one between
+            // the closest segments
+            if (prepared.intersects(other)) {
+                return true;
+            }
+            IndexedFacetDistance facets = facetDistance;
+            if (facets == null) {
+                facets = new IndexedFacetDistance(geometry);
+                facetDistance = facets;
+            }
+            return facets.isWithinDistance(other, distance);
+        }
+    }
 }
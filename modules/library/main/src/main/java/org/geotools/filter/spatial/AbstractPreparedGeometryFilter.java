@@ -19,6 +19,7 @@
 import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.expression.Literal;
 import org.geotools.filter.GeometryFilterImpl;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.prep.PreparedGeometry;
 import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
@@ -145,6 +146,12 @@ private static Literals calculate(Expression expression1, Expression expression2
      */
     protected boolean cacheValue;
 
+    /** The envelope of the literal geometry, when only one of the expressions is a literal */
+    private Envelope literalEnvelope;
+
+    /** True if the literal geometry is a rectangle, when only one expression is a literal */
+    private boolean literalRectangle;
+
     protected AbstractPreparedGeometryFilter(Expression e1, Expression e2) {
         super(e1, e2);
         pGeomFac = new PreparedGeometryFactory();
@@ -181,6 +188,7 @@ private void prepare() {
                     leftPreppedGeom = pGeomFac.create(left);
                     rightPreppedGeom = null;
                     cacheValue = false;
+                    setLiteralEnvelope(left);
                     break;
                 }
             case RIGHT:
@@ -189,6 +197,7 @@ private void prepare() {
                     rightPreppedGeom = pGeomFac.create(right);
                     leftPreppedGeom = null;
                     cacheValue = false;
+                    setLiteralEnvelope(right);
                     break;
                 }
             default:
@@ -199,6 +208,31 @@ private void prepare() {
         }
     }
 
+    private void setLiteralEnvelope(Geometry literal) {
+        literalEnvelope = literal.getEnvelopeInternal();
+        literalRectangle = literal.isRectangle();
+    }
+
+    /**
+     * Tests if the literal geometry intersects the other one, using the prepared literal. The
+     * envelopes are checked first, and when the literal is a rectangle covering the envelope of the
+     * other geometry, the answer is given without reading the other geometry coordinates. Can only
+     * be used when {@link #literals} is {@link Literals#LEFT} or {@link Literals#RIGHT}.
+     *
+     * @param other the non literal geometry
+     */
+    protected boolean literalIntersects(Geometry other) {
+        Envelope envelope = other.getEnvelopeInternal();
+        if (!literalEnvelope.intersects(envelope)) {
+            return false;
+        }
+        if (literalRectangle && literalEnvelope.covers(envelope)) {
+            return true;
+        }
+        PreparedGeometry prepped = literals == Literals.LEFT ? leftPreppedGeom : rightPreppedGeom;
+        return prepped.intersects(other);
+    }
+
     @Override
     public void setExpression1(Expression expression) {
         super.setExpression1(expression);
@@ -38,7 +38,6 @@
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.TopologyException;
-import org.locationtech.jts.geom.prep.PreparedGeometry;
 
 public class BBOXImpl extends AbstractPreparedGeometryFilter implements BBOX {
 
@@ -96,11 +95,11 @@ public boolean evaluateInternal(Geometry left, Geometry right) {
                 return cacheValue;
             case RIGHT:
                 {
-                    return preppedEvaluate(rightPreppedGeom, left);
+                    return literalIntersects(left);
                 }
             case LEFT:
                 {
-                    return preppedEvaluate(leftPreppedGeom, right);
+                    return literalIntersects(right);
                 }
             default:
                 {
@@ -125,21 +124,6 @@ protected boolean basicEvaluate(Geometry left, Geometry right) {
         // then true is returned in all cases
     }
 
-    private boolean preppedEvaluate(PreparedGeometry prepped, Geometry other) {
-        Envelope envLeft = prepped.getGeometry().getEnvelopeInternal();
-        Envelope envRight = other.getEnvelopeInternal();
-
-        if (envRight.intersects(envLeft)) {
-            return prepped.intersects(other);
-        } else {
-            return false;
-        }
-
-        // Note that this is a pretty permissive logic
-        // if the type has somehow been mis-set (can't happen externally)
-        // then true is returned in all cases
-    }
-
     @Override
     public Object accept(FilterVisitor visitor, Object extraData) {
         return visitor.visit(this, extraData);
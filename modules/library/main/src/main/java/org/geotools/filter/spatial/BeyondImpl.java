@@ -37,7 +37,7 @@ public boolean evaluateInternal(Geometry left, Geometry right) {
         if (left == null || right == null) {
             return false;
         }
-        return !left.isWithinDistance(right, getDistance());
+        return !isWithinDistance(left, right);
     }
 
     @Override
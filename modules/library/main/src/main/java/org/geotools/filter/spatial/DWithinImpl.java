@@ -34,7 +34,7 @@ public DWithinImpl(Expression e1, Expression e2, MatchAction matchAction) {
 
     @Override
     public boolean evaluateInternal(Geometry left, Geometry right) {
-        return left.isWithinDistance(right, getDistance());
+        return isWithinDistance(left, right);
     }
 
     @Override
@@ -40,11 +40,11 @@ public boolean evaluateInternal(Geometry left, Geometry right) {
                 return cacheValue;
             case RIGHT:
                 {
-                    return rightPreppedGeom.disjoint(left);
+                    return !literalIntersects(left);
                 }
             case LEFT:
                 {
-                    return leftPreppedGeom.disjoint(right);
+                    return !literalIntersects(right);
                 }
             default:
                 {
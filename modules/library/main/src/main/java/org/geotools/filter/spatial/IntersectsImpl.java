@@ -39,11 +39,11 @@ public boolean evaluateInternal(Geometry left, Geometry right) {
                 return cacheValue;
             case RIGHT:
                 {
-                    return rightPreppedGeom.intersects(left);
+                    return literalIntersects(left);
                 }
             case LEFT:
                 {
-                    return leftPreppedGeom.intersects(right);
+                    return literalIntersects(right);
                 }
             default:
                 {
@@ -20,6 +20,7 @@
 import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.spatial.Touches;
 import org.geotools.filter.GeometryFilterImpl;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 public class TouchesImpl extends GeometryFilterImpl implements Touches {
@@ -34,7 +35,12 @@ public TouchesImpl(Expression e1, Expression e2, MatchAction matchAction) {
 
     @Override
     public boolean evaluateInternal(Geometry left, Geometry right) {
-        return left.touches(right);
+        Envelope envLeft = left.getEnvelopeInternal();
+        Envelope envRight = right.getEnvelopeInternal();
+
+        if (envRight.intersects(envLeft)) return left.touches(right);
+
+        return false;
     }
 
     @Override
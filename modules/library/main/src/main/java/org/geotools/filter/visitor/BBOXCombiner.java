@@ -0,0 +1,247 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.geotools.api.feature.type.FeatureType;
+import org.geotools.api.feature.type.PropertyDescriptor;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.MultiValuedFilter.MatchAction;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.spatial.BBOX;
+import org.geotools.api.filter.spatial.BBOX3D;
+import org.geotools.api.geometry.BoundingBox;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.geometry.jts.ReferencedEnvelope3D;
+import org.geotools.referencing.CRS;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Utility class used by {@link SimplifyingFilterVisitor} to combine {@link BBOX} filters against
+ * the same property. A BBOX filter tests if the geometry intersects the box, so:
+ *
+ * <ul>
+ *   <li>in an AND, a box containing another one is redundant, and for point properties the boxes
+ *       can be intersected
+ *   <li>in an OR, a box contained in another one is redundant
+ * </ul>
+ *
+ * Like {@link RangeCombiner}, this class assumes single valued properties, so it is suitable for
+ * usage only in a simple feature context.
+ */
+abstract class BBOXCombiner {
+
+    /** Removes the boxes contained in others */
+    static class Or extends BBOXCombiner {
+
+        public Or(FilterFactory ff, FeatureType featureType, List<Filter> filters) {
+            super(ff, featureType, filters);
+        }
+
+        @Override
+        protected Box combine(Box b1, Box b2) {
+            if (b1.envelope.covers(b2.envelope)) {
+                return b1;
+            } else if (b2.envelope.covers(b1.envelope)) {
+                return b2;
+            }
+            return null;
+        }
+    }
+
+    /** Removes the boxes containing others, and intersects the boxes of point properties */
+    static class And extends BBOXCombiner {
+
+        public And(FilterFactory ff, FeatureType featureType, List<Filter> filters) {
+            super(ff, featureType, filters);
+        }
+
+        @Override
+        protected Box combine(Box b1, Box b2) {
+            if (b1.envelope.covers(b2.envelope)) {
+                return b2;
+            } else if (b2.envelope.covers(b1.envelope)) {
+                return b1;
+            } else if (isPointProperty(b1.property)) {
+                // a point is inside both boxes only if inside their intersection
+                ReferencedEnvelope intersection =
+                        new ReferencedEnvelope(
+                                b1.envelope.intersection(b2.envelope),
+                                b1.envelope.getCoordinateReferenceSystem());
+                if (intersection.isNull()) {
+                    return EMPTY;
+                }
+                return new Box(ff.bbox(b1.property, intersection), b1.property, intersection);
+            }
+            return null;
+        }
+    }
+
+    /** A BBOX filter, with its property and box */
+    static class Box {
+        Filter filter;
+
+        PropertyName property;
+
+        ReferencedEnvelope envelope;
+
+        public Box(Filter filter, PropertyName property, ReferencedEnvelope envelope) {
+            this.filter = filter;
+            this.property = property;
+            this.envelope = envelope;
+        }
+    }
+
+    /** Marks a combination that cannot match any feature */
+    static final Box EMPTY = new Box(Filter.EXCLUDE, null, null);
+
+    protected FilterFactory ff;
+
+    protected FeatureType featureType;
+
+    protected List<Filter> filters;
+
+    public BBOXCombiner(FilterFactory ff, FeatureType featureType, List<Filter> filters) {
+        this.ff = ff;
+        this.featureType = featureType;
+        this.filters = filters;
+    }
+
+    /**
+     * Combines the two boxes, returning the combined box, {@link #EMPTY} if the combination cannot
+     * match anything, or null if they cannot be combined
+     */
+    protected abstract Box combine(Box b1, Box b2);
+
+    /**
+     * Returns the filters with the redundant boxes removed, and the combined ones replacing the
+     * first of the boxes they were built from
+     */
+    public List<Filter> getReducedFilters() {
+        // the combined boxes take the slot of the first filter they came from
+        Filter[] slots = filters.toArray(new Filter[filters.size()]);
+        List<Box> boxes = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        boolean combined = false;
+        for (int i = 0; i < slots.length; i++) {
+            Box box = toBox(slots[i]);
+            if (box == null) {
+                continue;
+            }
+            int position = i;
+            for (int j = 0; j < boxes.size(); ) {
+                Box other = boxes.get(j);
+                Box result =
+                        other.property.equals(box.property) && sameCRS(other, box)
+                                ? combine(other, box)
+                                : null;
+                if (result == null) {
+                    j++;
+                    continue;
+                } else if (result == EMPTY) {
+                    return Arrays.asList(Filter.EXCLUDE);
+                }
+                // remove the other box and keep on combining the result with the rest
+                combined = true;
+                int otherPosition = positions.get(j);
+                slots[position] = null;
+                slots[otherPosition] = null;
+                position = Math.min(position, otherPosition);
+                slots[position] = result.filter;
+                boxes.remove(j);
+                positions.remove(j);
+                box = result;
+            }
+            boxes.add(box);
+            positions.add(position);
+        }
+        if (!combined) {
+            return filters;
+        }
+
+        List<Filter> result = new ArrayList<>();
+        for (Filter filter : slots) {
+            if (filter != null) {
+                result.add(filter);
+            }
+        }
+        return result;
+    }
+
+    /** Returns the box for a 2D BBOX filter against a property, or null */
+    private Box toBox(Filter filter) {
+        if (!(filter instanceof BBOX) || filter instanceof BBOX3D) {
+            return null;
+        }
+        BBOX bbox = (BBOX) filter;
+        if (!(bbox.getExpression1() instanceof PropertyName)
+                || !(bbox.getExpression2() instanceof Literal)
+                || bbox.getMatchAction() != MatchAction.ANY) {
+            return null;
+        }
+        ReferencedEnvelope envelope = toEnvelope(((Literal) bbox.getExpression2()).getValue());
+        if (envelope == null || envelope.isNull() || envelope instanceof ReferencedEnvelope3D) {
+            return null;
+        }
+        return new Box(filter, (PropertyName) bbox.getExpression1(), envelope);
+    }
+
+    /**
+     * Returns the envelope of a BBOX literal, or null if the BBOX filter is not a plain envelope
+     * check (e.g., the literal is a geometry that is not a rectangle)
+     */
+    private ReferencedEnvelope toEnvelope(Object value) {
+        if (value instanceof BoundingBox) {
+            return ReferencedEnvelope.reference((BoundingBox) value);
+        } else if (value instanceof Envelope) {
+            return ReferencedEnvelope.reference((Envelope) value);
+        } else if (value instanceof Geometry && ((Geometry) value).isRectangle()) {
+            Geometry geometry = (Geometry) value;
+            Object userData = geometry.getUserData();
+            if (userData != null && !(userData instanceof CoordinateReferenceSystem)) {
+                return null;
+            }
+            return new ReferencedEnvelope(
+                    geometry.getEnvelopeInternal(), (CoordinateReferenceSystem) userData);
+        }
+        return null;
+    }
+
+    /** Returns true if the boxes can be compared, that is, they are in the same CRS */
+    static boolean sameCRS(Box b1, Box b2) {
+        return CRS.equalsIgnoreMetadata(
+                b1.envelope.getCoordinateReferenceSystem(),
+                b2.envelope.getCoordinateReferenceSystem());
+    }
+
+    /** Returns true if the property is known to contain points */
+    protected boolean isPointProperty(PropertyName property) {
+        if (featureType == null) {
+            return false;
+        }
+        PropertyDescriptor descriptor = featureType.getDescriptor(property.getPropertyName());
+        return descriptor != null
+                && Point.class.isAssignableFrom(descriptor.getType().getBinding());
+    }
+}
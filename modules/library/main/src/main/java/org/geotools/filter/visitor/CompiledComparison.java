@@ -0,0 +1,329 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import java.util.Collection;
+import org.geotools.api.filter.BinaryComparisonOperator;
+import org.geotools.api.filter.FilterVisitor;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.PropertyIsGreaterThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsLessThan;
+import org.geotools.api.filter.PropertyIsLessThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsNotEqualTo;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.filter.MultiCompareFilterImpl;
+
+/**
+ * Comparison between an attribute read by index and a constant value. The attribute value is
+ * compared directly with the constant, skipping the expression evaluation and multi valued handling
+ * of the original filter, and when the value has the same type as the constant, the type alignment
+ * too, comparing numbers as primitives. Every other case is delegated to the original filter, so
+ * the results are the same.
+ */
+abstract class CompiledComparison implements BinaryComparisonOperator {
+
+    final MultiCompareFilterImpl delegate;
+
+    final IndexedPropertyName property;
+
+    /** The constant value, never null, a collection or an array */
+    final Object literal;
+
+    /** True if the literal is the first expression of the comparison */
+    final boolean literalFirst;
+
+    CompiledComparison(
+            MultiCompareFilterImpl delegate,
+            IndexedPropertyName property,
+            Object literal,
+            boolean literalFirst) {
+        this.delegate = delegate;
+        this.property = property;
+        this.literal = literal;
+        this.literalFirst = literalFirst;
+    }
+
+    @Override
+    public boolean evaluate(Object object) {
+        Object value = property.read(object);
+        if (value == IndexedPropertyName.NO_VALUE
+                || value instanceof Collection
+                || (value != null && value.getClass().isArray())) {
+            return delegate.evaluate(object);
+        }
+        return evaluateValue(value);
+    }
+
+    /** Compares the attribute value with the literal, the value is not a collection */
+    boolean evaluateValue(Object value) {
+        return literalFirst
+                ? delegate.evaluateInternal(literal, value)
+                : delegate.evaluateInternal(value, literal);
+    }
+
+    @Override
+    public Expression getExpression1() {
+        return delegate.getExpression1();
+    }
+
+    @Override
+    public Expression getExpression2() {
+        return delegate.getExpression2();
+    }
+
+    @Override
+    public boolean isMatchingCase() {
+        return delegate.isMatchingCase();
+    }
+
+    @Override
+    public MatchAction getMatchAction() {
+        return delegate.getMatchAction();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        return delegate.equals(((CompiledComparison) obj).delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /** Equality, values of the same type as the literal are compared with equals */
+    abstract static class Equality extends CompiledComparison {
+
+        private final boolean directEquals;
+
+        Equality(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+            this.directEquals = !(literal instanceof String) || delegate.isMatchingCase();
+        }
+
+        /** Returns true if the value can be compared with the literal using equals */
+        boolean isDirect(Object value) {
+            return directEquals && value != null && value.getClass() == literal.getClass();
+        }
+    }
+
+    static final class EqualTo extends Equality implements PropertyIsEqualTo {
+
+        EqualTo(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean evaluateValue(Object value) {
+            return isDirect(value) ? value.equals(literal) : super.evaluateValue(value);
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+
+    static final class NotEqualTo extends Equality implements PropertyIsNotEqualTo {
+
+        NotEqualTo(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean evaluateValue(Object value) {
+            // the delegate evaluation is already negated
+            return isDirect(value) ? !value.equals(literal) : super.evaluateValue(value);
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+
+    /**
+     * Ordering comparison, values of the same type as the literal are compared as primitive doubles
+     * if numbers, or directly with compareTo otherwise, with the same rules as the original filter
+     */
+    abstract static class Ordering extends CompiledComparison {
+
+        private final boolean numeric;
+
+        private final double number;
+
+        private final boolean comparable;
+
+        Ordering(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+            this.numeric = literal instanceof Number && literal instanceof Comparable;
+            this.number = numeric ? ((Number) literal).doubleValue() : Double.NaN;
+            // strings that can be parsed as numbers are compared as numbers when the other
+            // value can be parsed too, leave that to the delegate
+            this.comparable =
+                    !numeric
+                            && literal instanceof Comparable
+                            && !(literal instanceof String && isNumber((String) literal));
+        }
+
+        private static boolean isNumber(String value) {
+            try {
+                Double.parseDouble(value);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean evaluateValue(Object value) {
+            if (value != null && value.getClass() == literal.getClass()) {
+                if (numeric) {
+                    double v = ((Number) value).doubleValue();
+                    return test(literalFirst ? compare(number, v) : compare(v, number));
+                } else if (comparable) {
+                    Comparable<Object> l = (Comparable<Object>) literal;
+                    Comparable<Object> v = (Comparable<Object>) value;
+                    return test(literalFirst ? l.compareTo(v) : v.compareTo(l));
+                }
+            }
+            return super.evaluateValue(value);
+        }
+
+        /** Same as the number comparison in the original filters, NaN included */
+        private static int compare(double left, double right) {
+            return left > right ? 1 : (left == right ? 0 : -1);
+        }
+
+        /** Returns the comparison result given the compareTo like output */
+        abstract boolean test(int comparison);
+    }
+
+    static final class GreaterThan extends Ordering implements PropertyIsGreaterThan {
+
+        GreaterThan(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean test(int comparison) {
+            return comparison > 0;
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+
+    static final class GreaterThanOrEqualTo extends Ordering
+            implements PropertyIsGreaterThanOrEqualTo {
+
+        GreaterThanOrEqualTo(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean test(int comparison) {
+            return comparison >= 0;
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+
+    static final class LessThan extends Ordering implements PropertyIsLessThan {
+
+        LessThan(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean test(int comparison) {
+            return comparison < 0;
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+
+    static final class LessThanOrEqualTo extends Ordering implements PropertyIsLessThanOrEqualTo {
+
+        LessThanOrEqualTo(
+                MultiCompareFilterImpl delegate,
+                IndexedPropertyName property,
+                Object literal,
+                boolean literalFirst) {
+            super(delegate, property, literal, literalFirst);
+        }
+
+        @Override
+        boolean test(int comparison) {
+            return comparison <= 0;
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return visitor.visit(this, extraData);
+        }
+    }
+}
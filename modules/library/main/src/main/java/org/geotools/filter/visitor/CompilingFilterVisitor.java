@@ -0,0 +1,205 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import java.util.Collection;
+import java.util.List;
+import org.geotools.api.feature.Attribute;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.FeatureType;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.PropertyIsGreaterThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsLessThan;
+import org.geotools.api.filter.PropertyIsLessThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsNotEqualTo;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.filter.MultiCompareFilterImpl;
+
+/**
+ * Prepares a filter for repeated in memory evaluation against the features of a given type, doing
+ * once work that would otherwise be repeated for each evaluated feature:
+ *
+ * <ul>
+ *   <li>Literals are converted to the type of the attribute they are compared to, as in {@link
+ *       BindingFilterVisitor}
+ *   <li>Attributes of a {@link SimpleFeatureType} are read by index, instead of looking up a
+ *       property accessor and then the attribute by name
+ *   <li>Comparisons between an attribute and a literal compare the attribute value directly with
+ *       the literal, as primitives in case of numbers
+ *   <li>The children of AND and OR filters are sorted by {@link FilterCostEstimator estimated
+ *       evaluation cost}, so that the cheapest ones get a chance to short circuit the evaluation of
+ *       the expensive ones
+ * </ul>
+ *
+ * <p>The compiled filter evaluates features of a different type, or other objects, just like the
+ * original filter.
+ */
+public class CompilingFilterVisitor extends BindingFilterVisitor {
+
+    private SimpleFeatureType simpleSchema;
+
+    public CompilingFilterVisitor(FeatureType schema) {
+        super(schema);
+        if (schema instanceof SimpleFeatureType) {
+            this.simpleSchema = (SimpleFeatureType) schema;
+        }
+    }
+
+    /**
+     * Compiles the filter for evaluation against features of the given type. {@link Filter#INCLUDE}
+     * and {@link Filter#EXCLUDE} are returned as is.
+     */
+    public static Filter compile(Filter filter, FeatureType schema) {
+        if (filter == null || filter == Filter.INCLUDE || filter == Filter.EXCLUDE) {
+            return filter;
+        }
+        return (Filter) filter.accept(new CompilingFilterVisitor(schema), null);
+    }
+
+    /** Compiles the expression for evaluation against features of the given type. */
+    public static Expression compile(Expression expression, FeatureType schema) {
+        if (expression == null) {
+            return null;
+        }
+        return (Expression) expression.accept(new CompilingFilterVisitor(schema), null);
+    }
+
+    @Override
+    public Object visit(PropertyName expression, Object extraData) {
+        if (simpleSchema != null) {
+            int index = simpleSchema.indexOf(expression.getPropertyName());
+            if (index >= 0) {
+                return new IndexedPropertyName(simpleSchema, expression, index);
+            }
+        }
+        return super.visit(expression, extraData);
+    }
+
+    @Override
+    public Object visit(And filter, Object extraData) {
+        And duplicate = (And) super.visit(filter, extraData);
+        List<Filter> sorted = sortByCost(duplicate.getChildren());
+        return sorted == null ? duplicate : getFactory(extraData).and(sorted);
+    }
+
+    @Override
+    public Object visit(Or filter, Object extraData) {
+        Or duplicate = (Or) super.visit(filter, extraData);
+        List<Filter> sorted = sortByCost(duplicate.getChildren());
+        return sorted == null ? duplicate : getFactory(extraData).or(sorted);
+    }
+
+    /** Returns the children sorted by estimated cost, or null if they are already sorted */
+    private List<Filter> sortByCost(List<Filter> children) {
+        List<Filter> sorted = FilterCostEstimator.sortByCost(children);
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i) != children.get(i)) {
+                return sorted;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(PropertyIsEqualTo filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    @Override
+    public Object visit(PropertyIsNotEqualTo filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    @Override
+    public Object visit(PropertyIsGreaterThan filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    @Override
+    public Object visit(PropertyIsGreaterThanOrEqualTo filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    @Override
+    public Object visit(PropertyIsLessThan filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    @Override
+    public Object visit(PropertyIsLessThanOrEqualTo filter, Object extraData) {
+        return compileComparison((Filter) super.visit(filter, extraData));
+    }
+
+    /**
+     * Replaces comparisons between an attribute read by index and a literal with a compiled
+     * version, returns the filter as is otherwise
+     */
+    private Filter compileComparison(Filter filter) {
+        if (!(filter instanceof MultiCompareFilterImpl)) {
+            return filter;
+        }
+        MultiCompareFilterImpl comparison = (MultiCompareFilterImpl) filter;
+        Expression expression1 = comparison.getExpression1();
+        Expression expression2 = comparison.getExpression2();
+        IndexedPropertyName property;
+        Literal literal;
+        boolean literalFirst;
+        if (expression1 instanceof IndexedPropertyName && expression2 instanceof Literal) {
+            property = (IndexedPropertyName) expression1;
+            literal = (Literal) expression2;
+            literalFirst = false;
+        } else if (expression1 instanceof Literal && expression2 instanceof IndexedPropertyName) {
+            property = (IndexedPropertyName) expression2;
+            literal = (Literal) expression1;
+            literalFirst = true;
+        } else {
+            return filter;
+        }
+
+        // multi valued and null literals are left to the original filter
+        Object value = literal.getValue();
+        if (value == null
+                || value instanceof Collection
+                || value instanceof Attribute
+                || value.getClass().isArray()) {
+            return filter;
+        }
+
+        if (filter instanceof PropertyIsEqualTo) {
+            return new CompiledComparison.EqualTo(comparison, property, value, literalFirst);
+        } else if (filter instanceof PropertyIsNotEqualTo) {
+            return new CompiledComparison.NotEqualTo(comparison, property, value, literalFirst);
+        } else if (filter instanceof PropertyIsGreaterThan) {
+            return new CompiledComparison.GreaterThan(comparison, property, value, literalFirst);
+        } else if (filter instanceof PropertyIsGreaterThanOrEqualTo) {
+            return new CompiledComparison.GreaterThanOrEqualTo(
+                    comparison, property, value, literalFirst);
+        } else if (filter instanceof PropertyIsLessThan) {
+            return new CompiledComparison.LessThan(comparison, property, value, literalFirst);
+        } else if (filter instanceof PropertyIsLessThanOrEqualTo) {
+            return new CompiledComparison.LessThanOrEqualTo(
+                    comparison, property, value, literalFirst);
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.geotools.api.filter.BinaryComparisonOperator;
+import org.geotools.api.filter.BinaryLogicOperator;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.Not;
+import org.geotools.api.filter.PropertyIsBetween;
+import org.geotools.api.filter.PropertyIsLike;
+import org.geotools.api.filter.PropertyIsNil;
+import org.geotools.api.filter.PropertyIsNull;
+import org.geotools.api.filter.expression.BinaryExpression;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Function;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.spatial.BBOX;
+import org.geotools.api.filter.spatial.BinarySpatialOperator;
+import org.geotools.api.filter.spatial.DistanceBufferOperator;
+import org.geotools.api.filter.temporal.BinaryTemporalOperator;
+
+/**
+ * Estimates the relative cost of evaluating a filter in memory against a feature. The estimate is a
+ * rough one, based only on the filter structure: attribute comparisons are cheap, bounding box
+ * checks a bit less so, functions and LIKE (a regular expression match) are more expensive, and
+ * topological and distance predicates the most expensive. Only the relative values are meaningful.
+ *
+ * <p>Used to sort the children of logic filters, so that the cheap ones get a chance to short
+ * circuit the evaluation of the expensive ones.
+ */
+public final class FilterCostEstimator {
+
+    /** Sorts filters by increasing estimated cost */
+    public static final Comparator<Filter> COMPARATOR =
+            Comparator.comparingInt(FilterCostEstimator::estimate);
+
+    private FilterCostEstimator() {}
+
+    /** Returns the estimated cost of evaluating the filter against a feature */
+    public static int estimate(Filter filter) {
+        if (filter == null || filter == Filter.INCLUDE || filter == Filter.EXCLUDE) {
+            return 0;
+        } else if (filter instanceof CompiledComparison) {
+            return 1;
+        } else if (filter instanceof PropertyIsNull) {
+            return 1 + estimate(((PropertyIsNull) filter).getExpression());
+        } else if (filter instanceof PropertyIsNil) {
+            return 1 + estimate(((PropertyIsNil) filter).getExpression());
+        } else if (filter instanceof BBOX) {
+            BBOX bbox = (BBOX) filter;
+            return 4 + estimate(bbox.getExpression1()) + estimate(bbox.getExpression2());
+        } else if (filter instanceof DistanceBufferOperator) {
+            DistanceBufferOperator distance = (DistanceBufferOperator) filter;
+            return 60 + estimate(distance.getExpression1()) + estimate(distance.getExpression2());
+        } else if (filter instanceof BinarySpatialOperator) {
+            BinarySpatialOperator spatial = (BinarySpatialOperator) filter;
+            return 50 + estimate(spatial.getExpression1()) + estimate(spatial.getExpression2());
+        } else if (filter instanceof BinaryTemporalOperator) {
+            BinaryTemporalOperator temporal = (BinaryTemporalOperator) filter;
+            return 10 + estimate(temporal.getExpression1()) + estimate(temporal.getExpression2());
+        } else if (filter instanceof BinaryComparisonOperator) {
+            BinaryComparisonOperator comparison = (BinaryComparisonOperator) filter;
+            return 2
+                    + estimate(comparison.getExpression1())
+                    + estimate(comparison.getExpression2());
+        } else if (filter instanceof PropertyIsBetween) {
+            PropertyIsBetween between = (PropertyIsBetween) filter;
+            return 3
+                    + estimate(between.getExpression())
+                    + estimate(between.getLowerBoundary())
+                    + estimate(between.getUpperBoundary());
+        } else if (filter instanceof Id) {
+            return 3;
+        } else if (filter instanceof PropertyIsLike) {
+            return 10 + estimate(((PropertyIsLike) filter).getExpression());
+        } else if (filter instanceof Not) {
+            return estimate(((Not) filter).getFilter());
+        } else if (filter instanceof BinaryLogicOperator) {
+            int cost = 0;
+            for (Filter child : ((BinaryLogicOperator) filter).getChildren()) {
+                cost += estimate(child);
+            }
+            return cost;
+        }
+        return 20;
+    }
+
+    /** Returns the estimated cost of evaluating the expression against a feature */
+    public static int estimate(Expression expression) {
+        if (expression == null || expression instanceof Literal) {
+            return 0;
+        } else if (expression instanceof PropertyName) {
+            // attributes read by index are as cheap as literals
+            return expression instanceof IndexedPropertyName ? 0 : 1;
+        } else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return 1 + estimate(binary.getExpression1()) + estimate(binary.getExpression2());
+        } else if (expression instanceof Function) {
+            int cost = 10;
+            List<Expression> parameters = ((Function) expression).getParameters();
+            if (parameters != null) {
+                for (Expression parameter : parameters) {
+                    cost += estimate(parameter);
+                }
+            }
+            return cost;
+        }
+        return 5;
+    }
+
+    /**
+     * Returns the filters sorted by increasing estimated cost. The sort is stable, filters with the
+     * same cost keep their relative order.
+     */
+    public static List<Filter> sortByCost(List<Filter> filters) {
+        List<Filter> sorted = new ArrayList<>(filters);
+        sorted.sort(COMPARATOR);
+        return sorted;
+    }
+}
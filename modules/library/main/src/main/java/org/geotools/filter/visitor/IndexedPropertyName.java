@@ -0,0 +1,134 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.expression.ExpressionVisitor;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.util.Converters;
+import org.xml.sax.helpers.NamespaceSupport;
+
+/**
+ * Reads a simple feature attribute by index, instead of looking up a property accessor and then the
+ * attribute by name. Objects that are not simple features with the expected attribute at the index
+ * are evaluated by the original property name.
+ */
+final class IndexedPropertyName implements PropertyName {
+
+    /** Returned by {@link #read(Object)} when the object cannot be read by index */
+    static final Object NO_VALUE = new Object();
+
+    final PropertyName delegate;
+
+    final int index;
+
+    private final AttributeDescriptor descriptor;
+
+    /**
+     * The last feature type found to have the expected attribute at the index. Feature sources
+     * often return features whose type is equal, but not the same instance, as their schema, this
+     * allows to use a reference comparison after the first check
+     */
+    private volatile SimpleFeatureType lastType;
+
+    IndexedPropertyName(SimpleFeatureType schema, PropertyName delegate, int index) {
+        this.delegate = delegate;
+        this.index = index;
+        this.descriptor = schema.getDescriptor(index);
+        this.lastType = schema;
+    }
+
+    /**
+     * Returns the attribute value, or {@link #NO_VALUE} if the object is not a simple feature
+     * having the expected attribute at the index
+     */
+    Object read(Object object) {
+        if (object instanceof SimpleFeature) {
+            SimpleFeature feature = (SimpleFeature) object;
+            SimpleFeatureType type = feature.getFeatureType();
+            if (type == lastType || matches(type)) {
+                return feature.getAttribute(index);
+            }
+        }
+        return NO_VALUE;
+    }
+
+    private boolean matches(SimpleFeatureType type) {
+        if (index < type.getAttributeCount() && descriptor.equals(type.getDescriptor(index))) {
+            lastType = type;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String getPropertyName() {
+        return delegate.getPropertyName();
+    }
+
+    @Override
+    public NamespaceSupport getNamespaceContext() {
+        return delegate.getNamespaceContext();
+    }
+
+    @Override
+    public Object evaluate(Object object) {
+        return evaluate(object, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T evaluate(Object object, Class<T> context) {
+        Object value = read(object);
+        if (value == NO_VALUE) {
+            return delegate.evaluate(object, context);
+        }
+        if (context == null || context.isInstance(value)) {
+            return (T) value;
+        }
+        return Converters.convert(value, context);
+    }
+
+    @Override
+    public Object accept(ExpressionVisitor visitor, Object extraData) {
+        return delegate.accept(visitor, extraData);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IndexedPropertyName)) {
+            return false;
+        }
+        IndexedPropertyName other = (IndexedPropertyName) obj;
+        return index == other.index && delegate.equals(other.delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -67,6 +67,10 @@
  *   <li>deal with FID filter validation removing invalid fids
  *   <li>optimize out all non volatile functions that do not happen to use attributes, replacing
  *       them with literals
+ *   <li>optionally, combines ranges and bounding boxes against the same property (see {@link
+ *       #setRangeSimplicationEnabled(boolean)})
+ *   <li>optionally, sorts the children of logical expressions by estimated evaluation cost (see
+ *       {@link #setCostBasedReorderingEnabled(boolean)})
  * </ul>
  *
  * <p>FID filter validation is meant to wipe out non valid feature ids from {@link Id} filters. This
@@ -148,6 +152,8 @@ public TypeNameDotNumberFidValidator(final String typeName) {
 
     private boolean rangeSimplicationEnabled = false;
 
+    private boolean costBasedReorderingEnabled = false;
+
     public void setFIDValidator(FIDValidator validator) {
         this.fidValidator = validator == null ? ANY_FID_VALID : validator;
     }
@@ -165,6 +171,10 @@ public Object visit(And filter, Object extraData) {
 
         filters = extraAndSimplification(extraData, filters);
 
+        if (costBasedReorderingEnabled) {
+            filters = FilterCostEstimator.sortByCost(filters);
+        }
+
         // we might end up with an empty list
         if (filters.isEmpty()) {
             return Filter.INCLUDE;
@@ -184,6 +194,10 @@ protected List<Filter> basicAndSimplification(List<Filter> filters) {
             RangeCombiner combiner = new RangeCombiner.And(ff, featureType, filters);
             filters = combiner.getReducedFilters();
         }
+        // remove redundant bounding boxes
+        if (rangeSimplicationEnabled && isSimpleFeature()) {
+            filters = new BBOXCombiner.And(ff, featureType, filters).getReducedFilters();
+        }
 
         // eliminate include and exclude
         List<Filter> simplified = new ArrayList<>(filters.size());
@@ -287,6 +301,10 @@ public Object visit(Or filter, Object extraData) {
 
         filters = extraOrSimplification(extraData, filters);
 
+        if (costBasedReorderingEnabled) {
+            filters = FilterCostEstimator.sortByCost(filters);
+        }
+
         // we might end up with an empty list
         if (filters.isEmpty()) {
             return Filter.EXCLUDE;
@@ -307,6 +325,10 @@ protected List<Filter> basicOrSimplification(List<Filter> filters) {
             RangeCombiner combiner = new RangeCombiner.Or(ff, featureType, filters);
             filters = combiner.getReducedFilters();
         }
+        // remove redundant bounding boxes
+        if (rangeSimplicationEnabled && isSimpleFeature()) {
+            filters = new BBOXCombiner.Or(ff, featureType, filters).getReducedFilters();
+        }
 
         // eliminate include and exclude
         List<Filter> simplified = new ArrayList<>(filters.size());
@@ -681,11 +703,28 @@ public boolean isRangeSimplicationEnabled() {
      * Enables/disable range simplification. Range simplification can figure out that the logic
      * combination of multiple ranges against the same property can be turned into a single range, a
      * INCLUDE, or a EXCLUDE, but it requires the range boundaries to be of the same type as the
+     * property. When enabled, bounding box filters against the same property and contained one in
+     * the other are also combined.
      */
     public void setRangeSimplicationEnabled(boolean rangeSimplicationEnabled) {
         this.rangeSimplicationEnabled = rangeSimplicationEnabled;
     }
 
+    public boolean isCostBasedReorderingEnabled() {
+        return costBasedReorderingEnabled;
+    }
+
+    /**
+     * Enables/disable cost based reordering. When enabled, the children of AND and OR filters are
+     * sorted by {@link FilterCostEstimator estimated evaluation cost}, so that the cheap ones get a
+     * chance to short circuit the in memory evaluation of the expensive ones. Meant for filters
+     * that are going to be evaluated in memory, the order is not relevant for filters encoded in a
+     * native query language.
+     */
+    public void setCostBasedReorderingEnabled(boolean costBasedReorderingEnabled) {
+        this.costBasedReorderingEnabled = costBasedReorderingEnabled;
+    }
+
     /**
      * Returns if a property can contain null values, or not. If we don't have the featureType
      * information, or we don't know the property, we are going to assume the property is nillable
@@ -0,0 +1,293 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.FeatureVisitor;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.memory.MemoryDataStore;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.visitor.CalcResult;
+import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.FeatureCalc;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.MinVisitor;
+import org.geotools.feature.visitor.SumVisitor;
+import org.geotools.feature.visitor.UniqueVisitor;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+public class ColumnarDataStoreTest {
+
+    static final String[] NAMES = {"alpha", "beta", "gamma", "delta", null};
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    GeometryFactory gf = new GeometryFactory();
+
+    SimpleFeatureType type;
+
+    SimpleFeatureSource expected;
+
+    ColumnarDataStore store;
+
+    SimpleFeatureSource actual;
+
+    @Before
+    public void setup() throws Exception {
+        type =
+                DataUtilities.createType(
+                        "test",
+                        "geom:Geometry:srid=4326,i:java.lang.Integer,s:java.lang.Short,"
+                                + "l:java.lang.Long,d:Double,f:Float,b:Boolean,t:java.util.Date,"
+                                + "name:String");
+        List<SimpleFeature> features = new ArrayList<>();
+        for (int n = 0; n < 100; n++) {
+            Geometry geom;
+            if (n % 17 == 0) {
+                geom = null;
+            } else if (n % 3 == 0) {
+                geom = gf.createPoint(new Coordinate(n, n / 2d));
+            } else if (n % 3 == 1) {
+                geom = gf.createPoint(new Coordinate(n, n, n * 10));
+            } else {
+                geom = gf.toGeometry(new ReferencedEnvelope(n, n + 2.5, -n, -n + 1, null));
+            }
+            Object[] values = {
+                geom,
+                n % 7 == 0 ? null : n % 10 - 5,
+                n % 9 == 0 ? null : (short) (n * 3),
+                n % 5 == 0 ? null : n * 1000000000L,
+                n % 11 == 0 ? Double.NaN : n * 0.25,
+                n % 13 == 0 ? null : (float) (n / 3.0),
+                n % 4 == 0 ? null : n % 3 == 0,
+                n % 6 == 0 ? null : new Date(n * 86400000L),
+                NAMES[n % NAMES.length]
+            };
+            // mix of encodable and non encodable feature ids
+            String id = n % 10 == 0 ? "fid-0" + n : (n % 15 == 0 ? "other" + n + "x" : "test." + n);
+            features.add(SimpleFeatureBuilder.build(type, values, id));
+        }
+        expected =
+                new MemoryDataStore(features.toArray(new SimpleFeature[0]))
+                        .getFeatureSource("test");
+
+        store = new ColumnarDataStore();
+        assertEquals("test", store.load(expected));
+        actual = store.getFeatureSource("test");
+    }
+
+    @After
+    public void dispose() {
+        store.dispose();
+    }
+
+    @Test
+    public void testSchema() throws Exception {
+        assertArrayEquals(new String[] {"test"}, store.getTypeNames());
+        assertEquals(type, actual.getSchema());
+    }
+
+    @Test
+    public void testContents() throws Exception {
+        assertEquals(100, actual.getCount(Query.ALL));
+        assertEquals(expected.getBounds(), actual.getBounds());
+        assertSameFeatures(Filter.INCLUDE);
+    }
+
+    @Test
+    public void testFilters() throws Exception {
+        assertSameFeatures(ff.bbox("geom", 10, -20, 30, 20, null));
+        assertSameFeatures(ff.bbox("geom", 200, 200, 300, 300, null));
+        assertSameFeatures(
+                ff.and(
+                        ff.bbox("geom", 0, -50, 60, 30, null),
+                        ff.equals(ff.property("name"), ff.literal("beta"))));
+        assertSameFeatures(
+                ff.or(
+                        ff.bbox("geom", 0, 0, 10, 10, null),
+                        ff.greater(ff.property("i"), ff.literal(2))));
+        assertSameFeatures(ff.not(ff.bbox("geom", 0, 0, 50, 50, null)));
+        assertSameFeatures(ff.isNull(ff.property("geom")));
+        assertSameFeatures(ff.less(ff.property("d"), ff.literal(10)));
+        assertSameFeatures(ff.equals(ff.property("b"), ff.literal(true)));
+        assertSameFeatures(ff.id(ff.featureId("test.3"), ff.featureId("fid-020")));
+    }
+
+    @Test
+    public void testVisitors() throws Exception {
+        assertSameResult(new CountVisitor());
+        for (String attribute : new String[] {"i", "s", "l", "d", "f", "b", "t", "name"}) {
+            assertSameResult(new MinVisitor(ff.property(attribute)));
+            assertSameResult(new MaxVisitor(ff.property(attribute)));
+            UniqueVisitor unique = new UniqueVisitor(ff.property(attribute));
+            unique.setPreserveOrder(true);
+            assertSameResult(unique);
+        }
+        for (String attribute : new String[] {"i", "s", "l", "d", "f"}) {
+            assertSameResult(new SumVisitor(ff.property(attribute)));
+        }
+        // not handled on the columns, but still correct
+        assertSameResult(new UniqueVisitor(ff.property("geom")));
+        assertSameResult(new SumVisitor(ff.function("abs", ff.property("i"))));
+    }
+
+    @Test
+    public void testVisitorsOnColumns() throws Exception {
+        ColumnarFeatureSource source = (ColumnarFeatureSource) actual;
+        assertTrue(source.handleVisitor(Query.ALL, new MinVisitor(ff.property("d"))));
+        assertTrue(source.handleVisitor(Query.ALL, new MaxVisitor(ff.property("f"))));
+        // the max visitor counts the NaN values, the scan is needed
+        assertFalse(source.handleVisitor(Query.ALL, new MaxVisitor(ff.property("d"))));
+        assertTrue(source.handleVisitor(Query.ALL, new UniqueVisitor(ff.property("name"))));
+        assertFalse(source.handleVisitor(Query.ALL, new SumVisitor(ff.property("name"))));
+        Query query = new Query("test", ff.greater(ff.property("i"), ff.literal(0)));
+        assertFalse(source.handleVisitor(query, new CountVisitor()));
+    }
+
+    @Test
+    public void testValueTypeFallback() throws Exception {
+        // values not matching the declared binding are preserved as is
+        SimpleFeatureType mixedType = DataUtilities.createType("mixed", "v:java.lang.Integer");
+        List<SimpleFeature> features = new ArrayList<>();
+        Object[] values = {1, null, 3L, "four"};
+        for (int i = 0; i < values.length; i++) {
+            SimpleFeature feature = SimpleFeatureBuilder.build(mixedType, new Object[1], null);
+            feature.setAttribute(0, values[i]);
+            features.add(feature);
+        }
+        MemoryDataStore memory = new MemoryDataStore(features.toArray(new SimpleFeature[0]));
+        store.load(memory.getFeatureSource("mixed"));
+        Map<String, Object> result = new LinkedHashMap<>();
+        try (SimpleFeatureIterator it = store.getFeatureSource("mixed").getFeatures().features()) {
+            while (it.hasNext()) {
+                SimpleFeature feature = it.next();
+                result.put(feature.getID(), feature.getAttribute(0));
+            }
+        }
+        Map<String, Object> reference = new LinkedHashMap<>();
+        for (SimpleFeature feature : features) {
+            reference.put(feature.getID(), feature.getAttribute(0));
+        }
+        assertEquals(reference, result);
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        Query query = new Query("test", ff.less(ff.property("i"), ff.literal(0)));
+        store.load(expected, query);
+        SimpleFeatureSource reloaded = store.getFeatureSource("test");
+        assertEquals(expected.getFeatures(query).size(), reloaded.getCount(Query.ALL));
+
+        store.removeSchema("test");
+        assertEquals(0, store.getTypeNames().length);
+    }
+
+    private void assertSameFeatures(Filter filter) throws Exception {
+        Map<String, SimpleFeature> reference = getFeatures(expected.getFeatures(filter));
+        Map<String, SimpleFeature> result = getFeatures(actual.getFeatures(filter));
+        assertEquals(filter.toString(), reference.keySet(), result.keySet());
+        for (String id : reference.keySet()) {
+            SimpleFeature ref = reference.get(id);
+            SimpleFeature feature = result.get(id);
+            for (int i = 0; i < type.getAttributeCount(); i++) {
+                Object refValue = ref.getAttribute(i);
+                Object value = feature.getAttribute(i);
+                if (refValue instanceof Geometry) {
+                    assertTrue(id, ((Geometry) refValue).equalsExact((Geometry) value));
+                    assertEquals(
+                            id,
+                            ((Geometry) refValue).getCoordinate().getZ(),
+                            ((Geometry) value).getCoordinate().getZ(),
+                            0d);
+                } else {
+                    assertEquals(id, refValue, value);
+                }
+            }
+        }
+    }
+
+    private Map<String, SimpleFeature> getFeatures(SimpleFeatureCollection collection) {
+        Map<String, SimpleFeature> result = new LinkedHashMap<>();
+        try (SimpleFeatureIterator it = collection.features()) {
+            while (it.hasNext()) {
+                SimpleFeature feature = it.next();
+                result.put(feature.getID(), feature);
+            }
+        }
+        return result;
+    }
+
+    private void assertSameResult(FeatureCalc visitor) throws Exception {
+        FeatureCalc reference = copy(visitor);
+        expected.getFeatures().accepts(reference, null);
+        actual.getFeatures().accepts(visitor, null);
+        CalcResult expectedResult = reference.getResult();
+        CalcResult result = visitor.getResult();
+        if (expectedResult == CalcResult.NULL_RESULT) {
+            assertEquals(CalcResult.NULL_RESULT, result);
+        } else {
+            Object expectedValue = expectedResult.getValue();
+            Object value = result.getValue();
+            assertEquals(visitor.getClass().getSimpleName(), expectedValue, value);
+            assertEquals(expectedValue == null ? null : expectedValue.getClass(), value.getClass());
+        }
+    }
+
+    /** Builds a new visitor equivalent to the given one */
+    private FeatureCalc copy(FeatureVisitor visitor) {
+        if (visitor instanceof CountVisitor) {
+            return new CountVisitor();
+        } else if (visitor instanceof MinVisitor) {
+            return new MinVisitor(((MinVisitor) visitor).getExpression());
+        } else if (visitor instanceof MaxVisitor) {
+            return new MaxVisitor(((MaxVisitor) visitor).getExpression());
+        } else if (visitor instanceof SumVisitor) {
+            return new SumVisitor(((SumVisitor) visitor).getExpression());
+        } else if (visitor instanceof UniqueVisitor) {
+            UniqueVisitor unique = new UniqueVisitor(((UniqueVisitor) visitor).getExpression());
+            unique.setPreserveOrder(((UniqueVisitor) visitor).isPreserveOrder());
+            return unique;
+        }
+        assertNull("Unexpected visitor " + visitor, visitor);
+        return null;
+    }
+}
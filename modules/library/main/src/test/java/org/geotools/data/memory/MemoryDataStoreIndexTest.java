@@ -0,0 +1,291 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.DefaultTransaction;
+import org.geotools.data.collection.AttributeIndex;
+import org.geotools.data.collection.SpatialIndexFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+public class MemoryDataStoreIndexTest {
+
+    static final String[] NAMES = {"alpha", "beta", "Gamma", "10", "delta", null};
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    GeometryFactory gf = new GeometryFactory();
+
+    SimpleFeatureType type;
+
+    List<SimpleFeature> features;
+
+    MemoryDataStore store;
+
+    @Before
+    public void setup() throws Exception {
+        type =
+                DataUtilities.createType(
+                        "test", "geom:Point,i:java.lang.Integer,d:Double,name:String");
+        features = new ArrayList<>();
+        for (int n = 0; n < 60; n++) {
+            Integer i = n % 7 == 0 ? null : n % 10;
+            Double d = n % 11 == 0 ? Double.NaN : (n % 13 == 0 ? -0.0 : n * 0.5);
+            features.add(feature("f" + n, n, i, d, NAMES[n % NAMES.length]));
+        }
+        store = new MemoryDataStore(features.toArray(new SimpleFeature[features.size()]));
+    }
+
+    private SimpleFeature feature(String id, int x, Integer i, Double d, String name) {
+        Object[] values = {gf.createPoint(new Coordinate(x, x)), i, d, name};
+        return SimpleFeatureBuilder.build(type, values, id);
+    }
+
+    private List<Filter> getFilters() {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(ff.equals(ff.property("i"), ff.literal(3)));
+        filters.add(ff.equals(ff.literal("3"), ff.property("i")));
+        filters.add(ff.equals(ff.property("i"), ff.literal(3.5)));
+        filters.add(ff.equals(ff.property("d"), ff.literal(0.0)));
+        filters.add(ff.equals(ff.property("d"), ff.literal(10)));
+        filters.add(ff.equals(ff.property("name"), ff.literal("beta")));
+        filters.add(ff.equals(ff.property("name"), ff.literal(10)));
+        filters.add(ff.equal(ff.property("name"), ff.literal("gamma"), false));
+        filters.add(ff.greater(ff.property("i"), ff.literal(6)));
+        filters.add(ff.greaterOrEqual(ff.property("d"), ff.literal("12.5")));
+        filters.add(ff.less(ff.property("d"), ff.literal(3)));
+        filters.add(ff.lessOrEqual(ff.literal(4), ff.property("i")));
+        filters.add(ff.less(ff.literal(20.5), ff.property("d")));
+        filters.add(ff.greater(ff.property("name"), ff.literal("b")));
+        filters.add(ff.less(ff.property("name"), ff.literal("5")));
+        filters.add(ff.between(ff.property("i"), ff.literal(2), ff.literal(4)));
+        filters.add(ff.between(ff.property("d"), ff.literal(-1), ff.literal(2.5)));
+        filters.add(ff.between(ff.property("i"), ff.literal(5), ff.literal(1)));
+        filters.add(ff.notEqual(ff.property("i"), ff.literal(3)));
+        filters.add(ff.id(ff.featureId("f3"), ff.featureId("f42"), ff.featureId("missing")));
+        // IN predicate
+        filters.add(
+                ff.or(
+                        ff.equals(ff.property("i"), ff.literal(1)),
+                        ff.equals(ff.property("i"), ff.literal(8))));
+        filters.add(
+                ff.or(
+                        ff.equals(ff.property("i"), ff.literal(1)),
+                        ff.like(ff.property("name"), "a*")));
+        filters.add(
+                ff.and(
+                        ff.equals(ff.property("name"), ff.literal("alpha")),
+                        ff.greater(ff.property("d"), ff.literal(10))));
+        filters.add(
+                ff.and(
+                        ff.bbox("geom", 10, 10, 40, 40, null),
+                        ff.between(ff.property("i"), ff.literal(3), ff.literal(6))));
+        return filters;
+    }
+
+    @Test
+    public void testIndexedQueries() throws Exception {
+        assertSameResults("unindexed");
+        store.addIndex("test", "i", AttributeIndex.Type.SORTED);
+        store.addIndex("test", "d", AttributeIndex.Type.SORTED);
+        store.addIndex("test", "name", AttributeIndex.Type.HASH);
+        assertSameResults("indexed");
+    }
+
+    @Test
+    public void testCandidates() throws Exception {
+        MemoryEntry entry = store.entry("test");
+        Filter equality = ff.equals(ff.property("i"), ff.literal(3));
+        Filter range = ff.greater(ff.property("name"), ff.literal("b"));
+        assertEquals(features.size(), entry.getCandidates(equality).size());
+
+        entry.addIndex("i", AttributeIndex.Type.HASH);
+        entry.addIndex("name", AttributeIndex.Type.HASH);
+        assertEquals(getExpected(equality), getIds(entry.getCandidates(equality)));
+        // hash indexes do not support ranges
+        assertEquals(features.size(), entry.getCandidates(range).size());
+        entry.addIndex("name", AttributeIndex.Type.SORTED);
+        assertEquals(getExpected(range), getIds(entry.getCandidates(range)));
+
+        // ids are always looked up directly
+        Filter id = ff.id(ff.featureId("f3"), ff.featureId("f42"));
+        assertEquals(Set.of("f3", "f42"), getIds(entry.getCandidates(id)));
+
+        assertTrue(entry.removeIndex("i"));
+        assertEquals(features.size(), entry.getCandidates(equality).size());
+    }
+
+    @Test
+    public void testIdCandidatesInsertionOrder() throws Exception {
+        MemoryEntry entry = store.entry("test");
+        Filter id = ff.id(ff.featureId("f42"), ff.featureId("f3"), ff.featureId("f17"));
+        List<String> expected = List.of("f3", "f17", "f42");
+        assertEquals(expected, getIdList(entry.getCandidates(id)));
+
+        // still the case if there are indexes, but the filter does not use them
+        entry.addIndex("i", AttributeIndex.Type.HASH);
+        assertEquals(expected, getIdList(entry.getCandidates(id)));
+        Filter idOrEquality = ff.or(id, ff.equals(ff.property("i"), ff.literal(5)));
+        List<String> candidates = getIdList(entry.getCandidates(idOrEquality));
+        List<String> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingInt(fid -> Integer.parseInt(fid.substring(1))));
+        assertEquals(sorted, candidates);
+    }
+
+    private List<String> getIdList(List<SimpleFeature> features) {
+        List<String> ids = new ArrayList<>();
+        for (SimpleFeature feature : features) {
+            ids.add(feature.getID());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testUnsupportedAttributes() throws Exception {
+        MemoryEntry entry = store.entry("test");
+        try {
+            entry.addIndex("geom", AttributeIndex.Type.HASH);
+            throw new AssertionError("Geometries cannot be indexed");
+        } catch (IllegalArgumentException e) {
+            // fine
+        }
+        try {
+            entry.addIndex("missing", AttributeIndex.Type.HASH);
+            throw new AssertionError("Missing attributes cannot be indexed");
+        } catch (IllegalArgumentException e) {
+            // fine
+        }
+    }
+
+    @Test
+    public void testMaintenance() throws Exception {
+        store.addIndex("test", "i", AttributeIndex.Type.SORTED);
+        store.addIndex("test", "name", AttributeIndex.Type.HASH);
+        SimpleFeatureStore fs = (SimpleFeatureStore) store.getFeatureSource("test");
+
+        fs.modifyFeatures("i", 100, ff.equals(ff.property("i"), ff.literal(3)));
+        fs.removeFeatures(ff.equals(ff.property("name"), ff.literal("beta")));
+        fs.addFeatures(
+                DataUtilities.collection(
+                        feature("new1", 1, 100, 1d, "beta"), feature("new2", 2, 3, 2d, "zeta")));
+        store.addFeature(feature("f4", 4, 100, 3d, "zeta"));
+        assertSameResults("after auto commit changes");
+
+        try (Transaction t = new DefaultTransaction()) {
+            fs.setTransaction(t);
+            fs.modifyFeatures("i", 200, ff.equals(ff.property("i"), ff.literal(5)));
+            fs.removeFeatures(ff.equals(ff.property("name"), ff.literal("zeta")));
+            // pending changes are visible inside the transaction
+            assertEquals(0, fs.getFeatures(ff.equals(ff.property("i"), ff.literal(5))).size());
+            assertEquals(
+                    0, fs.getFeatures(ff.equals(ff.property("name"), ff.literal("zeta"))).size());
+            assertEquals(
+                    getExpected(ff.equals(ff.property("i"), ff.literal(5))),
+                    getIds(fs.getFeatures(ff.equals(ff.property("i"), ff.literal(200)))));
+            t.commit();
+        } finally {
+            fs.setTransaction(Transaction.AUTO_COMMIT);
+        }
+        assertSameResults("after committed transaction");
+    }
+
+    @Test
+    public void testSpatialIndexFeatureCollection() throws Exception {
+        SpatialIndexFeatureCollection collection = new SpatialIndexFeatureCollection(type);
+        collection.addIndex("i", AttributeIndex.Type.SORTED);
+        collection.addAll(features);
+        collection.addIndex("name", AttributeIndex.Type.HASH);
+        collection.addIndex("d", AttributeIndex.Type.SORTED);
+        for (Filter filter : getFilters()) {
+            assertEquals(
+                    filter.toString(),
+                    getExpected(filter),
+                    getIds(collection.subCollection(filter)));
+        }
+    }
+
+    @Test
+    public void testNoIndexOnNullLiteral() throws Exception {
+        MemoryEntry entry = store.entry("test");
+        entry.addIndex("i", AttributeIndex.Type.SORTED);
+        Filter filter = ff.equals(ff.property("i"), ff.literal(null));
+        assertEquals(features.size(), entry.getCandidates(filter).size());
+        // hash indexes cannot answer range queries
+        assertNull(new AttributeIndex(type, "i", AttributeIndex.Type.HASH).range(1, null));
+    }
+
+    /** Checks the store returns the same results as a full scan of its current contents */
+    private void assertSameResults(String message) throws Exception {
+        for (Filter filter : getFilters()) {
+            assertEquals(
+                    message + " " + filter,
+                    getExpected(filter),
+                    getIds(store.getFeatureSource("test").getFeatures(filter)));
+        }
+    }
+
+    /** Evaluates the filter on all the features in the store, with a plain scan */
+    private Set<String> getExpected(Filter filter) throws Exception {
+        Set<String> result = new TreeSet<>();
+        for (SimpleFeature feature : store.entry("test").getMemory().values()) {
+            if (filter.evaluate(feature)) {
+                result.add(feature.getID());
+            }
+        }
+        return result;
+    }
+
+    private Set<String> getIds(List<SimpleFeature> features) {
+        Set<String> result = new TreeSet<>();
+        for (SimpleFeature feature : features) {
+            result.add(feature.getID());
+        }
+        return result;
+    }
+
+    private Set<String> getIds(SimpleFeatureCollection collection) {
+        Set<String> result = new TreeSet<>();
+        try (SimpleFeatureIterator it = collection.features()) {
+            while (it.hasNext()) {
+                result.add(it.next().getID());
+            }
+        }
+        return result;
+    }
+}
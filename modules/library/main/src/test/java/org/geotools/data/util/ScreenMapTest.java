@@ -16,8 +16,10 @@
  */
 package org.geotools.data.util;
 
+import org.geotools.referencing.operation.transform.IdentityTransform;
 import org.junit.Assert;
 import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
 
 public class ScreenMapTest {
     private int xmin;
@@ -154,4 +156,97 @@ public void testOutsideScreen() throws Exception {
         Assert.assertTrue(map.checkAndSet(0, 0));
         Assert.assertTrue(map.get(0, 0));
     }
+
+    @Test
+    public void testSkippedCount() throws Exception {
+        ScreenMap map = new ScreenMap(0, 0, 10, 10, IdentityTransform.create(2));
+        map.setSpans(1, 1);
+
+        Assert.assertFalse(map.checkAndSet(new Envelope(2, 2.5, 2, 2.5)));
+        Assert.assertTrue(map.checkAndSet(new Envelope(2.1, 2.6, 2.1, 2.6)));
+        Assert.assertTrue(map.checkAndSet(2, 2));
+        // too large to be simplified, not counted
+        Assert.assertFalse(map.checkAndSet(new Envelope(2, 5, 2, 5)));
+        Assert.assertTrue(map.get(new Envelope(2, 2.5, 2, 2.5)));
+        Assert.assertEquals(3, map.getSkippedCount());
+    }
+
+    @Test
+    public void testCheckAndSetPoint() throws Exception {
+        ScreenMap map = new ScreenMap(0, 0, 10, 10, IdentityTransform.create(2));
+
+        // no spans, no simplification
+        Assert.assertFalse(map.checkAndSetPoint(3.5, 3.5));
+        Assert.assertFalse(map.checkAndSetPoint(3.5, 3.5));
+
+        map.setSpans(1, 1);
+        Assert.assertFalse(map.checkAndSetPoint(3.5, 3.5));
+        Assert.assertTrue(map.checkAndSetPoint(3.2, 3.7));
+        Assert.assertFalse(map.checkAndSetPoint(4.2, 3.7));
+        // consistent with the envelope based check
+        Assert.assertTrue(map.checkAndSet(new Envelope(3.5, 3.5, 3.5, 3.5)));
+        Assert.assertEquals(2, map.getSkippedCount());
+    }
+
+    @Test
+    public void testResetAndExpand() throws Exception {
+        ScreenMap map = new ScreenMap(0, 0, 100, 100, IdentityTransform.create(2));
+        map.setSpans(1, 1);
+        Assert.assertFalse(map.checkAndSet(5, 5));
+        Assert.assertTrue(map.checkAndSet(5, 5));
+
+        map.clear();
+        Assert.assertFalse(map.get(5, 5));
+        Assert.assertEquals(0, map.getSkippedCount());
+
+        // smaller area, memory is reused
+        Assert.assertFalse(map.checkAndSet(5, 5));
+        map.reset(10, 10, 20, 20);
+        Assert.assertFalse(map.get(15, 15));
+        Assert.assertEquals(0, map.getSkippedCount());
+        // transform and spans have been reset too
+        Assert.assertFalse(map.checkAndSet(new Envelope(15, 15, 15, 15)));
+        Assert.assertFalse(map.checkAndSet(29, 29));
+        Assert.assertTrue(map.checkAndSet(29, 29));
+        // outside of the reset area
+        Assert.assertFalse(map.checkAndSet(5, 5));
+        Assert.assertFalse(map.checkAndSet(5, 5));
+
+        // larger area, all pixels are usable
+        map.reset(0, 0, 300, 300);
+        Assert.assertFalse(map.checkAndSet(299, 299));
+        Assert.assertTrue(map.checkAndSet(299, 299));
+
+        // expand grows the area in all directions
+        map.expand(10);
+        Assert.assertFalse(map.get(299, 299));
+        Assert.assertFalse(map.checkAndSet(-10, -10));
+        Assert.assertTrue(map.checkAndSet(-10, -10));
+        Assert.assertFalse(map.checkAndSet(309, 309));
+        Assert.assertTrue(map.checkAndSet(309, 309));
+    }
+
+    @Test
+    public void testPool() throws Exception {
+        ScreenMapPool pool = new ScreenMapPool(2);
+        ScreenMap map = pool.acquire(0, 0, 256, 256);
+        Assert.assertFalse(map.checkAndSet(10, 10));
+        pool.release(map);
+        Assert.assertEquals(1, pool.size());
+
+        ScreenMap reused = pool.acquire(-10, -10, 276, 276);
+        Assert.assertSame(map, reused);
+        Assert.assertEquals(0, pool.size());
+        Assert.assertFalse(reused.get(10, 10));
+        Assert.assertFalse(reused.checkAndSet(-10, -10));
+
+        // huge maps are not retained
+        pool.release(new ScreenMap(0, 0, 8192, 8192));
+        Assert.assertEquals(0, pool.size());
+
+        // pooling can be disabled
+        ScreenMapPool disabled = new ScreenMapPool(0);
+        disabled.release(map);
+        Assert.assertNotSame(map, disabled.acquire(0, 0, 256, 256));
+    }
 }
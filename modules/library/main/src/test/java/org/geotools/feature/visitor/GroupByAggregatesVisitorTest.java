@@ -0,0 +1,148 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.visitor.GroupByAggregatesVisitor.Aggregation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GroupByAggregatesVisitorTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    static SimpleFeatureType type;
+
+    static FeatureCollection collection;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        type = DataUtilities.createType("buildings", "type:String,energy:Double,floors:Integer");
+        collection =
+                DataUtilities.collection(
+                        Arrays.asList(
+                                DataUtilities.createFeature(type, "1=SCHOOL|50.0|2"),
+                                DataUtilities.createFeature(type, "2=SCHOOL|10.0|3"),
+                                DataUtilities.createFeature(type, "3=SCHOOL|30.0|1"),
+                                DataUtilities.createFeature(type, "4=FABRIC|500.0|1"),
+                                DataUtilities.createFeature(type, "5=FABRIC|150.0|1"),
+                                DataUtilities.createFeature(type, "6=HOUSE|6.0|2")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultipleAggregates() throws Exception {
+        Expression energy = FF.property("energy");
+        GroupByAggregatesVisitor visitor =
+                new GroupByAggregatesVisitor(
+                        Arrays.asList(FF.property("type")),
+                        Arrays.asList(
+                                new Aggregation(Aggregate.COUNT, null, "count"),
+                                new Aggregation(Aggregate.SUM, energy, "total"),
+                                new Aggregation(Aggregate.MAX, FF.property("floors"), "floors")),
+                        null);
+        collection.accepts(visitor, null);
+        assertFalse(visitor.wasOptimized());
+
+        Map<List<Object>, List<Object>> result = visitor.getResult().toMap();
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList(3, 90.0, 3), result.get(Arrays.asList("SCHOOL")));
+        assertEquals(Arrays.asList(2, 650.0, 1), result.get(Arrays.asList("FABRIC")));
+        assertEquals(Arrays.asList(1, 6.0, 2), result.get(Arrays.asList("HOUSE")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHaving() throws Exception {
+        GroupByAggregatesVisitor visitor =
+                new GroupByAggregatesVisitor(
+                        Arrays.asList(FF.property("type")),
+                        Arrays.asList(
+                                new Aggregation(Aggregate.AVERAGE, FF.property("energy"), "avg"),
+                                new Aggregation(Aggregate.COUNT, null, "count")),
+                        FF.and(
+                                FF.greater(FF.property("count"), FF.literal(1)),
+                                FF.less(FF.property("avg"), FF.literal(100))));
+        collection.accepts(visitor, null);
+
+        List<Object[]> rows = visitor.getResult().toList();
+        assertEquals(1, rows.size());
+        assertEquals("SCHOOL", rows.get(0)[0]);
+        assertEquals(30.0, ((Number) rows.get(0)[1]).doubleValue(), 0d);
+        assertEquals(3, rows.get(0)[2]);
+    }
+
+    @Test
+    public void testGroupFeatureType() throws Exception {
+        GroupByAggregatesVisitor visitor =
+                new GroupByAggregatesVisitor(
+                        Arrays.asList(
+                                FF.property("type"),
+                                FF.multiply(FF.property("floors"), FF.literal(2))),
+                        Arrays.asList(
+                                new Aggregation(Aggregate.COUNT, null, "count"),
+                                new Aggregation(Aggregate.AVERAGE, FF.property("energy"), "avg")),
+                        null);
+        assertEquals(Arrays.asList("type", "group2"), visitor.getGroupByNames());
+        SimpleFeatureType groupType = visitor.getGroupFeatureType(type);
+        assertEquals(4, groupType.getAttributeCount());
+        assertEquals(String.class, groupType.getDescriptor("type").getType().getBinding());
+        assertEquals("group2", groupType.getDescriptor(1).getLocalName());
+        assertEquals(Long.class, groupType.getDescriptor("count").getType().getBinding());
+        assertEquals(Double.class, groupType.getDescriptor("avg").getType().getBinding());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetValue() throws Exception {
+        GroupByAggregatesVisitor visitor =
+                new GroupByAggregatesVisitor(
+                        Arrays.asList(FF.property("type")),
+                        Arrays.asList(
+                                new Aggregation(Aggregate.COUNT, null, "count"),
+                                new Aggregation(Aggregate.SUM, FF.property("energy"), "total")),
+                        null);
+        // a database would return longs for count
+        visitor.setValue(Collections.singletonList(new Object[] {"SCHOOL", 3L, 90.0}));
+        assertTrue(visitor.wasOptimized());
+
+        List<Object[]> rows = visitor.getResult().toList();
+        assertEquals(1, rows.size());
+        assertEquals(Arrays.asList("SCHOOL", 3, 90.0), Arrays.asList(rows.get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateNames() {
+        new GroupByAggregatesVisitor(
+                Arrays.asList(FF.property("type")),
+                Arrays.asList(new Aggregation(Aggregate.COUNT, null, "type")),
+                null);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+public class PreparedSpatialFilterTest {
+
+    static final String[] CANDIDATES = {
+        "POINT (5 5)",
+        "POINT (12 5)",
+        "POINT (30 30)",
+        "POINT (5 15)",
+        "LINESTRING (-5 -5, -1 -1)",
+        "LINESTRING (11 0, 11 10)",
+        "LINESTRING (2 2, 3 3)",
+        "POLYGON ((1 1, 2 1, 2 2, 1 2, 1 1))",
+        "POLYGON ((20 20, 25 20, 25 25, 20 20))",
+        "POLYGON ((-10 -10, 40 -10, 40 40, -10 40, -10 -10))",
+        "POLYGON EMPTY"
+    };
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    WKTReader reader = new WKTReader();
+
+    SimpleFeatureType type;
+
+    List<SimpleFeature> features;
+
+    /** A concave polygon, with a hole */
+    Geometry polygon;
+
+    /** A rectangle */
+    Geometry rectangle;
+
+    @Before
+    public void setup() throws Exception {
+        type = DataUtilities.createType("test", "geom:Geometry");
+        features = new ArrayList<>();
+        for (String wkt : CANDIDATES) {
+            features.add(SimpleFeatureBuilder.build(type, new Object[] {reader.read(wkt)}, null));
+        }
+        polygon =
+                reader.read(
+                        "POLYGON ((0 0, 10 0, 10 10, 6 10, 6 4, 4 4, 4 10, 0 10, 0 0), "
+                                + "(1 1, 1.5 1, 1.5 1.5, 1 1.5, 1 1))");
+        rectangle = reader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+    }
+
+    @Test
+    public void testIntersectsDisjoint() {
+        for (Geometry literal : new Geometry[] {polygon, rectangle}) {
+            for (SimpleFeature feature : features) {
+                Geometry geom = (Geometry) feature.getDefaultGeometry();
+                boolean expected = geom.intersects(literal);
+                Filter right = ff.intersects(ff.property("geom"), ff.literal(literal));
+                Filter left = ff.intersects(ff.literal(literal), ff.property("geom"));
+                Filter disjoint = ff.disjoint(ff.property("geom"), ff.literal(literal));
+                assertEquals(geom.toString(), expected, right.evaluate(feature));
+                assertEquals(geom.toString(), expected, left.evaluate(feature));
+                assertEquals(geom.toString(), !expected, disjoint.evaluate(feature));
+            }
+        }
+    }
+
+    @Test
+    public void testBBOX() {
+        Filter bbox = ff.bbox("geom", 0, 0, 10, 10, null);
+        for (SimpleFeature feature : features) {
+            Geometry geom = (Geometry) feature.getDefaultGeometry();
+            assertEquals(geom.toString(), geom.intersects(rectangle), bbox.evaluate(feature));
+        }
+    }
+
+    @Test
+    public void testDistance() {
+        for (double distance : new double[] {0, 0.5, 1, 2, 10}) {
+            Filter dwithin = ff.dwithin(ff.property("geom"), ff.literal(polygon), distance, "m");
+            Filter dwithinLeft =
+                    ff.dwithin(ff.literal(polygon), ff.property("geom"), distance, "m");
+            Filter beyond = ff.beyond(ff.property("geom"), ff.literal(polygon), distance, "m");
+            for (SimpleFeature feature : features) {
+                Geometry geom = (Geometry) feature.getDefaultGeometry();
+                boolean expected = geom.isWithinDistance(polygon, distance);
+                String message = geom + " at " + distance;
+                assertEquals(message, expected, dwithin.evaluate(feature));
+                assertEquals(message, expected, dwithinLeft.evaluate(feature));
+                assertEquals(message, !expected, beyond.evaluate(feature));
+            }
+        }
+    }
+
+    @Test
+    public void testDistanceInsideHole() throws Exception {
+        // a point in the hole, not touching the polygon but close to it
+        SimpleFeature feature =
+                SimpleFeatureBuilder.build(
+                        type, new Object[] {reader.read("POINT (1.25 1.25)")}, null);
+        assertFalse(
+                ff.dwithin(ff.property("geom"), ff.literal(polygon), 0.1, "m").evaluate(feature));
+        assertTrue(
+                ff.dwithin(ff.property("geom"), ff.literal(polygon), 0.3, "m").evaluate(feature));
+    }
+
+    @Test
+    public void testConcurrentEvaluation() throws Exception {
+        Filter intersects = ff.intersects(ff.property("geom"), ff.literal(polygon));
+        Filter dwithin = ff.dwithin(ff.property("geom"), ff.literal(polygon), 1, "m");
+        Callable<Void> task =
+                () -> {
+                    for (int i = 0; i < 50; i++) {
+                        for (SimpleFeature feature : features) {
+                            Geometry geom = (Geometry) feature.getDefaultGeometry();
+                            assertEquals(geom.intersects(polygon), intersects.evaluate(feature));
+                            assertEquals(
+                                    geom.isWithinDistance(polygon, 1), dwithin.evaluate(feature));
+                        }
+                    }
+                    return null;
+                };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
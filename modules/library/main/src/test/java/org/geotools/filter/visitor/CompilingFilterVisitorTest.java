@@ -0,0 +1,158 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.PropertyIsLessThanOrEqualTo;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompilingFilterVisitorTest {
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    SimpleFeatureType ft;
+
+    List<SimpleFeature> features;
+
+    @Before
+    public void setup() throws Exception {
+        ft =
+                DataUtilities.createType(
+                        "test", "geom:Point,i:java.lang.Integer,d:Double,label:String");
+        features =
+                Arrays.asList(
+                        feature("f1", 1, 1.5, "one"),
+                        feature("f2", 10, 10.0, "Ten"),
+                        feature("f3", 20, Double.NaN, "twenty"),
+                        feature("f4", null, null, null));
+    }
+
+    private SimpleFeature feature(String id, Integer i, Double d, String label) {
+        return SimpleFeatureBuilder.build(ft, new Object[] {null, i, d, label}, id);
+    }
+
+    @Test
+    public void testComparisons() {
+        assertSameResults(ff.equals(ff.property("i"), ff.literal("10")));
+        assertSameResults(ff.notEqual(ff.property("i"), ff.literal(10)));
+        assertSameResults(ff.greater(ff.property("i"), ff.literal("5")));
+        assertSameResults(ff.greaterOrEqual(ff.property("d"), ff.literal(10)));
+        assertSameResults(ff.less(ff.property("d"), ff.literal(2.5)));
+        assertSameResults(ff.lessOrEqual(ff.property("i"), ff.literal(10.5)));
+        assertSameResults(ff.greater(ff.property("label"), ff.literal("p")));
+        assertSameResults(ff.less(ff.property("label"), ff.literal("12")));
+        // literal first
+        assertSameResults(ff.less(ff.literal(5), ff.property("i")));
+        assertSameResults(ff.greaterOrEqual(ff.literal("10"), ff.property("d")));
+        // case insensitive
+        assertSameResults(ff.equal(ff.property("label"), ff.literal("ten"), false));
+        assertSameResults(ff.notEqual(ff.property("label"), ff.literal("ten"), false));
+        assertSameResults(ff.equal(ff.property("label"), ff.literal("ten"), true));
+    }
+
+    @Test
+    public void testCompiledTypes() {
+        Filter gt = compile(ff.greater(ff.property("i"), ff.literal("5")));
+        assertTrue(gt instanceof CompiledComparison);
+        assertTrue(gt instanceof PropertyIsGreaterThan);
+        // the literal got converted to the attribute type
+        assertEquals(Integer.valueOf(5), ((CompiledComparison) gt).literal);
+
+        Filter le = compile(ff.lessOrEqual(ff.literal(5), ff.property("i")));
+        assertTrue(le instanceof PropertyIsLessThanOrEqualTo);
+        assertTrue(((CompiledComparison) le).literalFirst);
+
+        // unknown attributes are left alone
+        Filter unknown = compile(ff.equals(ff.property("missing"), ff.literal(1)));
+        assertFalse(unknown instanceof CompiledComparison);
+        assertTrue(unknown instanceof PropertyIsEqualTo);
+    }
+
+    @Test
+    public void testLogicReordering() {
+        Filter expensive =
+                ff.equals(ff.function("strToUpperCase", ff.property("label")), ff.literal("TEN"));
+        Filter cheap = ff.equals(ff.property("i"), ff.literal(10));
+        And and = (And) compile(ff.and(expensive, cheap));
+        assertTrue(and.getChildren().get(0) instanceof CompiledComparison);
+        assertSameResults(ff.and(expensive, cheap));
+        assertSameResults(ff.or(expensive, ff.greater(ff.property("d"), ff.literal(15))));
+
+        // already sorted filters keep their order
+        and = (And) compile(ff.and(cheap, expensive));
+        assertTrue(and.getChildren().get(0) instanceof CompiledComparison);
+    }
+
+    @Test
+    public void testFunctionParameters() {
+        Expression upper =
+                CompilingFilterVisitor.compile(
+                        ff.function("strToUpperCase", ff.property("label")), ft);
+        assertEquals("ONE", upper.evaluate(features.get(0)));
+        assertSameResults(ff.equals(upper, ff.literal("TWENTY")));
+    }
+
+    @Test
+    public void testOtherFeatureType() throws Exception {
+        // same attribute names, different positions
+        SimpleFeatureType other =
+                DataUtilities.createType("other", "label:String,d:Double,i:java.lang.Integer");
+        SimpleFeature feature =
+                SimpleFeatureBuilder.build(other, new Object[] {"ten", 3d, 10}, "o1");
+        Filter compiled = compile(ff.equals(ff.property("i"), ff.literal(10)));
+        assertTrue(compiled.evaluate(feature));
+        assertFalse(compile(ff.equals(ff.property("label"), ff.literal(10))).evaluate(feature));
+    }
+
+    @Test
+    public void testIncludeExclude() {
+        assertSame(Filter.INCLUDE, compile(Filter.INCLUDE));
+        assertSame(Filter.EXCLUDE, compile(Filter.EXCLUDE));
+    }
+
+    private Filter compile(Filter filter) {
+        return CompilingFilterVisitor.compile(filter, ft);
+    }
+
+    private void assertSameResults(Filter filter) {
+        Filter compiled = compile(filter);
+        for (SimpleFeature feature : features) {
+            assertEquals(
+                    filter + " on " + feature.getID(),
+                    filter.evaluate(feature),
+                    compiled.evaluate(feature));
+        }
+    }
+}
@@ -48,6 +48,7 @@
 import org.geotools.filter.function.EnvFunction;
 import org.geotools.filter.function.math.FilterFunction_random;
 import org.geotools.filter.visitor.SimplifyingFilterVisitor.FIDValidator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -854,4 +855,73 @@ public void testSimplifiableFunctionWithSchema() throws Exception {
         Expression simplified = (Expression) function.accept(simpleVisitor, null);
         assertEquals("typeName", simplified.evaluate(null, String.class));
     }
+
+    @Test
+    public void testCostBasedReordering() {
+        Filter like = ff.like(ff.property("name"), "*abc*");
+        Filter intersects = ff.intersects(ff.property("geom"), ff.literal(null));
+        Filter bbox = ff.bbox("geom", 0, 0, 10, 10, null);
+        Filter equal = ff.equals(ff.property("a"), ff.literal(1));
+        Filter original = ff.and(Arrays.asList(intersects, like, bbox, equal));
+
+        // by default the order is preserved
+        assertEquals(original, original.accept(simpleVisitor, null));
+
+        simpleVisitor.setCostBasedReorderingEnabled(true);
+        And and = (And) original.accept(simpleVisitor, null);
+        assertEquals(Arrays.asList(equal, bbox, like, intersects), and.getChildren());
+        Or or = (Or) ff.or(Arrays.asList(intersects, like, equal)).accept(simpleVisitor, null);
+        assertEquals(Arrays.asList(equal, like, intersects), or.getChildren());
+    }
+
+    @Test
+    public void testAndContainedBBOX() {
+        Filter large = ff.bbox("geom", 0, 0, 10, 10, null);
+        Filter small = ff.bbox("geom", 2, 2, 5, 5, null);
+        Filter other = ff.bbox("geom2", 0, 0, 10, 10, null);
+        Filter equal = ff.equals(ff.property("a"), ff.literal(1));
+
+        Filter simplified =
+                (Filter) ff.and(Arrays.asList(large, equal, small)).accept(simpleVisitor, null);
+        assertEquals(ff.and(small, equal), simplified);
+        // different properties are not combined
+        simplified = (Filter) ff.and(large, other).accept(simpleVisitor, null);
+        assertEquals(ff.and(large, other), simplified);
+        // not combined unless range simplification is enabled
+        simplified = (Filter) ff.and(large, small).accept(complexVisitor, null);
+        assertEquals(ff.and(large, small), simplified);
+    }
+
+    @Test
+    public void testOrContainedBBOX() {
+        Filter large = ff.bbox("geom", 0, 0, 10, 10, null);
+        Filter small = ff.bbox("geom", 2, 2, 5, 5, null);
+        Filter disjoint = ff.bbox("geom", 20, 20, 30, 30, null);
+
+        Filter simplified = (Filter) ff.or(small, large).accept(simpleVisitor, null);
+        assertEquals(large, simplified);
+        simplified = (Filter) ff.or(small, disjoint).accept(simpleVisitor, null);
+        assertEquals(ff.or(small, disjoint), simplified);
+    }
+
+    @Test
+    public void testAndPointBBOX() throws Exception {
+        SimpleFeatureType schema = DataUtilities.createType("test", "geom:Point,line:LineString");
+        simpleVisitor.setFeatureType(schema);
+
+        // points can be tested against the intersection of the boxes
+        Filter b1 = ff.bbox("geom", 0, 0, 10, 10, null);
+        Filter b2 = ff.bbox("geom", 5, 5, 15, 15, null);
+        Filter simplified = (Filter) ff.and(b1, b2).accept(simpleVisitor, null);
+        assertEquals(
+                ff.bbox(ff.property("geom"), new ReferencedEnvelope(5, 10, 5, 10, null)),
+                simplified);
+        Filter b3 = ff.bbox("geom", 20, 20, 30, 30, null);
+        assertEquals(Filter.EXCLUDE, ff.and(b1, b3).accept(simpleVisitor, null));
+
+        // lines can intersect both boxes without intersecting their intersection
+        Filter l1 = ff.bbox("line", 0, 0, 10, 10, null);
+        Filter l2 = ff.bbox("line", 5, 5, 15, 15, null);
+        assertEquals(ff.and(l1, l2), ff.and(l1, l2).accept(simpleVisitor, null));
+    }
 }
@@ -0,0 +1,333 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link ObjectCache} meant for heavily concurrent access. The most recently used values, up to
+ * the specified limit, are held by strong references, in a set of independently locked stripes,
+ * each one keeping its values in least recently used order. The values pushed out of the stripes
+ * are not discarded, but kept in a concurrent map through {@linkplain SoftReference soft} or
+ * {@linkplain WeakReference weak} references, and get promoted back to strong references when
+ * accessed again, if not collected in the meantime.
+ *
+ * <p>The limit is applied to each stripe separately (each stripe holds up to {@code limit /
+ * stripes} values), so the number of strongly referenced values can be lower than the limit if the
+ * keys are not evenly distributed. A limit of zero holds all values through soft or weak
+ * references.
+ *
+ * <p>The cache keeps track of hits, misses, and evictions from the strongly referenced values,
+ * which can be used to tune the limit.
+ *
+ * <p>Select this cache using the {@code "concurrent"} (soft references) or {@code
+ * "concurrent-weak"} (weak references) {@link org.geotools.util.factory.Hints#CACHE_POLICY}.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+public final class ConcurrentObjectCache<K, V> implements ObjectCache<K, V> {
+
+    /** Number of independently locked stripes of strongly referenced values */
+    static final int STRIPES = 16;
+
+    /** A soft reference remembering its key, to clean up the map once collected */
+    private static final class SoftEntry<K, V> extends SoftReference<V> {
+        final K key;
+
+        SoftEntry(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /** A weak reference remembering its key, to clean up the map once collected */
+    private static final class WeakEntry<K, V> extends WeakReference<V> {
+        final K key;
+
+        WeakEntry(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /** The strongly referenced values of a stripe, in access order */
+    private final LinkedHashMap<K, V>[] stripes;
+
+    /** The maximum number of values in each stripe */
+    private final int stripeLimit;
+
+    /** The values evicted from the stripes, held through soft or weak references */
+    private final ConcurrentHashMap<K, Reference<V>> references = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    private final boolean weak;
+
+    /** The locks for keys under construction. */
+    private final ConcurrentHashMap<K, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param limit The number of values held through strong references
+     * @param weak If true, values exceeding the limit are held by weak references, by soft ones
+     *     otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentObjectCache(int limit, boolean weak) {
+        this.stripeLimit = limit <= 0 ? 0 : (limit + STRIPES - 1) / STRIPES;
+        this.weak = weak;
+        this.stripes = new LinkedHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    private LinkedHashMap<K, V> stripe(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[(h & 0x7fffffff) % STRIPES];
+    }
+
+    @Override
+    public V get(K key) {
+        V value = lookup(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public V peek(K key) {
+        return lookup(key);
+    }
+
+    private V lookup(K key) {
+        LinkedHashMap<K, V> stripe = stripe(key);
+        V value;
+        synchronized (stripe) {
+            value = stripe.get(key);
+        }
+        if (value == null) {
+            Reference<V> reference = references.get(key);
+            if (reference != null) {
+                value = reference.get();
+                if (value != null && references.remove(key, reference)) {
+                    // accessed again, promote back to a strong reference, unless a new value
+                    // has been put in the meantime
+                    putStrong(key, value, true);
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(K key, V object) {
+        if (object == null) {
+            remove(key);
+            return;
+        }
+        references.remove(key);
+        putStrong(key, object, false);
+        expungeCollected();
+    }
+
+    private void putStrong(K key, V value, boolean onlyIfAbsent) {
+        if (stripeLimit == 0) {
+            if (onlyIfAbsent) {
+                references.putIfAbsent(key, reference(key, value));
+            } else {
+                references.put(key, reference(key, value));
+            }
+            return;
+        }
+        LinkedHashMap<K, V> stripe = stripe(key);
+        K evictedKey = null;
+        V evictedValue = null;
+        synchronized (stripe) {
+            if (onlyIfAbsent && stripe.containsKey(key)) {
+                return;
+            }
+            stripe.put(key, value);
+            if (stripe.size() > stripeLimit) {
+                Map.Entry<K, V> eldest = stripe.entrySet().iterator().next();
+                evictedKey = eldest.getKey();
+                evictedValue = eldest.getValue();
+                stripe.remove(evictedKey);
+            }
+        }
+        if (evictedKey != null) {
+            evictions.increment();
+            references.put(evictedKey, reference(evictedKey, evictedValue));
+        }
+    }
+
+    private Reference<V> reference(K key, V value) {
+        return weak ? new WeakEntry<>(key, value, queue) : new SoftEntry<>(key, value, queue);
+    }
+
+    /** Removes the entries whose values have been garbage collected */
+    @SuppressWarnings("unchecked")
+    private void expungeCollected() {
+        Reference<? extends V> reference;
+        while ((reference = queue.poll()) != null) {
+            K key =
+                    reference instanceof SoftEntry
+                            ? ((SoftEntry<K, V>) reference).key
+                            : ((WeakEntry<K, V>) reference).key;
+            references.remove(key, reference);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        LinkedHashMap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+        references.remove(key);
+        releaseLock(key);
+    }
+
+    @Override
+    public void clear() {
+        for (LinkedHashMap<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        references.clear();
+        for (K key : locks.keySet()) {
+            releaseLock(key);
+        }
+        expungeCollected();
+    }
+
+    /** Drops the lock of the key, unless it is held or some thread is waiting for it */
+    private void releaseLock(K key) {
+        locks.computeIfPresent(key, (k, l) -> l.isLocked() || l.hasQueuedThreads() ? l : null);
+    }
+
+    @Override
+    public void writeLock(K key) {
+        while (true) {
+            ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+            lock.lock();
+            // the lock might have been dropped before this thread queued on it
+            if (locks.get(key) == lock) {
+                return;
+            }
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void writeUnLock(K key) {
+        ReentrantLock lock = locks.get(key);
+        if (lock == null || !lock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("Cannot unlock prior to locking");
+        }
+        lock.unlock();
+        // writeLock re-checks the lock is still mapped after acquiring it, dropping it is safe
+        releaseLock(key);
+    }
+
+    /** Returns the number of locks currently tracked, for testing purposes */
+    int getLockCount() {
+        return locks.size();
+    }
+
+    /** @return a copy of the keys currently in the cache */
+    @Override
+    public Set<K> getKeys() {
+        expungeCollected();
+        Set<K> keys = new HashSet<>();
+        for (LinkedHashMap<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                keys.addAll(stripe.keySet());
+            }
+        }
+        for (Map.Entry<K, Reference<V>> entry : references.entrySet()) {
+            if (entry.getValue().get() != null) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    /** Number of lookups that found a value */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Number of lookups that did not find a value */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Number of values moved from strong references to soft or weak ones, to respect the limit */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Number of values currently held through strong references */
+    public int getStrongSize() {
+        int size = 0;
+        for (LinkedHashMap<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentObjectCache[strong="
+                + getStrongSize()
+                + ", references="
+                + references.size()
+                + ", hits="
+                + getHits()
+                + ", misses="
+                + getMisses()
+                + ", evictions="
+                + getEvictions()
+                + "]";
+    }
+}
@@ -595,6 +595,20 @@ public class Hints extends RenderingHints {
      */
     public static final Key GEOMETRY_SIMPLIFICATION = new Key(Double.class);
 
+    /**
+     * Asks a datastore to clip the geometries to the specified envelope before returning them, so
+     * that only the portion relevant to the area being processed (e.g., a tile plus a gutter) is
+     * transferred. The clipped geometries might not be topologically valid, and polygons will have
+     * extra edges along the envelope boundary, so the envelope should be large enough to keep them
+     * out of the area being rendered. The envelope is expressed in the native coordinate reference
+     * system of the geometries, unless it's a referenced envelope declaring a different one.
+     *
+     * <p>When used along with {@link #GEOMETRY_SIMPLIFICATION} the datastore can also quantize the
+     * clipped geometries to a grid based on the simplification distance.
+     */
+    public static final ClassKey GEOMETRY_CLIP_ENVELOPE =
+            new ClassKey("org.locationtech.jts.geom.Envelope");
+
     /** The rendering aid used to avoid painting tiny features over and over in the same pixel */
     public static final Key SCREENMAP = new ClassKey("org.geotools.data.util.ScreenMap");
 
@@ -839,12 +853,26 @@ public class Hints extends RenderingHints {
      *       <li>{@code "all"} for holding values through strong references.</li> <li>{@code "none"}
      *       for disabling the cache.</li> <li>{@code "soft"} for holding the value
      *       throuhg(@linkplain java.lang.ref.SoftReference soft references}.
+     *   <li>{@code "concurrent"} for a lock striped cache meant for heavy concurrent access,
+     *       holding the most recently used values, up to {@link #CACHE_LIMIT}, through strong
+     *       references, and the others through soft references. See {@link
+     *       org.geotools.util.ConcurrentObjectCache}.
+     *   <li>{@code "concurrent-weak"} same as {@code "concurrent"}, but holding the values
+     *       exceeding the limit through weak references.
      * </ul>
      *
      * @since 2.5
      */
     public static final OptionKey CACHE_POLICY =
-            new OptionKey("weak", "all", "fixed", "none", "default", "soft");
+            new OptionKey(
+                    "weak",
+                    "all",
+                    "fixed",
+                    "none",
+                    "default",
+                    "soft",
+                    "concurrent",
+                    "concurrent-weak");
 
     /**
      * The recommended maximum number of referencing objects to hold in a {@linkplain
@@ -0,0 +1,250 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.util.factory.Hints;
+import org.junit.Test;
+
+public class ConcurrentObjectCacheTest {
+
+    @Test
+    public void testSimple() {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(10, false);
+        assertNull(cache.get(1));
+
+        cache.writeLock(1);
+        cache.put(1, "one");
+        cache.writeUnLock(1);
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(1, cache.getKeys().size());
+        assertEquals(1, cache.getStrongSize());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        // peek does not count
+        assertEquals("one", cache.peek(1));
+        assertEquals(1, cache.getHits());
+
+        cache.remove(1);
+        assertNull(cache.peek(1));
+        assertTrue(cache.getKeys().isEmpty());
+    }
+
+    @Test
+    public void testEvictionAndPromotion() {
+        // one value per stripe
+        ConcurrentObjectCache<Integer, String> cache =
+                new ConcurrentObjectCache<>(ConcurrentObjectCache.STRIPES, false);
+        List<String> values = new ArrayList<>();
+        int count = ConcurrentObjectCache.STRIPES * 4;
+        for (int i = 0; i < count; i++) {
+            String value = "value" + i;
+            values.add(value);
+            cache.put(i, value);
+        }
+        assertTrue(cache.getStrongSize() <= ConcurrentObjectCache.STRIPES);
+        assertEquals(count - cache.getStrongSize(), cache.getEvictions());
+
+        // values are still strongly referenced by the test, so none got lost
+        assertEquals(count, cache.getKeys().size());
+        for (int i = 0; i < count; i++) {
+            assertSame(values.get(i), cache.get(i));
+        }
+        assertEquals(count, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testReferencesOnly() {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(0, true);
+        String value = "value";
+        cache.put(1, value);
+        assertEquals(0, cache.getStrongSize());
+        assertSame(value, cache.get(1));
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testPutNull() {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(10, false);
+        cache.put(1, "one");
+        cache.put(1, null);
+        assertNull(cache.get(1));
+        assertTrue(cache.getKeys().isEmpty());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void testUnlockWithoutLock() {
+        new ConcurrentObjectCache<Integer, String>(10, false).writeUnLock(1);
+    }
+
+    @Test
+    public void testPutNullWhileLocked() {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(10, false);
+        cache.put(1, "one");
+        cache.writeLock(1);
+        try {
+            cache.put(1, null);
+            cache.clear();
+        } finally {
+            cache.writeUnLock(1);
+        }
+        assertNull(cache.peek(1));
+    }
+
+    @Test
+    public void testLockSurvivesRemoval() throws Exception {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(10, false);
+        cache.writeLock(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread other =
+                new Thread(
+                        () -> {
+                            started.countDown();
+                            cache.writeLock(1);
+                            acquired.set(true);
+                            cache.writeUnLock(1);
+                        });
+        try {
+            other.start();
+            started.await();
+            cache.remove(1);
+            cache.clear();
+            // the other writer must still wait for the lock held by this thread
+            other.join(200);
+            assertFalse(acquired.get());
+        } finally {
+            cache.writeUnLock(1);
+        }
+        other.join(10000);
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    public void testConcurrentCreation() throws Exception {
+        ConcurrentObjectCache<Integer, Object> cache = new ConcurrentObjectCache<>(50, false);
+        AtomicInteger created = new AtomicInteger();
+        int keys = 20;
+        Callable<Void> task =
+                () -> {
+                    for (int i = 0; i < 200; i++) {
+                        Integer key = i % keys;
+                        // the usual double checked creation pattern of the authority factories
+                        Object value = cache.get(key);
+                        if (value == null) {
+                            cache.writeLock(key);
+                            try {
+                                value = cache.peek(key);
+                                if (value == null) {
+                                    value = new Object();
+                                    created.incrementAndGet();
+                                    cache.put(key, value);
+                                }
+                            } finally {
+                                cache.writeUnLock(key);
+                            }
+                        }
+                    }
+                    return null;
+                };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(keys, created.get());
+        assertEquals(keys, cache.getKeys().size());
+    }
+
+    @Test
+    public void testLocksReleased() throws Exception {
+        ConcurrentObjectCache<Integer, String> cache = new ConcurrentObjectCache<>(10, false);
+        for (int i = 0; i < 1000; i++) {
+            cache.writeLock(i);
+            cache.put(i, "value" + i);
+            cache.writeUnLock(i);
+        }
+        // most values got evicted, none of the keys keeps a lock around
+        assertEquals(0, cache.getLockCount());
+
+        // a reentrant lock is kept until fully released
+        cache.writeLock(1);
+        cache.writeLock(1);
+        cache.writeUnLock(1);
+        assertEquals(1, cache.getLockCount());
+        cache.writeUnLock(1);
+        assertEquals(0, cache.getLockCount());
+
+        // same under contention
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    for (int i = 0; i < 2000; i++) {
+                                        Integer key = i % 50;
+                                        cache.writeLock(key);
+                                        cache.writeUnLock(key);
+                                    }
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, cache.getLockCount());
+    }
+
+    @Test
+    public void testCachePolicy() {
+        assertTrue(ObjectCaches.create("concurrent", 10) instanceof ConcurrentObjectCache);
+        assertTrue(ObjectCaches.create("concurrent-weak", 10) instanceof ConcurrentObjectCache);
+
+        Hints hints = new Hints(Hints.CACHE_POLICY, "concurrent");
+        assertTrue(ObjectCaches.create(hints) instanceof ConcurrentObjectCache);
+        // default behavior is unchanged
+        assertTrue(ObjectCaches.create("default", 10) instanceof DefaultObjectCache);
+    }
+}
@@ -22,6 +22,7 @@
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -90,9 +91,11 @@
 import org.geotools.referencing.operation.transform.IdentityTransform;
 import org.geotools.referencing.util.CRSUtilities;
 import org.geotools.referencing.wkt.Formattable;
+import org.geotools.util.ConcurrentObjectCache;
 import org.geotools.util.GenericName;
 import org.geotools.util.SoftValueHashMap;
 import org.geotools.util.UnsupportedImplementationException;
+import org.geotools.util.Utilities;
 import org.geotools.util.Version;
 import org.geotools.util.factory.Factory;
 import org.geotools.util.factory.FactoryNotFoundException;
@@ -183,6 +186,71 @@ public static enum AxisOrder {
     private static SoftValueHashMap<String, CoordinateReferenceSystem> wktCache =
             new SoftValueHashMap<>();
 
+    /**
+     * The default number of math transforms held by strong references in the {@linkplain
+     * #getMathTransformCache() math transform cache}, can be overridden using the {@code
+     * org.geotools.referencing.mathTransformCacheSize} system property.
+     */
+    public static final int DEFAULT_MATH_TRANSFORM_CACHE_SIZE =
+            Integer.getInteger("org.geotools.referencing.mathTransformCacheSize", 256);
+
+    /**
+     * The math transforms found by {@link #findMathTransform(CoordinateReferenceSystem,
+     * CoordinateReferenceSystem, boolean)}, or {@code null} if caching is disabled
+     */
+    private static volatile ConcurrentObjectCache<TransformKey, MathTransform> transformCache =
+            createTransformCache(DEFAULT_MATH_TRANSFORM_CACHE_SIZE);
+
+    /**
+     * Key of the math transform cache. The coordinate operation factory is part of the key along
+     * with the lenient flag, as it depends on the hints in effect when the transform was searched.
+     * The CRS are compared using strict equality, like {@link
+     * org.geotools.referencing.operation.BufferedCoordinateOperationFactory} does, which is fast
+     * for the shared instances returned by {@link #decode(String)}.
+     */
+    private static final class TransformKey {
+        final CoordinateReferenceSystem sourceCRS;
+        final CoordinateReferenceSystem targetCRS;
+        final boolean lenient;
+        final CoordinateOperationFactory factory;
+        final int hash;
+
+        TransformKey(
+                CoordinateReferenceSystem sourceCRS,
+                CoordinateReferenceSystem targetCRS,
+                boolean lenient,
+                CoordinateOperationFactory factory) {
+            this.sourceCRS = sourceCRS;
+            this.targetCRS = targetCRS;
+            this.lenient = lenient;
+            this.factory = factory;
+            int code = 37 * sourceCRS.hashCode() + targetCRS.hashCode();
+            code = 37 * code + Boolean.hashCode(lenient);
+            this.hash = 37 * code + System.identityHashCode(factory);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object == this) {
+                return true;
+            }
+            if (!(object instanceof TransformKey)) {
+                return false;
+            }
+            TransformKey that = (TransformKey) object;
+            return hash == that.hash
+                    && lenient == that.lenient
+                    && factory == that.factory
+                    && Utilities.equals(sourceCRS, that.sourceCRS)
+                    && Utilities.equals(targetCRS, that.targetCRS);
+        }
+    }
+
     /** Registers a listener automatically invoked when the system-wide configuration changed. */
     static {
         GeoTools.addChangeListener(
@@ -197,6 +265,7 @@ public void stateChanged(ChangeEvent e) {
                             xyCache.clear();
                             wktCache.clear();
                             defaultCache.clear();
+                            clearMathTransformCache();
                         }
                     }
                 });
@@ -1352,7 +1421,97 @@ public static MathTransform findMathTransform(
             return IdentityTransform.create(sourceCRS.getCoordinateSystem().getDimension());
         }
         CoordinateOperationFactory operationFactory = getCoordinateOperationFactory(lenient);
-        return operationFactory.createOperation(sourceCRS, targetCRS).getMathTransform();
+        ConcurrentObjectCache<TransformKey, MathTransform> cache = transformCache;
+        if (cache == null) {
+            return operationFactory.createOperation(sourceCRS, targetCRS).getMathTransform();
+        }
+        TransformKey key = new TransformKey(sourceCRS, targetCRS, lenient, operationFactory);
+        MathTransform transform = cache.get(key);
+        if (transform == null) {
+            // concurrent searches for the same pair are harmless, they find equivalent transforms
+            transform = operationFactory.createOperation(sourceCRS, targetCRS).getMathTransform();
+            cache.put(key, transform);
+        }
+        return transform;
+    }
+
+    private static ConcurrentObjectCache<TransformKey, MathTransform> createTransformCache(
+            int size) {
+        return size > 0 ? new ConcurrentObjectCache<>(size, false) : null;
+    }
+
+    /**
+     * Returns the cache of the math transforms found by {@link
+     * #findMathTransform(CoordinateReferenceSystem, CoordinateReferenceSystem, boolean)}, keyed by
+     * source CRS, target CRS and coordinate operation factory (which depends on the lenient flag
+     * and the default hints). The most recently used transforms are held by strong references, the
+     * others by soft references. The cache can be used to monitor the hit, miss and eviction
+     * counts.
+     *
+     * @return The cache, or {@code null} if caching has been disabled
+     * @since 32
+     */
+    public static ConcurrentObjectCache<?, MathTransform> getMathTransformCache() {
+        return transformCache;
+    }
+
+    /**
+     * Sets the number of math transforms held by strong references in the {@linkplain
+     * #getMathTransformCache() math transform cache}, replacing the current cache. Zero or a
+     * negative value disables caching.
+     *
+     * @param size The number of math transforms held by strong references
+     * @since 32
+     */
+    public static void setMathTransformCacheSize(int size) {
+        transformCache = createTransformCache(size);
+    }
+
+    /**
+     * Removes all the math transforms cached by {@link
+     * #findMathTransform(CoordinateReferenceSystem, CoordinateReferenceSystem, boolean)}.
+     *
+     * @since 32
+     */
+    public static void clearMathTransformCache() {
+        ConcurrentObjectCache<TransformKey, MathTransform> cache = transformCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Pre-loads the {@linkplain #getMathTransformCache() math transform cache} with the transforms
+     * between the specified pairs of CRS codes, typically at application startup, so that the first
+     * requests do not pay for the coordinate operation search. Each pair is expressed as {@code
+     * <source code>-><target code>}, e.g., {@code EPSG:4326->EPSG:3857}. The codes are decoded
+     * using {@link #decode(String)}. Pairs that cannot be decoded, or for which no transform can be
+     * found, are logged and skipped.
+     *
+     * @param codePairs The pairs of CRS codes
+     * @param lenient {@code true} if the math transforms should be created even when there is no
+     *     information available for a datum shift
+     * @return The number of pairs whose transform has been cached
+     * @since 32
+     */
+    public static int warmUpMathTransformCache(Collection<String> codePairs, boolean lenient) {
+        int loaded = 0;
+        for (String pair : codePairs) {
+            int separator = pair.indexOf("->");
+            if (separator < 0) {
+                LOGGER.warning("Invalid CRS code pair, expected <source>-><target>: " + pair);
+                continue;
+            }
+            try {
+                CoordinateReferenceSystem source = decode(pair.substring(0, separator).trim());
+                CoordinateReferenceSystem target = decode(pair.substring(separator + 2).trim());
+                findMathTransform(source, target, lenient);
+                loaded++;
+            } catch (FactoryException e) {
+                LOGGER.log(Level.WARNING, "Could not load the math transform for " + pair, e);
+            }
+        }
+        return loaded;
     }
 
     /**
@@ -1765,6 +1924,7 @@ public static void reset(final String aspects) {
         }
         xyCache.clear();
         defaultCache.clear();
+        clearMathTransformCache();
         FORCED_LON_LAT = null;
         defaultFactory = null;
         xyFactory = null;
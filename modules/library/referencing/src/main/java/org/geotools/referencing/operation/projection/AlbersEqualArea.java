@@ -221,6 +221,35 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
         return new Point2D.Double(x, y);
     }
 
+    /** Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array. */
+    @Override
+    protected void transformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            final double x = pts[i] * n;
+            final double sinphi = sin(pts[i + 1]);
+            double rho = isSpherical ? c - n * 2 * sinphi : c - n * qsfn(sinphi);
+            if (rho < 0.0) {
+                if (rho > -EPSILON) {
+                    rho = 0.0;
+                } else {
+                    pts[i] = pts[i + 1] = Double.NaN;
+                    if (failure == null) {
+                        failure = new ProjectionException(ErrorKeys.TOLERANCE_ERROR);
+                    }
+                    continue;
+                }
+            }
+            rho = sqrt(rho) / n;
+            pts[i] = rho * sin(x);
+            pts[i + 1] = rho0 - rho * cos(x);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
      * {@code ptDst}.
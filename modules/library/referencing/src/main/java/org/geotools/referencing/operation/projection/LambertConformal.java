@@ -239,6 +239,41 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
         return new Point2D.Double(x, y);
     }
 
+    /** Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array. */
+    @Override
+    protected void transformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            double x = pts[i];
+            final double y = pts[i + 1];
+            final double rho;
+            if (abs(abs(y) - PI / 2) < EPSILON) {
+                if (y * n <= 0) {
+                    pts[i] = pts[i + 1] = Double.NaN;
+                    if (failure == null) {
+                        failure = new ProjectionException(y);
+                    }
+                    continue;
+                }
+                rho = 0;
+            } else if (isSpherical) {
+                rho = F * pow(tan(PI / 4 + 0.5 * y), -n);
+            } else {
+                rho = F * pow(tsfn(y, sin(y)), n);
+            }
+            x *= n;
+            if (belgium) {
+                x -= BELGE_A;
+            }
+            pts[i] = rho * sin(x);
+            pts[i + 1] = rho0 - rho * cos(x);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
      * {@code ptDst}.
@@ -36,6 +36,7 @@
 import java.awt.geom.Point2D;
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -259,6 +260,28 @@ public abstract class MapProjection extends AbstractMathTransform
      */
     private static int globalRangeCheckSemaphore = 1;
 
+    /**
+     * Whether the {@linkplain #transformNormalized(double[], int, int) batch projection} can be
+     * used for a given class. It cannot when a subclass overrides the per point method without
+     * overriding the batch one, as the inherited batch kernel would skip the override.
+     */
+    private static final ClassValue<Boolean> BATCH_TRANSFORM =
+            new ClassValue<>() {
+                @Override
+                protected Boolean computeValue(Class<?> type) {
+                    return isBatchConsistent(type, "transformNormalized");
+                }
+            };
+
+    /** Same as {@link #BATCH_TRANSFORM}, for the inverse projection */
+    private static final ClassValue<Boolean> BATCH_INVERSE_TRANSFORM =
+            new ClassValue<>() {
+                @Override
+                protected Boolean computeValue(Class<?> type) {
+                    return isBatchConsistent(type, "inverseTransformNormalized");
+                }
+            };
+
     /** Marks if the projection is invertible. The vast majority is, subclasses can override. */
     protected boolean invertible = true;
 
@@ -636,6 +659,29 @@ protected double orthodromicDistance(final Point2D source, final Point2D target)
         }
     }
 
+    /**
+     * Returns {@code true} if the batch version of the named method is declared in the same class
+     * as the per point version, or in a subclass of it.
+     */
+    private static boolean isBatchConsistent(Class<?> type, String name) {
+        Class<?> batch = getDeclaringClass(type, name, double[].class, int.class, int.class);
+        Class<?> point = getDeclaringClass(type, name, double.class, double.class, Point2D.class);
+        return batch != null && point != null && point.isAssignableFrom(batch);
+    }
+
+    /** Returns the class declaring the method, walking up from the given type */
+    private static Class<?> getDeclaringClass(Class<?> type, String name, Class<?>... params) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, params);
+                return c;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
+        }
+        return null;
+    }
+
     /**
      * Check point for private use by {@link #checkReciprocal}. This class is necessary in order to
      * avoid never-ending loop in {@code assert} statements (when an {@code assert} calls {@code
@@ -815,6 +861,52 @@ private static void compare(String variable, double expected, double actual, dou
     protected abstract Point2D inverseTransformNormalized(double x, double y, final Point2D ptDst)
             throws ProjectionException;
 
+    /**
+     * Inverse transforms in place an array of (<var>x</var>,<var>y</var>) coordinates, linear
+     * distances on a unit sphere or ellipse, into (<var>&lambda;</var>,<var>&phi;</var>)
+     * coordinates in radians. This is the batch version of {@link
+     * #inverseTransformNormalized(double, double, Point2D)}, invoked when transforming coordinate
+     * arrays, with the same standardization performed before and after the call.
+     *
+     * <p>The default implementation invokes {@code inverseTransformNormalized} for each point.
+     * Subclasses can override it with a loop over the whole array avoiding the per point method
+     * calls and {@link Point2D} usage. The batch version is used only if declared in the same class
+     * as the per point one, or in a subclass of it, so a subclass overriding only {@code
+     * inverseTransformNormalized(double, double, Point2D)} gets the per point loop.
+     *
+     * @param pts The coordinates, as (<var>x</var>,<var>y</var>) pairs.
+     * @param offset The index of the first coordinate to transform.
+     * @param numPts The number of points to transform.
+     * @throws ProjectionException if a point can't be transformed. All the other points are
+     *     transformed anyways, the ones that cannot be transformed are set to {@link Double#NaN}.
+     */
+    protected void inverseTransformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        inverseTransformEachNormalized(pts, offset, numPts);
+    }
+
+    /** Invokes {@link #inverseTransformNormalized(double, double, Point2D)} for each point */
+    private void inverseTransformEachNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                final Point2D result = inverseTransformNormalized(pts[i], pts[i + 1], point);
+                pts[i] = result.getX();
+                pts[i + 1] = result.getY();
+            } catch (ProjectionException e) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms the specified coordinate and stores the result in {@code ptDst}. This method is
      * usually (but <strong>not</strong> guaranteed) to be invoked with values of <var>x</var> in
@@ -849,6 +941,51 @@ protected abstract Point2D inverseTransformNormalized(double x, double y, final
     protected abstract Point2D transformNormalized(double lambda, double phi, final Point2D ptDst)
             throws ProjectionException;
 
+    /**
+     * Transforms in place an array of (<var>&lambda;</var>,<var>&phi;</var>) coordinates in radians
+     * into linear distances on a unit sphere or ellipse. This is the batch version of {@link
+     * #transformNormalized(double, double, Point2D)}, invoked when transforming coordinate arrays,
+     * with the same standardization performed before and after the call.
+     *
+     * <p>The default implementation invokes {@code transformNormalized} for each point. Subclasses
+     * can override it with a loop over the whole array avoiding the per point method calls and
+     * {@link Point2D} usage. The batch version is used only if declared in the same class as the
+     * per point one, or in a subclass of it, so a subclass overriding only {@code
+     * transformNormalized(double, double, Point2D)} gets the per point loop.
+     *
+     * @param pts The coordinates, as (<var>&lambda;</var>,<var>&phi;</var>) pairs.
+     * @param offset The index of the first coordinate to transform.
+     * @param numPts The number of points to transform.
+     * @throws ProjectionException if a point can't be transformed. All the other points are
+     *     transformed anyways, the ones that cannot be transformed are set to {@link Double#NaN}.
+     */
+    protected void transformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        transformEachNormalized(pts, offset, numPts);
+    }
+
+    /** Invokes {@link #transformNormalized(double, double, Point2D)} for each point */
+    private void transformEachNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                final Point2D result = transformNormalized(pts[i], pts[i + 1], point);
+                pts[i] = result.getX();
+                pts[i + 1] = result.getY();
+            } catch (ProjectionException e) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
      *
@@ -922,10 +1059,13 @@ public final void transform(
          */
         final boolean reverse =
                 (srcPts == dstPts && srcOff < dstOff && srcOff + (2 * numPts) > dstOff);
-        if (reverse) {
-            srcOff += 2 * numPts;
-            dstOff += 2 * numPts;
+        if (!reverse) {
+            transformBatch(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
         }
+        // overlapping arrays, the destination being after the source, go point by point
+        srcOff += 2 * numPts;
+        dstOff += 2 * numPts;
         final Point2D.Double point = new Point2D.Double();
         ProjectionException firstException = null;
         while (--numPts >= 0) {
@@ -952,6 +1092,62 @@ public final void transform(
         }
     }
 
+    /**
+     * Transforms the coordinates going through the whole array at each step: the standardization to
+     * radians, the {@linkplain #transformNormalized(double[], int, int) batch projection}, and the
+     * application of the scale and false easting/northing. The destination can overlap the source
+     * only if it does not start after it.
+     */
+    private void transformBatch(
+            final double[] srcPts, final int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException {
+        double[] source = null;
+        assert (source = Arrays.copyOfRange(srcPts, srcOff, srcOff + 2 * numPts)) != null;
+        boolean verify = verifyCoordinateRanges();
+        final int end = dstOff + 2 * numPts;
+        for (int i = srcOff, j = dstOff; j < end; i += 2, j += 2) {
+            final double x = srcPts[i];
+            final double y = srcPts[i + 1];
+            if (verify && verifyGeographicRanges(this, x, y)) {
+                warningLogged();
+                verify = false;
+            }
+            // see transform(Point2D, Point2D) about the central meridian check
+            dstPts[j] =
+                    centralMeridian != 0
+                            ? rollLongitude(toRadians(x) - centralMeridian)
+                            : toRadians(x);
+            dstPts[j + 1] = toRadians(y);
+        }
+        ProjectionException failure = null;
+        try {
+            if (BATCH_TRANSFORM.get(getClass())) {
+                transformNormalized(dstPts, dstOff, numPts);
+            } else {
+                transformEachNormalized(dstPts, dstOff, numPts);
+            }
+        } catch (ProjectionException e) {
+            failure = e;
+        }
+        for (int j = dstOff; j < end; j += 2) {
+            dstPts[j] = globalScale * dstPts[j] + falseEasting;
+            dstPts[j + 1] = globalScale * dstPts[j + 1] + falseNorthing;
+        }
+        if (invertible && source != null) {
+            for (int i = 0, j = dstOff; j < end; i += 2, j += 2) {
+                if (!Double.isNaN(dstPts[j])) {
+                    assert checkReciprocal(
+                            new Point2D.Double(dstPts[j], dstPts[j + 1]),
+                            new Point2D.Double(source[i], source[i + 1]),
+                            true);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms a list of coordinate point ordinal values. Ordinates must be
      * (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
@@ -1089,10 +1285,13 @@ public final void transform(
              */
             final boolean reverse =
                     (src == dest && srcOffset < dstOffset && srcOffset + (2 * numPts) > dstOffset);
-            if (reverse) {
-                srcOffset += 2 * numPts;
-                dstOffset += 2 * numPts;
+            if (!reverse) {
+                transformBatch(src, srcOffset, dest, dstOffset, numPts);
+                return;
             }
+            // overlapping arrays, the destination being after the source, go point by point
+            srcOffset += 2 * numPts;
+            dstOffset += 2 * numPts;
             final Point2D.Double point = new Point2D.Double();
             ProjectionException firstException = null;
             while (--numPts >= 0) {
@@ -1119,6 +1318,63 @@ public final void transform(
             }
         }
 
+        /**
+         * Inverse transforms the coordinates going through the whole array at each step, like the
+         * forward projection does.
+         */
+        private void transformBatch(
+                final double[] src,
+                final int srcOffset,
+                final double[] dest,
+                int dstOffset,
+                int numPts)
+                throws ProjectionException {
+            double[] source = null;
+            assert (source = Arrays.copyOfRange(src, srcOffset, srcOffset + 2 * numPts)) != null;
+            final int end = dstOffset + 2 * numPts;
+            for (int i = srcOffset, j = dstOffset; j < end; i += 2, j += 2) {
+                final double x = src[i];
+                final double y = src[i + 1];
+                dest[j] = (x - falseEasting) / globalScale;
+                dest[j + 1] = (y - falseNorthing) / globalScale;
+            }
+            ProjectionException failure = null;
+            try {
+                if (BATCH_INVERSE_TRANSFORM.get(MapProjection.this.getClass())) {
+                    inverseTransformNormalized(dest, dstOffset, numPts);
+                } else {
+                    inverseTransformEachNormalized(dest, dstOffset, numPts);
+                }
+            } catch (ProjectionException e) {
+                failure = e;
+            }
+            boolean verify = verifyCoordinateRanges();
+            for (int i = 0, j = dstOffset; j < end; i += 2, j += 2) {
+                // see transform(Point2D, Point2D) about the central meridian check
+                final double x =
+                        toDegrees(
+                                centralMeridian != 0
+                                        ? rollLongitude(dest[j] + centralMeridian)
+                                        : dest[j]);
+                final double y = toDegrees(dest[j + 1]);
+                dest[j] = x;
+                dest[j + 1] = y;
+                if (verify && verifyGeographicRanges(this, x, y)) {
+                    warningLogged();
+                    verify = false;
+                }
+                if (source != null && !Double.isNaN(x)) {
+                    assert checkReciprocal(
+                            new Point2D.Double(x, y),
+                            new Point2D.Double(source[i], source[i + 1]),
+                            false);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
         /**
          * Inverse transforms a list of coordinate point ordinal values. Ordinates must be
          * (<var>x</var>,<var>y</var>) pairs in metres.
@@ -156,6 +156,28 @@ protected Point2D transformNormalized(double x, double y, final Point2D ptDst)
         return new Point2D.Double(x, y);
     }
 
+    /** Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array. */
+    @Override
+    protected void transformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+            final double y = pts[i];
+            if (abs(y) > (PI / 2 - EPSILON)) {
+                pts[i - 1] = pts[i] = Double.NaN;
+                if (failure == null) {
+                    failure = new ProjectionException(y);
+                }
+                continue;
+            }
+            // the longitude is left unchanged
+            pts[i] = -log(tsfn(y, sin(y)));
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
      * {@code ptDst}.
@@ -219,6 +241,41 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
             return new Point2D.Double(x, y);
         }
 
+        /**
+         * Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array.
+         */
+        @Override
+        protected void transformNormalized(double[] pts, int offset, int numPts)
+                throws ProjectionException {
+            ProjectionException failure = null;
+            for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+                final double y = pts[i];
+                if (abs(y) > (PI / 2 - EPSILON)) {
+                    pts[i - 1] = pts[i] = Double.NaN;
+                    if (failure == null) {
+                        failure = new ProjectionException(y);
+                    }
+                    continue;
+                }
+                pts[i] = log(tan(PI / 4 + 0.5 * y));
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Same formulas as {@link #inverseTransformNormalized(double, double, Point2D)}, over an
+         * array.
+         */
+        @Override
+        protected void inverseTransformNormalized(double[] pts, int offset, int numPts)
+                throws ProjectionException {
+            for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+                pts[i] = PI / 2 - 2.0 * atan(exp(-pts[i]));
+            }
+        }
+
         /**
          * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
          * {@code ptDst} using equations for a sphere.
@@ -186,6 +186,35 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
         return new Point2D.Double(x, y);
     }
 
+    /** Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array. */
+    @Override
+    protected void transformNormalized(double[] pts, int offset, int numPts)
+            throws ProjectionException {
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            final double x = pts[i];
+            final double y = pts[i + 1];
+            final double sinphi = sin(y);
+            final double cosphi = cos(y);
+
+            double t = (abs(cosphi) > EPSILON) ? sinphi / cosphi : 0;
+            t *= t;
+            double al = cosphi * x;
+            final double als = al * al;
+            al /= sqrt(1.0 - excentricitySquared * sinphi * sinphi);
+            final double n = esp * cosphi * cosphi;
+
+            final double ys1 = 1385.0 + t * (t * (543.0 - t) - 3111.0);
+            final double ys2 = 61.0 + t * (t - 58.0) + n * (270.0 - 330.0 * t) + FC8 * als * ys1;
+            final double ys3 = 5.0 - t + n * (9.0 + 4.0 * n) + FC6 * als * ys2;
+            pts[i + 1] =
+                    mlfn(y, sinphi, cosphi) - ml0 + sinphi * al * x * FC2 * (1.0 + FC4 * als * ys3);
+
+            final double xs1 = 61.0 + t * (t * (179.0 - t) - 479.0);
+            final double xs2 = 5.0 + t * (t - 18.0) + n * (14.0 - 58.0 * t) + FC7 * als * xs1;
+            pts[i] = al * (FC1 + FC3 * als * (1.0 - t + n + FC5 * als * xs2));
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
      * {@code ptDst}.
@@ -295,6 +324,32 @@ assert checkTransform(
             return new Point2D.Double(x, y);
         }
 
+        /**
+         * Same formulas as {@link #transformNormalized(double, double, Point2D)}, over an array.
+         */
+        @Override
+        protected void transformNormalized(double[] pts, int offset, int numPts)
+                throws ProjectionException {
+            ProjectionException failure = null;
+            for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+                final double x = pts[i];
+                final double y = pts[i + 1];
+                final double b = cos(y) * sin(x);
+                if (abs(abs(b) - 1.0) <= EPSILON) {
+                    pts[i] = pts[i + 1] = Double.NaN;
+                    if (failure == null) {
+                        failure = new ProjectionException(ErrorKeys.VALUE_TEND_TOWARD_INFINITY);
+                    }
+                    continue;
+                }
+                pts[i + 1] = atan2(tan(y), cos(x)) - latitudeOfOrigin; /* Snyder 8-3 */
+                pts[i] = 0.5 * log((1.0 + b) / (1.0 - b)); /* Snyder 8-1 */
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
         /** {@inheritDoc} */
         @Override
         protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
@@ -0,0 +1,315 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.transform;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.referencing.operation.MathTransform2D;
+import org.geotools.api.referencing.operation.Matrix;
+import org.geotools.api.referencing.operation.NoninvertibleTransformException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.referencing.operation.LinearTransform;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Approximates a {@link MathTransform2D} inside a rectangular domain by bilinear interpolation over
+ * a regular grid of exactly transformed points. The grid density is computed by {@link
+ * WarpBuilder}, the same recursive subdivision used to build warp grids for rasters, so that the
+ * interpolated positions stay within the given tolerance (expressed in target units) of the exact
+ * ones, at the points sampled during the subdivision.
+ *
+ * <p>Points outside of the domain, or in grid cells touching positions that could not be
+ * transformed, are transformed exactly. The {@linkplain #inverse() inverse} is the exact inverse of
+ * the approximated transform.
+ *
+ * <p>This is meant for cases where a known error is acceptable, like reprojection for rendering,
+ * where a fraction of a pixel is as good as exact, and transforming each vertex with the full
+ * projection math is the bottleneck.
+ */
+public class InterpolatedGridTransform2D extends AbstractMathTransform implements MathTransform2D {
+
+    static final Logger LOGGER = Logging.getLogger(InterpolatedGridTransform2D.class);
+
+    /** The maximum number of grid nodes, beyond it the approximation is not worth it */
+    static final int MAX_NODES = 256 * 256;
+
+    private final MathTransform2D exact;
+
+    private final double minX, minY, maxX, maxY;
+
+    private final double tolerance;
+
+    private final int rows, cols;
+    private final double cellWidth, cellHeight;
+
+    /** The transformed grid nodes, row by row, as (x,y) pairs */
+    private final double[] nodes;
+
+    /**
+     * Returns a transform approximating the specified one in the given domain, within the given
+     * tolerance. The transform itself is returned if it is linear, if the domain is empty, or if a
+     * grid matching the tolerance would be too dense (e.g., the domain crosses a singularity of the
+     * transform).
+     *
+     * @param transform The transform to approximate
+     * @param domain The area where the approximation is used, in source units
+     * @param tolerance The maximum distance between the approximated and exact positions, in target
+     *     units
+     */
+    public static MathTransform2D create(
+            MathTransform2D transform, Rectangle2D domain, double tolerance)
+            throws TransformException {
+        if (transform instanceof LinearTransform || tolerance <= 0) {
+            return transform;
+        }
+        Rectangle2D.Double area =
+                new Rectangle2D.Double(
+                        domain.getMinX(), domain.getMinY(), domain.getWidth(), domain.getHeight());
+        WarpBuilder builder = new WarpBuilder(tolerance);
+        if (!builder.isValidDomain(area)) {
+            return transform;
+        }
+        int[] rowCols = builder.getRowColsSplit(transform, area);
+        if (rowCols == null || (long) (rowCols[0] + 1) * (rowCols[1] + 1) > MAX_NODES) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Could not approximate {0} in {1} within {2}, will use the exact transform",
+                    new Object[] {transform, domain, tolerance});
+            return transform;
+        }
+        return new InterpolatedGridTransform2D(transform, area, tolerance, rowCols[0], rowCols[1]);
+    }
+
+    /**
+     * Builds the approximation over a grid with the specified number of rows and columns, see
+     * {@link #create(MathTransform2D, Rectangle2D, double)} for automatic grid sizing.
+     */
+    protected InterpolatedGridTransform2D(
+            MathTransform2D exact, Rectangle2D domain, double tolerance, int rows, int cols)
+            throws TransformException {
+        ensureNonNull("exact", exact);
+        this.exact = exact;
+        this.minX = domain.getMinX();
+        this.minY = domain.getMinY();
+        this.maxX = domain.getMaxX();
+        this.maxY = domain.getMaxY();
+        this.tolerance = tolerance;
+        this.rows = rows;
+        this.cols = cols;
+        this.cellWidth = (maxX - minX) / cols;
+        this.cellHeight = (maxY - minY) / rows;
+
+        this.nodes = new double[(rows + 1) * (cols + 1) * 2];
+        int idx = 0;
+        for (int r = 0; r <= rows; r++) {
+            // use the exact bounds on the last row/column to avoid rounding issues
+            final double y = r == rows ? maxY : minY + r * cellHeight;
+            for (int c = 0; c <= cols; c++) {
+                nodes[idx++] = c == cols ? maxX : minX + c * cellWidth;
+                nodes[idx++] = y;
+            }
+        }
+        final int rowLength = (cols + 1) * 2;
+        for (int offset = 0; offset < nodes.length; offset += rowLength) {
+            transformRow(offset, rowLength);
+        }
+    }
+
+    /**
+     * Transforms a row of grid nodes in place. On failure the row is transformed again one node at
+     * a time, as a failed call can leave any position untransformed, or only partially transformed
+     * (e.g., a concatenated transform failing in its first step), rather than NaN. The nodes that
+     * cannot be transformed are set to NaN, the cells using them will be transformed exactly.
+     */
+    private void transformRow(int offset, int rowLength) {
+        final double[] source = Arrays.copyOfRange(nodes, offset, offset + rowLength);
+        try {
+            exact.transform(source, 0, nodes, offset, rowLength / 2);
+            return;
+        } catch (TransformException e) {
+            LOGGER.log(Level.FINE, "Some grid positions could not be transformed", e);
+        }
+        for (int i = 0; i < rowLength; i += 2) {
+            try {
+                exact.transform(source, i, nodes, offset + i, 1);
+            } catch (TransformException e) {
+                nodes[offset + i] = nodes[offset + i + 1] = Double.NaN;
+            }
+        }
+    }
+
+    /** The transform being approximated */
+    public MathTransform2D getExactTransform() {
+        return exact;
+    }
+
+    /** The approximation domain */
+    public Rectangle2D getDomain() {
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /** The tolerance used to size the grid, in target units */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /** The number of rows in the interpolation grid */
+    public int getRows() {
+        return rows;
+    }
+
+    /** The number of columns in the interpolation grid */
+    public int getColumns() {
+        return cols;
+    }
+
+    @Override
+    public int getSourceDimensions() {
+        return 2;
+    }
+
+    @Override
+    public int getTargetDimensions() {
+        return 2;
+    }
+
+    @Override
+    public void transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts)
+            throws TransformException {
+        if (srcPts == dstPts && needCopy(srcOff, 2, dstOff, 2, numPts)) {
+            final double[] old = srcPts;
+            srcPts = new double[numPts * 2];
+            System.arraycopy(old, srcOff, srcPts, 0, srcPts.length);
+            srcOff = 0;
+        }
+        TransformException failure = null;
+        for (int i = srcOff, j = dstOff, end = srcOff + 2 * numPts; i < end; i += 2, j += 2) {
+            final double x = srcPts[i];
+            final double y = srcPts[i + 1];
+            if (!interpolate(x, y, dstPts, j)) {
+                try {
+                    dstPts[j] = x;
+                    dstPts[j + 1] = y;
+                    exact.transform(dstPts, j, dstPts, j, 1);
+                } catch (TransformException e) {
+                    dstPts[j] = dstPts[j + 1] = Double.NaN;
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Interpolates the position of the specified point, returning false if the point is outside of
+     * the domain, or in a cell that could not be fully transformed
+     */
+    private boolean interpolate(double x, double y, double[] dst, int offset) {
+        // negated tests so that NaN coordinates are rejected too
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return false;
+        }
+        final double fx = (x - minX) / cellWidth;
+        final double fy = (y - minY) / cellHeight;
+        final int c = Math.min((int) fx, cols - 1);
+        final int r = Math.min((int) fy, rows - 1);
+        final double dx = fx - c;
+        final double dy = fy - r;
+
+        final int lowerLeft = (r * (cols + 1) + c) * 2;
+        final int upperLeft = lowerLeft + (cols + 1) * 2;
+        final double x00 = nodes[lowerLeft];
+        final double y00 = nodes[lowerLeft + 1];
+        final double x10 = nodes[lowerLeft + 2];
+        final double y10 = nodes[lowerLeft + 3];
+        final double x01 = nodes[upperLeft];
+        final double y01 = nodes[upperLeft + 1];
+        final double x11 = nodes[upperLeft + 2];
+        final double y11 = nodes[upperLeft + 3];
+
+        final double lowerX = x00 + (x10 - x00) * dx;
+        final double lowerY = y00 + (y10 - y00) * dx;
+        final double upperX = x01 + (x11 - x01) * dx;
+        final double upperY = y01 + (y11 - y01) * dx;
+        final double tx = lowerX + (upperX - lowerX) * dy;
+        final double ty = lowerY + (upperY - lowerY) * dy;
+        if (Double.isNaN(tx) || Double.isNaN(ty)) {
+            return false;
+        }
+        dst[offset] = tx;
+        dst[offset + 1] = ty;
+        return true;
+    }
+
+    @Override
+    public Matrix derivative(Point2D point) throws TransformException {
+        return exact.derivative(point);
+    }
+
+    /** Returns the inverse of the exact transform. */
+    @Override
+    public MathTransform2D inverse() throws NoninvertibleTransformException {
+        return exact.inverse();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(exact, minX, minY, maxX, maxY, tolerance, rows, cols);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass()) {
+            return false;
+        }
+        InterpolatedGridTransform2D that = (InterpolatedGridTransform2D) object;
+        return exact.equals(that.exact)
+                && minX == that.minX
+                && minY == that.minY
+                && maxX == that.maxX
+                && maxY == that.maxY
+                && tolerance == that.tolerance
+                && rows == that.rows
+                && cols == that.cols;
+    }
+
+    @Override
+    public String toString() {
+        return "InterpolatedGridTransform2D[rows="
+                + rows
+                + ", cols="
+                + cols
+                + ", domain="
+                + getDomain()
+                + ", tolerance="
+                + tolerance
+                + ", exact="
+                + exact
+                + "]";
+    }
+}
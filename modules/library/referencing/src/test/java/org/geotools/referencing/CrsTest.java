@@ -20,9 +20,11 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Set;
 import org.geotools.api.referencing.FactoryException;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
@@ -34,6 +36,7 @@
 import org.geotools.referencing.crs.DefaultEngineeringCRS;
 import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.geotools.referencing.operation.projection.MapProjection;
+import org.geotools.util.ConcurrentObjectCache;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -410,4 +413,68 @@ public void testReprojectAzimuthalEquidistant() throws Exception {
         assertEquals(2.57e7, transformed.getMaximum(0), 1e6);
         assertEquals(1.41e7, transformed.getMaximum(1), 1e6);
     }
+
+    @Test
+    public void testMathTransformCache() throws Exception {
+        CRS.clearMathTransformCache();
+        ConcurrentObjectCache<?, MathTransform> cache = CRS.getMathTransformCache();
+        assertNotNull(cache);
+        CoordinateReferenceSystem utm = CRS.parseWKT(UTM32N);
+        long hits = cache.getHits();
+        MathTransform mt = CRS.findMathTransform(WGS84, utm);
+        assertSame(mt, CRS.findMathTransform(WGS84, utm));
+        // an equal CRS instance hits the cache too
+        assertSame(mt, CRS.findMathTransform(WGS84, CRS.parseWKT(UTM32N)));
+        assertEquals(hits + 2, cache.getHits());
+        // the lenient flag is part of the key
+        CRS.findMathTransform(WGS84, utm, true);
+        assertEquals(hits + 2, cache.getHits());
+
+        CRS.clearMathTransformCache();
+        assertEquals(0, cache.getKeys().size());
+    }
+
+    @Test
+    public void testMathTransformCacheDisabled() throws Exception {
+        try {
+            CRS.setMathTransformCacheSize(0);
+            assertNull(CRS.getMathTransformCache());
+            assertNotNull(CRS.findMathTransform(WGS84, CRS.parseWKT(UTM32N)));
+        } finally {
+            CRS.setMathTransformCacheSize(CRS.DEFAULT_MATH_TRANSFORM_CACHE_SIZE);
+        }
+    }
+
+    @Test
+    public void testWarmUpMathTransformCache() throws Exception {
+        CRS.clearMathTransformCache();
+        int loaded =
+                CRS.warmUpMathTransformCache(
+                        Arrays.asList("CRS:84->CRS:83", "CRS:84", "CRS:84->CRS:notACode"), true);
+        assertEquals(1, loaded);
+        ConcurrentObjectCache<?, MathTransform> cache = CRS.getMathTransformCache();
+        assertEquals(1, cache.getKeys().size());
+        long hits = cache.getHits();
+        CRS.findMathTransform(CRS.decode("CRS:84"), CRS.decode("CRS:83"), true);
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    private static final String UTM32N =
+            "PROJCS[\"WGS 84 / UTM zone 32N\", "
+                    + "GEOGCS[\"WGS 84\", "
+                    + "DATUM[\"World Geodetic System 1984\", "
+                    + "SPHEROID[\"WGS 84\", 6378137.0, 298.257223563]], "
+                    + "PRIMEM[\"Greenwich\", 0.0], "
+                    + "UNIT[\"degree\", 0.017453292519943295], "
+                    + "AXIS[\"Geodetic longitude\", EAST], "
+                    + "AXIS[\"Geodetic latitude\", NORTH]], "
+                    + "PROJECTION[\"Transverse_Mercator\"], "
+                    + "PARAMETER[\"central_meridian\", 9.0], "
+                    + "PARAMETER[\"latitude_of_origin\", 0.0], "
+                    + "PARAMETER[\"scale_factor\", 0.9996], "
+                    + "PARAMETER[\"false_easting\", 500000.0], "
+                    + "PARAMETER[\"false_northing\", 0.0], "
+                    + "UNIT[\"m\", 1.0], "
+                    + "AXIS[\"Easting\", EAST], "
+                    + "AXIS[\"Northing\", NORTH]]";
 }
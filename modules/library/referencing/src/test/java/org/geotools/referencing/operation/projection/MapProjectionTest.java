@@ -20,6 +20,7 @@
 import static org.geotools.referencing.operation.projection.MapProjection.AbstractProvider.SEMI_MINOR;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.awt.geom.Point2D;
 import org.geotools.api.parameter.ParameterValueGroup;
@@ -124,4 +125,137 @@ public void testOrthodromicDistance() throws FactoryException {
         Point2D target2 = new Point2D.Double(src.getX(), src.getY() + 0.000000000001);
         assertEquals(1.1117412E-7, mt.orthodromicDistance(src, target2), 1E-12);
     }
+
+    private static MapProjection createProjection(
+            String name, double semiMinor, String... parameterValues) throws FactoryException {
+        MathTransformFactory mtFactory = ReferencingFactoryFinder.getMathTransformFactory(null);
+        final ParameterValueGroup parameters = mtFactory.getDefaultParameters(name);
+        parameters.parameter(SEMI_MAJOR.getName().getCode()).setValue(6378137.0);
+        parameters.parameter(SEMI_MINOR.getName().getCode()).setValue(semiMinor);
+        for (int i = 0; i < parameterValues.length; i += 2) {
+            parameters
+                    .parameter(parameterValues[i])
+                    .setValue(Double.parseDouble(parameterValues[i + 1]));
+        }
+        return (MapProjection) mtFactory.createParameterizedTransform(parameters);
+    }
+
+    /** Checks the batch transform paths return the same results as the point by point ones. */
+    @Test
+    public void testBatchTransform() throws TransformException, FactoryException {
+        final double wgs84Minor = 6356752.314245179;
+        MapProjection[] projections = {
+            createProjection("Mercator_1SP", wgs84Minor),
+            createGoogleMercator(),
+            createProjection("Transverse_Mercator", wgs84Minor, "central_meridian", "1"),
+            createProjection("Transverse_Mercator", 6378137.0, "central_meridian", "1"),
+            createProjection(
+                    "Lambert_Conformal_Conic_2SP",
+                    wgs84Minor,
+                    "standard_parallel_1",
+                    "44",
+                    "standard_parallel_2",
+                    "49",
+                    "latitude_of_origin",
+                    "46.5",
+                    "central_meridian",
+                    "3",
+                    "false_easting",
+                    "700000",
+                    "false_northing",
+                    "6600000"),
+            createProjection(
+                    "Albers_Conic_Equal_Area",
+                    wgs84Minor,
+                    "standard_parallel_1",
+                    "29.5",
+                    "standard_parallel_2",
+                    "45.5",
+                    "latitude_of_origin",
+                    "23",
+                    "central_meridian",
+                    "-96")
+        };
+        double[] geographic = new double[2 * 100];
+        for (int i = 0; i < geographic.length; i += 2) {
+            geographic[i] = -4 + (i % 20) / 2.0;
+            geographic[i + 1] = 30 + i / 10.0;
+        }
+        for (MapProjection mt : projections) {
+            // leave some room at the start, to test offsets
+            double[] projected = new double[geographic.length + 2];
+            mt.transform(geographic, 0, projected, 2, geographic.length / 2);
+            double[] back = new double[geographic.length];
+            mt.inverse().transform(projected, 2, back, 0, geographic.length / 2);
+            for (int i = 0; i < geographic.length; i += 2) {
+                Point2D expected =
+                        mt.transform(new Point2D.Double(geographic[i], geographic[i + 1]), null);
+                assertEquals(expected.getX(), projected[i + 2], 1e-6);
+                assertEquals(expected.getY(), projected[i + 3], 1e-6);
+                Point2D inverse = mt.inverse().transform(expected, null);
+                assertEquals(inverse.getX(), back[i], 1e-9);
+                assertEquals(inverse.getY(), back[i + 1], 1e-9);
+            }
+
+            // in place transformation
+            double[] copy = geographic.clone();
+            mt.transform(copy, 0, copy, 0, copy.length / 2);
+            for (int i = 0; i < copy.length; i++) {
+                assertEquals(projected[i + 2], copy[i], 0d);
+            }
+        }
+    }
+
+    /** Points that cannot be projected become NaN, the others are projected anyways */
+    @Test
+    public void testBatchTransformFailure() throws FactoryException {
+        MapProjection mt = createGoogleMercator();
+        double[] points = {10, 10, 0, 90, 20, 20};
+        try {
+            mt.transform(points, 0, points, 0, 3);
+            fail("Should have failed to project the pole");
+        } catch (TransformException e) {
+            // expected
+        }
+        assertTrue(Double.isNaN(points[2]));
+        assertTrue(Double.isNaN(points[3]));
+        assertEquals(1113194.9, points[0], 0.1);
+        assertEquals(2226389.8, points[4], 0.1);
+    }
+
+    /** Subclasses overriding only the per point methods must not get the inherited batch kernels */
+    @Test
+    public void testBatchTransformSubclass() throws TransformException, FactoryException {
+        MapProjection tm = createProjection("Transverse_Mercator", 6356752.314245179);
+        MapProjection mt =
+                new TransverseMercator(tm.getParameterValues()) {
+                    @Override
+                    protected Point2D transformNormalized(double x, double y, Point2D ptDst)
+                            throws ProjectionException {
+                        Point2D result = super.transformNormalized(x, y, ptDst);
+                        result.setLocation(result.getX() + 0.01, result.getY());
+                        return result;
+                    }
+
+                    @Override
+                    protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
+                            throws ProjectionException {
+                        return super.inverseTransformNormalized(x - 0.01, y, ptDst);
+                    }
+                };
+        double[] points = {1, 45, -2, 50};
+        double[] projected = new double[points.length];
+        mt.transform(points, 0, projected, 0, 2);
+        double[] back = new double[points.length];
+        mt.inverse().transform(projected, 0, back, 0, 2);
+        for (int i = 0; i < points.length; i += 2) {
+            Point2D expected = mt.transform(new Point2D.Double(points[i], points[i + 1]), null);
+            assertEquals(expected.getX(), projected[i], 1e-6);
+            assertEquals(expected.getY(), projected[i + 1], 1e-6);
+            Point2D reference = tm.transform(new Point2D.Double(points[i], points[i + 1]), null);
+            assertTrue(Math.abs(expected.getX() - reference.getX()) > 1000);
+            assertEquals(points[i], back[i], 1e-9);
+            assertEquals(points[i + 1], back[i + 1], 1e-9);
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.transform;
+
+import static org.geotools.referencing.crs.DefaultGeographicCRS.WGS84;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.operation.MathTransform2D;
+import org.geotools.api.referencing.operation.NoninvertibleTransformException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.referencing.CRS;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class InterpolatedGridTransform2DTest {
+
+    private static final String UTM32N =
+            "PROJCS[\"WGS 84 / UTM zone 32N\", GEOGCS[\"WGS 84\", DATUM[\"WGS_1984\","
+                    + " SPHEROID[\"WGS 84\", 6378137.0, 298.257223563]],"
+                    + " PRIMEM[\"Greenwich\", 0.0], UNIT[\"degree\", 0.017453292519943295],"
+                    + " AXIS[\"Lon\", EAST], AXIS[\"Lat\", NORTH]],"
+                    + " PROJECTION[\"Transverse_Mercator\"], PARAMETER[\"central_meridian\", 9.0],"
+                    + " PARAMETER[\"latitude_of_origin\", 0.0],"
+                    + " PARAMETER[\"scale_factor\", 0.9996],"
+                    + " PARAMETER[\"false_easting\", 500000.0], PARAMETER[\"false_northing\", 0.0],"
+                    + " UNIT[\"m\", 1.0], AXIS[\"Easting\", EAST], AXIS[\"Northing\", NORTH]]";
+
+    private static MathTransform2D exact;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        CoordinateReferenceSystem utm32n = CRS.parseWKT(UTM32N);
+        exact = (MathTransform2D) CRS.findMathTransform(WGS84, utm32n);
+    }
+
+    @Test
+    public void testWithinTolerance() throws Exception {
+        Rectangle2D domain = new Rectangle2D.Double(4, 40, 10, 10);
+        double tolerance = 10;
+        MathTransform2D approx = InterpolatedGridTransform2D.create(exact, domain, tolerance);
+        assertTrue(approx instanceof InterpolatedGridTransform2D);
+        InterpolatedGridTransform2D grid = (InterpolatedGridTransform2D) approx;
+        assertTrue(grid.getRows() > 1);
+        assertTrue(grid.getColumns() > 1);
+
+        int count = 10000;
+        double[] source = new double[count * 2];
+        Random random = new Random(0);
+        for (int i = 0; i < count; i++) {
+            source[i * 2] = domain.getMinX() + random.nextDouble() * domain.getWidth();
+            source[i * 2 + 1] = domain.getMinY() + random.nextDouble() * domain.getHeight();
+        }
+        double[] expected = new double[count * 2];
+        double[] actual = new double[count * 2];
+        exact.transform(source, 0, expected, 0, count);
+        approx.transform(source, 0, actual, 0, count);
+        for (int i = 0; i < count * 2; i += 2) {
+            double distance = Math.hypot(expected[i] - actual[i], expected[i + 1] - actual[i + 1]);
+            assertTrue("Distance " + distance + " at point " + i / 2, distance <= tolerance);
+        }
+        // the approximation is not the exact transform, but the inverse is
+        assertNotEquals(expected[0], actual[0], 0d);
+        assertEquals(exact.inverse(), approx.inverse());
+    }
+
+    @Test
+    public void testOutsideDomain() throws Exception {
+        Rectangle2D domain = new Rectangle2D.Double(4, 40, 10, 10);
+        MathTransform2D approx = InterpolatedGridTransform2D.create(exact, domain, 10);
+        double[] source = {0, 0, 20, 60, -5, 45};
+        double[] expected = new double[source.length];
+        double[] actual = new double[source.length];
+        exact.transform(source, 0, expected, 0, 3);
+        approx.transform(source, 0, actual, 0, 3);
+        assertArrayEquals(expected, actual, 0d);
+    }
+
+    @Test
+    public void testOverlappingArrays() throws Exception {
+        Rectangle2D domain = new Rectangle2D.Double(4, 40, 10, 10);
+        MathTransform2D approx = InterpolatedGridTransform2D.create(exact, domain, 10);
+        double[] source = {5, 41, 6, 42, 7, 43, 8, 44};
+        double[] expected = new double[source.length];
+        approx.transform(source, 0, expected, 0, 4);
+        // shift the points forward by one position, in place
+        double[] inPlace = new double[source.length + 2];
+        System.arraycopy(source, 0, inPlace, 0, source.length);
+        approx.transform(inPlace, 0, inPlace, 2, 4);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], inPlace[i + 2], 0d);
+        }
+    }
+
+    @Test
+    public void testNotApproximated() throws Exception {
+        // linear transforms are returned as is
+        MathTransform2D affine = new AffineTransform2D(AffineTransform.getScaleInstance(2, 3));
+        Rectangle2D domain = new Rectangle2D.Double(0, 0, 10, 10);
+        assertSame(affine, InterpolatedGridTransform2D.create(affine, domain, 1));
+        // no tolerance, or empty domain
+        assertSame(exact, InterpolatedGridTransform2D.create(exact, domain, 0));
+        assertSame(
+                exact,
+                InterpolatedGridTransform2D.create(exact, new Rectangle2D.Double(4, 40, 0, 10), 1));
+        // grid would be too dense
+        assertSame(
+                exact,
+                InterpolatedGridTransform2D.create(
+                        exact, new Rectangle2D.Double(4, 40, 10, 10), 0.1));
+    }
+
+    @Test
+    public void testPartialFailure() throws Exception {
+        // the first step fails on the right half of the domain, leaving the coordinates untouched
+        MathTransform2D step =
+                new PartialTransform2D() {
+                    @Override
+                    public void transform(
+                            double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts)
+                            throws TransformException {
+                        for (int i = srcOff; i < srcOff + numPts * 2; i += 2) {
+                            if (srcPts[i] > 5) {
+                                throw new TransformException("Cannot transform " + srcPts[i]);
+                            }
+                        }
+                        for (int i = 0; i < numPts * 2; i += 2) {
+                            dstPts[dstOff + i] = srcPts[srcOff + i] + 1;
+                            dstPts[dstOff + i + 1] = srcPts[srcOff + i + 1];
+                        }
+                    }
+                };
+        MathTransform2D scale = new AffineTransform2D(AffineTransform.getScaleInstance(1000, 1000));
+        MathTransform2D concatenated = (MathTransform2D) ConcatenatedTransform.create(step, scale);
+        InterpolatedGridTransform2D approx =
+                new InterpolatedGridTransform2D(
+                        concatenated, new Rectangle2D.Double(0, 0, 10, 10), 1, 10, 10);
+
+        // cells left of the failure are interpolated from properly transformed nodes
+        double[] points = {0.5, 0.5, 2.5, 7.5, 4.5, 9.5};
+        approx.transform(points, 0, points, 0, 3);
+        assertArrayEquals(new double[] {1500, 500, 3500, 7500, 5500, 9500}, points, 1e-9);
+
+        // cells touching the failed nodes use the exact transform, which fails as well
+        double[] failing = {3.5, 3.5, 5.5, 5.5};
+        try {
+            approx.transform(failing, 0, failing, 0, 2);
+            fail("Should have failed to transform the point on the right half");
+        } catch (TransformException e) {
+            // expected
+        }
+        assertArrayEquals(new double[] {4500, 3500, Double.NaN, Double.NaN}, failing, 1e-9);
+    }
+
+    /** A two dimensional transform, only the array transformation needs to be implemented */
+    private abstract static class PartialTransform2D extends AbstractMathTransform
+            implements MathTransform2D {
+
+        @Override
+        public int getSourceDimensions() {
+            return 2;
+        }
+
+        @Override
+        public int getTargetDimensions() {
+            return 2;
+        }
+
+        @Override
+        public MathTransform2D inverse() throws NoninvertibleTransformException {
+            throw new NoninvertibleTransformException("Not invertible");
+        }
+    }
+}
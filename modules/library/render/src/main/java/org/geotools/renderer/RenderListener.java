@@ -49,6 +49,16 @@ default void layerEnd(Layer layer) {
         // does nothing
     }
 
+    /**
+     * Event issued when the layer completed rendering, reporting also how many features have been
+     * skipped because they would have been painted on already busy pixels (see {@link
+     * org.geotools.data.util.ScreenMap}). May not be issued. The default implementation delegates
+     * to {@link #layerEnd(Layer)}.
+     */
+    default void layerEnd(Layer layer, long skippedFeatures) {
+        layerEnd(layer);
+    }
+
     /** Event issued when labelling starts. May not be issued if there are no labels to paint. */
     default void labellingStart() {
         // does nothing
@@ -17,6 +17,7 @@
 package org.geotools.renderer.label;
 
 import java.awt.Rectangle;
+import java.awt.Shape;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -67,6 +68,7 @@ public static class ConflictDetector extends GlyphProcessor {
         LabelIndex groupLabels;
         int extraSpace;
         double minDistance;
+        final double[] corners = new double[8];
 
         public ConflictDetector(
                 LabelPainter painter,
@@ -89,15 +91,43 @@ public ConflictDetector(
 
         @Override
         public boolean process(GlyphVector glyphVector, int g, AffineTransform tx, char c) {
-            Rectangle2D labelEnvelope =
-                    tx.createTransformedShape(glyphVector.getGlyphLogicalBounds(g)).getBounds2D();
-            // try to paint the label, the condition under which this happens are complex
             // white space character does not conflict with other labels
             if (Character.isWhitespace(c)) return false;
-            else if ((displayArea.contains(labelEnvelope) || labelItem.isPartialsEnabled())
+
+            Shape logicalBounds = glyphVector.getGlyphLogicalBounds(g);
+            double minX, minY, maxX, maxY;
+            if (logicalBounds instanceof Rectangle2D) {
+                // transform the corners in place, avoids building a transformed shape
+                Rectangle2D r = (Rectangle2D) logicalBounds;
+                corners[0] = corners[2] = r.getMinX();
+                corners[4] = corners[6] = r.getMaxX();
+                corners[1] = corners[7] = r.getMinY();
+                corners[3] = corners[5] = r.getMaxY();
+                tx.transform(corners, 0, corners, 0, 4);
+                minX = maxX = corners[0];
+                minY = maxY = corners[1];
+                for (int i = 2; i < 8; i += 2) {
+                    minX = Math.min(minX, corners[i]);
+                    maxX = Math.max(maxX, corners[i]);
+                    minY = Math.min(minY, corners[i + 1]);
+                    maxY = Math.max(maxY, corners[i + 1]);
+                }
+            } else {
+                Rectangle2D envelope = tx.createTransformedShape(logicalBounds).getBounds2D();
+                minX = envelope.getMinX();
+                minY = envelope.getMinY();
+                maxX = envelope.getMaxX();
+                maxY = envelope.getMaxY();
+            }
+
+            // try to paint the label, the condition under which this happens are complex
+            if ((displayArea.contains(minX, minY, maxX - minX, maxY - minY)
+                            || labelItem.isPartialsEnabled())
                     && !(labelItem.isConflictResolutionEnabled()
-                            && paintedBounds.labelsWithinDistance(labelEnvelope, extraSpace))
-                    && !groupLabels.labelsWithinDistance(labelEnvelope, minDistance)) return false;
+                            && paintedBounds.labelsWithinDistance(
+                                    minX, minY, maxX, maxY, extraSpace))
+                    && !groupLabels.labelsWithinDistance(minX, minY, maxX, maxY, minDistance))
+                return false;
             else return true; // collision = true
         }
     }
@@ -784,6 +784,10 @@ private boolean paintLineLabelsWithLetterConflict(
         if (perpendicularOffset != 0) {
             offsetBuilder = new OffsetCurveBuilder(perpendicularOffset, 2);
         }
+        // the conflict detector has no per candidate state, share it across the candidate walk
+        GlyphProcessor.ConflictDetector conflictDetector =
+                new GlyphProcessor.ConflictDetector(
+                        painter, displayArea, paintedBounds, groupLabels);
         int labelCount = 0;
         for (LineString line : lines) {
             // if we are following lines, use a simplified version of the line,
@@ -861,11 +865,7 @@ private boolean paintLineLabelsWithLetterConflict(
                     }
 
                     // We check each letters for collision
-                    boolean collision =
-                            glyphVectorProcessor.process(
-                                    new GlyphProcessor.ConflictDetector(
-                                            painter, displayArea, paintedBounds, groupLabels),
-                                    true);
+                    boolean collision = glyphVectorProcessor.process(conflictDetector, true);
 
                     // If none of the glyphs intersects a bounding box,
                     // we paint the label
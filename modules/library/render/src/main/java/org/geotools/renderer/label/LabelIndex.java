@@ -17,20 +17,78 @@
 package org.geotools.renderer.label;
 
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import org.locationtech.jts.geom.Envelope;
-import org.locationtech.jts.index.quadtree.Quadtree;
 
 /**
  * Stores label items and helps in finding the interferering ones, either by pure overlap or within
  * a certain distance from the specified bounds
  *
+ * <p>The label bounds are kept in a uniform grid of square cells, hashed on the cell coordinates so
+ * that the extent of the labels does not need to be known in advance. Everything is stored in
+ * primitive arrays, and the collision tests do not allocate any object, as they are called for each
+ * candidate position while walking the lines to be labelled. Bounds covering too many cells (e.g.,
+ * large reserved areas) are not gridded, but kept in a separate list that is always scanned.
+ *
  * @author Andrea Aime
  */
 public class LabelIndex {
 
-    Quadtree index = new Quadtree();
+    /** Default grid cell size, in pixels, in the same order of magnitude of a label */
+    static final double DEFAULT_CELL_SIZE = 64;
+
+    /** Bounds spanning more cells than this are scanned linearly instead of being gridded */
+    static final int MAX_CELLS_PER_LABEL = 64;
+
+    static final int EMPTY = -1;
+
+    /**
+     * Cell indexes are clamped to this range, so that huge ordinates cannot overflow the cell
+     * loops. Labels beyond it share the border cells, which is fine, as they are unlikely
+     */
+    static final int MAX_CELL = 1 << 30;
+
+    final double cellSize;
+
+    /** Label bounds, as minx, miny, maxx, maxy quadruples */
+    double[] bounds = new double[64];
+
+    /** The items associated to the bounds (null for reserved areas), helps in debugging */
+    LabelCacheItem[] items = new LabelCacheItem[16];
+
+    int labelCount;
+
+    /** Open addressing hash table of the grid cells, keyed on the packed cell coordinates */
+    long[] cellKeys = new long[64];
+
+    /** Index of the first entry of each cell, or {@link #EMPTY} if the slot is not in use */
+    int[] cellHeads = newHeads(64);
+
+    int cellCount;
+
+    /** Linked lists of the labels in each cell: label index, and next entry in the cell */
+    int[] entryLabels = new int[64];
+
+    int[] entryNext = new int[64];
+
+    int entryCount;
+
+    /** Labels that are not gridded, because too large, or with non finite bounds */
+    int[] ungridded = new int[8];
+
+    int ungriddedCount;
+
+    public LabelIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /** Builds a label index using the specified grid cell size, in pixels */
+    public LabelIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive, but was " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
 
     /**
      * Returns true if there is any label in the index within the specified distance from the
@@ -38,58 +96,184 @@ public class LabelIndex {
      * buffer will be generated
      */
     public boolean labelsWithinDistance(Rectangle2D bounds, double distance) {
-        if (distance < 0) return false;
-
-        Envelope e = toEnvelope(bounds);
-        e.expandBy(distance);
-        AtomicBoolean intersectionFound = new AtomicBoolean(false);
-        index.query(
-                e,
-                o -> {
-                    if (intersectionFound.get()) return;
-                    InterferenceItem item = (InterferenceItem) o;
-                    if (item.env.intersects(e)) {
-                        intersectionFound.set(true);
-                    }
-                });
-        return intersectionFound.get();
+        return labelsWithinDistance(
+                bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(), distance);
     }
 
-    /** Adds a label into the index */
-    public void addLabel(LabelCacheItem item, Rectangle2D bounds) {
-        Envelope e = toEnvelope(bounds);
-        index.insert(e, new InterferenceItem(e, item));
+    /**
+     * Same as {@link #labelsWithinDistance(Rectangle2D, double)}, but using the bounds ordinates
+     * directly
+     */
+    public boolean labelsWithinDistance(
+            double minX, double minY, double maxX, double maxY, double distance) {
+        if (distance < 0 || labelCount == 0) return false;
+
+        minX -= distance;
+        minY -= distance;
+        maxX += distance;
+        maxY += distance;
+
+        for (int i = 0; i < ungriddedCount; i++) {
+            if (intersects(ungridded[i], minX, minY, maxX, maxY)) return true;
+        }
+
+        if (!isFinite(minX, minY, maxX, maxY)) {
+            return scan(minX, minY, maxX, maxY);
+        }
+        int cx0 = cell(minX);
+        int cy0 = cell(minY);
+        int cx1 = cell(maxX);
+        int cy1 = cell(maxY);
+        // a large area would visit more cells than there are labels
+        if (((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1) > labelCount) {
+            return scan(minX, minY, maxX, maxY);
+        }
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                int slot = findSlot(key(cx, cy));
+                for (int e = cellHeads[slot]; e != EMPTY; e = entryNext[e]) {
+                    if (intersects(entryLabels[e], minX, minY, maxX, maxY)) return true;
+                }
+            }
+        }
+        return false;
     }
 
-    /** Turns the specified Java2D rectangle into a JTS envelope */
-    private Envelope toEnvelope(Rectangle2D bounds) {
-        return new Envelope(bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY());
+    /** Adds a label into the index */
+    public void addLabel(LabelCacheItem item, Rectangle2D bounds) {
+        addLabel(item, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
     }
 
-    /**
-     * Simple structure stored into the quadtree (keeping the item around helps in debugging)
-     *
-     * @author Andrea Aime
-     */
-    static class InterferenceItem {
-        Envelope env;
+    /** Adds a label into the index, using the bounds ordinates directly */
+    public void addLabel(LabelCacheItem item, double minX, double minY, double maxX, double maxY) {
+        int label = labelCount++;
+        if (label * 4 + 4 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        if (label >= items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+        }
+        int b = label * 4;
+        bounds[b] = minX;
+        bounds[b + 1] = minY;
+        bounds[b + 2] = maxX;
+        bounds[b + 3] = maxY;
+        items[label] = item;
 
-        LabelCacheItem item;
+        int cx0 = 0, cy0 = 0, cx1 = 0, cy1 = 0;
+        boolean gridded = isFinite(minX, minY, maxX, maxY);
+        if (gridded) {
+            cx0 = cell(minX);
+            cy0 = cell(minY);
+            cx1 = cell(maxX);
+            cy1 = cell(maxY);
+            gridded = ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1) <= MAX_CELLS_PER_LABEL;
+        }
+        if (!gridded) {
+            if (ungriddedCount == ungridded.length) {
+                ungridded = Arrays.copyOf(ungridded, ungridded.length * 2);
+            }
+            ungridded[ungriddedCount++] = label;
+            return;
+        }
 
-        public InterferenceItem(Envelope env, LabelCacheItem item) {
-            super();
-            this.env = env;
-            this.item = item;
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                long key = key(cx, cy);
+                int slot = findSlot(key);
+                if (cellHeads[slot] == EMPTY) {
+                    cellKeys[slot] = key;
+                    cellCount++;
+                }
+                int entry = entryCount++;
+                if (entry == entryLabels.length) {
+                    entryLabels = Arrays.copyOf(entryLabels, entry * 2);
+                    entryNext = Arrays.copyOf(entryNext, entry * 2);
+                }
+                entryLabels[entry] = label;
+                entryNext[entry] = cellHeads[slot];
+                cellHeads[slot] = entry;
+                // keep the load factor at most 0.5
+                if (cellCount * 2 > cellKeys.length) {
+                    rehash();
+                }
+            }
         }
     }
 
     /** Reserve the area indicated by these Geometry. */
     public void reserveArea(List<Rectangle2D> reserved) {
         for (Rectangle2D area : reserved) {
-            Envelope env = toEnvelope(area);
+            addLabel(null, area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY());
+        }
+    }
+
+    /** Returns the number of labels and reserved areas in the index */
+    public int size() {
+        return labelCount;
+    }
 
-            InterferenceItem item = new InterferenceItem(env, null);
-            index.insert(env, item);
+    /** Linear scan of all the labels, used when the query area is large or not finite */
+    private boolean scan(double minX, double minY, double maxX, double maxY) {
+        for (int i = 0; i < labelCount; i++) {
+            if (intersects(i, minX, minY, maxX, maxY)) return true;
         }
+        return false;
+    }
+
+    /** Same semantics as JTS Envelope.intersects, borders included */
+    private boolean intersects(int label, double minX, double minY, double maxX, double maxY) {
+        int b = label * 4;
+        return !(bounds[b] > maxX
+                || bounds[b + 2] < minX
+                || bounds[b + 1] > maxY
+                || bounds[b + 3] < minY);
+    }
+
+    private int cell(double ordinate) {
+        double cell = Math.floor(ordinate / cellSize);
+        return (int) Math.max(-MAX_CELL, Math.min(MAX_CELL, cell));
+    }
+
+    private static boolean isFinite(double minX, double minY, double maxX, double maxY) {
+        return Double.isFinite(minX)
+                && Double.isFinite(minY)
+                && Double.isFinite(maxX)
+                && Double.isFinite(maxY);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /** Returns the slot holding the key, or the empty slot where it should be inserted */
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (cellHeads[slot] != EMPTY && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        cellKeys = new long[oldKeys.length * 2];
+        cellHeads = newHeads(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] != EMPTY) {
+                int slot = findSlot(oldKeys[i]);
+                cellKeys[slot] = oldKeys[i];
+                cellHeads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    private static int[] newHeads(int size) {
+        int[] heads = new int[size];
+        Arrays.fill(heads, EMPTY);
+        return heads;
     }
 }
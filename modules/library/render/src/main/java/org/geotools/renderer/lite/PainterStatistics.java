@@ -0,0 +1,131 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Statistics about the painting pipeline of a single {@link StreamingRenderer} paint call, that is,
+ * the queue between the thread reading the features and the painter thread(s).
+ *
+ * <p>A high producer stall time means the painters are the bottleneck (consider increasing {@link
+ * StreamingRenderer#PAINTER_THREADS_KEY}), a high painter idle time means painters are starved and
+ * the bottleneck is in data reading and style evaluation.
+ */
+public class PainterStatistics {
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    private final AtomicLong producerStallNanos = new AtomicLong();
+
+    private final AtomicLong painterIdleNanos = new AtomicLong();
+
+    private final AtomicLong laneStallNanos = new AtomicLong();
+
+    private final int painterThreads;
+
+    public PainterStatistics(int painterThreads) {
+        this.painterThreads = painterThreads;
+    }
+
+    /** Records a batch of requests drained from the queue by the painter thread */
+    void requestsDrained(int count) {
+        requests.addAndGet(count);
+        batches.incrementAndGet();
+        maxQueueDepth.accumulate(count);
+    }
+
+    /** Records the time the feature reading thread waited for room in a full queue */
+    void producerStalled(long nanos) {
+        producerStallNanos.addAndGet(nanos);
+    }
+
+    /** Records the time the painter thread waited for requests on an empty queue */
+    void painterIdle(long nanos) {
+        painterIdleNanos.addAndGet(nanos);
+    }
+
+    /** Records the time the painter thread waited for the painter lanes */
+    void laneStalled(long nanos) {
+        laneStallNanos.addAndGet(nanos);
+    }
+
+    /** The number of painter threads used */
+    public int getPainterThreads() {
+        return painterThreads;
+    }
+
+    /** Total number of requests executed by the painter(s) */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /** The maximum number of requests found in the queue by the painter thread at once */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /** The average number of requests found in the queue by the painter thread */
+    public double getAverageQueueDepth() {
+        long count = batches.get();
+        return count == 0 ? 0 : requests.get() / (double) count;
+    }
+
+    /** Time spent by the feature reading thread waiting for the painters to free space */
+    public long getProducerStallTime(TimeUnit unit) {
+        return unit.convert(producerStallNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Time spent by the painter thread waiting for requests from the feature reading thread */
+    public long getPainterIdleTime(TimeUnit unit) {
+        return unit.convert(painterIdleNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time spent by the painter thread waiting for the painter lanes, either because their queues
+     * were full, or because a request needed all lanes to complete before being executed. Always
+     * zero with a single painter thread.
+     */
+    public long getLaneStallTime(TimeUnit unit) {
+        return unit.convert(laneStallNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "PainterStatistics [painterThreads="
+                + painterThreads
+                + ", requests="
+                + getRequests()
+                + ", maxQueueDepth="
+                + getMaxQueueDepth()
+                + ", averageQueueDepth="
+                + getAverageQueueDepth()
+                + ", producerStallMs="
+                + getProducerStallTime(TimeUnit.MILLISECONDS)
+                + ", painterIdleMs="
+                + getPainterIdleTime(TimeUnit.MILLISECONDS)
+                + ", laneStallMs="
+                + getLaneStallTime(TimeUnit.MILLISECONDS)
+                + "]";
+    }
+}
@@ -49,12 +49,16 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -108,6 +112,7 @@
 import org.geotools.data.DataUtilities;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.util.ScreenMap;
+import org.geotools.data.util.ScreenMapPool;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.FeatureIterator;
@@ -140,6 +145,7 @@
 import org.geotools.referencing.operation.matrix.XAffineTransform;
 import org.geotools.referencing.operation.transform.AffineTransform2D;
 import org.geotools.referencing.operation.transform.ConcatenatedTransform;
+import org.geotools.referencing.operation.transform.InterpolatedGridTransform2D;
 import org.geotools.referencing.operation.transform.ProjectiveTransform;
 import org.geotools.referencing.operation.transform.WarpBuilder;
 import org.geotools.renderer.GTRenderer;
@@ -226,6 +232,36 @@ public void setSLDStyleFactory(SLDStyleFactory value) {
      */
     public static final String RENDERING_BUFFER = "renderingBuffer";
 
+    /**
+     * Integer hint, when greater than one the paint area is split in roughly this number of tiles,
+     * each one rendered in parallel by its own renderer, and then composited on the target
+     * graphics. Labels are still placed in a single pass by the label cache of this renderer, so
+     * that they are not duplicated or cut at the tile borders.
+     *
+     * <p>The tiled mode is not used when concatenating transforms, when the styles use feature type
+     * style compositing, or when the paint area is too small to be split.
+     */
+    public static final String TILE_PARALLELISM_KEY = "tileParallelism";
+
+    /**
+     * Integer hint, the number of threads painting the shapes produced by the renderer, defaults to
+     * one. When greater than one, paint requests are sharded by their target graphics: feature type
+     * styles and z-groups painting on their own back buffer are painted in parallel, each buffer by
+     * a single thread in submission order, and merged back in order as usual. All other requests
+     * wait for the pending paints to complete.
+     *
+     * <p>Only maps using multiple feature type styles (or z-ordering, or compositing) benefit from
+     * this setting, a single feature type style is always painted by a single thread.
+     *
+     * <p>The painter threads run in the pool set with {@link #setThreadPool(ExecutorService)},
+     * which must then be able to run the painter threads along with the main painter task, or in a
+     * shared pool of daemon threads otherwise.
+     */
+    public static final String PAINTER_THREADS_KEY = "painterThreads";
+
+    /** Maximum number of requests queued for each painter thread */
+    static final int PAINTER_LANE_CAPACITY = 1024;
+
     /** Tolerance used to compare doubles for equality */
     private static final double TOLERANCE = 1e-6;
 
@@ -290,6 +326,12 @@ public void setSLDStyleFactory(SLDStyleFactory value) {
     /** Maximum displacement for generalization during rendering */
     private double generalizationDistance = 0.8;
 
+    /**
+     * The screenmaps acquired for the layer being rendered, to be returned to the pool at the end
+     * of it, once their skipped feature counts have been collected
+     */
+    private final List<ScreenMap> layerScreenMaps = new ArrayList<>();
+
     /** Factory that will resolve symbolizers into rendered styles */
     private SLDStyleFactory styleFactory = new SLDStyleFactory();
 
@@ -396,6 +438,18 @@ public void setSLDStyleFactory(SLDStyleFactory value) {
 
     private static double ADVANCED_PROJECTION_DENSIFICATION_TOLERANCE_DEFAULT = 0.8;
 
+    /**
+     * Maximum error, in pixels, allowed when reprojecting vector geometries. When set to a positive
+     * value, the transformations used for rendering are approximated over the map extent by
+     * bilinear interpolation on a grid of exactly reprojected points, sized to respect the
+     * tolerance (see {@link InterpolatedGridTransform2D}), which is a lot faster than transforming
+     * each vertex exactly. Disabled by default.
+     */
+    public static final String REPROJECTION_APPROXIMATION_TOLERANCE_KEY =
+            "reprojectionApproximationTolerance";
+
+    private static double REPROJECTION_APPROXIMATION_TOLERANCE_DEFAULT = 0;
+
     /**
      * Boolean flag indicating whether advanced projection wrapping heuristic should be used or nto.
      */
@@ -439,8 +493,20 @@ public void setSLDStyleFactory(SLDStyleFactory value) {
     /** The thread pool used to submit the painter workers. */
     private ExecutorService threadPool;
 
+    /** Runs the painter lanes when no thread pool is set, see {@link #PAINTER_THREADS_KEY} */
+    private static volatile ExecutorService lanesPool;
+
     private PainterThread painterThread;
 
+    /** The painting pipeline statistics of the last paint */
+    private volatile PainterStatistics painterStatistics;
+
+    /** The pool used to render the tiles, see {@link #TILE_PARALLELISM_KEY} */
+    private ForkJoinPool tilePool;
+
+    /** The tiled renderer of the paint in progress, if any */
+    private volatile TileParallelRenderer tileRenderer;
+
     private static int MAX_PIXELS_DENSIFY =
             Integer.valueOf(System.getProperty("ADVANCED_PROJECTION_DENSIFY_MAX_PIXELS", "5"));
 
@@ -456,6 +522,40 @@ public void setThreadPool(ExecutorService threadPool) {
         this.threadPool = threadPool;
     }
 
+    /** Returns the shared pool running the painter lanes, creating it on first use */
+    private static ExecutorService getLanesPool() {
+        ExecutorService pool = lanesPool;
+        if (pool == null) {
+            synchronized (StreamingRenderer.class) {
+                pool = lanesPool;
+                if (pool == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    pool =
+                            Executors.newCachedThreadPool(
+                                    r -> {
+                                        Thread t =
+                                                new Thread(
+                                                        r,
+                                                        "StreamingRenderer-painter-"
+                                                                + counter.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                    lanesPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Sets the pool used to render tiles in parallel when {@link #TILE_PARALLELISM_KEY} is set. If
+     * not set, the common fork join pool is used.
+     */
+    public void setTileThreadPool(ForkJoinPool tilePool) {
+        this.tilePool = tilePool;
+    }
+
     /**
      * Sets the flag which controls behaviour for applying affine transformation to the graphics
      * object.
@@ -542,6 +642,12 @@ private void fireErrorEvent(Throwable t) {
     @Override
     public void stopRendering() {
         renderingStopRequested = true;
+        TileParallelRenderer tiled = tileRenderer;
+        if (tiled != null) {
+            tiled.stopRendering();
+            labelCache.stop();
+            return;
+        }
         // un-block the queue in case it was filled with requests and the main
         // thread got blocked on it
         requests.clear();
@@ -770,6 +876,15 @@ public void paint(
             }
         }
 
+        int tileParallelism = getTileParallelism();
+        if (tileParallelism > 1 && !concatTransforms && mapContent != null) {
+            List<Rectangle> tiles = TileParallelRenderer.splitPaintArea(paintArea, tileParallelism);
+            if (tiles.size() > 1 && TileParallelRenderer.isTileable(mapContent)) {
+                paintTiled(graphics, paintArea, mapArea, worldToScreen, tiles);
+                return;
+            }
+        }
+
         // ////////////////////////////////////////////////////////////////////
         //
         // Setting base information
@@ -832,8 +947,11 @@ public void paint(
         }
 
         // Setup the secondary painting thread
+        int painterThreads = getPainterThreads();
+        PainterStatistics statistics = new PainterStatistics(painterThreads);
+        painterStatistics = statistics;
         requests = getRequestsQueue();
-        painterThread = new PainterThread(requests);
+        painterThread = new PainterThread(requests, painterThreads, statistics);
         ExecutorService localThreadPool = threadPool;
         boolean localPool = false;
         if (localThreadPool == null) {
@@ -927,8 +1045,11 @@ public void paint(
                     }
 
                     labelCache.endLayer(layerId, graphics, screenSize);
+                    long skippedFeatures = releaseScreenMaps();
                     try {
-                        requests.put(new RenderTimeStatisticsRequest(renderListeners, layer));
+                        requests.put(
+                                new RenderTimeStatisticsRequest(
+                                        renderListeners, layer, skippedFeatures));
                     } catch (InterruptedException ex) {
                         fireErrorEvent(ex);
                     }
@@ -946,6 +1067,8 @@ public void paint(
                 }
             }
         } finally {
+            // in case the rendering got interrupted mid layer
+            releaseScreenMaps();
             try {
                 // clean up generated map contents (in finally block to ensure it's done regardless
                 // of how we got here
@@ -962,6 +1085,9 @@ public void paint(
                     if (!renderingStopRequested) {
                         requests.put(new EndRequest());
                         painterFuture.get();
+                    } else if (painterThreads > 1) {
+                        // the painter thread joins the lanes, none must paint after returning
+                        painterFuture.get();
                     }
                 } catch (Exception e) {
                     painterFuture.cancel(true);
@@ -982,6 +1108,7 @@ public void paint(
             labelCache.clear();
         }
 
+        if (LOGGER.isLoggable(Level.FINE)) LOGGER.fine(statistics.toString());
         if (LOGGER.isLoggable(Level.FINE))
             LOGGER.fine(
                     new StringBuffer("Style cache hit ratio: ")
@@ -1000,6 +1127,98 @@ public void paint(
         }
     }
 
+    /**
+     * Paints the map by splitting the paint area in tiles, rendered in parallel by {@link
+     * TileParallelRenderer}, and then placing the labels in a single pass
+     */
+    private void paintTiled(
+            Graphics2D graphics,
+            Rectangle paintArea,
+            ReferencedEnvelope mapArea,
+            AffineTransform worldToScreen,
+            List<Rectangle> tiles) {
+        renderingStopRequested = false;
+        double scale = computeScale(mapArea, paintArea, worldToScreen, rendererHints);
+        TileParallelRenderer tiled = new TileParallelRenderer(this, tiles);
+        tileRenderer = tiled;
+        try {
+            labelCache.start();
+            if (labelCache instanceof LabelCacheImpl) {
+                ((LabelCacheImpl) labelCache)
+                        .setLabelRenderingMode(
+                                LabelRenderingMode.valueOf(getTextRenderingMethod()));
+            }
+            for (Layer layer : mapContent.layers()) {
+                if (layer.isVisible()) {
+                    renderListeners.forEach(l -> l.layerStart(layer));
+                }
+            }
+
+            ForkJoinPool pool = tilePool != null ? tilePool : ForkJoinPool.commonPool();
+            tiled.paint(graphics, paintArea, mapArea, worldToScreen, scale, pool);
+
+            List<Layer> layers = mapContent.layers();
+            for (int i = 0; i < layers.size(); i++) {
+                Layer layer = layers.get(i);
+                if (layer.isVisible()) {
+                    long skippedFeatures = tiled.getSkippedFeatures(i);
+                    renderListeners.forEach(l -> l.layerEnd(layer, skippedFeatures));
+                }
+            }
+        } catch (Exception e) {
+            fireErrorEvent(e);
+        } finally {
+            tileRenderer = null;
+        }
+
+        if (!renderingStopRequested) {
+            renderListeners.forEach(l -> l.labellingStart());
+            labelCache.end(graphics, paintArea);
+            renderListeners.forEach(l -> l.labellingEnd());
+        } else {
+            labelCache.clear();
+        }
+    }
+
+    /**
+     * Creates a renderer for a single tile of a tiled paint, sharing the map content and settings
+     * of this one, but using the provided label cache and scale denominator
+     */
+    StreamingRenderer createTileRenderer(LabelCache tileLabelCache, double scale) {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mapContent);
+        Map<Object, Object> hints = new HashMap<>();
+        if (rendererHints != null) {
+            hints.putAll(rendererHints);
+        }
+        hints.remove(TILE_PARALLELISM_KEY);
+        hints.put(LABEL_CACHE_KEY, tileLabelCache);
+        // the scale of a tile would be computed on a smaller area, keep the one of the full map
+        hints.put(DECLARED_SCALE_DENOM_KEY, scale);
+        renderer.setRendererHints(hints);
+        if (java2dHints != null) {
+            renderer.setJava2DHints(java2dHints);
+        }
+        renderer.setGeneralizationDistance(generalizationDistance);
+        renderer.setInteractive(interactive);
+        renderer.setThreadPool(threadPool);
+        return renderer;
+    }
+
+    /**
+     * Returns the painting pipeline statistics of the last (or current) paint, or null if this
+     * renderer did not paint yet. Tiled paints (see {@link #TILE_PARALLELISM_KEY}) do not collect
+     * statistics.
+     */
+    public PainterStatistics getPainterStatistics() {
+        return painterStatistics;
+    }
+
+    /** The listeners attached to this renderer */
+    List<RenderListener> getRenderListeners() {
+        return renderListeners;
+    }
+
     protected void fillBackground(Graphics2D graphics, Rectangle paintArea, Style style) {
         // get the paint, could be a repeated image too (TexturePaint)
         Paint background = styleFactory.getPaint(style.getBackground(), null, null);
@@ -1109,7 +1328,7 @@ Query getStyleQuery(
                 // that sit outside of the map, but whose symbolizer may contribute to it
                 for (LiteFeatureTypeStyle lfts : styleList) {
                     if (lfts.screenMap != null) {
-                        lfts.screenMap = new ScreenMap(lfts.screenMap, metaBuffer);
+                        lfts.screenMap.expand(metaBuffer);
                     }
                 }
             }
@@ -1776,6 +1995,13 @@ private double getAdvancedProjectionDensificationTolerance() {
         return ((Double) result).doubleValue();
     }
 
+    private double getReprojectionApproximationTolerance() {
+        if (rendererHints == null) return REPROJECTION_APPROXIMATION_TOLERANCE_DEFAULT;
+        Object result = rendererHints.get(REPROJECTION_APPROXIMATION_TOLERANCE_KEY);
+        if (result == null) return REPROJECTION_APPROXIMATION_TOLERANCE_DEFAULT;
+        return ((Number) result).doubleValue();
+    }
+
     /** Checks if advanced projection wrapping heuristic should be enabled. */
     private boolean isWrappingHeuristicEnabled() {
         if (rendererHints == null) return true;
@@ -2069,11 +2295,13 @@ ArrayList<LiteFeatureTypeStyle> createLiteFeatureTypeStyles(
                 if (screenMapEnabled(lfts)) {
                     int renderingBuffer = getRenderingBuffer();
                     lfts.screenMap =
-                            new ScreenMap(
-                                    screenSize.x - renderingBuffer,
-                                    screenSize.y - renderingBuffer,
-                                    screenSize.width + renderingBuffer * 2,
-                                    screenSize.height + renderingBuffer * 2);
+                            ScreenMapPool.getDefault()
+                                    .acquire(
+                                            screenSize.x - renderingBuffer,
+                                            screenSize.y - renderingBuffer,
+                                            screenSize.width + renderingBuffer * 2,
+                                            screenSize.height + renderingBuffer * 2);
+                    layerScreenMaps.add(lfts.screenMap);
                 }
 
                 result.add(lfts);
@@ -2091,6 +2319,22 @@ ArrayList<LiteFeatureTypeStyle> createLiteFeatureTypeStyles(
         return result;
     }
 
+    /**
+     * Returns the screenmaps used by the current layer to the pool
+     *
+     * @return the number of features skipped by the screenmaps because they sat on an already
+     *     painted pixel
+     */
+    private long releaseScreenMaps() {
+        long skipped = 0;
+        for (ScreenMap screenMap : layerScreenMaps) {
+            skipped += screenMap.getSkippedCount();
+            ScreenMapPool.getDefault().release(screenMap);
+        }
+        layerScreenMaps.clear();
+        return skipped;
+    }
+
     /**
      * Returns true if the ScreenMap optimization can be applied given the current renderer and
      * configuration and the style to be applied
@@ -2942,7 +3186,7 @@ void processFeature(
             // if it has been clipped out or eliminated by the screenmap we won't emit the event
             // instead
             if (paintCommands > 0) {
-                requests.put(new FeatureRenderedRequest(rf.feature));
+                requests.put(new FeatureRenderedRequest(rf.feature, graphics));
             }
 
         } catch (Throwable tr) {
@@ -3305,6 +3549,24 @@ private int getRenderingBuffer() {
         return result.intValue();
     }
 
+    /** Returns the number of painter threads, see {@link #PAINTER_THREADS_KEY} */
+    private int getPainterThreads() {
+        if (rendererHints == null) return 1;
+        Number result = (Number) rendererHints.get(PAINTER_THREADS_KEY);
+        if (result == null) return 1;
+        return Math.max(1, result.intValue());
+    }
+
+    /**
+     * Returns the number of tiles to split the paint area into, see {@link #TILE_PARALLELISM_KEY}
+     */
+    private int getTileParallelism() {
+        if (rendererHints == null) return 1;
+        Number result = (Number) rendererHints.get(TILE_PARALLELISM_KEY);
+        if (result == null) return 1;
+        return result.intValue();
+    }
+
     /** Returns scale computation algorithm to be used. */
     private String getScaleComputationMethod() {
         if (rendererHints == null) return scaleComputationMethodDEFAULT;
@@ -3449,6 +3711,7 @@ class RenderableFeature {
         private List<Shape> shapes = new ArrayList<>();
         private boolean clone;
         private IdentityHashMap<MathTransform, Decimator> decimators = new IdentityHashMap<>();
+        private Map<MathTransform, MathTransform> approximations = new HashMap<>();
         private ScreenMap screenMap;
         private String layerId;
 
@@ -3528,6 +3791,14 @@ && getGeometryIndex(g) == -1) {
                     } else {
                         sa.rxform = sa.crsxform;
                     }
+                    // the inverse of crsxform is used to post process geometries, keep it exact
+                    double tolerance = getReprojectionApproximationTolerance();
+                    if (tolerance > 0) {
+                        sa.xform = approximate(sa.xform, sa.crs, tolerance);
+                        double worldTolerance =
+                                tolerance * mapExtent.getWidth() / screenSize.getWidth();
+                        sa.rxform = approximate(sa.rxform, sa.crs, worldTolerance);
+                    }
 
                     symbolizerAssociationHT.put(symbolizer, sa);
                 }
@@ -3579,6 +3850,42 @@ && getGeometryIndex(g) == -1) {
             }
         }
 
+        /**
+         * Approximates the transform over the map extent, within the given tolerance, in target
+         * units. Returns the transform itself if it cannot be approximated.
+         */
+        private MathTransform approximate(
+                MathTransform mt, CoordinateReferenceSystem sourceCrs, double tolerance) {
+            if (!(mt instanceof MathTransform2D)
+                    || mt instanceof LinearTransform
+                    || sourceCrs == null) {
+                return mt;
+            }
+            MathTransform result = approximations.get(mt);
+            if (result == null) {
+                try {
+                    ReferencedEnvelope domain = mapExtent.transform(sourceCrs, true);
+                    result =
+                            InterpolatedGridTransform2D.create(
+                                    (MathTransform2D) mt,
+                                    new Rectangle2D.Double(
+                                            domain.getMinX(),
+                                            domain.getMinY(),
+                                            domain.getWidth(),
+                                            domain.getHeight()),
+                                    tolerance);
+                } catch (Exception e) {
+                    LOGGER.log(
+                            Level.FINE,
+                            "Could not approximate the reprojection, using it as is",
+                            e);
+                    result = mt;
+                }
+                approximations.put(mt, result);
+            }
+            return result;
+        }
+
         private int getGeometryIndex(Geometry g) {
             for (int i = 0; i < geometries.size(); i++) {
                 if (geometries.get(i) == g) {
@@ -3739,6 +4046,10 @@ public void setClipShape(Shape clipShape) {
 
         @Override
         void execute() {
+            execute(painter);
+        }
+
+        void execute(StyledShapePainter painter) {
             if (graphic instanceof DelayedBackbufferGraphic) {
                 ((DelayedBackbufferGraphic) graphic).init();
             }
@@ -3767,10 +4078,18 @@ void execute() {
     protected class FeatureRenderedRequest extends RenderingRequest {
         Object content;
 
+        /** The graphics the feature has been painted on, if known */
+        Graphics2D graphics;
+
         public FeatureRenderedRequest(Object content) {
             this.content = content;
         }
 
+        public FeatureRenderedRequest(Object content, Graphics2D graphics) {
+            this.content = content;
+            this.graphics = graphics;
+        }
+
         @Override
         void execute() {
             fireFeatureRenderedEvent(content);
@@ -4062,14 +4381,22 @@ public class RenderTimeStatisticsRequest extends RenderingRequest {
 
         private Layer currentLayer;
 
+        private long skippedFeatures;
+
         public RenderTimeStatisticsRequest(List<RenderListener> listeners, Layer currentLayer) {
+            this(listeners, currentLayer, 0);
+        }
+
+        public RenderTimeStatisticsRequest(
+                List<RenderListener> listeners, Layer currentLayer, long skippedFeatures) {
             this.listeners = listeners;
             this.currentLayer = currentLayer;
+            this.skippedFeatures = skippedFeatures;
         }
 
         @Override
         void execute() {
-            listeners.forEach(l -> l.layerEnd(currentLayer));
+            listeners.forEach(l -> l.layerEnd(currentLayer, skippedFeatures));
         }
     }
 
@@ -4086,6 +4413,20 @@ void execute() {
         }
     }
 
+    /** Makes a painter lane signal it executed all the requests queued before this one */
+    class LaneBarrierRequest extends RenderingRequest {
+        CountDownLatch latch;
+
+        LaneBarrierRequest(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        void execute() {
+            latch.countDown();
+        }
+    }
+
     /**
      * The secondary thread that actually issues the paint requests against the graphic object
      *
@@ -4094,9 +4435,20 @@ void execute() {
     class PainterThread implements Runnable {
         BlockingQueue<RenderingRequest> requests;
         Thread thread;
+        int painterThreads;
+        PainterStatistics statistics;
 
         public PainterThread(BlockingQueue<RenderingRequest> requests) {
+            this(requests, 1, new PainterStatistics(1));
+        }
+
+        PainterThread(
+                BlockingQueue<RenderingRequest> requests,
+                int painterThreads,
+                PainterStatistics statistics) {
             this.requests = requests;
+            this.painterThreads = painterThreads;
+            this.statistics = statistics;
         }
 
         public void interrupt() {
@@ -4108,27 +4460,184 @@ public void interrupt() {
         @Override
         public void run() {
             thread = Thread.currentThread();
+            PainterLanes lanes =
+                    painterThreads > 1 ? new PainterLanes(painterThreads, statistics) : null;
             boolean done = false;
-            while (!done) {
-                try {
-                    List<RenderingRequest> localRequests = new ArrayList<>();
-                    RenderingRequest request = requests.take();
+            try {
+                while (!done) {
+                    try {
+                        List<RenderingRequest> localRequests = new ArrayList<>();
+                        long start = System.nanoTime();
+                        RenderingRequest request = requests.take();
+                        statistics.painterIdle(System.nanoTime() - start);
+
+                        requests.drainTo(localRequests);
+                        localRequests.add(0, request);
+                        statistics.requestsDrained(localRequests.size());
+
+                        for (RenderingRequest r : localRequests) {
+                            if (r instanceof EndRequest || renderingStopRequested) {
+                                if (lanes != null && !renderingStopRequested) {
+                                    lanes.await();
+                                }
+                                done = true;
+                                break;
+                            } else if (lanes != null) {
+                                lanes.dispatch(r);
+                            } else {
+                                r.execute();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        // ok, we might have been interrupted to stop processing
+                        if (renderingStopRequested) {
+                            done = true;
+                        }
+                    } catch (Throwable t) {
+                        fireErrorEvent(t);
+                    }
+                }
+            } finally {
+                if (lanes != null) {
+                    lanes.dispose();
+                }
+            }
+        }
+    }
 
-                    requests.drainTo(localRequests);
-                    localRequests.add(0, request);
+    /**
+     * Shards the paint requests of the {@link PainterThread} over multiple painter threads, based
+     * on their target graphics. Each graphics is always painted by the same lane, so the requests
+     * painting on it are executed in submission order, while all other requests wait for the lanes
+     * to complete their work, and are then executed by the painter thread itself.
+     */
+    class PainterLanes {
+        final PainterLane[] lanes;
 
-                    for (RenderingRequest r : localRequests) {
-                        if (r instanceof EndRequest || renderingStopRequested) {
-                            done = true;
-                            break;
-                        } else {
-                            r.execute();
+        final Map<Graphics2D, PainterLane> assignments = new IdentityHashMap<>();
+
+        final ExecutorService executor;
+
+        final PainterStatistics statistics;
+
+        /** Obstacles are added to the label cache concurrently by the lanes */
+        final StyledShapePainter lanePainter =
+                new StyledShapePainter(new SynchronizedLabelCache(labelCache));
+
+        int nextLane = 0;
+
+        PainterLanes(int count, PainterStatistics statistics) {
+            this.statistics = statistics;
+            this.lanes = new PainterLane[count];
+            this.executor = threadPool != null ? threadPool : getLanesPool();
+            for (int i = 0; i < count; i++) {
+                lanes[i] = new PainterLane();
+                executor.execute(lanes[i]);
+            }
+        }
+
+        void dispatch(RenderingRequest request) throws InterruptedException {
+            Graphics2D target = null;
+            if (request instanceof PaintShapeRequest) {
+                target = ((PaintShapeRequest) request).graphic;
+            } else if (request instanceof FeatureRenderedRequest) {
+                target = ((FeatureRenderedRequest) request).graphics;
+            }
+
+            if (target != null) {
+                PainterLane lane =
+                        assignments.computeIfAbsent(target, g -> lanes[nextLane++ % lanes.length]);
+                lane.put(request);
+            } else {
+                // merges, rasters, direct layers might access any graphics
+                await();
+                request.execute();
+            }
+        }
+
+        /** Waits for all the lanes to execute the requests submitted so far */
+        void await() throws InterruptedException {
+            long start = System.nanoTime();
+            CountDownLatch latch = new CountDownLatch(lanes.length);
+            for (PainterLane lane : lanes) {
+                lane.requests.put(new LaneBarrierRequest(latch));
+            }
+            latch.await();
+            statistics.laneStalled(System.nanoTime() - start);
+        }
+
+        /** Stops the lanes, and waits for them to complete the request they are executing */
+        void dispose() {
+            for (PainterLane lane : lanes) {
+                lane.requests.clear();
+                lane.requests.offer(new EndRequest());
+            }
+            // the painter thread might have been interrupted to stop rendering, but the lanes
+            // must not touch the graphics once paint returns
+            boolean interrupted = false;
+            for (PainterLane lane : lanes) {
+                while (true) {
+                    try {
+                        lane.done.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** A painter thread executing the requests for a subset of the graphics */
+        class PainterLane implements Runnable {
+            final BlockingQueue<RenderingRequest> requests =
+                    new ArrayBlockingQueue<>(PAINTER_LANE_CAPACITY);
+
+            final CountDownLatch done = new CountDownLatch(1);
+
+            void put(RenderingRequest request) throws InterruptedException {
+                if (!requests.offer(request)) {
+                    long start = System.nanoTime();
+                    requests.put(request);
+                    statistics.laneStalled(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        RenderingRequest request;
+                        try {
+                            request = requests.take();
+                        } catch (InterruptedException e) {
+                            // the pool is shutting down
+                            return;
+                        }
+                        if (request instanceof EndRequest) {
+                            return;
+                        } else if (request instanceof LaneBarrierRequest) {
+                            request.execute();
+                        } else if (!renderingStopRequested) {
+                            execute(request);
                         }
                     }
-                } catch (InterruptedException e) {
-                    // ok, we might have been interrupted to stop processing
-                    if (renderingStopRequested) {
-                        done = true;
+                } finally {
+                    done.countDown();
+                }
+            }
+
+            private void execute(RenderingRequest request) {
+                try {
+                    if (request instanceof PaintShapeRequest) {
+                        ((PaintShapeRequest) request).execute(lanePainter);
+                    } else {
+                        // listeners are not required to be thread safe
+                        synchronized (PainterLanes.this) {
+                            request.execute();
+                        }
                     }
                 } catch (Throwable t) {
                     fireErrorEvent(t);
@@ -4185,7 +4694,15 @@ public RenderingRequest peek() {
         @Override
         public void put(RenderingRequest e) throws InterruptedException {
             if (!renderingStopRequested) {
-                delegate.put(e);
+                if (!delegate.offer(e)) {
+                    // the painter is not keeping up, track how long we wait for it
+                    long start = System.nanoTime();
+                    delegate.put(e);
+                    PainterStatistics statistics = painterStatistics;
+                    if (statistics != null) {
+                        statistics.producerStalled(System.nanoTime() - start);
+                    }
+                }
                 if (renderingStopRequested) {
                     this.clear();
                 }
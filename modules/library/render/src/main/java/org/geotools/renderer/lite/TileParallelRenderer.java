@@ -0,0 +1,627 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.api.style.FeatureTypeStyle;
+import org.geotools.api.style.Style;
+import org.geotools.api.style.TextSymbolizer;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.DirectLayer;
+import org.geotools.map.Layer;
+import org.geotools.map.MapContent;
+import org.geotools.renderer.RenderListener;
+import org.geotools.util.NumberRange;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.util.AffineTransformation;
+
+/**
+ * Splits a single {@link StreamingRenderer#paint} call into a grid of tiles, and renders the tiles
+ * with a few {@link StreamingRenderer} instances on a {@link ForkJoinPool}, so that a single large
+ * request can use all the available cores.
+ *
+ * <p>Each tile is a regular paint of a smaller area, hence it expands its query by the meta buffer
+ * computed by {@link MetaBufferEstimator} (or the {@link StreamingRenderer#RENDERING_BUFFER} hint),
+ * making symbols crossing the tile borders render the same as in a single pass. Labels are not
+ * painted by the tiles, they are collected and deduplicated per feature, and then placed in a
+ * single global pass by the label cache of the calling renderer, once all tiles are done. In the
+ * same way, the render listeners are notified once per layer and feature, even if the feature is
+ * rendered by several tiles.
+ */
+final class TileParallelRenderer {
+
+    static final Logger LOGGER = Logging.getLogger(TileParallelRenderer.class);
+
+    /** Tiles smaller than this (in pixels) are not worth the setup overhead */
+    static final int MIN_TILE_SIZE = 256;
+
+    private final StreamingRenderer renderer;
+
+    private final List<Rectangle> tiles;
+
+    private final List<StreamingRenderer> tileRenderers = new CopyOnWriteArrayList<>();
+
+    private final TileRenderListener listener;
+
+    TileParallelRenderer(StreamingRenderer renderer, List<Rectangle> tiles) {
+        this.renderer = renderer;
+        this.tiles = tiles;
+        this.listener = new TileRenderListener(renderer.getRenderListeners());
+    }
+
+    /**
+     * Returns the number of features skipped by the screenmaps of all tiles for the layer at the
+     * given position in the map content
+     */
+    long getSkippedFeatures(int layer) {
+        return listener.getSkippedFeatures(layer);
+    }
+
+    /**
+     * Splits the paint area in roughly the requested number of tiles, while keeping each tile at
+     * least {@link #MIN_TILE_SIZE} wide and tall. Returns a single tile if the area is too small to
+     * be split.
+     */
+    static List<Rectangle> splitPaintArea(Rectangle paintArea, int parallelism) {
+        int cols = (int) Math.ceil(Math.sqrt(parallelism));
+        int rows = (int) Math.ceil(parallelism / (double) cols);
+        cols = Math.max(1, Math.min(cols, paintArea.width / MIN_TILE_SIZE));
+        rows = Math.max(1, Math.min(rows, paintArea.height / MIN_TILE_SIZE));
+
+        List<Rectangle> result = new ArrayList<>(cols * rows);
+        for (int r = 0; r < rows; r++) {
+            int y1 = paintArea.y + paintArea.height * r / rows;
+            int y2 = paintArea.y + paintArea.height * (r + 1) / rows;
+            for (int c = 0; c < cols; c++) {
+                int x1 = paintArea.x + paintArea.width * c / cols;
+                int x2 = paintArea.x + paintArea.width * (c + 1) / cols;
+                result.add(new Rectangle(x1, y1, x2 - x1, y2 - y1));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Feature type style level compositing blends with what has been painted below, which is not
+     * available when painting a tile on its own back buffer. Direct layers paint the whole map area
+     * on their own, ignoring the tile bounds. Z-groups merge several layers in one, which would
+     * break the layer positions tracked by {@link TileLayerListener}.
+     */
+    static boolean isTileable(MapContent mapContent) {
+        for (Layer layer : mapContent.layers()) {
+            if (layer instanceof DirectLayer) {
+                return false;
+            }
+            Style style = layer.getStyle();
+            if (style == null) {
+                continue;
+            }
+            for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+                Map<String, String> options = fts.getOptions();
+                if (options != null
+                        && (options.containsKey(FeatureTypeStyle.COMPOSITE)
+                                || options.containsKey(FeatureTypeStyle.COMPOSITE_BASE)
+                                || options.containsKey(FeatureTypeStyle.SORT_BY_GROUP))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the tiles in parallel, composites them on the target graphics, and then paints the
+     * labels in a single pass.
+     *
+     * <p>Tiles are rendered by a set of workers, no more than the pool parallelism, each one with
+     * its own renderer and a single tile sized back buffer, reused for all the tiles it renders.
+     * Each tile is composited on the target graphics as soon as it is done.
+     */
+    void paint(
+            Graphics2D graphics,
+            Rectangle paintArea,
+            ReferencedEnvelope mapArea,
+            AffineTransform worldToScreen,
+            double scaleDenominator,
+            ForkJoinPool pool)
+            throws NoninvertibleTransformException {
+        int maxWidth = 0;
+        int maxHeight = 0;
+        for (Rectangle tile : tiles) {
+            maxWidth = Math.max(maxWidth, tile.width);
+            maxHeight = Math.max(maxHeight, tile.height);
+        }
+
+        // setup one renderer per worker, the label caches collect labels in global coordinates
+        int workers = Math.max(1, Math.min(tiles.size(), pool.getParallelism()));
+        List<TileLabelCache> labelCaches = new ArrayList<>(workers);
+        List<TileLayerListener> layerListeners = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            TileLabelCache labelCache = new TileLabelCache();
+            TileLayerListener layerListener = new TileLayerListener(listener);
+            StreamingRenderer tileRenderer =
+                    renderer.createTileRenderer(labelCache, scaleDenominator);
+            tileRenderer.addRenderListener(layerListener);
+            labelCaches.add(labelCache);
+            layerListeners.add(layerListener);
+            tileRenderers.add(tileRenderer);
+        }
+
+        AtomicInteger nextTile = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            TileLabelCache labelCache = labelCaches.get(i);
+            TileLayerListener layerListener = layerListeners.get(i);
+            StreamingRenderer tileRenderer = tileRenderers.get(i);
+            int width = maxWidth;
+            int height = maxHeight;
+            tasks.add(
+                    pool.submit(
+                            () -> {
+                                BufferedImage image =
+                                        new BufferedImage(
+                                                width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+                                int index;
+                                while (!renderer.renderingStopRequested
+                                        && (index = nextTile.getAndIncrement()) < tiles.size()) {
+                                    Rectangle tile = tiles.get(index);
+                                    labelCache.startTile(tile.x, tile.y);
+                                    layerListener.startTile();
+                                    paintTile(
+                                            tileRenderer,
+                                            image,
+                                            tile,
+                                            graphics,
+                                            mapArea,
+                                            worldToScreen);
+                                }
+                                return null;
+                            }));
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Tile rendering failed", e);
+                listener.errorOccurred(e);
+            }
+        }
+        if (renderer.renderingStopRequested) {
+            return;
+        }
+
+        // push the collected labels in the label cache of the main renderer
+        LabelCache target = renderer.labelCache;
+        Map<String, List<LabelEntry>> labelsByLayer = mergeLabels(labelCaches);
+        for (Map.Entry<String, List<LabelEntry>> entry : labelsByLayer.entrySet()) {
+            String layerId = entry.getKey();
+            target.startLayer(layerId);
+            for (LabelEntry label : entry.getValue()) {
+                label.put(target);
+            }
+            target.endLayer(layerId, graphics, paintArea);
+        }
+        for (TileLabelCache labelCache : labelCaches) {
+            for (Rectangle2D reserved : labelCache.reserved) {
+                target.put(reserved);
+            }
+        }
+    }
+
+    /** Paints a tile on the worker back buffer, and then composites it on the target graphics */
+    private void paintTile(
+            StreamingRenderer tileRenderer,
+            BufferedImage image,
+            Rectangle tile,
+            Graphics2D graphics,
+            ReferencedEnvelope mapArea,
+            AffineTransform worldToScreen)
+            throws NoninvertibleTransformException {
+        // same world to screen transform, but with the tile origin moved to 0,0
+        AffineTransform tileWorldToScreen = AffineTransform.getTranslateInstance(-tile.x, -tile.y);
+        tileWorldToScreen.concatenate(worldToScreen);
+        Envelope tileEnvelope = RendererUtilities.createMapEnvelope(tile, worldToScreen);
+        ReferencedEnvelope tileArea =
+                new ReferencedEnvelope(tileEnvelope, mapArea.getCoordinateReferenceSystem());
+        Rectangle tilePaintArea = new Rectangle(0, 0, tile.width, tile.height);
+
+        Graphics2D tileGraphics = image.createGraphics();
+        try {
+            // clear what the previous tile painted
+            tileGraphics.setComposite(AlphaComposite.Clear);
+            tileGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            tileGraphics.setComposite(AlphaComposite.SrcOver);
+            tileGraphics.setRenderingHints(graphics.getRenderingHints());
+            tileGraphics.setClip(tilePaintArea);
+            tileRenderer.paint(tileGraphics, tilePaintArea, tileArea, tileWorldToScreen);
+        } finally {
+            tileGraphics.dispose();
+        }
+        if (renderer.renderingStopRequested) {
+            return;
+        }
+
+        // tiles do not overlap, the compositing order does not matter, but graphics are not
+        // thread safe
+        synchronized (graphics) {
+            Composite composite = graphics.getComposite();
+            try {
+                graphics.setComposite(AlphaComposite.SrcOver);
+                graphics.drawImage(
+                        image,
+                        tile.x,
+                        tile.y,
+                        tile.x + tile.width,
+                        tile.y + tile.height,
+                        0,
+                        0,
+                        tile.width,
+                        tile.height,
+                        null);
+            } finally {
+                graphics.setComposite(composite);
+            }
+        }
+    }
+
+    /** Stops all the tile renderers */
+    void stopRendering() {
+        for (StreamingRenderer tileRenderer : tileRenderers) {
+            tileRenderer.stopRendering();
+        }
+    }
+
+    /**
+     * Groups the labels by layer, in layer order, and merges the label geometries of the features
+     * that have been read by more than one tile
+     */
+    static Map<String, List<LabelEntry>> mergeLabels(List<TileLabelCache> labelCaches) {
+        Map<String, Map<Object, LabelEntry>> merged = new LinkedHashMap<>();
+        for (TileLabelCache cache : labelCaches) {
+            for (LabelEntry label : cache.labels) {
+                Map<Object, LabelEntry> layerLabels =
+                        merged.computeIfAbsent(label.layerId, k -> new LinkedHashMap<>());
+                LabelEntry existing = layerLabels.get(label.key);
+                if (existing == null) {
+                    layerLabels.put(label.key, label);
+                } else {
+                    existing.geometries.addAll(label.geometries);
+                }
+            }
+        }
+
+        Map<String, List<LabelEntry>> result = new LinkedHashMap<>();
+        merged.keySet().stream()
+                .sorted(Comparator.comparing(TileParallelRenderer::layerOrder))
+                .forEach(id -> result.put(id, new ArrayList<>(merged.get(id).values())));
+        return result;
+    }
+
+    /** Layer ids are generated by the renderer as increasing numbers */
+    private static int layerOrder(String layerId) {
+        try {
+            return Integer.parseInt(layerId);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /** A label collected by a tile, in the coordinates of the whole paint area */
+    static class LabelEntry {
+        String layerId;
+        TextSymbolizer symbolizer;
+        Feature feature;
+        List<Geometry> geometries = new ArrayList<>(1);
+        NumberRange scaleRange;
+        /** Identifies the same label across tiles */
+        Object key;
+
+        void put(LabelCache target) {
+            Geometry geometry = geometries.get(0);
+            if (geometries.size() > 1) {
+                // the tiles clipped the geometry with some overlap, stitch it back
+                try {
+                    geometry = geometry.getFactory().buildGeometry(geometries).union();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.FINE, "Failed to merge label geometries, using one", e);
+                }
+            }
+            try {
+                target.put(
+                        layerId,
+                        symbolizer,
+                        feature,
+                        new LiteShape2(geometry, null, null, false, false),
+                        scaleRange);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error adding label to the label cache", e);
+            }
+        }
+    }
+
+    /**
+     * Label cache used by a tile renderer, collects the labels and the reserved areas translated
+     * from the tile coordinates to the ones of the whole paint area, without painting anything.
+     */
+    static class TileLabelCache implements LabelCache {
+
+        AffineTransformation translation;
+
+        double dx;
+
+        double dy;
+
+        final List<LabelEntry> labels = new ArrayList<>();
+
+        final List<Rectangle2D> reserved = new ArrayList<>();
+
+        /** Number of labels added so far for each layer and feature id */
+        final Map<String, Integer> featureLabels = new HashMap<>();
+
+        TileLabelCache() {
+            startTile(0, 0);
+        }
+
+        /**
+         * Prepares for the labels of a new tile, with the given origin. The label positions are
+         * reset, as they identify labels across the tiles.
+         */
+        synchronized void startTile(double dx, double dy) {
+            this.dx = dx;
+            this.dy = dy;
+            this.translation = AffineTransformation.translationInstance(dx, dy);
+            featureLabels.clear();
+        }
+
+        @Override
+        public synchronized void put(
+                String layerId,
+                TextSymbolizer symbolizer,
+                Feature feature,
+                LiteShape2 shape,
+                NumberRange scaleRange) {
+            LabelEntry entry = new LabelEntry();
+            entry.layerId = layerId;
+            entry.symbolizer = symbolizer;
+            // readers are allowed to recycle features once next() is called again, while
+            // the labels are evaluated only after all tiles are rendered
+            entry.feature =
+                    feature instanceof SimpleFeature
+                            ? SimpleFeatureBuilder.copy((SimpleFeature) feature)
+                            : feature;
+            entry.geometries.add(translation.transform(shape.getGeometry()));
+            entry.scaleRange = scaleRange;
+            entry.key = labelKey(layerId, feature);
+            labels.add(entry);
+        }
+
+        /**
+         * The same feature read by different tiles results in the same labels. Each tile renderer
+         * works on its own rescaled copy of the style, so symbolizers cannot be compared, but they
+         * are applied in the same order in all tiles: the feature id plus the position of the label
+         * among the ones of the feature identifies it. Anonymous features are never merged.
+         */
+        private Object labelKey(String layerId, Feature feature) {
+            FeatureId id = feature.getIdentifier();
+            if (id == null || id.getID() == null) {
+                return new Object();
+            }
+            int position = featureLabels.merge(layerId + "/" + id.getID(), 1, Integer::sum);
+            return id.getID() + "#" + position;
+        }
+
+        @Override
+        public synchronized void put(Rectangle2D area) {
+            Rectangle2D translated = (Rectangle2D) area.clone();
+            translated.setRect(
+                    area.getX() + dx, area.getY() + dy, area.getWidth(), area.getHeight());
+            reserved.add(translated);
+        }
+
+        @Override
+        public void start() {
+            // labels are painted by the main renderer
+        }
+
+        @Override
+        public void startLayer(String layerId) {
+            // labels are painted by the main renderer
+        }
+
+        @Override
+        public void endLayer(String layerId, Graphics2D graphics, Rectangle displayArea) {
+            // labels are painted by the main renderer
+        }
+
+        @Override
+        public void end(Graphics2D graphics, Rectangle displayArea) {
+            // labels are painted by the main renderer
+        }
+
+        @Override
+        public void stop() {
+            // labels are painted by the main renderer
+        }
+
+        @Override
+        public synchronized void clear() {
+            labels.clear();
+            reserved.clear();
+            featureLabels.clear();
+        }
+
+        @Override
+        public synchronized void clear(String layerId) {
+            labels.removeIf(l -> l.layerId.equals(layerId));
+            featureLabels.keySet().removeIf(k -> k.startsWith(layerId + "/"));
+        }
+
+        @Override
+        public void disableLayer(String layerId) {
+            // the main renderer label cache tracks enabled layers
+        }
+
+        @Override
+        public void enableLayer(String layerId) {
+            // the main renderer label cache tracks enabled layers
+        }
+
+        @Override
+        public List<?> orderedLabels() {
+            return new ArrayList<>(labels);
+        }
+    }
+
+    /**
+     * Forwards the feature and error events of the tile renderers to the listeners of the main
+     * renderer. Layer and labelling events are fired by the main renderer only, once per layer,
+     * while the skipped feature counts are summed up across tiles. A feature read by several tiles
+     * is reported only the first time it is rendered in each layer, anonymous features are reported
+     * every time.
+     *
+     * <p>The tile renderers paint copies of the layers, which are identified by their position in
+     * the map content instead.
+     */
+    static class TileRenderListener implements RenderListener {
+
+        final List<RenderListener> listeners;
+
+        final Map<Integer, LongAdder> skippedFeatures = new ConcurrentHashMap<>();
+
+        /** The ids of the features already reported, by layer position */
+        final Map<Integer, Set<String>> renderedFeatures = new ConcurrentHashMap<>();
+
+        TileRenderListener(List<RenderListener> listeners) {
+            this.listeners = listeners;
+        }
+
+        void addSkippedFeatures(int layer, long skipped) {
+            skippedFeatures.computeIfAbsent(layer, l -> new LongAdder()).add(skipped);
+        }
+
+        long getSkippedFeatures(int layer) {
+            LongAdder skipped = skippedFeatures.get(layer);
+            return skipped == null ? 0 : skipped.sum();
+        }
+
+        @Override
+        public synchronized void featureRenderer(SimpleFeature feature) {
+            listeners.forEach(l -> l.featureRenderer(feature));
+        }
+
+        /** Forwards the feature unless already reported for the same layer */
+        void featureRenderer(Integer layer, SimpleFeature feature) {
+            String id = feature.getID();
+            if (layer != null
+                    && id != null
+                    && !renderedFeatures
+                            .computeIfAbsent(layer, l -> ConcurrentHashMap.newKeySet())
+                            .add(id)) {
+                return;
+            }
+            featureRenderer(feature);
+        }
+
+        @Override
+        public synchronized void errorOccurred(Exception e) {
+            listeners.forEach(l -> l.errorOccurred(e));
+        }
+    }
+
+    /**
+     * Listens to a single tile renderer, tracking the position of the layer being rendered. The
+     * layer start events are fired by the thread reading the features, while the feature and layer
+     * end events may be queued to the painting threads: the layer of a feature is the oldest one
+     * started and not yet ended. Invisible layers are started, but never ended.
+     */
+    static class TileLayerListener implements RenderListener {
+
+        final TileRenderListener delegate;
+
+        final Queue<Integer> layers = new ConcurrentLinkedQueue<>();
+
+        int started;
+
+        TileLayerListener(TileRenderListener delegate) {
+            this.delegate = delegate;
+        }
+
+        /** Prepares for the events of a new tile */
+        void startTile() {
+            started = 0;
+            layers.clear();
+        }
+
+        @Override
+        public void layerStart(Layer layer) {
+            int position = started++;
+            if (layer.isVisible()) {
+                layers.add(position);
+            }
+        }
+
+        @Override
+        public void layerEnd(Layer layer, long skipped) {
+            Integer position = layers.poll();
+            if (position != null) {
+                delegate.addSkippedFeatures(position, skipped);
+            }
+        }
+
+        @Override
+        public void featureRenderer(SimpleFeature feature) {
+            delegate.featureRenderer(layers.peek(), feature);
+        }
+
+        @Override
+        public void errorOccurred(Exception e) {
+            delegate.errorOccurred(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.label;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+public class LabelIndexTest {
+
+    @Test
+    public void testOverlapAndDistance() {
+        LabelIndex index = new LabelIndex();
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(0, 0, 10, 10), 0));
+
+        index.addLabel(null, new Rectangle2D.Double(100, 100, 50, 10));
+        assertEquals(1, index.size());
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(120, 105, 5, 5), 0));
+        // touching borders count as an interference
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(150, 110, 5, 5), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(155, 100, 5, 5), 0));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(155, 100, 5, 5), 5));
+        // negative distances disable the check
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(120, 105, 5, 5), -1));
+    }
+
+    @Test
+    public void testReservedArea() {
+        LabelIndex index = new LabelIndex();
+        // spans many cells, won't be gridded
+        index.reserveArea(Collections.singletonList(new Rectangle2D.Double(0, 0, 2000, 2000)));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(1500, 1500, 10, 10), 0));
+        assertTrue(index.labelsWithinDistance(1999, 1999, 2100, 2100, 0));
+        assertFalse(index.labelsWithinDistance(2001, 2001, 2100, 2100, 0));
+    }
+
+    @Test
+    public void testNegativeAndInfiniteCoordinates() {
+        LabelIndex index = new LabelIndex();
+        index.addLabel(null, -130, -130, -120, -125);
+        index.addLabel(null, Double.NEGATIVE_INFINITY, 0, 0, 0);
+        assertTrue(index.labelsWithinDistance(-125, -127, -124, -126, 0));
+        assertFalse(index.labelsWithinDistance(-115, -127, -110, -126, 0));
+        assertTrue(index.labelsWithinDistance(-1e10, 0, -1e10, 0, 0));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(-1e10, -1, 10, 10), 0));
+    }
+
+    @Test(timeout = 10000)
+    public void testExtremeCoordinates() {
+        LabelIndex index = new LabelIndex();
+        index.addLabel(null, 1e300, 1e300, 1e300 + 1e290, 1e300 + 1e290);
+        index.addLabel(null, -Double.MAX_VALUE, 0, -1e308, 10);
+        index.addLabel(null, 2e9 * 64, 0, 2e9 * 64 + 10, 10);
+        index.addLabel(null, 0, 0, 10, 10);
+        assertEquals(4, index.size());
+
+        assertTrue(index.labelsWithinDistance(1e300, 1e300, 1e300, 1e300, 0));
+        assertTrue(index.labelsWithinDistance(-Double.MAX_VALUE, 5, -Double.MAX_VALUE, 5, 0));
+        assertTrue(index.labelsWithinDistance(2e9 * 64 + 5, 5, 2e9 * 64 + 5, 5, 0));
+        assertTrue(index.labelsWithinDistance(5, 5, 5, 5, 0));
+        assertFalse(index.labelsWithinDistance(1e299, 1e299, 1e299, 1e299, 0));
+        assertFalse(index.labelsWithinDistance(Double.MAX_VALUE, 20, Double.MAX_VALUE, 30, 0));
+        // spanning the whole range of cells
+        assertTrue(index.labelsWithinDistance(-1e300, -1e300, 1e300, 1e300, 0));
+        assertFalse(index.labelsWithinDistance(-1e300, 100, 1e300, 1e299, 0));
+    }
+
+    @Test
+    public void testSameAsEnvelopeScan() {
+        Random random = new Random(0);
+        LabelIndex index = new LabelIndex(32);
+        List<Envelope> labels = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Envelope label = randomEnvelope(random);
+            index.addLabel(
+                    null, label.getMinX(), label.getMinY(), label.getMaxX(), label.getMaxY());
+            labels.add(label);
+        }
+        assertEquals(labels.size(), index.size());
+
+        for (int i = 0; i < 5000; i++) {
+            Envelope query = randomEnvelope(random);
+            double distance = random.nextInt(10);
+            Envelope expanded = new Envelope(query);
+            expanded.expandBy(distance);
+            boolean expected = labels.stream().anyMatch(l -> l.intersects(expanded));
+            boolean actual =
+                    index.labelsWithinDistance(
+                            query.getMinX(),
+                            query.getMinY(),
+                            query.getMaxX(),
+                            query.getMaxY(),
+                            distance);
+            assertEquals(query + " within " + distance, expected, actual);
+        }
+    }
+
+    private Envelope randomEnvelope(Random random) {
+        double x = random.nextDouble() * 4000 - 1000;
+        double y = random.nextDouble() * 4000 - 1000;
+        // mostly label sized, with the occasional large one
+        double width = random.nextInt(100) == 0 ? 1000 : random.nextDouble() * 120;
+        double height = random.nextDouble() * 20;
+        return new Envelope(x, x + width, y, y + height);
+    }
+}
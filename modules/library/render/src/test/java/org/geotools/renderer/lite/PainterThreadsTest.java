@@ -0,0 +1,185 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Collections;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.style.FeatureTypeStyle;
+import org.geotools.api.style.Style;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.styling.StyleBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
+
+public class PainterThreadsTest {
+
+    private static final ReferencedEnvelope BOUNDS =
+            new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+    private MapContent mc;
+
+    @Before
+    public void setUp() throws Exception {
+        WKTReader reader = new WKTReader();
+        SimpleFeatureType type = DataUtilities.createType("polygons", "geom:Polygon");
+        ListFeatureCollection polygons = new ListFeatureCollection(type);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        for (int i = 0; i < 9; i++) {
+            int j = i + 2;
+            String wkt =
+                    String.format("POLYGON((%d %d, %d %d, %d %d, %d %d))", i, i, j, i, j, j, i, i);
+            fb.add(reader.read(wkt));
+            polygons.add(fb.buildFeature("polygons." + i));
+        }
+
+        // three feature type styles, each one painted on its own buffer
+        StyleBuilder sb = new StyleBuilder();
+        Style style = sb.createStyle();
+        style.featureTypeStyles()
+                .add(sb.createFeatureTypeStyle(sb.createPolygonSymbolizer(Color.YELLOW)));
+        style.featureTypeStyles()
+                .add(sb.createFeatureTypeStyle(sb.createLineSymbolizer(Color.BLUE, 8)));
+        style.featureTypeStyles()
+                .add(sb.createFeatureTypeStyle(sb.createLineSymbolizer(Color.RED, 2)));
+        for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+            fts.featureTypeNames().clear();
+        }
+
+        mc = new MapContent();
+        mc.addLayer(new FeatureLayer(polygons, style));
+    }
+
+    @Test
+    public void testSameAsSinglePainter() throws Exception {
+        try {
+            StreamingRenderer single = new StreamingRenderer();
+            CountingRenderListener singleListener = new CountingRenderListener();
+            BufferedImage expected = render(single, 1, singleListener);
+
+            StreamingRenderer multi = new StreamingRenderer();
+            CountingRenderListener multiListener = new CountingRenderListener();
+            BufferedImage actual = render(multi, 3, multiListener);
+
+            assertArrayEquals(pixels(expected), pixels(actual));
+            assertEquals(singleListener.features, multiListener.features);
+            assertEquals(0, multiListener.errors);
+
+            PainterStatistics statistics = multi.getPainterStatistics();
+            assertNotNull(statistics);
+            assertEquals(3, statistics.getPainterThreads());
+            assertTrue(statistics.getRequests() > 0);
+            assertTrue(statistics.getMaxQueueDepth() > 0);
+            assertEquals(statistics.getRequests(), single.getPainterStatistics().getRequests());
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testConfiguredThreadPool() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        ThreadPoolExecutor pool =
+                new ThreadPoolExecutor(0, 8, 1, TimeUnit.SECONDS, new SynchronousQueue<>()) {
+                    @Override
+                    protected void beforeExecute(Thread t, Runnable r) {
+                        tasks.incrementAndGet();
+                    }
+                };
+        try {
+            BufferedImage expected =
+                    render(new StreamingRenderer(), 1, new CountingRenderListener());
+
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setThreadPool(pool);
+            CountingRenderListener listener = new CountingRenderListener();
+            BufferedImage actual = render(renderer, 3, listener);
+
+            assertArrayEquals(pixels(expected), pixels(actual));
+            assertEquals(0, listener.errors);
+            // the painter thread and its three lanes
+            assertEquals(4, tasks.get());
+        } finally {
+            pool.shutdown();
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testStopJoinsLanes() throws Exception {
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            CountingRenderListener listener =
+                    new CountingRenderListener() {
+                        @Override
+                        public void featureRenderer(SimpleFeature feature) {
+                            super.featureRenderer(feature);
+                            renderer.stopRendering();
+                        }
+                    };
+            BufferedImage image = render(renderer, 3, listener);
+            // no lane is painting anymore once paint returned
+            byte[] painted = pixels(image).clone();
+            Thread.sleep(100);
+            assertArrayEquals(painted, pixels(image));
+            assertEquals(0, listener.errors);
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    private BufferedImage render(
+            StreamingRenderer renderer, int painterThreads, CountingRenderListener listener) {
+        renderer.setMapContent(mc);
+        renderer.setRendererHints(
+                Collections.singletonMap(StreamingRenderer.PAINTER_THREADS_KEY, painterThreads));
+        renderer.addRenderListener(listener);
+        BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            renderer.paint(graphics, new Rectangle(0, 0, 300, 300), BOUNDS);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private byte[] pixels(BufferedImage image) {
+        return ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    }
+}
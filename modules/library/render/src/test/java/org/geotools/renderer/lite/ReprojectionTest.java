@@ -18,7 +18,10 @@
 
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
 import org.geotools.api.feature.IllegalAttributeException;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -126,4 +129,106 @@ public void errorOccurred(Exception e) {
         // projected but the renderer itself should not throw exceptions
         Assert.assertEquals(1, errors);
     }
+
+    @Test
+    public void testReprojectionApproximation() throws Exception {
+        // a grid of long, densified lines, which get visibly curved by the projection
+        DefaultFeatureCollection fc = new DefaultFeatureCollection();
+        for (int i = 0; i <= 40; i += 5) {
+            fc.add(createDenseLine(-10 + i, 30, -10 + i, 70));
+            fc.add(createDenseLine(-10, 30 + i, 30, 30 + i));
+        }
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(fc, createLineStyle()));
+        CoordinateReferenceSystem laea = CRS.decode("EPSG:3035", true);
+        ReferencedEnvelope bounds =
+                new ReferencedEnvelope(new Envelope(-10, 30, 30, 70), DefaultGeographicCRS.WGS84)
+                        .transform(laea, true);
+
+        try {
+            BufferedImage exact = renderLines(mc, bounds, null);
+            double tolerance = 1;
+            BufferedImage approximated = renderLines(mc, bounds, tolerance);
+            // allow for an extra pixel, the rounding of the rasterization
+            int distance = (int) tolerance + 1;
+            Assert.assertTrue(countPainted(exact) > 0);
+            // the approximation is in use, but within tolerance
+            Assert.assertNotEquals(0, countUnmatched(exact, approximated, 0));
+            Assert.assertEquals(0, countUnmatched(exact, approximated, distance));
+            Assert.assertEquals(0, countUnmatched(approximated, exact, distance));
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    private SimpleFeature createDenseLine(double x1, double y1, double x2, double y2) {
+        int steps = 100;
+        Coordinate[] coords = new Coordinate[steps + 1];
+        for (int i = 0; i <= steps; i++) {
+            coords[i] = new Coordinate(x1 + (x2 - x1) * i / steps, y1 + (y2 - y1) * i / steps);
+        }
+        return SimpleFeatureBuilder.build(
+                pointFeautureType, new Object[] {gf.createLineString(coords)}, null);
+    }
+
+    private BufferedImage renderLines(MapContent mc, ReferencedEnvelope bounds, Double tolerance) {
+        StreamingRenderer sr = new StreamingRenderer();
+        sr.setMapContent(mc);
+        sr.setJava2DHints(
+                new RenderingHints(
+                        RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF));
+        if (tolerance != null) {
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.REPROJECTION_APPROXIMATION_TOLERANCE_KEY, tolerance);
+            sr.setRendererHints(hints);
+        }
+        return RendererBaseTest.renderImage(sr, bounds, null);
+    }
+
+    private int countPainted(BufferedImage image) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (isPainted(image, x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the pixels painted in the first image that have no painted pixel in the second image
+     * within the given distance
+     */
+    private int countUnmatched(BufferedImage image, BufferedImage other, int distance) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (isPainted(image, x, y) && !isPaintedNear(other, x, y, distance)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isPaintedNear(BufferedImage image, int x, int y, int distance) {
+        for (int j = Math.max(0, y - distance);
+                j <= Math.min(image.getHeight() - 1, y + distance);
+                j++) {
+            for (int i = Math.max(0, x - distance);
+                    i <= Math.min(image.getWidth() - 1, x + distance);
+                    i++) {
+                if (isPainted(image, i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isPainted(BufferedImage image, int x, int y) {
+        return (image.getRGB(x, y) & 0xFFFFFF) != 0xFFFFFF;
+    }
 }
@@ -50,6 +50,7 @@
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.media.jai.Interpolation;
 import javax.media.jai.JAI;
@@ -638,8 +639,9 @@ public void testScreenMapMemory() {
         StreamingRenderer sr = new StreamingRenderer();
         sr.setMapContent(mc);
 
-        // collect rendered features
+        // collect rendered features, and the features skipped by the screenmap
         final List<SimpleFeature> features = new ArrayList<>();
+        final AtomicLong skipped = new AtomicLong();
         RenderListener renderedFeaturesCollector =
                 new RenderListener() {
 
@@ -652,6 +654,11 @@ public void featureRenderer(SimpleFeature feature) {
                     public void errorOccurred(Exception e) {
                         // nothing to do
                     }
+
+                    @Override
+                    public void layerEnd(Layer layer, long skippedFeatures) {
+                        skipped.set(skippedFeatures);
+                    }
                 };
         sr.addRenderListener(renderedFeaturesCollector);
         BufferedImage bi = new BufferedImage(1, 1, BufferedImage.TYPE_3BYTE_BGR);
@@ -662,11 +669,13 @@ public void errorOccurred(Exception e) {
         // check we only rendered one feature
         assertEquals(1, features.size());
         assertEquals("zz1", features.get(0).getID());
+        assertEquals(1, skipped.get());
 
         // now have the lines be big enough to be painted instead
         features.clear();
         sr.paint(graphics, new Rectangle(0, 0, 1, 1), new ReferencedEnvelope(0, 1, 0, 1, WGS84));
         mc.dispose();
+        assertEquals(0, skipped.get());
         assertEquals(2, features.size());
         assertEquals("zz1", features.get(0).getID());
         assertEquals("zz2", features.get(1).getID());
@@ -0,0 +1,293 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.style.Style;
+import org.geotools.api.style.TextSymbolizer;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.DirectLayer;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.Layer;
+import org.geotools.map.MapContent;
+import org.geotools.map.MapViewport;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.renderer.label.LabelCacheImpl;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.util.NumberRange;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
+
+public class TileParallelRendererTest {
+
+    private static final ReferencedEnvelope BOUNDS =
+            new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+    private ListFeatureCollection lines;
+
+    private ListFeatureCollection polygons;
+
+    @Before
+    public void setUp() throws Exception {
+        WKTReader reader = new WKTReader();
+        SimpleFeatureType lineType =
+                DataUtilities.createType("lines", "geom:LineString,name:String");
+        lines = new ListFeatureCollection(lineType);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(lineType);
+        for (int i = 0; i < 10; i++) {
+            fb.add(reader.read("LINESTRING(0 " + i + ", 10 " + (10 - i) + ")"));
+            fb.add("line" + i);
+            lines.add(fb.buildFeature("lines." + i));
+        }
+
+        SimpleFeatureType polygonType =
+                DataUtilities.createType("polygons", "geom:Polygon,name:String");
+        polygons = new ListFeatureCollection(polygonType);
+        fb = new SimpleFeatureBuilder(polygonType);
+        // one polygon crossing all the tiles, one inside a single tile
+        fb.add(reader.read("POLYGON((2 2, 8 2, 8 8, 2 8, 2 2))"));
+        fb.add("big");
+        polygons.add(fb.buildFeature("polygons.1"));
+        fb.add(reader.read("POLYGON((0.5 0.5, 1.5 0.5, 1.5 1.5, 0.5 1.5, 0.5 0.5))"));
+        fb.add("small");
+        polygons.add(fb.buildFeature("polygons.2"));
+    }
+
+    @Test
+    public void testSplitPaintArea() {
+        List<Rectangle> tiles =
+                TileParallelRenderer.splitPaintArea(new Rectangle(0, 0, 1024, 768), 4);
+        assertEquals(4, tiles.size());
+        assertEquals(new Rectangle(0, 0, 512, 384), tiles.get(0));
+        assertEquals(new Rectangle(512, 384, 512, 384), tiles.get(3));
+
+        // tiles are never smaller than the minimum size
+        tiles = TileParallelRenderer.splitPaintArea(new Rectangle(0, 0, 600, 300), 16);
+        assertEquals(2, tiles.size());
+        tiles = TileParallelRenderer.splitPaintArea(new Rectangle(0, 0, 256, 256), 4);
+        assertEquals(1, tiles.size());
+    }
+
+    @Test
+    public void testTiledSameAsUntiled() throws Exception {
+        StyleBuilder sb = new StyleBuilder();
+        Style style = sb.createStyle(sb.createLineSymbolizer(Color.BLUE, 15));
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(lines, style));
+
+        try {
+            BufferedImage untiled = render(mc, null, null);
+            CountingRenderListener listener = new CountingRenderListener();
+            BufferedImage tiled = render(mc, 4, listener);
+
+            // clipping against the tiles moves the vertices by a fraction of pixel, allow for
+            // some differences along the line edges (less than 1% of the image)
+            assertTrue(countDifferentPixels(untiled, tiled) < 3600);
+            assertEquals(0, listener.errors);
+            // lines crossing multiple tiles are reported once
+            assertEquals(lines.size(), listener.features);
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testFeaturesReportedOncePerLayer() throws Exception {
+        StyleBuilder sb = new StyleBuilder();
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(polygons, sb.createStyle(sb.createPolygonSymbolizer())));
+        FeatureLayer hidden = new FeatureLayer(lines, sb.createStyle(sb.createLineSymbolizer()));
+        hidden.setVisible(false);
+        mc.addLayer(hidden);
+        mc.addLayer(new FeatureLayer(polygons, sb.createStyle(sb.createLineSymbolizer())));
+
+        try {
+            CountingRenderListener listener = new CountingRenderListener();
+            render(mc, 4, listener);
+
+            // the big polygon is rendered by all tiles, but reported once for each layer
+            assertEquals(0, listener.errors);
+            assertEquals(polygons.size() * 2, listener.features);
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testSkippedFeaturesSummed() throws Exception {
+        // lines much smaller than a pixel, all in the same spot but the last one
+        WKTReader reader = new WKTReader();
+        SimpleFeatureType tinyType = DataUtilities.createType("tiny", "geom:LineString:srid=4326");
+        ListFeatureCollection tiny = new ListFeatureCollection(tinyType);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(tinyType);
+        for (int i = 0; i < 5; i++) {
+            double x = i < 4 ? 1 : 9;
+            fb.add(reader.read("LINESTRING(" + x + " 1, " + (x + 0.001) + " 1.001)"));
+            tiny.add(fb.buildFeature("tiny." + i));
+        }
+        StyleBuilder sb = new StyleBuilder();
+        MapContent mc = new MapContent();
+        FeatureLayer hidden = new FeatureLayer(lines, sb.createStyle(sb.createLineSymbolizer()));
+        hidden.setVisible(false);
+        mc.addLayer(hidden);
+        FeatureLayer layer = new FeatureLayer(tiny, sb.createStyle(sb.createLineSymbolizer()));
+        mc.addLayer(layer);
+
+        Map<Layer, Long> skipped = new ConcurrentHashMap<>();
+        CountingRenderListener listener =
+                new CountingRenderListener() {
+                    @Override
+                    public void layerEnd(Layer layer, long skippedFeatures) {
+                        skipped.put(layer, skippedFeatures);
+                    }
+                };
+        try {
+            render(mc, 4, listener);
+            // the tile renderers paint copies of the layers
+            assertEquals(Long.valueOf(3), skipped.get(layer));
+            assertEquals(2, listener.features);
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testLabelsPlacedOnce() throws Exception {
+        StyleBuilder sb = new StyleBuilder();
+        Style style =
+                sb.createStyle(
+                        sb.createTextSymbolizer(Color.BLACK, sb.createFont("Serif", 12), "name"));
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(polygons, style));
+
+        AtomicInteger labels = new AtomicInteger();
+        LabelCacheImpl labelCache =
+                new LabelCacheImpl() {
+                    @Override
+                    public void put(
+                            String layerId,
+                            TextSymbolizer symbolizer,
+                            Feature feature,
+                            LiteShape2 shape,
+                            NumberRange scaleRange) {
+                        labels.incrementAndGet();
+                        super.put(layerId, symbolizer, feature, shape, scaleRange);
+                    }
+                };
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.TILE_PARALLELISM_KEY, 4);
+            hints.put(StreamingRenderer.LABEL_CACHE_KEY, labelCache);
+            renderer.setRendererHints(hints);
+            paint(renderer);
+
+            // the big polygon is read by all tiles, but labelled once
+            assertEquals(polygons.size(), labels.get());
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testDirectLayerNotTiled() throws Exception {
+        AtomicInteger paints = new AtomicInteger();
+        MapContent mc = new MapContent();
+        mc.addLayer(
+                new DirectLayer() {
+                    @Override
+                    public void draw(Graphics2D graphics, MapContent map, MapViewport viewport) {
+                        paints.incrementAndGet();
+                        graphics.setColor(Color.RED);
+                        graphics.fillRect(0, 0, 10, 10);
+                    }
+
+                    @Override
+                    public ReferencedEnvelope getBounds() {
+                        return BOUNDS;
+                    }
+                });
+        try {
+            assertFalse(TileParallelRenderer.isTileable(mc));
+            BufferedImage image = render(mc, 4, null);
+            // painted once, in the viewport top left corner only
+            assertEquals(1, paints.get());
+            assertEquals(Color.RED.getRGB(), image.getRGB(5, 5));
+            assertEquals(0, image.getRGB(305, 305));
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    private BufferedImage render(
+            MapContent mc, Integer tileParallelism, CountingRenderListener listener) {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        if (tileParallelism != null) {
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.TILE_PARALLELISM_KEY, tileParallelism);
+            renderer.setRendererHints(hints);
+        }
+        if (listener != null) {
+            renderer.addRenderListener(listener);
+        }
+        return paint(renderer);
+    }
+
+    private BufferedImage paint(StreamingRenderer renderer) {
+        BufferedImage image = new BufferedImage(600, 600, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            renderer.paint(graphics, new Rectangle(0, 0, 600, 600), BOUNDS);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private int countDifferentPixels(BufferedImage expected, BufferedImage actual) {
+        int count = 0;
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.h2;
+
+import org.geotools.api.feature.simple.SimpleFeatureType;
+
+/**
+ * FeatureStore test for H2, with bulk inserts enabled on a dialect that does not override {@code
+ * insertBulk}, to check the default row by row fallback.
+ */
+public class H2BulkInsertFallbackTest extends H2FeatureStoreTest {
+
+    @Override
+    protected void connect() throws Exception {
+        super.connect();
+
+        dataStore.setSQLDialect(
+                new H2DialectBasic(dataStore) {
+                    @Override
+                    public boolean isBulkInsertSupported(SimpleFeatureType featureType) {
+                        return true;
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import java.util.Base64;
+
+/**
+ * Decodes the base64 encoded (T)WKB sent by the database into a buffer that is reused across rows,
+ * instead of allocating new arrays for each geometry. Buffers larger than {@link #MAX_RETAINED} are
+ * not kept around, to avoid holding on large amounts of memory after reading a few big geometries.
+ * Not thread safe.
+ */
+class Base64DecodeBuffer {
+
+    /** The largest buffer that will be retained between calls */
+    static final int MAX_RETAINED = 1024 * 1024;
+
+    /** The MIME decoder skips the line separators PostgreSQL adds to the base64 output */
+    private static final Base64.Decoder DECODER = Base64.getMimeDecoder();
+
+    private byte[] buffer = new byte[1024];
+
+    /**
+     * Decodes the base64 bytes. The returned array can be longer than the decoded content, and will
+     * be overwritten by the next call.
+     */
+    public byte[] decode(byte[] encoded) {
+        // upper bound, the actual size can be lower due to padding and line separators
+        int maxLength = encoded.length / 4 * 3 + 3;
+        byte[] target = buffer;
+        if (target.length < maxLength) {
+            target = new byte[maxLength];
+            if (maxLength <= MAX_RETAINED) {
+                buffer = target;
+            }
+        }
+        DECODER.decode(encoded, target);
+        return target;
+    }
+}
@@ -19,6 +19,9 @@
 import org.geotools.api.feature.type.GeometryDescriptor;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.util.Version;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.Point;
 
 public class GeometryColumnEncoder {
 
@@ -50,15 +53,36 @@ public void encode(
             StringBuffer sql,
             boolean force2D,
             Double distance) {
+        encode(gatt, prefix, sql, force2D, distance, null);
+    }
+
+    /**
+     * Encodes the geometry column, eventually simplified and clipped.
+     *
+     * @param distance The simplification distance, or null
+     * @param clip The envelope to clip the geometries to, or null. Clipping is applied only to non
+     *     point geometry columns, made of straight segments, on PostGIS 2.2 or later, and only if
+     *     the envelope is finite
+     */
+    public void encode(
+            GeometryDescriptor gatt,
+            String prefix,
+            StringBuffer sql,
+            boolean force2D,
+            Double distance,
+            Envelope clip) {
 
         if (encodeBase64) {
             sql.append("encode(");
         }
 
+        if (clip != null && (!isClippable(gatt) || !isFinite(clip))) {
+            clip = null;
+        }
         if (distance == null) {
-            encodeNotSimplified(gatt, prefix, sql, force2D);
+            encodeNotSimplified(gatt, prefix, sql, force2D, clip);
         } else {
-            encodeSimplified(gatt, prefix, sql, force2D, distance);
+            encodeSimplified(gatt, prefix, sql, force2D, distance, clip);
         }
 
         if (encodeBase64) {
@@ -66,8 +90,33 @@ public void encode(
         }
     }
 
+    /**
+     * Returns true if all the envelope ordinates are finite, NaN or infinite ones cannot be encoded
+     * as SQL literals
+     */
+    private static boolean isFinite(Envelope clip) {
+        return Double.isFinite(clip.getMinX())
+                && Double.isFinite(clip.getMinY())
+                && Double.isFinite(clip.getMaxX())
+                && Double.isFinite(clip.getMaxY());
+    }
+
+    /** Returns true if the geometries in the column can be clipped by {@code ST_ClipByBox2D} */
+    boolean isClippable(GeometryDescriptor gatt) {
+        Class<?> binding = gatt.getType().getBinding();
+        return atLeast2_2_0
+                && !"geography".equals(gatt.getUserData().get(JDBCDataStore.JDBC_NATIVE_TYPENAME))
+                && dialect.isStraightSegmentsGeometry(gatt)
+                && !Point.class.isAssignableFrom(binding)
+                && !MultiPoint.class.isAssignableFrom(binding);
+    }
+
     private void encodeNotSimplified(
-            GeometryDescriptor gatt, String prefix, StringBuffer sql, boolean force2D) {
+            GeometryDescriptor gatt,
+            String prefix,
+            StringBuffer sql,
+            boolean force2D,
+            Envelope clip) {
 
         boolean geography =
                 "geography".equals(gatt.getUserData().get(JDBCDataStore.JDBC_NATIVE_TYPENAME));
@@ -76,11 +125,11 @@ private void encodeNotSimplified(
         } else {
             if (force2D) {
                 sql.append("ST_AsBinary(").append(dialect.getForce2DFunction()).append("(");
-                dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
+                encodeColumn(gatt, prefix, sql, clip);
                 sql.append("))");
             } else {
                 sql.append("ST_AsEWKB(");
-                dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
+                encodeColumn(gatt, prefix, sql, clip);
                 sql.append(")");
             }
         }
@@ -97,7 +146,8 @@ private void encodeSimplified(
             String prefix,
             StringBuffer sql,
             boolean force2D,
-            double distance) {
+            double distance,
+            Envelope clip) {
         boolean geography =
                 "geography".equals(gatt.getUserData().get(JDBCDataStore.JDBC_NATIVE_TYPENAME));
 
@@ -108,12 +158,13 @@ private void encodeSimplified(
 
         if (dialect.isStraightSegmentsGeometry(gatt)) {
             if (atLeast2_2_0) {
+                // TWKB also quantizes the coordinates based on the distance
                 sql.append("ST_AsTWKB(");
-                encode2DGeometry(gatt, prefix, sql, stSimplifyEnabled ? distance : null);
+                encode2DGeometry(gatt, prefix, sql, stSimplifyEnabled ? distance : null, clip);
                 sql.append("," + getTWKBDigits(distance) + ")");
             } else {
                 sql.append("ST_AsBinary(");
-                encode2DGeometry(gatt, prefix, sql, stSimplifyEnabled ? distance : null);
+                encode2DGeometry(gatt, prefix, sql, stSimplifyEnabled ? distance : null, null);
                 sql.append(")");
             }
         } else {
@@ -124,13 +175,17 @@ private void encodeSimplified(
             sql.append(") THEN ");
             dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
             sql.append(" ELSE ");
-            encode2DGeometry(gatt, prefix, sql, distance);
+            encode2DGeometry(gatt, prefix, sql, distance, null);
             sql.append(" END)");
         }
     }
 
     private void encode2DGeometry(
-            GeometryDescriptor gatt, String prefix, StringBuffer sql, Double distance) {
+            GeometryDescriptor gatt,
+            String prefix,
+            StringBuffer sql,
+            Double distance,
+            Envelope clip) {
         if (distance != null) {
             if (stPreserveTopologyEnabled) {
                 sql.append("ST_SimplifyPreserveTopology(");
@@ -140,7 +195,7 @@ private void encode2DGeometry(
         }
 
         sql.append(dialect.getForce2DFunction() + "(");
-        dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
+        encodeColumn(gatt, prefix, sql, clip);
         sql.append(")");
 
         if (distance != null) {
@@ -149,6 +204,27 @@ private void encode2DGeometry(
         }
     }
 
+    /** Encodes the column name, clipping it to the envelope if not null */
+    private void encodeColumn(
+            GeometryDescriptor gatt, String prefix, StringBuffer sql, Envelope clip) {
+        if (clip == null) {
+            dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
+        } else {
+            // fast, but the output might be invalid, which is fine for rendering purposes
+            sql.append("ST_ClipByBox2D(");
+            dialect.encodeColumnName(prefix, gatt.getLocalName(), sql);
+            sql.append(", ST_MakeEnvelope(")
+                    .append(clip.getMinX())
+                    .append(", ")
+                    .append(clip.getMinY())
+                    .append(", ")
+                    .append(clip.getMaxX())
+                    .append(", ")
+                    .append(clip.getMaxY())
+                    .append(")::box2d)");
+        }
+    }
+
     /**
      * Computes the number of digits preserved by TWKB based on the magnitude of the simplification
      * distance
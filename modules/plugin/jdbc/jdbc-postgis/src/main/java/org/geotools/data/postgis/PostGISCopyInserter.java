@@ -0,0 +1,376 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.geometry.jts.coordinatesequence.CoordinateSequences;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.util.Converters;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.io.WKBWriter;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Inserts rows in bulk using the PostgreSQL COPY protocol, in text format. The rows are encoded,
+ * with geometries as hex EWKB, by a worker thread, while the calling thread streams the encoded
+ * chunks to the database.
+ */
+class PostGISCopyInserter {
+
+    static final Logger LOGGER = Logging.getLogger(PostGISCopyInserter.class);
+
+    /** Size of the chunks handed over from the encoding thread to the copy stream */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /** Number of encoded chunks that can be waiting to be sent */
+    static final int QUEUE_SIZE = 8;
+
+    static final String NULL = "\\N";
+
+    static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSxxx");
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /** Marks the end of the encoded rows */
+    private static final byte[] END = new byte[0];
+
+    /** How long the copy loop waits for a chunk before checking the encoder is still alive */
+    static final long POLL_TIMEOUT_MS = 1000;
+
+    private static final ExecutorService ENCODERS =
+            Executors.newCachedThreadPool(
+                    new ThreadFactory() {
+                        final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread t =
+                                    new Thread(
+                                            r, "PostGIS COPY encoder " + count.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+
+    private final JDBCDataStore dataStore;
+
+    private final CopyManager copyManager;
+
+    PostGISCopyInserter(JDBCDataStore dataStore, CopyManager copyManager) {
+        this.dataStore = dataStore;
+        this.copyManager = copyManager;
+    }
+
+    /** Returns true if values of the given binding can be encoded in the COPY text format */
+    static boolean isSupported(Class<?> binding) {
+        return Geometry.class.isAssignableFrom(binding)
+                || Number.class.isAssignableFrom(binding)
+                || CharSequence.class.isAssignableFrom(binding)
+                || Date.class.isAssignableFrom(binding)
+                || binding == Boolean.class
+                || binding == Character.class
+                || binding == UUID.class
+                || binding == byte[].class;
+    }
+
+    void insert(
+            SimpleFeatureType featureType,
+            List<String> columns,
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows)
+            throws IOException, SQLException {
+        StringBuffer sql = new StringBuffer("COPY ");
+        dataStore.encodeTableName(featureType.getTypeName(), sql, null);
+        sql.append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            dataStore.getSQLDialect().encodeColumnName(null, columns.get(i), sql);
+        }
+        sql.append(") FROM STDIN");
+        LOGGER.log(
+                Level.FINE, "Bulk inserting {0} rows with: {1}", new Object[] {rows.size(), sql});
+
+        BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        Future<?> encoding = ENCODERS.submit(() -> encode(descriptors, rows, chunks));
+        CopyIn copyIn = null;
+        try {
+            copyIn = copyManager.copyIn(sql.toString());
+            byte[] chunk;
+            while ((chunk = chunks.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) != END) {
+                if (chunk != null) {
+                    copyIn.writeToCopy(chunk, 0, chunk.length);
+                } else if (encoding.isDone() && chunks.isEmpty()) {
+                    // the encoder died without queuing the end, the future reports why
+                    break;
+                }
+            }
+            // report encoding failures before committing the copy
+            encoding.get();
+            long inserted = copyIn.endCopy();
+            if (inserted != rows.size()) {
+                throw new IOException("Failed to insert some features");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while bulk inserting features", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to encode the features for bulk insert", e.getCause());
+        } finally {
+            // stops the encoder if still running, e.g., waiting on a full queue
+            encoding.cancel(true);
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /** Encodes the rows in text format, handing them over in chunks, followed by {@link #END} */
+    private Void encode(
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows,
+            BlockingQueue<byte[]> chunks)
+            throws InterruptedException {
+        boolean interrupted = false;
+        try {
+            RowEncoder encoder = new RowEncoder(descriptors);
+            StringBuilder sb = new StringBuilder(CHUNK_SIZE + 1024);
+            for (Object[] row : rows) {
+                encoder.encode(row, sb);
+                if (sb.length() >= CHUNK_SIZE) {
+                    chunks.put(sb.toString().getBytes(StandardCharsets.UTF_8));
+                    sb.setLength(0);
+                }
+            }
+            if (sb.length() > 0) {
+                chunks.put(sb.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            throw e;
+        } finally {
+            // unblock the copy loop, also on errors, which are reported through the future.
+            // An interruption instead means the copy was abandoned, nobody is waiting for the end
+            if (!interrupted) {
+                chunks.put(END);
+            }
+        }
+        return null;
+    }
+
+    /** Encodes rows in the COPY text format, not thread safe */
+    static class RowEncoder {
+
+        private final List<AttributeDescriptor> descriptors;
+
+        private final WKBWriter[] writers = new WKBWriter[5];
+
+        RowEncoder(List<AttributeDescriptor> descriptors) {
+            this.descriptors = descriptors;
+        }
+
+        void encode(Object[] row, StringBuilder sb) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    sb.append('\t');
+                }
+                encodeValue(row[i], descriptors.get(i), sb);
+            }
+            sb.append('\n');
+        }
+
+        void encodeValue(Object value, AttributeDescriptor descriptor, StringBuilder sb) {
+            if (value == null) {
+                sb.append(NULL);
+                return;
+            }
+            if (value instanceof Geometry) {
+                encodeGeometry((Geometry) value, descriptor, sb);
+                return;
+            }
+            if (descriptor != null) {
+                Class<?> binding = descriptor.getType().getBinding();
+                if (!binding.isInstance(value)) {
+                    Object converted = Converters.convert(value, binding);
+                    if (converted != null) {
+                        value = converted;
+                    }
+                }
+            }
+
+            if (value instanceof Boolean) {
+                sb.append(((Boolean) value) ? 't' : 'f');
+            } else if (value instanceof BigDecimal) {
+                sb.append(((BigDecimal) value).toPlainString());
+            } else if (value instanceof Number) {
+                sb.append(value);
+            } else if (value instanceof java.sql.Date) {
+                sb.append(((java.sql.Date) value).toLocalDate());
+            } else if (value instanceof Time) {
+                sb.append(((Time) value).toLocalTime());
+            } else if (value instanceof Timestamp) {
+                encodeTimestamp(((Timestamp) value).toLocalDateTime(), sb);
+            } else if (value instanceof Date) {
+                encodeTimestamp(new Timestamp(((Date) value).getTime()).toLocalDateTime(), sb);
+            } else if (value instanceof byte[]) {
+                // bytea hex format, with the backslash escaped for the copy format
+                sb.append("\\\\x");
+                appendHex((byte[]) value, 0, sb);
+            } else {
+                escape(value.toString(), sb);
+            }
+        }
+
+        /**
+         * Local date times get the JVM offset, like the JDBC driver does, which is ignored by
+         * columns without time zone
+         */
+        private void encodeTimestamp(LocalDateTime ldt, StringBuilder sb) {
+            sb.append(ldt.atZone(ZoneId.systemDefault()).format(TIMESTAMP_FORMAT));
+        }
+
+        private void escape(String value, StringBuilder sb) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\':
+                        sb.append("\\\\");
+                        break;
+                    case '\t':
+                        sb.append("\\t");
+                        break;
+                    case '\n':
+                        sb.append("\\n");
+                        break;
+                    case '\r':
+                        sb.append("\\r");
+                        break;
+                    default:
+                        sb.append(c);
+                }
+            }
+        }
+
+        /** Encodes the geometry as hex EWKB, the SRID being required by constrained columns */
+        void encodeGeometry(Geometry g, AttributeDescriptor descriptor, StringBuilder sb) {
+            if (g instanceof LinearRing) {
+                // postgis does not handle linear rings, convert to just a line string
+                g = g.getFactory().createLineString(((LinearRing) g).getCoordinateSequence());
+            }
+            int srid = -1;
+            int dimension = -1;
+            if (descriptor != null
+                    && descriptor.getUserData().get(JDBCDataStore.JDBC_NATIVE_SRID) != null) {
+                srid = (Integer) descriptor.getUserData().get(JDBCDataStore.JDBC_NATIVE_SRID);
+                Integer dim = (Integer) descriptor.getUserData().get(Hints.COORDINATE_DIMENSION);
+                dimension = dim != null ? dim : -1;
+            }
+            if (srid <= 0) {
+                srid = g.getSRID();
+            }
+            if (dimension <= 0) {
+                dimension = getDimension(g);
+            }
+
+            WKBWriter writer = writers[dimension];
+            if (writer == null) {
+                writer = new WKBWriter(dimension);
+                writers[dimension] = writer;
+            }
+            byte[] wkb = writer.write(g);
+            if (srid > 0) {
+                // big endian WKB, flag the SRID in the type and insert it right after it
+                sb.append("00");
+                int type = (wkb[1] & 0xFF) << 24 | (wkb[2] & 0xFF) << 16 | (wkb[3] & 0xFF) << 8;
+                type |= wkb[4] & 0xFF;
+                appendHex(type | 0x20000000, sb);
+                appendHex(srid, sb);
+                appendHex(wkb, 5, sb);
+            } else {
+                appendHex(wkb, 0, sb);
+            }
+        }
+
+        private static int getDimension(Geometry g) {
+            int[] dimension = {2};
+            g.apply(
+                    new CoordinateSequenceFilter() {
+                        @Override
+                        public void filter(CoordinateSequence seq, int i) {
+                            int dim = CoordinateSequences.coordinateDimension(seq);
+                            dimension[0] = Math.max(dimension[0], dim);
+                        }
+
+                        @Override
+                        public boolean isDone() {
+                            return false;
+                        }
+
+                        @Override
+                        public boolean isGeometryChanged() {
+                            return false;
+                        }
+                    });
+            return Math.min(dimension[0], 4);
+        }
+
+        private static void appendHex(int value, StringBuilder sb) {
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                sb.append(HEX[(value >>> shift) & 0xF]);
+            }
+        }
+
+        private static void appendHex(byte[] bytes, int offset, StringBuilder sb) {
+            for (int i = offset; i < bytes.length; i++) {
+                sb.append(HEX[(bytes[i] >> 4) & 0xF]);
+                sb.append(HEX[bytes[i] & 0xF]);
+            }
+        }
+    }
+}
@@ -58,6 +58,7 @@
 import org.geotools.geometry.jts.WKTWriter2;
 import org.geotools.jdbc.BasicSQLDialect;
 import org.geotools.jdbc.ColumnMetadata;
+import org.geotools.jdbc.GeometryDecoder;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.referencing.CRS;
 import org.geotools.util.Version;
@@ -76,6 +77,7 @@
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
 import org.locationtech.jts.io.WKTWriter;
+import org.postgresql.copy.CopyManager;
 import org.postgresql.jdbc.PgConnection;
 
 public class PostGISDialect extends BasicSQLDialect {
@@ -196,6 +198,8 @@ public PostGISDialect(JDBCDataStore dataStore) {
 
     boolean topologyPreserved = false;
 
+    boolean copyBulkInsertEnabled = false;
+
     // checkStandardConformingStrings will set this based on database configuration
     boolean escapeBackslash = true;
 
@@ -229,6 +233,15 @@ public boolean isFunctionEncodingEnabled() {
         return functionEncodingEnabled;
     }
 
+    public boolean isCopyBulkInsertEnabled() {
+        return copyBulkInsertEnabled;
+    }
+
+    /** @see PostgisNGDataStoreFactory#COPY_BULK_INSERT */
+    public void setCopyBulkInsertEnabled(boolean copyBulkInsertEnabled) {
+        this.copyBulkInsertEnabled = copyBulkInsertEnabled;
+    }
+
     /** @see PostgisNGDataStoreFactory#ENCODE_FUNCTIONS */
     public void setFunctionEncodingEnabled(boolean functionEncodingEnabled) {
         this.functionEncodingEnabled = functionEncodingEnabled;
@@ -347,6 +360,24 @@ public Geometry decodeGeometryValue(
         }
     }
 
+    @Override
+    public GeometryDecoder createGeometryDecoder(
+            GeometryDescriptor descriptor, GeometryFactory factory, Connection cx, Hints hints)
+            throws IOException, SQLException {
+        // the encoding depends only on the column and query, use private readers to avoid
+        // the thread local lookups for each row
+        if (isTWKBTransferEnabled(cx, descriptor, hints)) {
+            TWKBAttributeIO reader = new TWKBAttributeIO(factory);
+            reader.setBase64EncodingEnabled(base64EncodingEnabled);
+            Class<?> binding = descriptor.getType().getBinding();
+            return (rs, column) -> (Geometry) reader.read(rs, column, binding);
+        } else {
+            WKBAttributeIO reader = new WKBAttributeIO(factory);
+            reader.setBase64EncodingEnabled(base64EncodingEnabled);
+            return (rs, column) -> (Geometry) reader.read(rs, column);
+        }
+    }
+
     private boolean isTWKBTransferEnabled(Connection cx, GeometryDescriptor descriptor, Hints hints)
             throws SQLException {
         Double distance = (Double) hints.get(Hints.GEOMETRY_SIMPLIFICATION);
@@ -410,7 +441,7 @@ public void encodeGeometryColumn(
                 hints != null
                         && hints.containsKey(Hints.FEATURE_2D)
                         && Boolean.TRUE.equals(hints.get(Hints.FEATURE_2D));
-        getGeometryColumnEncoder().encode(gatt, prefix, sql, force2D, null);
+        getGeometryColumnEncoder().encode(gatt, prefix, sql, force2D, null, getClip(gatt, hints));
     }
 
     @Override
@@ -419,6 +450,42 @@ public void encodeGeometryColumnSimplified(
         getGeometryColumnEncoder().encode(gatt, prefix, sql, true, distance);
     }
 
+    @Override
+    public void encodeGeometryColumnSimplified(
+            GeometryDescriptor gatt,
+            String prefix,
+            int srid,
+            StringBuffer sql,
+            Double distance,
+            Hints hints) {
+        getGeometryColumnEncoder().encode(gatt, prefix, sql, true, distance, getClip(gatt, hints));
+    }
+
+    /**
+     * Returns the {@link Hints#GEOMETRY_CLIP_ENVELOPE} in the native CRS of the geometry column, or
+     * null if missing, or cannot be turned into the native CRS
+     */
+    private Envelope getClip(GeometryDescriptor gatt, Hints hints) {
+        Envelope clip = hints == null ? null : (Envelope) hints.get(Hints.GEOMETRY_CLIP_ENVELOPE);
+        if (clip == null || clip.isNull()) {
+            return null;
+        }
+        CoordinateReferenceSystem nativeCRS = gatt.getCoordinateReferenceSystem();
+        if (clip instanceof ReferencedEnvelope && nativeCRS != null) {
+            ReferencedEnvelope re = (ReferencedEnvelope) clip;
+            if (re.getCoordinateReferenceSystem() != null
+                    && !CRS.equalsIgnoreMetadata(re.getCoordinateReferenceSystem(), nativeCRS)) {
+                try {
+                    return re.transform(nativeCRS, true);
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Could not transform the clip envelope, skipping", e);
+                    return null;
+                }
+            }
+        }
+        return clip;
+    }
+
     protected boolean isStraightSegmentsGeometry(GeometryDescriptor gatt) {
         return NON_CURVED_GEOMETRY_CLASSES.contains(gatt.getType().getBinding());
     }
@@ -1026,11 +1093,68 @@ public Object getNextSequenceValue(String schemaName, String sequenceName, Conne
         return null;
     }
 
+    @Override
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx) throws SQLException {
+        List<Object> values = new ArrayList<>(count);
+        Statement st = cx.createStatement();
+        try {
+            String sql =
+                    "SELECT "
+                            + encodeNextSequenceValue(schemaName, sequenceName)
+                            + " FROM generate_series(1, "
+                            + count
+                            + ")";
+
+            dataStore.getLogger().fine(sql);
+            ResultSet rs = st.executeQuery(sql);
+            try {
+                while (rs.next()) {
+                    values.add(rs.getLong(1));
+                }
+            } finally {
+                dataStore.closeSafe(rs);
+            }
+        } finally {
+            dataStore.closeSafe(st);
+        }
+
+        return values;
+    }
+
     @Override
     public String encodeNextSequenceValue(String schemaName, String sequenceName) {
         return "nextval('" + sequenceName + "')";
     }
 
+    @Override
+    public boolean isBulkInsertSupported(SimpleFeatureType featureType) {
+        if (!copyBulkInsertEnabled) {
+            return false;
+        }
+        for (AttributeDescriptor ad : featureType.getAttributeDescriptors()) {
+            if (ad.getUserData().get(JDBCDataStore.JDBC_ENUM_MAP) == null
+                    && !PostGISCopyInserter.isSupported(ad.getType().getBinding())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CloseResource") // the connection is managed by the caller
+    public void insertBulk(
+            SimpleFeatureType featureType,
+            List<String> columns,
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows,
+            Connection cx)
+            throws IOException, SQLException {
+        CopyManager copyManager = unwrapConnection(cx, PgConnection.class).getCopyAPI();
+        new PostGISCopyInserter(dataStore, copyManager)
+                .insert(featureType, columns, descriptors, rows);
+    }
+
     @Override
     public boolean lookupGeneratedValuesPostInsert() {
         return true;
@@ -1591,6 +1715,9 @@ protected void addSupportedHints(Set<Hints.Key> hints) {
         if (isSimplifyEnabled()) {
             hints.add(Hints.GEOMETRY_SIMPLIFICATION);
         }
+        if (version != null && version.compareTo(V_2_2_0) >= 0) {
+            hints.add(Hints.GEOMETRY_CLIP_ENVELOPE);
+        }
     }
 
     /**
@@ -22,6 +22,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -29,6 +30,7 @@
 import org.geotools.api.feature.type.GeometryDescriptor;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.jdbc.ColumnMetadata;
+import org.geotools.jdbc.GeometryDecoder;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.jdbc.PreparedFilterToSQL;
 import org.geotools.jdbc.PreparedStatementSQLDialect;
@@ -96,6 +98,13 @@ public Geometry decodeGeometryValue(
         return delegate.decodeGeometryValue(descriptor, rs, column, factory, cx, hints);
     }
 
+    @Override
+    public GeometryDecoder createGeometryDecoder(
+            GeometryDescriptor descriptor, GeometryFactory factory, Connection cx, Hints hints)
+            throws IOException, SQLException {
+        return delegate.createGeometryDecoder(descriptor, factory, cx, hints);
+    }
+
     @Override
     public void encodeGeometryColumn(
             GeometryDescriptor gatt, String prefix, int srid, Hints hints, StringBuffer sql) {
@@ -159,11 +168,33 @@ public Object getNextSequenceValue(String schemaName, String sequenceName, Conne
         return delegate.getNextSequenceValue(schemaName, sequenceName, cx);
     }
 
+    @Override
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx) throws SQLException {
+        return delegate.getNextSequenceValues(schemaName, sequenceName, count, cx);
+    }
+
     @Override
     public String encodeNextSequenceValue(String schemaName, String sequenceName) {
         return delegate.encodeNextSequenceValue(schemaName, sequenceName);
     }
 
+    @Override
+    public boolean isBulkInsertSupported(SimpleFeatureType featureType) {
+        return delegate.isBulkInsertSupported(featureType);
+    }
+
+    @Override
+    public void insertBulk(
+            SimpleFeatureType featureType,
+            List<String> columns,
+            List<AttributeDescriptor> descriptors,
+            List<Object[]> rows,
+            Connection cx)
+            throws IOException, SQLException {
+        delegate.insertBulk(featureType, columns, descriptors, rows, cx);
+    }
+
     @Override
     public String getSequenceForColumn(
             String schemaName, String tableName, String columnName, Connection cx)
@@ -317,6 +348,17 @@ public void encodeGeometryColumnSimplified(
         delegate.encodeGeometryColumnSimplified(gatt, prefix, srid, sql, distance);
     }
 
+    @Override
+    public void encodeGeometryColumnSimplified(
+            GeometryDescriptor gatt,
+            String prefix,
+            int srid,
+            StringBuffer sql,
+            Double distance,
+            Hints hints) {
+        delegate.encodeGeometryColumnSimplified(gatt, prefix, srid, sql, distance, hints);
+    }
+
     @Override
     public void encodeGeometryColumnGeneralized(
             GeometryDescriptor gatt, String prefix, int srid, StringBuffer sql, Double distance) {
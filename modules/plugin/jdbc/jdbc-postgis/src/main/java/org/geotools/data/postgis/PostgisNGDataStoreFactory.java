@@ -142,6 +142,23 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
                     SimplificationMethod.FAST,
                     new KVP(Param.OPTIONS, Arrays.asList(SimplificationMethod.values())));
 
+    /**
+     * Enables bulk inserts with the COPY protocol. Used when inserting several features at once,
+     * e.g., with a batch insert size greater than one, and when the primary key values can be
+     * computed before the insert.
+     */
+    public static final Param COPY_BULK_INSERT =
+            new Param(
+                    "Bulk insert with COPY",
+                    Boolean.class,
+                    "Use the COPY protocol to insert features in batches, much faster than "
+                            + "insert statements. Only used when inserting more than one feature "
+                            + "at a time, and the primary key values can be computed before "
+                            + "inserting (sequences, or exposed primary keys)",
+                    false,
+                    Boolean.FALSE,
+                    new KVP(Param.LEVEL, "advanced"));
+
     public static final Param SSL_MODE =
             new Param(
                     "SSL mode",
@@ -251,6 +268,10 @@ protected JDBCDataStore createDataStoreInternal(JDBCDataStore dataStore, Map<Str
         dialect.setTopologyPreserved(
                 SimplificationMethod.PRESERVETOPOLOGY.equals(simplificationMethod));
 
+        // bulk inserts with COPY (off by default)
+        Boolean copyBulkInsert = (Boolean) COPY_BULK_INSERT.lookUp(params);
+        dialect.setCopyBulkInsertEnabled(Boolean.TRUE.equals(copyBulkInsert));
+
         // encode BBOX filter with wrapping ST_Envelope (GEOT-5167)
         Boolean encodeBBOXAsEnvelope = false;
         String largeGeometriesOptimized =
@@ -288,6 +309,7 @@ protected void setupParameters(Map<String, Object> parameters) {
         parameters.put(ENCODE_FUNCTIONS.key, ENCODE_FUNCTIONS);
         parameters.put(SIMPLIFY.key, SIMPLIFY);
         parameters.put(SIMPLIFICATION_METHOD.key, SIMPLIFICATION_METHOD);
+        parameters.put(COPY_BULK_INSERT.key, COPY_BULK_INSERT);
         parameters.put(CREATE_DB_IF_MISSING.key, CREATE_DB_IF_MISSING);
         parameters.put(CREATE_PARAMS.key, CREATE_PARAMS);
     }
@@ -26,7 +26,6 @@
 import org.geotools.api.data.DataSourceException;
 import org.geotools.geometry.jts.LiteCoordinateSequence;
 import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
-import org.geotools.util.Base64;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.CoordinateSequences;
 import org.locationtech.jts.geom.Geometry;
@@ -48,6 +47,7 @@
 class TWKBAttributeIO {
     TWKBReader twkbReader;
     ByteArrayInStream inStream = new ByteArrayInStream(new byte[0]);
+    Base64DecodeBuffer base64Buffer = new Base64DecodeBuffer();
     GeometryFactory gf;
     boolean base64EncodingEnabled;
 
@@ -145,7 +145,7 @@ public Object read(ResultSet rs, String columnName) throws IOException {
             if (bytes == null) // ie. its a null column -> return a null geometry!
             return null;
             if (base64EncodingEnabled) {
-                bytes = Base64.decode(bytes);
+                bytes = base64Buffer.decode(bytes);
             }
             return wkb2Geometry(bytes);
         } catch (SQLException e) {
@@ -164,7 +164,7 @@ public Object read(ResultSet rs, int columnIndex, Class<?> binding) throws IOExc
             // causing an inefficient converted to be called later down the road, handle
             // this case in a special way to ensure better performance
             if (base64EncodingEnabled) {
-                bytes = Base64.decode(bytes);
+                bytes = base64Buffer.decode(bytes);
             }
             Geometry g = wkb2Geometry(bytes);
             g = adaptToBinding(g, binding);
@@ -182,7 +182,7 @@ public Object read(ResultSet rs, String columnName, Class<?> binding) throws IOE
             if (bytes == null) // ie. its a null column -> return a null geometry!
             return null;
 
-            Geometry g = wkb2Geometry(Base64.decode(bytes));
+            Geometry g = wkb2Geometry(base64Buffer.decode(bytes));
             g = adaptToBinding(g, binding);
 
             return g;
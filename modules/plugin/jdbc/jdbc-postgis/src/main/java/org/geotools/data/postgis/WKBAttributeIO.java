@@ -24,7 +24,6 @@
 import java.sql.Types;
 import org.geotools.api.data.DataSourceException;
 import org.geotools.geometry.jts.WKBReader;
-import org.geotools.util.Base64;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.io.ByteArrayInStream;
@@ -39,6 +38,7 @@
 public class WKBAttributeIO {
     WKBReader wkbr;
     ByteArrayInStream inStream = new ByteArrayInStream(new byte[0]);
+    Base64DecodeBuffer base64Buffer = new Base64DecodeBuffer();
     GeometryFactory gf;
     boolean base64EncodingEnabled = true;
 
@@ -96,7 +96,7 @@ public Object read(ResultSet rs, String columnName) throws IOException {
             if (bytes == null) // ie. its a null column -> return a null geometry!
             return null;
             if (base64EncodingEnabled) {
-                bytes = Base64.decode(bytes);
+                bytes = base64Buffer.decode(bytes);
             }
             return wkb2Geometry(bytes);
         } catch (SQLException e) {
@@ -111,7 +111,7 @@ public Object read(ResultSet rs, int columnIndex) throws IOException {
             if (bytes == null) // ie. its a null column -> return a null geometry!
             return null;
             if (base64EncodingEnabled) {
-                bytes = Base64.decode(bytes);
+                bytes = base64Buffer.decode(bytes);
             }
             return wkb2Geometry(bytes);
         } catch (SQLException e) {
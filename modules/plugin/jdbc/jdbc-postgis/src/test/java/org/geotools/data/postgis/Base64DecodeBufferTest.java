@@ -0,0 +1,72 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+public class Base64DecodeBufferTest {
+
+    @Test
+    public void testDecodeWithLineSeparators() throws Exception {
+        Geometry line =
+                new WKTReader().read("LINESTRING(0 0, 1 1, 2 2, 3 3, 4 4, 5 5, 6 6, 7 7, 8 8)");
+        byte[] wkb = new WKBWriter().write(line);
+        // PostgreSQL encode(..., 'base64') breaks lines every 76 chars
+        String encoded = Base64.getMimeEncoder(76, "\n".getBytes()).encodeToString(wkb);
+        assertTrue(encoded.contains("\n"));
+
+        Base64DecodeBuffer buffer = new Base64DecodeBuffer();
+        byte[] decoded = buffer.decode(encoded.getBytes(StandardCharsets.US_ASCII));
+        assertArrayEquals(wkb, Arrays.copyOf(decoded, wkb.length));
+        assertTrue(line.equalsExact(new WKBReader().read(decoded)));
+    }
+
+    @Test
+    public void testBufferReuse() {
+        Base64DecodeBuffer buffer = new Base64DecodeBuffer();
+        byte[] first = buffer.decode(encode(new byte[] {1, 2, 3}));
+        byte[] second = buffer.decode(encode(new byte[] {4, 5, 6, 7}));
+        assertSame(first, second);
+        assertArrayEquals(new byte[] {4, 5, 6, 7}, Arrays.copyOf(second, 4));
+
+        // growing within the limits replaces the buffer
+        byte[] grown = buffer.decode(encode(new byte[4096]));
+        assertNotSame(first, grown);
+        assertSame(grown, buffer.decode(encode(new byte[10])));
+
+        // buffers over the limit are not retained
+        byte[] large = buffer.decode(encode(new byte[Base64DecodeBuffer.MAX_RETAINED + 1]));
+        assertNotSame(large, buffer.decode(encode(new byte[10])));
+        assertSame(grown, buffer.decode(encode(new byte[10])));
+    }
+
+    private byte[] encode(byte[] bytes) {
+        return Base64.getEncoder().encode(bytes);
+    }
+}
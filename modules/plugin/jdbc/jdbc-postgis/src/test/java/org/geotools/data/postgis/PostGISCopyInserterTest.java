@@ -0,0 +1,186 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.util.factory.Hints;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKTReader;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+public class PostGISCopyInserterTest {
+
+    @Test
+    public void testEncodeRow() throws Exception {
+        SimpleFeatureType type = buildType();
+        List<AttributeDescriptor> descriptors =
+                Arrays.asList(
+                        type.getDescriptor("name"),
+                        type.getDescriptor("flag"),
+                        type.getDescriptor("value"),
+                        type.getDescriptor("bytes"),
+                        null);
+        PostGISCopyInserter.RowEncoder encoder = new PostGISCopyInserter.RowEncoder(descriptors);
+
+        StringBuilder sb = new StringBuilder();
+        encoder.encode(
+                new Object[] {"a\tb\\c\nd", Boolean.TRUE, "12.5", new byte[] {1, -1}, 10L}, sb);
+        encoder.encode(new Object[] {null, false, null, null, 11L}, sb);
+        assertEquals(
+                "a\\tb\\\\c\\nd\tt\t12.5\t\\\\x01FF\t10\n" + "\\N\tf\t\\N\t\\N\t11\n",
+                sb.toString());
+    }
+
+    @Test
+    public void testEncodeGeometry() throws Exception {
+        SimpleFeatureType type = buildType();
+        AttributeDescriptor geom = type.getDescriptor("geom");
+        geom.getUserData().put(JDBCDataStore.JDBC_NATIVE_SRID, 4326);
+        geom.getUserData().put(Hints.COORDINATE_DIMENSION, 2);
+        PostGISCopyInserter.RowEncoder encoder =
+                new PostGISCopyInserter.RowEncoder(Collections.singletonList(geom));
+
+        Geometry point = new WKTReader().read("POINT(1 2)");
+        StringBuilder sb = new StringBuilder();
+        encoder.encodeGeometry(point, geom, sb);
+        String ewkb = sb.toString();
+        // big endian, point type with the SRID flag, then the SRID
+        assertTrue(ewkb.startsWith("00" + "20000001" + "000010E6"));
+
+        Geometry decoded = new WKBReader().read(WKBReader.hexToBytes(ewkb));
+        assertTrue(decoded instanceof Point);
+        assertEquals(4326, decoded.getSRID());
+        assertTrue(point.equalsExact(decoded));
+        // the original geometry is not modified
+        assertEquals(0, point.getSRID());
+    }
+
+    @Test
+    public void testEncodeGeometryNoSRID() throws Exception {
+        PostGISCopyInserter.RowEncoder encoder =
+                new PostGISCopyInserter.RowEncoder(Collections.singletonList(null));
+        Geometry line = new WKTReader().read("LINESTRING(0 0 1, 1 1 2)");
+        StringBuilder sb = new StringBuilder();
+        encoder.encodeGeometry(line, null, sb);
+
+        byte[] wkb = WKBReader.hexToBytes(sb.toString());
+        Geometry decoded = new WKBReader().read(wkb);
+        assertEquals(0, decoded.getSRID());
+        assertEquals(2d, decoded.getCoordinates()[1].getZ(), 0d);
+    }
+
+    @Test
+    public void testSupported() {
+        assertTrue(PostGISCopyInserter.isSupported(String.class));
+        assertTrue(PostGISCopyInserter.isSupported(Point.class));
+        assertTrue(PostGISCopyInserter.isSupported(java.sql.Timestamp.class));
+        assertFalse(PostGISCopyInserter.isSupported(String[].class));
+        assertFalse(PostGISCopyInserter.isSupported(Object.class));
+    }
+
+    @Test(timeout = 30000)
+    public void testEncoderError() throws Exception {
+        // an encoder thread dying with an error must not leave the copy waiting forever
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CopyIn copyIn =
+                proxy(
+                        CopyIn.class,
+                        (p, method, args) -> {
+                            switch (method.getName()) {
+                                case "isActive":
+                                    return !cancelled.get();
+                                case "cancelCopy":
+                                    cancelled.set(true);
+                                    return null;
+                                case "endCopy":
+                                    return 0L;
+                                default:
+                                    return null;
+                            }
+                        });
+        CopyManager copyManager =
+                new CopyManager(proxy(BaseConnection.class, (p, method, args) -> null)) {
+                    @Override
+                    public CopyIn copyIn(String sql) {
+                        return copyIn;
+                    }
+                };
+        JDBCDataStore dataStore = new JDBCDataStore();
+        dataStore.setSQLDialect(new PostGISDialect(dataStore));
+        PostGISCopyInserter inserter = new PostGISCopyInserter(dataStore, copyManager);
+
+        Object poison =
+                new Object() {
+                    @Override
+                    public String toString() {
+                        throw new StackOverflowError("Cannot encode");
+                    }
+                };
+        List<Object[]> rows = Arrays.asList(new Object[] {"a"}, new Object[] {poison});
+        try {
+            inserter.insert(
+                    buildType(),
+                    Collections.singletonList("name"),
+                    Collections.singletonList(null),
+                    rows);
+            fail("The encoding error should have been reported");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+        assertTrue(cancelled.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T)
+                Proxy.newProxyInstance(
+                        PostGISCopyInserterTest.class.getClassLoader(),
+                        new Class<?>[] {type},
+                        handler);
+    }
+
+    private SimpleFeatureType buildType() {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.add("name", String.class);
+        tb.add("flag", Boolean.class);
+        tb.add("value", Double.class);
+        tb.add("bytes", byte[].class);
+        tb.add("geom", Point.class);
+        return tb.buildFeatureType();
+    }
+}
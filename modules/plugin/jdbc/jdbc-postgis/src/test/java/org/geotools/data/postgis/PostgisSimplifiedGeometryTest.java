@@ -30,6 +30,7 @@
 import org.geotools.jdbc.JDBCTestSupport;
 import org.geotools.util.factory.Hints;
 import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.ParseException;
 
@@ -92,6 +93,38 @@ public void testCurve() throws IOException, ParseException {
         assertGeometryEquals(geom, "CIRCULARSTRING (10.0 15.0, 15.0 20.0, 20.0 15.0)");
     }
 
+    @Test
+    public void testLineClipped() throws IOException, ParseException {
+        Hints hints = new Hints(Hints.GEOMETRY_CLIP_ENVELOPE, new Envelope(-135, -115, 35, 55));
+        Geometry geom = getFirstGeometry("simplify_line", hints);
+        assertGeometryEquals(geom, "LINESTRING(-120 40, -130 50, -135 55)");
+    }
+
+    @Test
+    public void testLineClippedSimplified() throws IOException, ParseException {
+        Hints hints = new Hints(Hints.GEOMETRY_CLIP_ENVELOPE, new Envelope(-135, -115, 35, 55));
+        hints.put(Hints.GEOMETRY_SIMPLIFICATION, 1d);
+        Geometry geom = getFirstGeometry("simplify_line", hints);
+        // clipped, and then the collinear mid point is simplified away
+        assertGeometryEquals(geom, "LINESTRING(-120 40, -135 55)");
+    }
+
+    @Test
+    public void testLineNotClippedInfinite() throws IOException, ParseException {
+        Envelope clip =
+                new Envelope(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 35, Double.NaN);
+        Hints hints = new Hints(Hints.GEOMETRY_CLIP_ENVELOPE, clip);
+        Geometry geom = getFirstGeometry("simplify_line", hints);
+        assertGeometryEquals(geom, "LINESTRING(-120.0 40.0, -130.0 50.0, -140 60)");
+    }
+
+    @Test
+    public void testPointNotClipped() throws IOException, ParseException {
+        Hints hints = new Hints(Hints.GEOMETRY_CLIP_ENVELOPE, new Envelope(0, 10, 0, 10));
+        Geometry geom = getFirstGeometry("simplify_point", hints);
+        assertGeometryEquals(geom, "POINT(-120 40)");
+    }
+
     public void assertGeometryEquals(Geometry actual, String expectedWKT) throws ParseException {
         Geometry expected = new WKTReader2().read(expectedWKT);
         assertTrue("Expected " + expectedWKT + " but got " + actual, actual.equalsExact(expected));
@@ -99,9 +132,14 @@ public void assertGeometryEquals(Geometry actual, String expectedWKT) throws Par
 
     private Geometry getFirstGeometry(String tableName, double simplificationDistance)
             throws IOException {
+        return getFirstGeometry(
+                tableName, new Hints(Hints.GEOMETRY_SIMPLIFICATION, simplificationDistance));
+    }
+
+    private Geometry getFirstGeometry(String tableName, Hints hints) throws IOException {
         ContentFeatureSource fs = dataStore.getFeatureSource(tname(tableName));
         Query q = new Query(tname(tableName));
-        q.setHints(new Hints(Hints.GEOMETRY_SIMPLIFICATION, simplificationDistance));
+        q.setHints(hints);
         ContentFeatureCollection fc = fs.getFeatures(q);
         try (SimpleFeatureIterator fi = fc.features()) {
             assertTrue("Was expecting to find at least one feature", fi.hasNext());
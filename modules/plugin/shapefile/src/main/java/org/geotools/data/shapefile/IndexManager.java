@@ -17,6 +17,7 @@
 package org.geotools.data.shapefile;
 
 import static org.geotools.data.shapefile.files.ShpFileType.FIX;
+import static org.geotools.data.shapefile.files.ShpFileType.PRX;
 import static org.geotools.data.shapefile.files.ShpFileType.QIX;
 import static org.geotools.data.shapefile.files.ShpFileType.SHP;
 import static org.geotools.data.shapefile.files.ShpFileType.SHX;
@@ -24,6 +25,9 @@
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
@@ -43,11 +47,13 @@
 import org.geotools.data.shapefile.index.Data;
 import org.geotools.data.shapefile.index.DataDefinition;
 import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.data.shapefile.index.packed.PackedRTree;
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.index.quadtree.StoreException;
 import org.geotools.data.shapefile.index.quadtree.fs.FileSystemIndexStore;
 import org.geotools.data.shapefile.shp.IndexFile;
 import org.geotools.data.util.NullProgressListener;
+import org.geotools.util.NIOUtilities;
 import org.geotools.util.URLs;
 import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
@@ -63,10 +69,18 @@ class IndexManager {
 
     static final int DEFAULT_MAX_QIX_CACHE_SIZE;
 
+    /**
+     * Number of threads used to build the spatial indexes, set with the {@code
+     * org.geotools.shapefile.indexParallelism} system property, defaults to 1 (sequential build)
+     */
+    static final int DEFAULT_INDEX_PARALLELISM;
+
     ShpFiles shpFiles;
 
     int maxQixCacheSize = DEFAULT_MAX_QIX_CACHE_SIZE;
 
+    int indexParallelism = DEFAULT_INDEX_PARALLELISM;
+
     CachedQuadTree cachedTree;
 
     ShapefileDataStore store;
@@ -92,6 +106,17 @@ public String id() {
             LOGGER.log(Level.SEVERE, "Could not set the max qix cache size", t);
         }
         DEFAULT_MAX_QIX_CACHE_SIZE = max;
+
+        int parallelism = 1;
+        try {
+            String sparallelism = System.getProperty("org.geotools.shapefile.indexParallelism");
+            if (sparallelism != null) {
+                parallelism = Math.max(1, Integer.parseInt(sparallelism));
+            }
+        } catch (Throwable t) {
+            LOGGER.log(Level.SEVERE, "Could not set the index build parallelism", t);
+        }
+        DEFAULT_INDEX_PARALLELISM = parallelism;
     }
 
     public IndexManager(ShpFiles shpFiles, ShapefileDataStore store) {
@@ -106,7 +131,7 @@ public IndexManager(ShpFiles shpFiles, ShapefileDataStore store) {
      * @return true if the spatial index has been created/updated
      * @implNote this method will avoid building spatial indexes for the same shapefile
      *     concurrently, waiting for a running build before proceeding. If {@code force} is {@code
-     *     true}, it will proceed to build the index once the write lock on the QIX file is
+     *     true}, it will proceed to build the index once the write lock on the index file is
      *     acquired, otherwise, it will do so only if the index is stale.
      */
     public boolean createSpatialIndex(boolean force) {
@@ -115,9 +140,10 @@ public boolean createSpatialIndex(boolean force) {
             return false;
         }
         try {
-            if (isIndexStale(QIX) || force) {
-                // get a write lock on the .qix, waiting for other index builds
-                final URL treeURL = shpFiles.acquireWrite(QIX, writer);
+            ShpFileType indexType = getSpatialIndexType();
+            if (isIndexStale(indexType) || force) {
+                // get a write lock on the index, waiting for other index builds
+                final URL treeURL = shpFiles.acquireWrite(indexType, writer);
                 try {
                     // check again, may force be false and another thread just have created it
                     if (isIndexStale(treeURL) || force) {
@@ -139,9 +165,29 @@ protected void doCreateSpatialIndex() throws Exception {
 
         ShapeFileIndexer indexer = new ShapeFileIndexer();
         indexer.setShapeFileName(shpFiles);
+        indexer.setIndexType(getSpatialIndexType());
+        indexer.setParallelism(indexParallelism);
         indexer.index(false, new NullProgressListener());
     }
 
+    /**
+     * Returns the type of spatial index in use, the packed R-tree if enabled in the store, or if an
+     * up to date one is present along with no quadtree (e.g., built with {@link ShapeFileIndexer}),
+     * the quadtree otherwise
+     */
+    ShpFileType getSpatialIndexType() {
+        if (store.isPackedSpatialIndex()) {
+            return PRX;
+        }
+        if (shpFiles.isLocal()
+                && shpFiles.exists(PRX)
+                && !shpFiles.exists(QIX)
+                && !isIndexStale(PRX)) {
+            return PRX;
+        }
+        return QIX;
+    }
+
     /** If the fid index can be used and it is missing this method will try to create it */
     boolean hasFidIndex(boolean createIfMissing) {
         if (isIndexUseable(FIX)) {
@@ -196,7 +242,7 @@ boolean isIndexUseable(ShpFileType indexType) {
 
     /** Returns true if the index file is available */
     boolean isSpatialIndexAvailable() {
-        return shpFiles.isLocal() && shpFiles.exists(QIX);
+        return shpFiles.isLocal() && (shpFiles.exists(PRX) || shpFiles.exists(QIX));
     }
 
     /**
@@ -312,6 +358,10 @@ protected CloseableIterator<Data> querySpatialIndex(Envelope bbox)
         // check if the spatial index needs recreating
         createSpatialIndex(false);
 
+        if (getSpatialIndexType() == PRX) {
+            return queryPackedIndex(bbox);
+        }
+
         if (cachedTree == null) {
             boolean canCache = false;
             URL treeURL = shpFiles.acquireRead(QIX, writer);
@@ -363,6 +413,36 @@ protected CloseableIterator<Data> querySpatialIndex(Envelope bbox)
         return tmp;
     }
 
+    /**
+     * Queries the packed R-tree, mapping the index file in memory. The results are collected during
+     * the search, so the mapping is not needed by the returned iterator
+     */
+    CloseableIterator<Data> queryPackedIndex(Envelope bbox) throws IOException, TreeException {
+        if (!shpFiles.exists(PRX)) {
+            return null;
+        }
+        try (ReadableByteChannel read = shpFiles.getReadChannel(PRX, writer)) {
+            if (!(read instanceof FileChannel)) {
+                return null;
+            }
+            FileChannel channel = (FileChannel) read;
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            try {
+                PackedRTree tree = new PackedRTree(buffer);
+                // no point using the index if the whole file is requested
+                if (bbox.contains(tree.getBounds())) {
+                    return null;
+                }
+                return tree.search(bbox);
+            } finally {
+                // cached maps are shared, and released by the cache itself
+                if (!shpFiles.isMemoryMapCacheEnabled()) {
+                    NIOUtilities.clean(buffer, true);
+                }
+            }
+        }
+    }
+
     /**
      * Convenience method for opening a QuadTree index.
      *
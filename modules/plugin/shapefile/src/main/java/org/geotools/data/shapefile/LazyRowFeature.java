@@ -0,0 +1,163 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import org.geotools.api.feature.Property;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.shapefile.dbf.DbaseFileReader.Row;
+import org.geotools.feature.simple.SimpleFeatureImpl;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.geotools.util.Converters;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A feature decoding its DBF attributes only when they are accessed, either by the caller or by the
+ * filter evaluated on it. The geometry is decoded upfront, the attributes are kept as raw record
+ * bytes until needed, so that a filter on a single column does not require the whole record to be
+ * parsed.
+ */
+class LazyRowFeature extends SimpleFeatureImpl {
+
+    /** Marks the attributes that have not been decoded yet */
+    private static final Object NOT_READ = new Object();
+
+    private Row row;
+
+    private final int[] dbfindexes;
+
+    /**
+     * Builds the feature on top of the reader current row. Call {@link #detach()} before the reader
+     * moves to the next record, if the feature is going to be returned.
+     */
+    LazyRowFeature(
+            SimpleFeatureType schema, String id, Geometry geometry, Row row, int[] dbfindexes) {
+        super(new Object[dbfindexes.length], schema, new FeatureIdImpl(id), false);
+        this.row = row;
+        this.dbfindexes = dbfindexes;
+        for (int i = 0; i < dbfindexes.length; i++) {
+            values[i] = dbfindexes[i] == -1 ? geometry : NOT_READ;
+        }
+    }
+
+    /**
+     * Copies the raw record bytes still needed to decode the attributes, making the feature
+     * independent of the reader
+     */
+    void detach() {
+        if (row == null) return;
+        for (Object value : values) {
+            if (value == NOT_READ) {
+                row = row.copy();
+                return;
+            }
+        }
+        row = null;
+    }
+
+    private Object decode(int index) {
+        Object value = values[index];
+        if (value == NOT_READ) {
+            AttributeDescriptor descriptor = featureType.getDescriptor(index);
+            try {
+                value = convert(row.read(dbfindexes[index]), descriptor);
+            } catch (IOException e) {
+                throw new RuntimeException(
+                        "Failed to read attribute " + descriptor.getLocalName(), e);
+            }
+            values[index] = value;
+        }
+        return value;
+    }
+
+    private void decodeAll() {
+        if (row != null) {
+            for (int i = 0; i < values.length; i++) {
+                decode(i);
+            }
+            row = null;
+        }
+    }
+
+    /** Same conversion as the {@link org.geotools.feature.simple.SimpleFeatureBuilder} */
+    private static Object convert(Object value, AttributeDescriptor descriptor) {
+        if (value == null) {
+            if (!descriptor.isNillable()) {
+                value = descriptor.getDefaultValue();
+                if (value == null) {
+                    value = DataUtilities.defaultValue(descriptor.getType().getBinding());
+                }
+            }
+        } else {
+            Object converted = Converters.convert(value, descriptor.getType().getBinding());
+            if (converted != null) {
+                value = converted;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object getAttribute(int index) throws IndexOutOfBoundsException {
+        return decode(index);
+    }
+
+    @Override
+    public List<Object> getAttributes() {
+        decodeAll();
+        return super.getAttributes();
+    }
+
+    @Override
+    public Collection<Property> getProperties() {
+        decodeAll();
+        return super.getProperties();
+    }
+
+    @Override
+    public Collection<Property> getProperties(String name) {
+        decodeAll();
+        return super.getProperties(name);
+    }
+
+    @Override
+    public Property getProperty(String name) {
+        decodeAll();
+        return super.getProperty(name);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        decodeAll();
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public void validate() {
+        decodeAll();
+        super.validate();
+    }
+}
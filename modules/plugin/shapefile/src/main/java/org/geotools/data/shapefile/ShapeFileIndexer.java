@@ -17,15 +17,21 @@
 package org.geotools.data.shapefile;
 
 import static org.geotools.data.shapefile.ShapefileIndexerBoundsHelper.createBoundsReader;
+import static org.geotools.data.shapefile.ShapefileIndexerBoundsHelper.fillNullBounds;
+import static org.geotools.data.shapefile.ShapefileIndexerBoundsHelper.readBounds;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotools.api.util.ProgressListener;
@@ -36,6 +42,7 @@
 import org.geotools.data.shapefile.files.StorageFile;
 import org.geotools.data.shapefile.index.LockTimeoutException;
 import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.data.shapefile.index.packed.PackedRTreeBuilder;
 import org.geotools.data.shapefile.index.quadtree.Node;
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.index.quadtree.StoreException;
@@ -64,6 +71,15 @@ class ShapeFileIndexer implements FileWriter {
 
     private String byteOrder;
     private ShpFiles shpFiles;
+    private ShpFileType indexType = ShpFileType.QIX;
+
+    /**
+     * The quadtree levels whose nodes are optimized in parallel, 4 levels allow up to 256
+     * concurrent subtrees
+     */
+    private static final int PARALLEL_OPTIMIZE_LEVELS = 4;
+
+    private int parallelism = 1;
 
     public static void main(String[] args) throws IOException {
         if ((args.length < 1) || (((args.length - 1) % 2) != 0)) {
@@ -76,9 +92,13 @@ public static void main(String[] args) throws IOException {
 
         for (int i = 0; i < args.length; i++) {
             if (args[i].equals("-t")) {
-                // idx.setIdxType(IndexType.valueOf(args[++i]));
-                // just skip it for backwards compatibility
-                i++;
+                // QIX and PRX, anything else is ignored for backwards compatibility
+                String type = args[++i];
+                if (type.equalsIgnoreCase("PRX")) {
+                    idx.setIndexType(ShpFileType.PRX);
+                }
+            } else if (args[i].equals("-p")) {
+                idx.setParallelism(Integer.parseInt(args[++i]));
             } else if (args[i].equals("-M")) {
                 idx.setMax(Integer.parseInt(args[++i]));
             } else if (args[i].equals("-s")) {
@@ -113,7 +133,8 @@ public static void main(String[] args) throws IOException {
     private static void usage() {
         System.out.println(
                 "Usage: ShapeFileIndexer "
-                        + "-t <QIX> "
+                        + "[-t <QIX | PRX>] "
+                        + "[-p <threads>] "
                         + "[-M <max tree depth>] "
                         + "[-b <byte order NL | NM>] "
                         + "<shape file>"
@@ -122,7 +143,8 @@ private static void usage() {
         System.out.println();
 
         System.out.println("Options:");
-        System.out.println("\t-t Index type: RTREE or QUADTREE");
+        System.out.println("\t-t Index type: QIX (quadtree, default) or PRX (packed R-tree)");
+        System.out.println("\t-p Number of threads used to build the index (default 1)");
         System.out.println();
         System.out.println("Following options apllies only to QUADTREE:");
         System.out.println("\t-b byte order to use: NL = LSB; " + "NM = MSB (default)");
@@ -147,16 +169,30 @@ public int index(boolean verbose, /*unused*/ ProgressListener listener)
         int cnt = 0;
 
         // Temporary file for building...
-        StorageFile storage = shpFiles.getStorageFile(ShpFileType.QIX);
+        StorageFile storage = shpFiles.getStorageFile(indexType);
         File treeFile = storage.getFile();
-        if (maxDepth == -1) {
-            maxDepth = computeMaxDepth();
-        }
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            if (indexType == ShpFileType.PRX) {
+                try (ShapefileReader reader =
+                        new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
+                    cnt = this.buildPackedRTree(reader, treeFile, verbose, pool);
+                }
+            } else {
+                if (maxDepth == -1) {
+                    maxDepth = computeMaxDepth();
+                }
 
-        try (ShapefileReader reader =
-                new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
+                try (ShapefileReader reader =
+                        new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
 
-            cnt = this.buildQuadTree(reader, treeFile, verbose);
+                    cnt = this.buildQuadTree(reader, treeFile, verbose, pool);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
 
         // Final index file
@@ -188,7 +224,7 @@ private int computeMaxDepth() throws IOException {
         }
     }
 
-    private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
+    private int buildQuadTree(ShapefileReader reader, File file, boolean verbose, ForkJoinPool pool)
             throws IOException, StoreException {
         LOGGER.fine(
                 "Building quadtree spatial index with depth "
@@ -207,17 +243,25 @@ private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
                         new QuadTree(
                                 shpIndex.getRecordCount(), maxDepth, getBounds(reader), shpIndex)) {
             Envelope env = new Envelope();
-            while (reader.hasNext()) {
-                Record rec = reader.nextRecord();
-                env.init(rec.minX, rec.maxX, rec.minY, rec.maxY);
-                int recno = cnt++;
-                tree.insert(recno, env);
-                boundsHelper.insert(recno, env);
-
-                if (verbose && ((cnt % 1_000) == 0)) {
-                    System.out.print('.');
+            int numRecs = pool != null ? readBounds(shpFiles, this, boundsHelper, pool) : -1;
+            if (numRecs >= 0) {
+                // bounds already read in parallel, the tree insertion is sequential
+                Envelope previous = new Envelope(0, 0, 0, 0);
+                for (int recno = 0; recno < numRecs; recno++) {
+                    boundsHelper.read(recno, env);
+                    fillNullBounds(boundsHelper, recno, env, previous);
+                    tree.insert(recno, env);
+                    printProgress(verbose, ++cnt);
+                }
+            } else {
+                while (reader.hasNext()) {
+                    Record rec = reader.nextRecord();
+                    env.init(rec.minX, rec.maxX, rec.minY, rec.maxY);
+                    int recno = cnt++;
+                    tree.insert(recno, env);
+                    boundsHelper.insert(recno, env);
+                    printProgress(verbose, cnt);
                 }
-                if (cnt % 100_000 == 0) System.out.print('\n');
             }
             if (verbose) System.out.println("done building quadtree");
 
@@ -225,7 +269,15 @@ private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
                 LOGGER.fine("Optimizing the tree (this might take some time)");
             }
             if (verbose) System.out.println("Optimizing the tree (this might take some time)");
-            optimizeTree(tree, tree.getRoot(), 0, boundsHelper);
+            if (pool != null && boundsHelper.isConcurrent()) {
+                try {
+                    pool.invoke(new OptimizeTreeTask(tree, tree.getRoot(), 0, boundsHelper));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            } else {
+                optimizeTree(tree, tree.getRoot(), 0, boundsHelper, false);
+            }
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("Tree optimized");
             }
@@ -241,6 +293,75 @@ private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
         return cnt;
     }
 
+    private int buildPackedRTree(
+            ShapefileReader reader, File file, boolean verbose, ForkJoinPool pool)
+            throws IOException {
+        LOGGER.fine("Building packed R-tree spatial index for file " + file.getAbsolutePath());
+
+        int cnt = 0;
+        try (IndexFile shpIndex = new IndexFile(shpFiles, false);
+                BoundsReader boundsHelper =
+                        pool != null ? createBoundsReader(reader, shpIndex) : null) {
+            PackedRTreeBuilder builder = new PackedRTreeBuilder(Math.max(leafSize, 2));
+            int numRecs = pool != null ? readBounds(shpFiles, this, boundsHelper, pool) : -1;
+            if (numRecs >= 0) {
+                Envelope env = new Envelope();
+                Envelope previous = new Envelope(0, 0, 0, 0);
+                for (int recno = 0; recno < numRecs; recno++) {
+                    boundsHelper.read(recno, env);
+                    fillNullBounds(boundsHelper, recno, env, previous);
+                    builder.add(recno, shpIndex.getOffset(recno), env);
+                    printProgress(verbose, ++cnt);
+                }
+            } else {
+                while (reader.hasNext()) {
+                    Record rec = reader.nextRecord();
+                    int recno = cnt++;
+                    builder.add(
+                            recno,
+                            shpIndex.getOffset(recno),
+                            rec.minX,
+                            rec.minY,
+                            rec.maxX,
+                            rec.maxY);
+                    printProgress(verbose, cnt);
+                }
+            }
+            if (verbose) System.out.println("Storing the tree...");
+            if (pool != null) {
+                // run the write in the pool, so that the parallel sort uses its threads
+                builder.setParallel(true);
+                try {
+                    pool.submit(
+                                    () -> {
+                                        builder.write(file);
+                                        return null;
+                                    })
+                            .get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                }
+            } else {
+                builder.write(file);
+            }
+            if (verbose) System.out.println("done");
+        }
+        return cnt;
+    }
+
+    private void printProgress(boolean verbose, int cnt) {
+        if (verbose && ((cnt % 1_000) == 0)) {
+            System.out.print('.');
+        }
+        if (cnt % 100_000 == 0) System.out.print('\n');
+    }
+
     private Envelope getBounds(ShapefileReader reader) {
         ShapefileHeader header = reader.getHeader();
         Envelope bounds = new Envelope(header.minX(), header.maxX(), header.minY(), header.maxY());
@@ -257,7 +378,8 @@ private byte resolveStorageByteOrder() throws StoreException {
         throw new StoreException("Asked byte order '" + this.byteOrder + "' must be 'NL' or 'NM'!");
     }
 
-    private Node optimizeTree(QuadTree tree, Node node, int level, BoundsReader reader)
+    private Node optimizeTree(
+            QuadTree tree, Node node, int level, BoundsReader reader, boolean parallel)
             throws StoreException, IOException {
         // recurse, with a check to avoid too deep recursion due to odd data that has a
         final boolean isLeafNode = node.getNumSubNodes() == 0;
@@ -289,9 +411,17 @@ private Node optimizeTree(QuadTree tree, Node node, int level, BoundsReader read
         // pack the arrays to use less memory (the optimization often makes the tree grow)
         node.pack();
 
-        // recurse
-        for (int i = 0; i < node.getNumSubNodes(); i++) {
-            optimizeTree(tree, node.getSubNode(i), level + 1, reader);
+        // recurse, the subtrees are independent, the top ones can be optimized in parallel
+        if (parallel && level < PARALLEL_OPTIMIZE_LEVELS && node.getNumSubNodes() > 1) {
+            List<OptimizeTreeTask> tasks = new ArrayList<>();
+            for (int i = 0; i < node.getNumSubNodes(); i++) {
+                tasks.add(new OptimizeTreeTask(tree, node.getSubNode(i), level + 1, reader));
+            }
+            RecursiveAction.invokeAll(tasks);
+        } else {
+            for (int i = 0; i < node.getNumSubNodes(); i++) {
+                optimizeTree(tree, node.getSubNode(i), level + 1, reader, parallel);
+            }
         }
 
         // prune empty subnodes
@@ -357,6 +487,33 @@ private Node optimizeTree(QuadTree tree, Node node, int level, BoundsReader read
         return node;
     }
 
+    /** Optimizes a quadtree subtree, forking the optimization of the top level subtrees */
+    private class OptimizeTreeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final QuadTree tree;
+        private final Node node;
+        private final int level;
+        private final BoundsReader reader;
+
+        OptimizeTreeTask(QuadTree tree, Node node, int level, BoundsReader reader) {
+            this.tree = tree;
+            this.node = node;
+            this.level = level;
+            this.reader = reader;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                optimizeTree(tree, node, level, reader, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     private void printStats(QuadTree tree) throws StoreException {
         Map<Integer, Integer> stats = new HashMap<>();
         gatherStats(tree.getRoot(), stats);
@@ -392,6 +549,34 @@ public void setShapeFileName(ShpFiles shpFiles) {
         this.shpFiles = shpFiles;
     }
 
+    /**
+     * Sets the type of index to build, either {@link ShpFileType#QIX} (the default) or {@link
+     * ShpFileType#PRX}
+     */
+    public void setIndexType(ShpFileType indexType) {
+        if (indexType != ShpFileType.QIX && indexType != ShpFileType.PRX) {
+            throw new IllegalArgumentException("Not a spatial index type: " + indexType);
+        }
+        this.indexType = indexType;
+    }
+
+    /**
+     * Sets the number of threads used to build the index, the default, 1, builds it sequentially.
+     * With more threads the record bounds are read in parallel straight from the memory mapped
+     * files, then the quadtree top level subtrees are optimized, or the packed R-tree items sorted,
+     * in parallel. The index is still written in a single sequential pass.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be a positive integer");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
     /** @param byteOrder The byteOrder to set. */
     public void setByteOrder(String byteOrder) {
         this.byteOrder = byteOrder;
@@ -109,6 +109,10 @@ public class ShapefileDataStore extends ContentDataStore implements FileDataStor
 
     boolean fidIndexed = true;
 
+    boolean lazyAttributes = false;
+
+    boolean packedSpatialIndex = false;
+
     IndexManager indexManager;
 
     ShapefileSetManager shpManager;
@@ -205,6 +209,32 @@ public void setIndexed(boolean indexed) {
         this.indexed = indexed;
     }
 
+    public boolean isLazyAttributes() {
+        return lazyAttributes;
+    }
+
+    /**
+     * When set to true, the DBF attributes of the returned features will be decoded only when
+     * accessed, by the filter or by the caller, keeping the raw record bytes in the meantime.
+     * Useful when the filter or the caller use few of the many columns read.
+     */
+    public void setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+    }
+
+    public boolean isPackedSpatialIndex() {
+        return packedSpatialIndex;
+    }
+
+    /**
+     * When set to true, the spatial index will be created as a packed Hilbert R-tree (.prx file)
+     * instead of a quadtree (.qix file). An existing and up to date .prx file is used regardless of
+     * this setting, falling back on the .qix file otherwise.
+     */
+    public void setPackedSpatialIndex(boolean packedSpatialIndex) {
+        this.packedSpatialIndex = packedSpatialIndex;
+    }
+
     /** The current max shapefile size */
     long getMaxShpSize() {
         return maxShpSize;
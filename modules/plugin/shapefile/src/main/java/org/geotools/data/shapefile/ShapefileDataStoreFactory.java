@@ -91,6 +91,16 @@ public class ShapefileDataStoreFactory implements FileDataStoreFactorySpi {
                     true,
                     new KVP(Param.LEVEL, "advanced"));
 
+    /** Optional - enable/disable the lazy decoding of the DBF attributes */
+    public static final Param LAZY_ATTRIBUTES =
+            new Param(
+                    "lazy attributes",
+                    Boolean.class,
+                    "decode the DBF attributes only when accessed by filters or callers",
+                    false,
+                    false,
+                    new KVP(Param.LEVEL, "advanced"));
+
     /** Optional - discriminator for directory stores */
     public static final Param FILE_TYPE =
             new Param(
@@ -101,6 +111,17 @@ public class ShapefileDataStoreFactory implements FileDataStoreFactorySpi {
                     "shapefile",
                     new KVP(Param.LEVEL, "program"));
 
+    /** Optional - create a packed R-tree spatial index instead of a quadtree one */
+    public static final Param PACKED_SPATIAL_INDEX =
+            new Param(
+                    "packed spatial index",
+                    Boolean.class,
+                    "create the spatial index as a packed Hilbert R-tree (.prx) instead of a"
+                            + " quadtree (.qix)",
+                    false,
+                    false,
+                    new KVP(Param.LEVEL, "advanced"));
+
     /** Optional - Enable/disable the automatic creation of spatial index */
     public static final Param CREATE_SPATIAL_INDEX =
             new Param(
@@ -215,10 +236,12 @@ public Param[] getParametersInfo() {
             NAMESPACEP,
             ENABLE_SPATIAL_INDEX,
             CREATE_SPATIAL_INDEX,
+            PACKED_SPATIAL_INDEX,
             DBFCHARSET,
             DBFTIMEZONE,
             MEMORY_MAPPED,
             CACHE_MEMORY_MAPS,
+            LAZY_ATTRIBUTES,
             FILE_TYPE,
             FSTYPE,
             SKIP_SCAN
@@ -240,10 +263,12 @@ public DataStore createDataStore(Map<String, ?> params) throws IOException {
         URL url = lookup(URLP, params, URL.class);
         Boolean isMemoryMapped = lookup(MEMORY_MAPPED, params, Boolean.class);
         Boolean cacheMemoryMaps = lookup(CACHE_MEMORY_MAPS, params, Boolean.class);
+        Boolean lazyAttributes = lookup(LAZY_ATTRIBUTES, params, Boolean.class);
         URI namespace = lookup(NAMESPACEP, params, URI.class);
         Charset dbfCharset = lookup(DBFCHARSET, params, Charset.class);
         TimeZone dbfTimeZone = lookup(DBFTIMEZONE, params, TimeZone.class);
         Boolean isCreateSpatialIndex = lookup(CREATE_SPATIAL_INDEX, params, Boolean.class);
+        Boolean packedSpatialIndex = lookup(PACKED_SPATIAL_INDEX, params, Boolean.class);
         Boolean skipScan = lookup(SKIP_SCAN, params, Boolean.class);
         Boolean isEnableSpatialIndex = (Boolean) ENABLE_SPATIAL_INDEX.lookUp(params);
         if (isEnableSpatialIndex == null) {
@@ -271,6 +296,7 @@ public DataStore createDataStore(Map<String, ?> params) throws IOException {
             }
             store.setMemoryMapped(useMemoryMappedBuffer);
             store.setBufferCachingEnabled(cacheMemoryMaps);
+            store.setLazyAttributes(lazyAttributes);
             store.setCharset(dbfCharset);
             // CPG sidecar file enabled by default
             boolean enableCPG = Boolean.valueOf(System.getProperty(ENABLE_CPG_SWITCH, "true"));
@@ -280,6 +306,7 @@ public DataStore createDataStore(Map<String, ?> params) throws IOException {
             store.setTimeZone(dbfTimeZone);
             store.setIndexed(enableIndex);
             store.setIndexCreationEnabled(createIndex);
+            store.setPackedSpatialIndex(packedSpatialIndex);
             return store;
         }
     }
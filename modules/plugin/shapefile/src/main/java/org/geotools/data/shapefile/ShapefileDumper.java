@@ -22,12 +22,21 @@
 import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -46,6 +55,7 @@
 import org.geotools.data.store.FilteringFeatureCollection;
 import org.geotools.data.store.ReTypingFeatureCollection;
 import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.util.URLs;
 import org.geotools.util.logging.Logging;
@@ -120,8 +130,91 @@ public void nextWriter() throws IOException {
         }
     }
 
+    /**
+     * Reads the source features in batches, and prepares them for writing on worker threads,
+     * returning them in the original order. Only a bounded number of batches is in flight, to limit
+     * the memory used when the writer is slower than the source.
+     */
+    private static class PreparingIterator implements SimpleFeatureIterator {
+
+        private final SimpleFeatureIterator delegate;
+
+        private final Function<List<SimpleFeature>, List<SimpleFeature>> preparer;
+
+        private final ExecutorService executor;
+
+        private final int maxBatches;
+
+        private final Deque<Future<List<SimpleFeature>>> pending = new ArrayDeque<>();
+
+        private Iterator<SimpleFeature> current = Collections.emptyIterator();
+
+        PreparingIterator(
+                SimpleFeatureIterator delegate,
+                Function<List<SimpleFeature>, List<SimpleFeature>> preparer,
+                ExecutorService executor,
+                int maxBatches) {
+            this.delegate = delegate;
+            this.preparer = preparer;
+            this.executor = executor;
+            this.maxBatches = maxBatches;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitBatches();
+                if (pending.isEmpty()) {
+                    return false;
+                }
+                try {
+                    current = pending.poll().get().iterator();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+            return true;
+        }
+
+        private void submitBatches() {
+            while (pending.size() < maxBatches && delegate.hasNext()) {
+                List<SimpleFeature> batch = new ArrayList<>(PARALLEL_BATCH_SIZE);
+                while (batch.size() < PARALLEL_BATCH_SIZE && delegate.hasNext()) {
+                    batch.add(delegate.next());
+                }
+                pending.add(executor.submit(() -> preparer.apply(batch)));
+            }
+        }
+
+        @Override
+        public SimpleFeature next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            for (Future<List<SimpleFeature>> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            delegate.close();
+        }
+    }
+
     static final Logger LOGGER = Logging.getLogger(ShapefileDumper.class);
 
+    /** Number of features prepared at once by a worker thread, when dumping in parallel */
+    static final int PARALLEL_BATCH_SIZE = 512;
+
     File targetDirectory;
 
     long maxShpSize = ShapefileFeatureWriter.DEFAULT_MAX_SHAPE_SIZE;
@@ -132,6 +225,8 @@ public void nextWriter() throws IOException {
 
     Charset charset = (Charset) ShapefileDataStoreFactory.DBFCHARSET.getDefaultValue();
 
+    int parallelism = 1;
+
     public ShapefileDumper(File targetDirectory) {
         this.targetDirectory = targetDirectory;
     }
@@ -184,6 +279,25 @@ public void setEmptyShapefileAllowed(boolean emptyShapefileAllowed) {
         this.emptyShapefileAllowed = emptyShapefileAllowed;
     }
 
+    /** Returns the number of threads used to prepare the features for writing (1 by default) */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used to prepare the features for writing. When greater than one,
+     * the features are read in batches, remapped to the shapefile compatible schema, their
+     * attributes decoded and envelopes computed on worker threads, while the calling thread streams
+     * them into the shapefiles, in the original order. The source features must not be reused by
+     * the source iterator, as they are held until written.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be a positive integer");
+        }
+        this.parallelism = parallelism;
+    }
+
     /**
      * Dumps the collection into one or more shapefiles. Multiple files will be geneated when the
      * input collection contains multiple geometry types, or as the size limit for output files get
@@ -294,6 +408,7 @@ private boolean dumpSingleGeometry(
             String fileName, SimpleFeatureCollection fc, String geometryName) throws IOException {
         // Takes a feature collection with a generic schema and remaps it to one whose schema
         // respects the limitations of the shapefile format
+        SimpleFeatureCollection source = fc;
         fc = RemappingFeatureCollection.getShapefileCompatibleCollection(fc);
         SimpleFeatureType schema = fc.getSchema();
 
@@ -306,7 +421,13 @@ private boolean dumpSingleGeometry(
         // we write all the features with no geometry type defined and NULL geometries to the same
         // file
         StoreWriter nullStoreWriter = null;
-        try (SimpleFeatureIterator it = fc.features()) {
+        ExecutorService executor =
+                parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try (SimpleFeatureIterator it =
+                executor != null
+                        ? new PreparingIterator(
+                                source.features(), getPreparer(fc), executor, parallelism * 2)
+                        : fc.features()) {
             while (it.hasNext()) {
                 SimpleFeature f = it.next();
                 // if the geometry type is not defined and the geometry value is NULL we write it
@@ -369,6 +490,9 @@ private boolean dumpSingleGeometry(
                     ioe);
             throw new IOException(ioe);
         } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
             // close all writers, dispose all datastores, even if an exception occurs
             // during closeup (shapefile datastore will have to copy the shapefiles, that migh
             // fail in many ways)
@@ -397,6 +521,39 @@ private boolean dumpSingleGeometry(
         return featuresWritten;
     }
 
+    /**
+     * Returns the function preparing a batch of source features for writing, performing on the
+     * worker threads the same remapping the collection would do, and forcing the attribute decoding
+     * and envelope computation the writer would otherwise do on the calling thread
+     */
+    private Function<List<SimpleFeature>, List<SimpleFeature>> getPreparer(
+            SimpleFeatureCollection fc) {
+        final SimpleFeatureType schema = fc.getSchema();
+        final Map<String, String> mappings =
+                fc instanceof RemappingFeatureCollection
+                        ? RemappingFeatureCollection.invertMappings(
+                                ((RemappingFeatureCollection) fc).attributesMapping)
+                        : null;
+        return batch -> {
+            SimpleFeatureBuilder builder =
+                    mappings != null ? new SimpleFeatureBuilder(schema) : null;
+            List<SimpleFeature> prepared = new ArrayList<>(batch.size());
+            for (SimpleFeature f : batch) {
+                if (builder != null) {
+                    f = RemappingFeatureCollection.remap(f, mappings, builder);
+                } else {
+                    f.getAttributes();
+                }
+                Object geometry = f.getDefaultGeometry();
+                if (geometry instanceof Geometry) {
+                    ((Geometry) geometry).getEnvelopeInternal();
+                }
+                prepared.add(f);
+            }
+            return prepared;
+        };
+    }
+
     private void writeToShapefile(
             SimpleFeature f, FeatureWriter<SimpleFeatureType, SimpleFeature> writer)
             throws IOException {
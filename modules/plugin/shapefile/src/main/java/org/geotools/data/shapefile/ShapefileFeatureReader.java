@@ -85,6 +85,8 @@ public String toString() {
 
     Filter filter;
 
+    boolean lazyAttributes;
+
     public ShapefileFeatureReader(
             SimpleFeatureType schema,
             ShapefileReader shp,
@@ -248,6 +250,9 @@ protected Geometry getGeometry(Record record) {
 
     SimpleFeature buildFeature(int number, Geometry geometry, Row row, Envelope envelope)
             throws IOException {
+        if (lazyAttributes && row != null) {
+            return buildLazyFeature(number, geometry, row, envelope);
+        }
         if (dbfindexes != null) {
             for (int dbfindex : dbfindexes) {
                 if (dbfindex == -1) {
@@ -269,6 +274,30 @@ SimpleFeature buildFeature(int number, Geometry geometry, Row row, Envelope enve
             }
         }
 
+        updateScreenMap(envelope);
+
+        return feature;
+    }
+
+    /**
+     * Builds a feature decoding the attributes on demand, the filter will decode only the ones it
+     * uses, and the raw record is copied only if the feature is returned
+     */
+    private SimpleFeature buildLazyFeature(
+            int number, Geometry geometry, Row row, Envelope envelope) throws IOException {
+        LazyRowFeature feature =
+                new LazyRowFeature(schema, buildFeatureId(number), geometry, row, dbfindexes);
+        if (filter != null && !filter.evaluate(feature)) {
+            return null;
+        }
+        feature.detach();
+
+        updateScreenMap(envelope);
+
+        return feature;
+    }
+
+    private void updateScreenMap(Envelope envelope) {
         // update screenmap if present, now that we have the certainty
         // that the record is to be returned and will be displayed
         if (screenMap != null) {
@@ -282,8 +311,6 @@ SimpleFeature buildFeature(int number, Geometry geometry, Row row, Envelope enve
                 }
             }
         }
-
-        return feature;
     }
 
     protected String buildFeatureId(int number) throws IOException {
@@ -350,6 +377,14 @@ public void setScreenMap(ScreenMap screenMap) {
         this.screenMap = screenMap;
     }
 
+    /**
+     * When enabled the DBF attributes are decoded only when accessed, either by the filter or by
+     * the caller, instead of being all parsed upfront
+     */
+    public void setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+    }
+
     void disableShxUsage() throws IOException {
         this.shp.disableShxUsage();
     }
@@ -382,6 +382,7 @@ protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Quer
         if (filter != null && !Filter.INCLUDE.equals(filter)) {
             reader.setFilter(filter);
         }
+        reader.setLazyAttributes(getDataStore().isLazyAttributes());
 
         // setup the target bbox if any, and the generalization hints if available
         if (q != null) {
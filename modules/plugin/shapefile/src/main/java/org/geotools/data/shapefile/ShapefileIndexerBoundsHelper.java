@@ -23,15 +23,24 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.geotools.data.shapefile.files.FileReader;
+import org.geotools.data.shapefile.files.ShpFileType;
+import org.geotools.data.shapefile.files.ShpFiles;
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.shp.IndexFile;
 import org.geotools.data.shapefile.shp.ShapeType;
@@ -83,6 +92,9 @@ class ShapefileIndexerBoundsHelper {
      */
     private static final int FALLBACK_TO_FILE_REC_COUNT_THRESHOLD = (1024 * 1024) / 32;
 
+    /** Number of records below which the parallel bounds read won't split the work further */
+    private static final int PARALLEL_READ_CHUNK = 16 * 1024;
+
     /**
      * Returns a bounds reader strategy following the logic explained at the class' javadocs.
      *
@@ -113,6 +125,135 @@ static BoundsReader createBoundsReader(final ShapefileReader reader, final Index
         }
     }
 
+    /**
+     * Reads the bounds of all the records straight from the memory mapped {@code .shp} and {@code
+     * .shx} files, splitting them in chunks that are read in parallel by the given pool, and stores
+     * them in the target. The target must be {@link BoundsReader#isConcurrent() concurrent}.
+     *
+     * <p>Null shapes are stored with {@link Double#NaN} ordinates, as their bounds depend on the
+     * previous record, see {@link #fillNullBounds}.
+     *
+     * @return the number of records read, or -1 if the files cannot be memory mapped (e.g., remote
+     *     or compressed files), in which case the caller should read them sequentially
+     */
+    static int readBounds(
+            ShpFiles shpFiles, FileReader requestor, BoundsReader target, ForkJoinPool pool)
+            throws IOException {
+        if (!target.isConcurrent()) {
+            return -1;
+        }
+        ByteBuffer shp = null;
+        ByteBuffer shx = null;
+        try (ReadableByteChannel shpChannel = shpFiles.getReadChannel(ShpFileType.SHP, requestor);
+                ReadableByteChannel shxChannel =
+                        shpFiles.getReadChannel(ShpFileType.SHX, requestor)) {
+            if (!(shpChannel instanceof FileChannel)
+                    || !(shxChannel instanceof FileChannel)
+                    || ((FileChannel) shpChannel).size() > Integer.MAX_VALUE) {
+                return -1;
+            }
+            shp = map((FileChannel) shpChannel);
+            shx = map((FileChannel) shxChannel);
+            final int numRecs = (shx.limit() - 100) / 8;
+            final ShapeType fileShapeType = ShapeType.forID(shp.getInt(32));
+            pool.invoke(new ReadBoundsTask(shp, shx, fileShapeType, target, 0, numRecs));
+            return numRecs;
+        } finally {
+            // cached maps are shared, and released by the cache itself
+            if (!shpFiles.isMemoryMapCacheEnabled()) {
+                if (shp != null) NIOUtilities.clean(shp, true);
+                if (shx != null) NIOUtilities.clean(shx, true);
+            }
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Reads the record bounds for a range of records, splitting it in halves until small enough */
+    private static class ReadBoundsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer shp;
+        private final ByteBuffer shx;
+        private final ShapeType fileShapeType;
+        private final BoundsReader target;
+        private final int from;
+        private final int to;
+
+        ReadBoundsTask(
+                ByteBuffer shp,
+                ByteBuffer shx,
+                ShapeType fileShapeType,
+                BoundsReader target,
+                int from,
+                int to) {
+            this.shp = shp;
+            this.shx = shx;
+            this.fileShapeType = fileShapeType;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_READ_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new ReadBoundsTask(shp, shx, fileShapeType, target, from, mid),
+                        new ReadBoundsTask(shp, shx, fileShapeType, target, mid, to));
+                return;
+            }
+            // absolute gets only, the buffers are shared among the tasks
+            Envelope env = new Envelope();
+            for (int recno = from; recno < to; recno++) {
+                // the shx is big endian, the record contents little endian
+                int offset = Integer.reverseBytes(shx.getInt(100 + recno * 8)) * 2;
+                ShapeType recordType = ShapeType.forID(shp.getInt(offset + 8));
+                if (recordType != ShapeType.NULL && recordType != fileShapeType) {
+                    throw new IllegalStateException(
+                            "ShapeType changed illegally from "
+                                    + fileShapeType
+                                    + " to "
+                                    + recordType);
+                }
+                if (recordType.isMultiPoint()) {
+                    env.init(
+                            shp.getDouble(offset + 12),
+                            shp.getDouble(offset + 28),
+                            shp.getDouble(offset + 20),
+                            shp.getDouble(offset + 36));
+                } else if (recordType != ShapeType.NULL) {
+                    double x = shp.getDouble(offset + 12);
+                    double y = shp.getDouble(offset + 20);
+                    env.init(x, x, y, y);
+                } else {
+                    env.init(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+                }
+                target.insert(recno, env);
+            }
+        }
+    }
+
+    /**
+     * Replaces the bounds of a null shape, as stored by {@link #readBounds}, with the bounds of the
+     * previous record, matching what a sequential read through {@link ShapefileReader} would
+     * return.
+     *
+     * @param env the bounds of the record, updated in place if the record is a null shape
+     * @param previous the bounds of the previous record, zero for the first one
+     */
+    static void fillNullBounds(BoundsReader target, int recno, Envelope env, Envelope previous) {
+        if (Double.isNaN(env.getMinX())) {
+            env.init(previous);
+            target.insert(recno, env);
+        }
+        previous.init(env);
+    }
+
     /**
      * Strategy to save the {@code .shp} records bounds while building the {@link QuadTree} and
      * quickly access them when optimizing its layout.
@@ -144,6 +285,14 @@ static interface BoundsReader extends Closeable {
          */
         void expandEnvelope(int recNumber, Envelope env) throws IOException;
 
+        /**
+         * Returns true if {@link #insert}, {@link #read} and {@link #expandEnvelope} can be called
+         * concurrently from multiple threads, as long as each record is inserted by a single one
+         */
+        default boolean isConcurrent() {
+            return false;
+        }
+
         /**
          * Releases the underlying bounds storage and any other resource being used to such effect.
          */
@@ -230,26 +379,32 @@ public void insert(int recno, Envelope env) {
 
         @Override
         public void read(int recNumber, Envelope env) throws IOException {
-            buff.position(offsetOf(recNumber));
-            double minx = buff.get();
-            double miny = buff.get();
+            // absolute gets, so that concurrent reads do not interfere
+            final int offset = offsetOf(recNumber);
+            double minx = buff.get(offset);
+            double miny = buff.get(offset + 1);
             if (pointBounds) {
                 env.init(minx, minx, miny, miny);
             } else {
-                double maxx = buff.get();
-                double maxy = buff.get();
+                double maxx = buff.get(offset + 2);
+                double maxy = buff.get(offset + 3);
                 env.init(minx, maxx, miny, maxy);
             }
         }
 
         @Override
         public void expandEnvelope(int recNumber, Envelope env) throws IOException {
-            buff.position(offsetOf(recNumber));
-            env.expandToInclude(buff.get(), buff.get());
+            final int offset = offsetOf(recNumber);
+            env.expandToInclude(buff.get(offset), buff.get(offset + 1));
             if (!pointBounds) {
-                env.expandToInclude(buff.get(), buff.get());
+                env.expandToInclude(buff.get(offset + 2), buff.get(offset + 3));
             }
         }
+
+        @Override
+        public boolean isConcurrent() {
+            return true;
+        }
     }
 
     /** Uses a heap memory backed {@link DoubleBuffer} */
@@ -318,6 +473,11 @@ public void expandEnvelope(int recNumber, Envelope env) throws IOException {
             reader.expandEnvelope(recNumber, env);
         }
 
+        @Override
+        public boolean isConcurrent() {
+            return reader.isConcurrent();
+        }
+
         private void checkAvailableSpace(final Path path, final int fileSize) throws IOException {
             final FileStore fileStore = Files.getFileStore(path);
             final long usableSpace = fileStore.getUsableSpace();
@@ -19,10 +19,7 @@
  */
 package org.geotools.data.shapefile.dbf;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.Closeable;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
@@ -74,9 +71,26 @@ public final class Row {
 
         boolean deleted;
 
+        final byte[] bytes;
+
+        Row(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
         public Object read(final int column) throws IOException {
             final int offset = fieldOffsets[column];
-            return readObject(offset, column);
+            return readObject(bytes, offset, column);
+        }
+
+        /**
+         * Returns a copy of this row holding its own copy of the record bytes, which can still be
+         * read after the reader moved to another record, or has been closed. Allows to defer the
+         * decoding of the fields until they are actually needed.
+         */
+        public Row copy() {
+            Row copy = new Row(bytes.clone());
+            copy.deleted = deleted;
+            return copy;
         }
 
         @Override
@@ -113,6 +127,8 @@ public boolean isDeleted() {
 
     int[] fieldOffsets;
 
+    Class<?>[] fieldClasses;
+
     int cnt = 1;
 
     Row row;
@@ -128,6 +144,9 @@ public boolean isDeleted() {
 
     private boolean oneBytePerChar;
 
+    /** True if bytes below 0x20 always map to a single char, and can be trimmed before decoding */
+    private boolean asciiCompatible;
+
     private Calendar calendar;
 
     private final long MILLISECS_PER_DAY = 24 * 60 * 60 * 1000;
@@ -243,9 +262,11 @@ private void doInit(boolean useMemoryMappedBuffer, Charset charset, TimeZone tim
         fieldTypes = new char[header.getNumFields()];
         fieldLengths = new int[header.getNumFields()];
         fieldOffsets = new int[header.getNumFields()];
+        fieldClasses = new Class<?>[header.getNumFields()];
         for (int i = 0, ii = header.getNumFields(); i < ii; i++) {
             fieldTypes[i] = header.getFieldType(i);
             fieldLengths[i] = header.getFieldLength(i);
+            fieldClasses[i] = header.getFieldClass(i);
             if (i > 0) fieldOffsets[i] = fieldOffsets[i - 1] + header.getFieldLength(i - 1);
         }
         bytes = new byte[header.getRecordLength() - 1];
@@ -253,8 +274,9 @@ private void doInit(boolean useMemoryMappedBuffer, Charset charset, TimeZone tim
         // check if we working with a latin-1 char Charset
         final String cname = stringCharset.name();
         oneBytePerChar = "ISO-8859-1".equals(cname) || "US-ASCII".equals(cname);
+        asciiCompatible = oneBytePerChar || "UTF-8".equals(cname);
 
-        row = new Row();
+        row = new Row(bytes);
     }
 
     protected int fill(final ByteBuffer buffer, final ReadableByteChannel channel)
@@ -408,7 +430,7 @@ public Object[] readEntry(final Object[] entry, final int offset) throws IOExcep
         final int numFields = header.getNumFields();
 
         for (int j = 0; j < numFields; j++) {
-            entry[j + offset] = readObject(fieldOffsets[j], j);
+            entry[j + offset] = readObject(bytes, fieldOffsets[j], j);
         }
 
         return entry;
@@ -424,7 +446,7 @@ public Object[] readEntry(final Object[] entry, final int offset) throws IOExcep
      * @return The value of the field
      */
     public Object readField(final int fieldNum) throws IOException {
-        return readObject(fieldOffsets[fieldNum], fieldNum);
+        return readObject(bytes, fieldOffsets[fieldNum], fieldNum);
     }
 
     /** Transfer, by bytes, the next record to the writer. */
@@ -472,7 +494,8 @@ public Object[] readEntry(final Object[] entry) throws IOException {
         return readEntry(entry, 0);
     }
 
-    private Object readObject(final int fieldOffset, final int fieldNum) throws IOException {
+    private Object readObject(final byte[] bytes, final int fieldOffset, final int fieldNum)
+            throws IOException {
         final char type = fieldTypes[fieldNum];
         final int fieldLen = fieldLengths[fieldNum];
         Object object = null;
@@ -507,12 +530,23 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     // if the string begins with a null terminator, the value is null
                     if (bytes[fieldOffset] != '\0') {
                         // remember we need to skip trailing and leading spaces
-                        if (oneBytePerChar) {
-                            object = fastParse(bytes, fieldOffset, fieldLen).trim();
-                        } else {
+                        if (asciiCompatible) {
+                            // trim the bytes, and decode only what's left
+                            int start = fieldOffset;
+                            int end = fieldOffset + fieldLen;
+                            while (start < end && (bytes[start] & 0xFF) <= ' ') start++;
+                            while (end > start && (bytes[end - 1] & 0xFF) <= ' ') end--;
+                            // the latin1 decoding is a plain copy into the string
                             object =
-                                    new String(bytes, fieldOffset, fieldLen, stringCharset.name())
-                                            .trim();
+                                    new String(
+                                            bytes,
+                                            start,
+                                            end - start,
+                                            oneBytePerChar
+                                                    ? StandardCharsets.ISO_8859_1
+                                                    : stringCharset);
+                        } else {
+                            object = new String(bytes, fieldOffset, fieldLen, stringCharset).trim();
                         }
                     }
                     break;
@@ -523,17 +557,17 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     for (int i = 0; i < 8; i++) {
                         if (bytes[fieldOffset + i] != '0') {
                             try {
-                                String tempString = fastParse(bytes, fieldOffset, 4);
-                                final int tempYear = Integer.parseInt(tempString);
-                                tempString = fastParse(bytes, fieldOffset + 4, 2);
-                                final int tempMonth = Integer.parseInt(tempString) - 1;
-                                tempString = fastParse(bytes, fieldOffset + 6, 2);
-                                final int tempDay = Integer.parseInt(tempString);
-                                calendar.clear();
-                                calendar.set(Calendar.YEAR, tempYear);
-                                calendar.set(Calendar.MONTH, tempMonth);
-                                calendar.set(Calendar.DAY_OF_MONTH, tempDay);
-                                object = calendar.getTime();
+                                final int tempYear = parseInt(bytes, fieldOffset, 4);
+                                final int tempMonth = parseInt(bytes, fieldOffset + 4, 2) - 1;
+                                final int tempDay = parseInt(bytes, fieldOffset + 6, 2);
+                                // copied rows can be decoded after the reader moved on
+                                synchronized (calendar) {
+                                    calendar.clear();
+                                    calendar.set(Calendar.YEAR, tempYear);
+                                    calendar.set(Calendar.MONTH, tempMonth);
+                                    calendar.set(Calendar.DAY_OF_MONTH, tempDay);
+                                    object = calendar.getTime();
+                                }
                             } catch (final NumberFormatException nfe) {
                                 // todo: use progresslistener, this isn't a grave error.
                             }
@@ -543,45 +577,39 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     break;
                     // (@) Timestamp (Date)
                 case '@':
-                    try {
-                        // TODO: Find a smarter way to do this.
-                        // timestampBytes = bytes[fieldOffset:fieldOffset+7]
-                        byte[] timestampBytes = {
-                            // Time in millis, after reverse.
-                            bytes[fieldOffset + 7], bytes[fieldOffset + 6], bytes[fieldOffset + 5],
-                                    bytes[fieldOffset + 4],
-                            // Days, after reverse.
-                            bytes[fieldOffset + 3], bytes[fieldOffset + 2], bytes[fieldOffset + 1],
-                                    bytes[fieldOffset]
-                        };
-
-                        ByteArrayInputStream i_bytes = new ByteArrayInputStream(timestampBytes);
-                        DataInputStream i_stream =
-                                new DataInputStream(new BufferedInputStream(i_bytes));
-
-                        int time = i_stream.readInt();
-                        int days = i_stream.readInt();
-
+                    // days, followed by the time in millis, both little endian
+                    int days = littleEndianInt(bytes, fieldOffset);
+                    int time = littleEndianInt(bytes, fieldOffset + 4);
+                    synchronized (calendar) {
                         calendar.setTimeInMillis(
                                 days * MILLISECS_PER_DAY
                                         + DbaseFileHeader.MILLIS_SINCE_4713
                                         + time);
 
                         object = calendar.getTime();
-
-                    } catch (final NumberFormatException nfe) {
-                        // todo: use progresslistener, this isn't a grave error.
                     }
                     break;
                     // (N)umeric (Integer, Long or Fallthrough to Double)
                 case 'n':
                 case 'N':
                     // numbers that begin with '*' are considered null
-                    if (bytes[fieldOffset] == '*') {
+                    if (bytes[fieldOffset] == '*' || isBlank(bytes, fieldOffset, fieldLen)) {
                         break;
                     } else {
+                        Class<?> clazz = fieldClasses[fieldNum];
+                        if (clazz == Integer.class || clazz == Long.class) {
+                            // common case first, plain digits parsed without building a string
+                            long value = parseLong(bytes, fieldOffset, fieldLen);
+                            if (value != NOT_A_LONG) {
+                                if (clazz == Integer.class && (int) value == value) {
+                                    object = (int) value;
+                                } else {
+                                    object = value;
+                                }
+                                break;
+                            }
+                        }
                         final String string = fastParse(bytes, fieldOffset, fieldLen).trim();
-                        Class<?> clazz = header.getFieldClass(fieldNum);
                         if (clazz == Integer.class) {
                             try {
                                 object = Integer.parseInt(string);
@@ -605,7 +633,12 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     // (F)loating point number
                 case 'f':
                 case 'F':
-                    if (bytes[fieldOffset] != '*') {
+                    if (bytes[fieldOffset] != '*' && !isBlank(bytes, fieldOffset, fieldLen)) {
+                        double value = parseDouble(bytes, fieldOffset, fieldLen);
+                        if (!Double.isNaN(value)) {
+                            object = value;
+                            break;
+                        }
                         try {
                             object = Double.parseDouble(fastParse(bytes, fieldOffset, fieldLen));
                         } catch (final NumberFormatException e) {
@@ -625,7 +658,7 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
      * Performs a faster byte[] to String conversion under the assumption the content is represented
      * with one byte per char
      */
-    String fastParse(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+    static String fastParse(final byte[] bytes, final int fieldOffset, final int fieldLen) {
         // faster reading path, the decoder is for some reason slower,
         // probably because it has to make extra checks to support multibyte chars
         final char[] chars = new char[fieldLen];
@@ -636,6 +669,109 @@ String fastParse(final byte[] bytes, final int fieldOffset, final int fieldLen)
         return new String(chars);
     }
 
+    /** Returns true if the field contains only spaces (or other control chars) */
+    static boolean isBlank(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+        for (int i = fieldOffset, end = fieldOffset + fieldLen; i < end; i++) {
+            if ((bytes[i] & 0xFF) > ' ') return false;
+        }
+        return true;
+    }
+
+    /** Parses a small, unsigned or signed, integer, same as Integer.parseInt would do */
+    static int parseInt(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+        int i = fieldOffset;
+        int end = fieldOffset + fieldLen;
+        boolean negative = i < end && bytes[i] == '-';
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) i++;
+        if (i == end) {
+            throw new NumberFormatException(
+                    "Not a number: " + fastParse(bytes, fieldOffset, fieldLen));
+        }
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(
+                        "Not a number: " + fastParse(bytes, fieldOffset, fieldLen));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    /** Marks a field that could not be parsed by {@link #parseLong(byte[], int, int)} */
+    static final long NOT_A_LONG = Long.MIN_VALUE;
+
+    /**
+     * Parses an integral number surrounded by spaces, returns {@link #NOT_A_LONG} if the field
+     * contains anything else, or too many digits, leaving it to the slower string based parsing
+     */
+    static long parseLong(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+        int start = fieldOffset;
+        int end = fieldOffset + fieldLen;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') start++;
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') end--;
+        boolean negative = start < end && bytes[start] == '-';
+        if (start < end && (bytes[start] == '-' || bytes[start] == '+')) start++;
+        // up to 18 digits cannot overflow
+        if (start == end || end - start > 18) return NOT_A_LONG;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) return NOT_A_LONG;
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    /** Exact powers of ten representable as doubles */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+        1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Parses a plain decimal number (no exponent) surrounded by spaces, returns NaN if the field
+     * cannot be parsed exactly this way, leaving it to {@link Double#parseDouble(String)}. When
+     * both the digits and the power of ten are exactly representable as doubles, a single division
+     * returns the correctly rounded value, the same as the JDK parser.
+     */
+    static double parseDouble(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+        int start = fieldOffset;
+        int end = fieldOffset + fieldLen;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') start++;
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') end--;
+        boolean negative = start < end && bytes[start] == '-';
+        if (start < end && (bytes[start] == '-' || bytes[start] == '+')) start++;
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (++digits > 18) return Double.NaN;
+                mantissa = mantissa * 10 + (b - '0');
+                if (decimals >= 0) decimals++;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || mantissa > (1L << 53) || decimals >= POWERS_OF_TEN.length) {
+            return Double.NaN;
+        }
+        double result = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -result : result;
+    }
+
+    private static int littleEndianInt(final byte[] bytes, final int offset) {
+        return (bytes[offset] & 0xFF)
+                | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
     @SuppressWarnings("PMD.SystemPrintln")
     public static void main(final String[] args) throws Exception {
         try (final DbaseFileReader reader =
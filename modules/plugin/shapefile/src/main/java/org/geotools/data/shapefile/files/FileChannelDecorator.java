@@ -24,6 +24,8 @@
 import java.nio.channels.FileLock;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A FileChannel that delegates all calls to the underlying FileChannel but for {@link
@@ -40,6 +42,9 @@ public class FileChannelDecorator extends FileChannel implements ReadableByteCha
     private final FileWriter writer;
     private boolean closed;
 
+    /** The cached memory mapped regions in use by this channel, released on close */
+    private final List<MemoryMapCache.Mapping> leases = new ArrayList<>();
+
     public FileChannelDecorator(
             FileChannel channel, ShpFiles shapefileFiles, URL url, FileReader requestor) {
         this.wrapped = channel;
@@ -72,7 +77,9 @@ public FileLock lock(long position, long size, boolean shared) throws IOExceptio
     @Override
     public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
         //    	return wrapped.map(mode, position, size)
-        return shapefileFiles.map(wrapped, url, mode, position, size);
+        synchronized (leases) {
+            return shapefileFiles.map(wrapped, url, mode, position, size, leases);
+        }
     }
 
     @Override
@@ -147,6 +154,12 @@ protected void implCloseChannel() throws IOException {
         try {
             wrapped.close();
         } finally {
+            synchronized (leases) {
+                for (MemoryMapCache.Mapping mapping : leases) {
+                    mapping.release();
+                }
+                leases.clear();
+            }
             if (!closed) {
                 closed = true;
                 if (reader != null) {
@@ -23,30 +23,90 @@
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotools.util.NIOUtilities;
-import org.geotools.util.SoftValueHashMap;
-import org.geotools.util.SoftValueHashMap.ValueCleaner;
 import org.geotools.util.URLs;
 import org.geotools.util.logging.Logging;
 
 /**
  * A cache for memory mapped buffers, used to avoid generating over and over read only memory mapped
  * buffers. Mapping a file is a synchronized operation, plus by generating light copies the same
- * buffer can be shared by various threads
+ * buffer can be shared by various threads. Regions are mapped outside of the cache lock, if two
+ * threads map the same region concurrently the first one to complete is cached, and the other
+ * mapping is unmapped right away.
+ *
+ * <p>The cache is shared by all the {@link ShpFiles} in the JVM, and bounded by the total size of
+ * the mapped regions, set with the {@code org.geotools.shapefile.memoryMapCacheSize} system
+ * property (in bytes, 4GB by default) or {@link #setMaxSize(long)}. When the limit is exceeded the
+ * least recently used regions are evicted. Each region is leased to the channel that requested it
+ * until the channel is closed, and gets unmapped only once evicted and no longer leased, so that
+ * readers never see their buffers unmapped while in use. As a consequence the limit is a soft one,
+ * regions in use are not evicted.
  *
  * @author Andrea Aime - OpenGeo
  */
-class MemoryMapCache {
+public class MemoryMapCache {
 
     static final Logger LOGGER = Logging.getLogger(MemoryMapCache.class);
 
-    SoftValueHashMap<MappingKey, MappedByteBuffer> buffers =
-            new SoftValueHashMap<>(0, new BufferCleaner());
+    /** Default maximum size of the mapped regions kept in cache */
+    public static final long DEFAULT_MAX_SIZE = 4L * 1024 * 1024 * 1024;
+
+    private static final MemoryMapCache INSTANCE = new MemoryMapCache(getConfiguredMaxSize());
+
+    /** The cached regions, in access order */
+    private final LinkedHashMap<MappingKey, Mapping> mappings =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private long maxSize;
+
+    private long cachedBytes;
+
+    private long residentBytes;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    MemoryMapCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the cache shared by all the shapefiles */
+    public static MemoryMapCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static long getConfiguredMaxSize() {
+        long max = DEFAULT_MAX_SIZE;
+        try {
+            String smax = System.getProperty("org.geotools.shapefile.memoryMapCacheSize");
+            if (smax != null) {
+                max = Long.parseLong(smax);
+            }
+        } catch (Throwable t) {
+            LOGGER.log(Level.SEVERE, "Could not set the memory map cache size", t);
+        }
+        return max;
+    }
 
-    MappedByteBuffer map(FileChannel wrapped, URL url, MapMode mode, long position, long size)
+    /**
+     * Maps the region, or returns a duplicate of the cached mapping. The mapping is leased to the
+     * caller, and added to the leases list, until {@link Mapping#release()} is called
+     */
+    MappedByteBuffer map(
+            FileChannel wrapped,
+            URL url,
+            MapMode mode,
+            long position,
+            long size,
+            List<Mapping> leases)
             throws IOException {
         if (mode != MapMode.READ_ONLY) {
             return wrapped.map(mode, position, size);
@@ -54,30 +114,96 @@ MappedByteBuffer map(FileChannel wrapped, URL url, MapMode mode, long position,
 
         File file = URLs.urlToFile(url).getCanonicalFile();
         MappingKey mk = new MappingKey(file, position, size);
-        MappedByteBuffer buffer = buffers.get(mk);
-        if (buffer == null) {
+        Mapping mapping = lease(mk);
+        if (mapping == null) {
+            // map outside of the lock, the cache is shared by all the shapefiles in the JVM
+            Mapping mapped = new Mapping(mk, wrapped.map(mode, position, size));
             synchronized (this) {
-                buffer = buffers.get(mk);
-                if (buffer == null) {
-                    buffer = wrapped.map(mode, position, size);
-                    buffers.put(mk, buffer);
+                mapping = mappings.get(mk);
+                if (mapping == null) {
+                    misses++;
+                    mapping = mapped;
+                    mappings.put(mk, mapping);
+                    cachedBytes += mapping.size;
+                    residentBytes += mapping.size;
                     if (LOGGER.isLoggable(Level.FINE)) {
                         LOGGER.log(Level.FINE, "Mapping and caching " + file.getAbsolutePath());
                     }
+                } else {
+                    hits++;
                 }
+                mapping.references++;
+                evict();
             }
-        } else {
+            if (mapping != mapped) {
+                // another thread mapped the same region in the meantime
+                NIOUtilities.clean(mapped.buffer, true);
+            }
+        }
+        leases.add(mapping);
+
+        return (MappedByteBuffer) mapping.buffer.duplicate();
+    }
+
+    /** Leases the cached mapping for the region, if any */
+    private synchronized Mapping lease(MappingKey mk) {
+        Mapping mapping = mappings.get(mk);
+        if (mapping != null) {
+            hits++;
+            mapping.references++;
             if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, "Using cached map for " + file.getAbsolutePath());
+                LOGGER.log(Level.FINE, "Using cached map for " + mk.file.getAbsolutePath());
+            }
+        }
+        return mapping;
+    }
+
+    /** Evicts the least recently used regions not in use, until the cache fits its size */
+    private void evict() {
+        Iterator<Mapping> it = mappings.values().iterator();
+        while (cachedBytes > maxSize && it.hasNext()) {
+            Mapping mapping = it.next();
+            if (mapping.references == 0) {
+                it.remove();
+                evictions++;
+                discard(mapping);
             }
         }
+    }
+
+    /** Removes the mapping from the cached total, unmapping it if not in use */
+    private void discard(Mapping mapping) {
+        cachedBytes -= mapping.size;
+        mapping.evicted = true;
+        if (mapping.references == 0) {
+            unmap(mapping);
+        }
+    }
+
+    private void unmap(Mapping mapping) {
+        residentBytes -= mapping.size;
+        NIOUtilities.clean(mapping.buffer, true);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Removed mapping for " + mapping.key.file.getAbsolutePath());
+        }
+    }
 
-        return (MappedByteBuffer) buffer.duplicate();
+    private synchronized void release(Mapping mapping) {
+        mapping.references--;
+        if (mapping.references == 0) {
+            if (mapping.evicted) {
+                unmap(mapping);
+            } else {
+                // the cache might have been waiting for the region to be released
+                evict();
+            }
+        }
     }
 
     /**
      * Cleans up all memory mapped regions for a specified file. It is necessary to call this method
-     * before any attempt to open a file for writing on Windows
+     * before any attempt to open a file for writing on Windows. Regions still in use are unmapped
+     * when released.
      */
     void cleanFileCache(URL url) {
         try {
@@ -87,13 +213,11 @@ void cleanFileCache(URL url) {
                 return;
             }
             File file = rawFile.getCanonicalFile();
-            List<MappingKey> keys = new ArrayList<>(buffers.keySet());
-            for (MappingKey key : keys) {
-                if (key.file.equals(file)) {
-                    MappedByteBuffer buffer = buffers.remove(key);
-                    NIOUtilities.clean(buffer, true);
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.log(Level.FINE, "Removed mapping for " + file.getAbsolutePath());
+            synchronized (this) {
+                List<MappingKey> keys = new ArrayList<>(mappings.keySet());
+                for (MappingKey key : keys) {
+                    if (key.file.equals(file)) {
+                        discard(mappings.remove(key));
                     }
                 }
             }
@@ -105,14 +229,75 @@ void cleanFileCache(URL url) {
         }
     }
 
-    void clean() {
-        List<MappingKey> keys = new ArrayList<>(buffers.keySet());
-        for (MappingKey key : keys) {
-            MappedByteBuffer buffer = buffers.remove(key);
-            NIOUtilities.clean(buffer, true);
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, "Removed mapping for " + key.file.getAbsolutePath());
-            }
+    /** Removes all the regions from the cache, regions still in use are unmapped when released */
+    public synchronized void clean() {
+        for (Mapping mapping : mappings.values()) {
+            discard(mapping);
+        }
+        mappings.clear();
+    }
+
+    /** Returns the maximum size of the mapped regions kept in cache, in bytes */
+    public synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    /** Sets the maximum size of the mapped regions kept in cache, in bytes */
+    public synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /** Number of requests served by an already mapped region */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /** Number of requests that caused a new region to be mapped */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Number of regions evicted to respect the size limit */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /** Number of regions currently in cache */
+    public synchronized int getSize() {
+        return mappings.size();
+    }
+
+    /** Size of the regions currently in cache, in bytes */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Size of all the regions mapped by the cache and not yet unmapped, in bytes. Includes the
+     * regions removed from the cache but still in use.
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /** A mapped region, along with the number of channels using it */
+    class Mapping {
+        final MappingKey key;
+        final MappedByteBuffer buffer;
+        final long size;
+        int references;
+        boolean evicted;
+
+        Mapping(MappingKey key, MappedByteBuffer buffer) {
+            this.key = key;
+            this.buffer = buffer;
+            this.size = buffer.capacity();
+        }
+
+        /** Releases the lease on the region, unmapping it if evicted and no longer in use */
+        void release() {
+            MemoryMapCache.this.release(this);
         }
     }
 
@@ -154,16 +339,22 @@ public boolean equals(Object obj) {
         }
     }
 
-    /**
-     * Cleans up the buffers before the soft reference gets deallocated
-     *
-     * @author Andrea Aime
-     */
-    public class BufferCleaner implements ValueCleaner<MappingKey, MappedByteBuffer> {
-
-        @Override
-        public void clean(MappingKey key, MappedByteBuffer buffer) {
-            NIOUtilities.clean(buffer, true);
-        }
+    @Override
+    public synchronized String toString() {
+        return "MemoryMapCache [size="
+                + mappings.size()
+                + ", cachedBytes="
+                + cachedBytes
+                + ", residentBytes="
+                + residentBytes
+                + ", maxSize="
+                + maxSize
+                + ", hits="
+                + hits
+                + ", misses="
+                + misses
+                + ", evictions="
+                + evictions
+                + "]";
     }
 }
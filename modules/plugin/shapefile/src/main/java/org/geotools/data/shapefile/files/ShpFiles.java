@@ -43,6 +43,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -88,8 +89,8 @@ public class ShpFiles {
      */
     private final Map<Thread, Collection<ShpFilesLocker>> lockers = new ConcurrentHashMap<>();
 
-    /** A cache for read only memory mapped buffers */
-    private final MemoryMapCache mapCache = new MemoryMapCache();
+    /** The JVM wide cache for read only memory mapped buffers */
+    private final MemoryMapCache mapCache = MemoryMapCache.getInstance();
 
     private boolean memoryMapCacheEnabled;
 
@@ -237,7 +238,16 @@ public void dispose() {
             logCurrentLockers(Level.SEVERE);
             lockers.clear(); // so as not to get this log again.
         }
-        mapCache.clean();
+        cleanMapCache();
+    }
+
+    /** Removes the memory mapped regions of this shapefile from the shared cache */
+    private void cleanMapCache() {
+        if (memoryMapCacheEnabled) {
+            for (URL url : urls.values()) {
+                mapCache.cleanFileCache(url);
+            }
+        }
     }
 
     /**
@@ -905,12 +915,19 @@ public String getTypeName() {
 
     /**
      * Internal method that the file channel decorators will call to allow reuse of the memory
-     * mapped buffers
+     * mapped buffers. The cached regions are added to the leases list, and need to be released once
+     * the buffer is no longer used
      */
-    MappedByteBuffer map(FileChannel wrapped, URL url, MapMode mode, long position, long size)
+    MappedByteBuffer map(
+            FileChannel wrapped,
+            URL url,
+            MapMode mode,
+            long position,
+            long size,
+            List<MemoryMapCache.Mapping> leases)
             throws IOException {
         if (memoryMapCacheEnabled) {
-            return mapCache.map(wrapped, url, mode, position, size);
+            return mapCache.map(wrapped, url, mode, position, size, leases);
         } else {
             return wrapped.map(mode, position, size);
         }
@@ -918,7 +935,8 @@ MappedByteBuffer map(FileChannel wrapped, URL url, MapMode mode, long position,
 
     /**
      * Returns the status of the memory map cache. When enabled the memory mapped portions of the
-     * files are cached and shared (giving each thread a clone of it)
+     * files are cached and shared (giving each thread a clone of it), see {@link MemoryMapCache}
+     * for the cache limits and statistics
      */
     public boolean isMemoryMapCacheEnabled() {
         return memoryMapCacheEnabled;
@@ -929,10 +947,10 @@ public boolean isMemoryMapCacheEnabled() {
      * and shared (giving each thread a clone of it)
      */
     public void setMemoryMapCacheEnabled(boolean memoryMapCacheEnabled) {
-        this.memoryMapCacheEnabled = memoryMapCacheEnabled;
         if (!memoryMapCacheEnabled) {
-            mapCache.clean();
+            cleanMapCache();
         }
+        this.memoryMapCacheEnabled = memoryMapCacheEnabled;
     }
 
     /**
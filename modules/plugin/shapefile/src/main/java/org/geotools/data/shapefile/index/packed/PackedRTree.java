@@ -0,0 +1,244 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.packed;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.geotools.api.data.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.shapefile.index.DataDefinition;
+import org.geotools.data.shapefile.index.TreeException;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A packed Hilbert R-tree, read directly from a (memory mapped) buffer without building any node
+ * object. The layout follows the one used by FlatGeobuf: the leaves are sorted along the Hilbert
+ * curve of their centers, then grouped in nodes of fixed size, level by level, up to the root.
+ * Everything is stored little endian:
+ *
+ * <ul>
+ *   <li>a 48 bytes header with magic, version, node size, number of leaves and overall bounds
+ *   <li>the nodes, as (minx, miny, maxx, maxy, value) items of 40 bytes each, root level first and
+ *       leaves last. For internal items the value is the position of the first child item, for the
+ *       leaves it packs the record number (high 32 bits) and the record offset in the .shp file, in
+ *       16 bit words as found in the .shx file (low 32 bits)
+ * </ul>
+ *
+ * The search results are sorted by record number, so that the .shp file is read sequentially.
+ */
+public class PackedRTree {
+
+    /** The "GTPR" magic */
+    static final int MAGIC = 0x52505447;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 48;
+
+    static final int ITEM_SIZE = 40;
+
+    static final DataDefinition DATA_DEFINITION = new DataDefinition("US-ASCII");
+
+    static {
+        DATA_DEFINITION.addField(Integer.class);
+        DATA_DEFINITION.addField(Long.class);
+    }
+
+    private final ByteBuffer buffer;
+
+    private final int nodeSize;
+
+    private final int numItems;
+
+    private final Envelope bounds;
+
+    /** Start and end position of each level, leaves being level zero */
+    private final int[] levelStarts;
+
+    private final int[] levelEnds;
+
+    /** Wraps the buffer, which is expected to contain the whole index file */
+    public PackedRTree(ByteBuffer buffer) throws TreeException {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.limit() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+            throw new TreeException("Not a packed R-tree index");
+        }
+        int version = this.buffer.getInt(4);
+        if (version != VERSION) {
+            throw new TreeException("Unsupported packed R-tree version " + version);
+        }
+        this.nodeSize = this.buffer.getInt(8);
+        this.numItems = this.buffer.getInt(12);
+        if (nodeSize < 2 || numItems < 0) {
+            throw new TreeException("Invalid packed R-tree header");
+        }
+        this.bounds =
+                numItems == 0
+                        ? new Envelope()
+                        : new Envelope(
+                                this.buffer.getDouble(16),
+                                this.buffer.getDouble(32),
+                                this.buffer.getDouble(24),
+                                this.buffer.getDouble(40));
+
+        int[] sizes = levelSizes(numItems, nodeSize);
+        levelStarts = new int[sizes.length];
+        levelEnds = new int[sizes.length];
+        int start = 0;
+        for (int level = sizes.length - 1; level >= 0; level--) {
+            levelStarts[level] = start;
+            start += sizes[level];
+            levelEnds[level] = start;
+        }
+        if ((long) start * ITEM_SIZE + HEADER_SIZE > this.buffer.limit()) {
+            throw new TreeException("Truncated packed R-tree index");
+        }
+    }
+
+    /**
+     * Returns the number of items in each level of a tree with the given number of leaves, starting
+     * from the leaves
+     */
+    static int[] levelSizes(int numItems, int nodeSize) {
+        int[] sizes = new int[1];
+        sizes[0] = numItems;
+        int n = numItems;
+        while (n > 1) {
+            n = (n + nodeSize - 1) / nodeSize;
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+            sizes[sizes.length - 1] = n;
+        }
+        return sizes;
+    }
+
+    /** The bounds of all the indexed records */
+    public Envelope getBounds() {
+        return new Envelope(bounds);
+    }
+
+    /** The number of indexed records */
+    public int getNumItems() {
+        return numItems;
+    }
+
+    /**
+     * Returns the leaf values of the records whose bounds intersect the search area, sorted by
+     * record number
+     */
+    long[] searchValues(Envelope area) {
+        long[] results = new long[16];
+        int count = 0;
+        if (numItems == 0 || !bounds.intersects(area)) {
+            return new long[0];
+        }
+        double minX = area.getMinX();
+        double minY = area.getMinY();
+        double maxX = area.getMaxX();
+        double maxY = area.getMaxY();
+
+        // the nodes to be visited, as position and level pairs
+        int[] stack = new int[levelStarts.length * nodeSize * 2 + 2];
+        int top = 0;
+        int rootLevel = levelStarts.length - 1;
+        stack[top++] = levelStarts[rootLevel];
+        stack[top++] = rootLevel;
+        while (top > 0) {
+            int level = stack[--top];
+            int first = stack[--top];
+            int end = Math.min(first + nodeSize, levelEnds[level]);
+            for (int pos = first; pos < end; pos++) {
+                int offset = HEADER_SIZE + pos * ITEM_SIZE;
+                if (buffer.getDouble(offset) > maxX
+                        || buffer.getDouble(offset + 8) > maxY
+                        || buffer.getDouble(offset + 16) < minX
+                        || buffer.getDouble(offset + 24) < minY) {
+                    continue;
+                }
+                long value = buffer.getLong(offset + 32);
+                if (level == 0) {
+                    if (count == results.length) {
+                        results = Arrays.copyOf(results, count * 2);
+                    }
+                    results[count++] = value;
+                } else {
+                    stack[top++] = (int) value;
+                    stack[top++] = level - 1;
+                }
+            }
+        }
+
+        // the record number is in the high bits, sorting the values sorts the records
+        Arrays.sort(results, 0, count);
+        return Arrays.copyOf(results, count);
+    }
+
+    /**
+     * Searches the records intersecting the area. The results are collected upfront, the returned
+     * iterator does not need the buffer anymore, which can be released.
+     */
+    public CloseableIterator<Data> search(Envelope area) {
+        final long[] values = searchValues(area);
+        final Data data = new Data(DATA_DEFINITION);
+        return new CloseableIterator<Data>() {
+            int idx = 0;
+
+            @Override
+            public boolean hasNext() {
+                return idx < values.length;
+            }
+
+            @Override
+            public Data next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long value = values[idx++];
+                try {
+                    data.clear();
+                    data.addValue(recordNumber(value) + 1);
+                    data.addValue(offsetInBytes(value));
+                } catch (TreeException e) {
+                    throw new RuntimeException(e);
+                }
+                return data;
+            }
+
+            @Override
+            public void close() throws IOException {
+                idx = values.length;
+            }
+        };
+    }
+
+    /** Packs the zero based record number and its offset in the .shp file into a leaf value */
+    static long leafValue(int recordNumber, int offsetInWords) {
+        return ((long) recordNumber << 32) | (offsetInWords & 0xFFFFFFFFL);
+    }
+
+    /** Returns the zero based record number stored in a leaf value */
+    static int recordNumber(long value) {
+        return (int) (value >>> 32);
+    }
+
+    /** Returns the record offset in the .shp file stored in a leaf value */
+    static long offsetInBytes(long value) {
+        return (value & 0xFFFFFFFFL) * 2;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.packed;
+
+import static org.geotools.data.shapefile.index.packed.PackedRTree.HEADER_SIZE;
+import static org.geotools.data.shapefile.index.packed.PackedRTree.ITEM_SIZE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Collects the bounds of the shapefile records and writes them as a {@link PackedRTree}. The
+ * records are expected to be added in file order.
+ */
+public class PackedRTreeBuilder {
+
+    /** Default number of items per node, the same used by FlatGeobuf */
+    public static final int DEFAULT_NODE_SIZE = 16;
+
+    /** Largest coordinate used to compute the Hilbert values */
+    static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private final int nodeSize;
+
+    /** Record bounds, as minx, miny, maxx, maxy quadruples */
+    private double[] bounds = new double[1024];
+
+    /** Leaf values, see {@link PackedRTree#leafValue(int, int)} */
+    private long[] values = new long[256];
+
+    private int numItems;
+
+    private final Envelope extent = new Envelope();
+
+    private boolean parallel;
+
+    public PackedRTreeBuilder() {
+        this(DEFAULT_NODE_SIZE);
+    }
+
+    public PackedRTreeBuilder(int nodeSize) {
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2");
+        }
+        this.nodeSize = nodeSize;
+    }
+
+    /**
+     * Adds a record
+     *
+     * @param recordNumber zero based record number
+     * @param offsetInWords offset of the record in the .shp file, in 16 bit words, as found in the
+     *     .shx file
+     */
+    public void add(int recordNumber, int offsetInWords, Envelope env) {
+        add(
+                recordNumber,
+                offsetInWords,
+                env.getMinX(),
+                env.getMinY(),
+                env.getMaxX(),
+                env.getMaxY());
+    }
+
+    /** Same as {@link #add(int, int, Envelope)}, using the bounds ordinates directly */
+    public void add(
+            int recordNumber,
+            int offsetInWords,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        if (numItems == values.length) {
+            values = Arrays.copyOf(values, numItems * 2);
+            bounds = Arrays.copyOf(bounds, numItems * 8);
+        }
+        int b = numItems * 4;
+        bounds[b] = minX;
+        bounds[b + 1] = minY;
+        bounds[b + 2] = maxX;
+        bounds[b + 3] = maxY;
+        values[numItems++] = PackedRTree.leafValue(recordNumber, offsetInWords);
+        extent.expandToInclude(minX, minY);
+        extent.expandToInclude(maxX, maxY);
+    }
+
+    /**
+     * Enables computing the Hilbert values, sorting them and computing the node bounds in parallel.
+     * The work runs in the fork/join pool {@link #write(File)} is called from, or in the common
+     * pool if called from a plain thread.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /** Returns the number of records added so far */
+    public int size() {
+        return numItems;
+    }
+
+    /** Sorts the records along the Hilbert curve, and writes the tree to the file */
+    public void write(File file) throws IOException {
+        int[] sizes = PackedRTree.levelSizes(numItems, nodeSize);
+        long numNodes = 0;
+        for (int size : sizes) {
+            numNodes += size;
+        }
+        if (HEADER_SIZE + numNodes * ITEM_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Too many records for a packed R-tree index: " + numItems);
+        }
+        int[] order = hilbertOrder();
+
+        // compute the upper levels bottom up, each item covering nodeSize items of the level below
+        double[][] levelBounds = new double[sizes.length][];
+        int[] levelStarts = new int[sizes.length];
+        int start = 0;
+        for (int level = sizes.length - 1; level >= 0; level--) {
+            levelStarts[level] = start;
+            start += sizes[level];
+        }
+        for (int level = 1; level < sizes.length; level++) {
+            final int childLevel = level - 1;
+            final int numChildren = sizes[childLevel];
+            final double[] source = level == 1 ? bounds : levelBounds[childLevel];
+            final double[] parents = new double[sizes[level] * 4];
+            range(sizes[level])
+                    .forEach(
+                            i -> {
+                                Envelope env = new Envelope();
+                                int end = Math.min((i + 1) * nodeSize, numChildren);
+                                for (int child = i * nodeSize; child < end; child++) {
+                                    int c = (childLevel == 0 ? order[child] : child) * 4;
+                                    env.expandToInclude(source[c], source[c + 1]);
+                                    env.expandToInclude(source[c + 2], source[c + 3]);
+                                }
+                                parents[i * 4] = env.getMinX();
+                                parents[i * 4 + 1] = env.getMinY();
+                                parents[i * 4 + 2] = env.getMaxX();
+                                parents[i * 4 + 3] = env.getMaxY();
+                            });
+            levelBounds[level] = parents;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(PackedRTree.MAGIC);
+            buffer.putInt(PackedRTree.VERSION);
+            buffer.putInt(nodeSize);
+            buffer.putInt(numItems);
+            buffer.putDouble(extent.getMinX());
+            buffer.putDouble(extent.getMinY());
+            buffer.putDouble(extent.getMaxX());
+            buffer.putDouble(extent.getMaxY());
+
+            // root level first
+            for (int level = sizes.length - 1; level > 0; level--) {
+                double[] items = levelBounds[level];
+                for (int i = 0; i < sizes[level]; i++) {
+                    long firstChild = levelStarts[level - 1] + (long) i * nodeSize;
+                    put(channel, buffer, items, i * 4, firstChild);
+                }
+            }
+            for (int i = 0; i < numItems; i++) {
+                int item = order[i];
+                put(channel, buffer, bounds, item * 4, values[item]);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private void put(
+            FileChannel channel, ByteBuffer buffer, double[] source, int offset, long value)
+            throws IOException {
+        if (buffer.remaining() < ITEM_SIZE) {
+            flush(channel, buffer);
+        }
+        buffer.putDouble(source[offset]);
+        buffer.putDouble(source[offset + 1]);
+        buffer.putDouble(source[offset + 2]);
+        buffer.putDouble(source[offset + 3]);
+        buffer.putLong(value);
+    }
+
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    /** Returns the item indexes sorted by the Hilbert value of their center */
+    private int[] hilbertOrder() {
+        double width = extent.getWidth();
+        double height = extent.getHeight();
+        double minX = extent.getMinX();
+        double minY = extent.getMinY();
+        long[] keys = new long[numItems];
+        range(numItems)
+                .forEach(
+                        i -> {
+                            int b = i * 4;
+                            double cx = (bounds[b] + bounds[b + 2]) / 2;
+                            double cy = (bounds[b + 1] + bounds[b + 3]) / 2;
+                            int x = width > 0 ? (int) (HILBERT_MAX * (cx - minX) / width) : 0;
+                            int y = height > 0 ? (int) (HILBERT_MAX * (cy - minY) / height) : 0;
+                            long h = hilbert(x, y) & 0xFFFFFFFFL;
+                            // the index in the low bits makes the sort stable
+                            keys[i] = (h << 31) | i;
+                        });
+        if (parallel) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+        int[] order = new int[numItems];
+        for (int i = 0; i < numItems; i++) {
+            order[i] = (int) (keys[i] & 0x7FFFFFFF);
+        }
+        return order;
+    }
+
+    private IntStream range(int size) {
+        IntStream range = IntStream.range(0, size);
+        return parallel ? range.parallel() : range;
+    }
+
+    /**
+     * Position of the point along the Hilbert curve, for coordinates between 0 and {@link
+     * #HILBERT_MAX}. Branch free implementation from "Fast Hilbert curve generation, sorting and
+     * range queries" by rawrunprotected, the same used by FlatGeobuf and flatbush.
+     */
+    static int hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int aa = a | (b >> 1);
+        int bb = (a >> 1) ^ a;
+        int cc = ((c >> 1) ^ (b & (d >> 1))) ^ c;
+        int dd = ((a & (c >> 1)) ^ (d >> 1)) ^ d;
+
+        a = aa;
+        b = bb;
+        c = cc;
+        d = dd;
+        aa = ((a & (a >> 2)) ^ (b & (b >> 2)));
+        bb = ((a & (b >> 2)) ^ (b & ((a ^ b) >> 2)));
+        cc ^= ((a & (c >> 2)) ^ (b & (d >> 2)));
+        dd ^= ((b & (c >> 2)) ^ ((a ^ b) & (d >> 2)));
+
+        a = aa;
+        b = bb;
+        c = cc;
+        d = dd;
+        aa = ((a & (a >> 4)) ^ (b & (b >> 4)));
+        bb = ((a & (b >> 4)) ^ (b & ((a ^ b) >> 4)));
+        cc ^= ((a & (c >> 4)) ^ (b & (d >> 4)));
+        dd ^= ((b & (c >> 4)) ^ ((a ^ b) & (d >> 4)));
+
+        a = aa;
+        b = bb;
+        c = cc;
+        d = dd;
+        cc ^= ((a & (c >> 8)) ^ (b & (d >> 8)));
+        dd ^= ((b & (c >> 8)) ^ ((a ^ b) & (d >> 8)));
+
+        a = cc ^ (cc >> 1);
+        b = dd ^ (dd >> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+        i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+        i0 = (i0 | (i0 << 2)) & 0x33333333;
+        i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+        i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+        i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+        i1 = (i1 | (i1 << 2)) & 0x33333333;
+        i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+        return (i1 << 1) | i0;
+    }
+}
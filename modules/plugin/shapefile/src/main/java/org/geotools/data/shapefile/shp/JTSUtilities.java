@@ -18,6 +18,8 @@
 
 import org.geotools.api.feature.type.GeometryDescriptor;
 import org.geotools.geometry.jts.JTS;
+import org.geotools.geometry.jts.LiteCoordinateSequence;
+import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
 import org.geotools.util.factory.Hints;
 import org.locationtech.jts.algorithm.Orientation;
 import org.locationtech.jts.geom.Coordinate;
@@ -32,6 +34,8 @@
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 
 /**
  * A collection of utility methods for use with JTS and the shapefile package.
@@ -43,6 +47,29 @@ public class JTSUtilities {
 
     private JTSUtilities() {}
 
+    /**
+     * Returns true if the factory builds sequences backed by a packed array of doubles, that can
+     * wrap the x/y ordinates read from a shapefile directly, see {@link
+     * #packedXY(CoordinateSequenceFactory, double[])}
+     */
+    static boolean isPackedXY(CoordinateSequenceFactory csf) {
+        return csf instanceof LiteCoordinateSequenceFactory
+                || (csf instanceof PackedCoordinateSequenceFactory
+                        && ((PackedCoordinateSequenceFactory) csf).getType()
+                                == PackedCoordinateSequenceFactory.DOUBLE);
+    }
+
+    /**
+     * Wraps the x/y ordinates in a two dimensional coordinate sequence, without copying them. The
+     * factory must be a packed one, as reported by {@link #isPackedXY(CoordinateSequenceFactory)}
+     */
+    static CoordinateSequence packedXY(CoordinateSequenceFactory csf, double[] xy) {
+        if (csf instanceof LiteCoordinateSequenceFactory) {
+            return new LiteCoordinateSequence(xy);
+        }
+        return new PackedCoordinateSequence.Double(xy, 2, 0);
+    }
+
     /**
      * Determine the min and max "z" values in an array of Coordinates.
      *
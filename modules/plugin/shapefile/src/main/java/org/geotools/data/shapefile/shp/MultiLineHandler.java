@@ -23,6 +23,7 @@
 import java.util.List;
 import org.geotools.geometry.jts.JTS;
 import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
@@ -138,6 +139,23 @@ public Object read(ByteBuffer buffer, ShapeType type, boolean flatGeometry) {
         int length = 0;
         boolean clonePoint = false;
         final DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
+        final CoordinateSequenceFactory csf = geometryFactory.getCoordinateSequenceFactory();
+        if ((shapeType == ShapeType.ARC || flatGeometry) && JTSUtilities.isPackedXY(csf)) {
+            // plain x/y lines, decode straight in the sequences backing arrays
+            for (int part = 0; part < numParts; part++) {
+                finish = part == (numParts - 1) ? numPoints : partOffsets[part + 1];
+                length = finish - partOffsets[part];
+                // single point lines are turned into two point ones
+                double[] ordinates = new double[(length == 1 ? 2 : length) * 2];
+                doubleBuffer.get(ordinates, 0, length * 2);
+                if (length == 1) {
+                    ordinates[2] = ordinates[0];
+                    ordinates[3] = ordinates[1];
+                }
+                lines[part] = JTSUtilities.packedXY(csf, ordinates);
+            }
+            return buildMultiLineString(lines);
+        }
         for (int part = 0; part < numParts; part++) {
             start = partOffsets[part];
 
@@ -263,9 +281,13 @@ public Object read(ByteBuffer buffer, ShapeType type, boolean flatGeometry) {
             }
         }
 
-        // Prepare line strings and return the multilinestring
-        LineString[] lineStrings = new LineString[numParts];
-        for (int part = 0; part < numParts; part++) {
+        return buildMultiLineString(lines);
+    }
+
+    /** Prepare line strings and return the multilinestring */
+    private MultiLineString buildMultiLineString(CoordinateSequence[] lines) {
+        LineString[] lineStrings = new LineString[lines.length];
+        for (int part = 0; part < lines.length; part++) {
             lineStrings[part] = geometryFactory.createLineString(lines[part]);
         }
 
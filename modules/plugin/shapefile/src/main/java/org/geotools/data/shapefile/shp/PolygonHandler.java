@@ -20,6 +20,7 @@
 import java.nio.ByteBuffer;
 import java.nio.DoubleBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
 import org.geotools.geometry.jts.JTS;
@@ -27,6 +28,7 @@
 import org.locationtech.jts.algorithm.RayCrossingCounter;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -82,6 +84,21 @@ boolean pointInList(Coordinate testPoint, Coordinate[] pointList) {
         return false;
     }
 
+    /** Same as {@link #pointInList(Coordinate, Coordinate[])}, avoids extracting coordinates */
+    boolean pointInList(Coordinate testPoint, CoordinateSequence pointList) {
+        for (int t = pointList.size() - 1; t >= 0; t--) {
+            // nan test; x!=x iff x is nan
+            if ((testPoint.x == pointList.getX(t))
+                    && (testPoint.y == pointList.getY(t))
+                    && ((testPoint.getZ() == pointList.getZ(t))
+                            || Double.isNaN(testPoint.getZ()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public ShapeType getShapeType() {
         return shapeType;
@@ -139,6 +156,11 @@ public Object read(ByteBuffer buffer, ShapeType type, boolean flatFeature) {
 
         ArrayList<LinearRing> shells = new ArrayList<>();
         ArrayList<LinearRing> holes = new ArrayList<>();
+        if ((shapeType == ShapeType.POLYGON || flatFeature)
+                && JTSUtilities.isPackedXY(geometryFactory.getCoordinateSequenceFactory())) {
+            readPackedRings(buffer, numParts, numPoints, partOffsets, shells, holes);
+            return buildPolygons(shells, holes);
+        }
         CoordinateSequence coords = readCoordinates(buffer, numPoints, dimensions, flatFeature);
 
         int offset = 0;
@@ -252,6 +274,11 @@ public Object read(ByteBuffer buffer, ShapeType type, boolean flatFeature) {
             }
         }
 
+        return buildPolygons(shells, holes);
+    }
+
+    /** Assembles the shells and holes into a multipolygon */
+    private Geometry buildPolygons(ArrayList<LinearRing> shells, ArrayList<LinearRing> holes) {
         // quick optimization: if there's only one shell no need to check
         // for holes inclusion
         if (shells.size() == 1) {
@@ -272,6 +299,58 @@ else if (holes.size() == 1 && shells.isEmpty()) {
         }
     }
 
+    /**
+     * Reads plain x/y rings decoding the ordinates straight into the backing arrays of the ring
+     * sequences, without going through intermediate sequences
+     */
+    private void readPackedRings(
+            final ByteBuffer buffer,
+            final int numParts,
+            final int numPoints,
+            final int[] partOffsets,
+            final List<LinearRing> shells,
+            final List<LinearRing> holes) {
+        CoordinateSequenceFactory csf = geometryFactory.getCoordinateSequenceFactory();
+        double[] ordinates = new double[numPoints * 2];
+        buffer.asDoubleBuffer().get(ordinates);
+        for (int part = 0; part < numParts; part++) {
+            int start = partOffsets[part];
+            int finish = part == (numParts - 1) ? numPoints : partOffsets[part + 1];
+            int length = finish - start;
+            int s = start * 2;
+            int f = (finish - 1) * 2;
+            // '1' if the ring must be closed, '0' otherwise
+            int close =
+                    ordinates[s] != ordinates[f] || ordinates[s + 1] != ordinates[f + 1] ? 1 : 0;
+
+            double[] xy;
+            if (numParts == 1 && start == 0 && close == 0) {
+                // single closed ring, use the ordinates as they are
+                xy = ordinates;
+            } else {
+                xy = Arrays.copyOfRange(ordinates, s, (finish + close) * 2);
+                if (close == 1) {
+                    xy[length * 2] = ordinates[s];
+                    xy[length * 2 + 1] = ordinates[s + 1];
+                }
+            }
+            // REVISIT: polygons with only 1 or 2 points are not polygons -
+            // geometryFactory will bomb so we skip if we find one.
+            int size = length + close;
+            if (size == 0 || size > 3) {
+                CoordinateSequence cs = JTSUtilities.packedXY(csf, xy);
+                LinearRing ring = geometryFactory.createLinearRing(cs);
+                if (CoordinateSequences.isCCW(cs)) {
+                    // counter-clockwise
+                    holes.add(ring);
+                } else {
+                    // clockwise
+                    shells.add(ring);
+                }
+            }
+        }
+    }
+
     /** @param flatFeature */
     private CoordinateSequence readCoordinates(
             final ByteBuffer buffer,
@@ -380,7 +459,7 @@ List<List<LinearRing>> assignHolesToShells(
                 }
 
                 boolean isContained = false;
-                Coordinate[] coordList = tryRing.getCoordinates();
+                CoordinateSequence coordList = tryRing.getCoordinateSequence();
 
                 if (tryEnv.contains(testEnv)
                         && (RayCrossingCounter.locatePointInRing(testPt, coordList) != 2
@@ -22,6 +22,8 @@
 import java.io.FileOutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TimeZone;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -101,6 +103,24 @@ public void testRowVsEntry() throws Exception {
         }
     }
 
+    @Test
+    public void testCopiedRow() throws Exception {
+        List<DbaseFileReader.Row> rows = new ArrayList<>();
+        while (dbf.hasNext()) {
+            rows.add(dbf.readRow().copy());
+        }
+        dbf.close();
+        try (DbaseFileReader dbf2 =
+                new DbaseFileReader(shpFiles, false, ShapefileDataStore.DEFAULT_STRING_CHARSET)) {
+            for (DbaseFileReader.Row copy : rows) {
+                Object[] attrs = dbf2.readEntry();
+                for (int i = 0, ii = attrs.length; i < ii; i++) {
+                    assertEquals(attrs[i], copy.read(i));
+                }
+            }
+        }
+    }
+
     @Test
     public void testHeader() throws Exception {
         DbaseFileHeader header = new DbaseFileHeader();
@@ -16,6 +16,7 @@
  */
 package org.geotools.data.shapefile;
 
+import static org.geotools.data.shapefile.files.ShpFileType.PRX;
 import static org.geotools.data.shapefile.files.ShpFileType.QIX;
 import static org.geotools.data.shapefile.files.ShpFileType.SHP;
 import static org.junit.Assert.assertEquals;
@@ -37,6 +38,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.geotools.data.shapefile.files.ShpFiles;
+import org.geotools.data.util.NullProgressListener;
 import org.geotools.feature.NameImpl;
 import org.junit.After;
 import org.junit.Before;
@@ -186,6 +188,36 @@ protected void doCreateSpatialIndex() throws Exception {
         assertEquals(1, maxConcurrentBuilds.get());
     }
 
+    @Test
+    public void testSpatialIndexType() throws Exception {
+        IndexManager indexManager = new IndexManager(shpFiles, mockDataStore);
+        if (!shpFiles.exists(QIX)) {
+            assertTrue(indexManager.createSpatialIndex(true));
+        }
+        ShapeFileIndexer indexer = new ShapeFileIndexer();
+        indexer.setShapeFileName(shpFiles);
+        indexer.setIndexType(PRX);
+        indexer.index(false, new NullProgressListener());
+        assertTrue(shpFiles.exists(PRX));
+
+        // the quadtree is preferred if both are present
+        assertEquals(QIX, indexManager.getSpatialIndexType());
+
+        // an up to date packed index is used if alone
+        deleteQixFile();
+        assertEquals(PRX, indexManager.getSpatialIndexType());
+
+        // a stale one is not
+        File shpFile = new File(new URL(shpFiles.get(SHP)).toURI());
+        File prxFile = new File(new URL(shpFiles.get(PRX)).toURI());
+        assertTrue(prxFile.setLastModified(shpFile.lastModified() - 100_000));
+        assertEquals(QIX, indexManager.getSpatialIndexType());
+
+        // unless explicitly enabled
+        when(mockDataStore.isPackedSpatialIndex()).thenReturn(true);
+        assertEquals(PRX, indexManager.getSpatialIndexType());
+    }
+
     private List<Boolean> buildSpatialIndexConcurrently(
             IndexManager indexManager,
             final int threadCount,
@@ -631,6 +631,27 @@ private ArrayList<SimpleFeature> performQueryComparison(
         return indexedFeatures;
     }
 
+    @Test
+    public void testLazyAttributes() throws Exception {
+        Query q = new Query(null, ff.greater(ff.property("PERSONS"), ff.literal(3000000)));
+        List<SimpleFeature> expected = DataUtilities.list(loadFeatures(STATE_POP, q));
+        store.dispose();
+
+        ShapefileDataStore lazy = new ShapefileDataStore(TestData.url(STATE_POP));
+        lazy.setLazyAttributes(true);
+        List<SimpleFeature> actual =
+                DataUtilities.list(loadFeatures(lazy).subCollection(q.getFilter()));
+        // the attributes can still be decoded after the files are closed
+        lazy.dispose();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getID(), actual.get(i).getID());
+            assertEquals(expected.get(i).getAttributes(), actual.get(i).getAttributes());
+        }
+    }
+
     @Test
     public void testLoadAndVerify() throws Exception {
         SimpleFeatureCollection features = loadFeatures(STATE_POP, Query.ALL);
@@ -41,15 +41,19 @@
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.filter.Filter;
 import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
 import org.geotools.data.property.PropertyDataStore;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.util.URLs;
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.MultiPoint;
 import org.locationtech.jts.geom.MultiPolygon;
@@ -269,6 +273,41 @@ public void testEmptyCollection() throws Exception {
         checkTypeStructure(actual.getSchema(), MultiPolygon.class, "ID");
     }
 
+    @Test
+    public void testParallel() throws Exception {
+        // enough features for several batches, with a long name forcing a remap
+        SimpleFeatureType schema =
+                DataUtilities.createType(
+                        "Parallel", "the_geom:Point:srid=4326,name:String,aVeryLongAttribute:int");
+        GeometryFactory gf = new GeometryFactory();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(schema);
+        List<SimpleFeature> features = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            fb.add(gf.createPoint(new Coordinate(i % 360 - 180, i % 180 - 90)));
+            fb.add("name" + i);
+            fb.add(i);
+            features.add(fb.buildFeature("Parallel." + i));
+        }
+        ShapefileDumper dumper = new ShapefileDumper(dumperFolder);
+        dumper.setParallelism(4);
+        dumper.dump(new ListFeatureCollection(schema, features));
+
+        SimpleFeatureCollection actual = getFeaturesFromShapefile("Parallel");
+        assertEquals(features.size(), actual.size());
+        checkTypeStructure(actual.getSchema(), Point.class, "name", "aVeryLongA");
+        try (SimpleFeatureIterator it = actual.features()) {
+            // same order as the source
+            for (SimpleFeature expected : features) {
+                SimpleFeature f = it.next();
+                assertEquals(expected.getAttribute("name"), f.getAttribute("name"));
+                assertEquals(expected.getAttribute("aVeryLongAttribute"), f.getAttribute(2));
+                assertEquals(
+                        (Geometry) expected.getDefaultGeometry(),
+                        ((Geometry) f.getDefaultGeometry()).getGeometryN(0));
+            }
+        }
+    }
+
     @Test
     public void testEmptyMultipleTypes() throws Exception {
         SimpleFeatureCollection fc =
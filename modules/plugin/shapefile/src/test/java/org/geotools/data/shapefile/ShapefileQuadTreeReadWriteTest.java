@@ -26,6 +26,7 @@
 import java.net.URL;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.geotools.TestData;
 import org.geotools.api.data.DataStore;
@@ -38,8 +39,11 @@
 import org.geotools.api.filter.Id;
 import org.geotools.api.filter.identity.FeatureId;
 import org.geotools.data.DataUtilities;
+import org.geotools.data.shapefile.files.ShpFileType;
+import org.geotools.data.shapefile.files.ShpFiles;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.data.util.NullProgressListener;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.util.factory.GeoTools;
@@ -102,6 +106,74 @@ public void testWriteTwice() throws Exception {
         s1.dispose();
     }
 
+    @Test
+    public void testPackedIndex() throws Exception {
+        File file = copyShapefiles("shapes/streams.shp");
+        ShapefileDataStoreFactory fac = new ShapefileDataStoreFactory();
+        Map<String, Serializable> params = new HashMap<>();
+        params.put(ShapefileDataStoreFactory.URLP.key, file.toURI().toURL());
+        params.put(ShapefileDataStoreFactory.CREATE_SPATIAL_INDEX.key, Boolean.TRUE);
+        params.put(ShapefileDataStoreFactory.PACKED_SPATIAL_INDEX.key, Boolean.TRUE);
+        ShapefileDataStore packed = (ShapefileDataStore) fac.createDataStore(params);
+        assertTrue(packed.isPackedSpatialIndex());
+        ShapefileDataStore plain = new ShapefileDataStore(file.toURI().toURL());
+        plain.setIndexed(false);
+
+        assertSameBBoxResults(plain, packed);
+        File prx = new File(file.getParentFile(), "streams.prx");
+        assertTrue(prx.exists());
+        packed.dispose();
+        plain.dispose();
+        assertTrue(prx.delete());
+    }
+
+    @Test
+    public void testParallelIndexing() throws Exception {
+        File file = copyShapefiles("shapes/streams.shp");
+        ShapefileDataStore plain = new ShapefileDataStore(file.toURI().toURL());
+        plain.setIndexed(false);
+        int count = plain.getFeatureSource().getCount(Query.ALL);
+
+        for (ShpFileType type : new ShpFileType[] {ShpFileType.QIX, ShpFileType.PRX}) {
+            ShpFiles shpFiles = new ShpFiles(file);
+            ShapeFileIndexer indexer = new ShapeFileIndexer();
+            indexer.setShapeFileName(shpFiles);
+            indexer.setIndexType(type);
+            indexer.setParallelism(4);
+            assertEquals(count, indexer.index(false, new NullProgressListener()));
+            shpFiles.dispose();
+
+            ShapefileDataStore indexed = new ShapefileDataStore(file.toURI().toURL());
+            assertSameBBoxResults(plain, indexed);
+            indexed.dispose();
+        }
+        plain.dispose();
+        assertTrue(new File(file.getParentFile(), "streams.prx").delete());
+    }
+
+    /** Runs a few bbox queries against both stores, checking they return the same features */
+    private void assertSameBBoxResults(ShapefileDataStore expected, ShapefileDataStore actual)
+            throws IOException {
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+        ReferencedEnvelope bounds = expected.getFeatureSource().getBounds();
+        for (int i = 0; i < 4; i++) {
+            // a quarter of the data, sliding along the diagonal
+            double x = bounds.getMinX() + bounds.getWidth() * i / 4;
+            double y = bounds.getMinY() + bounds.getHeight() * i / 4;
+            Query q = new Query(expected.getTypeNames()[0]);
+            q.setFilter(
+                    ff.bbox("", x, y, x + bounds.getWidth() / 4, y + bounds.getHeight() / 4, null));
+            List<SimpleFeature> expectedFeatures =
+                    DataUtilities.list(expected.getFeatureSource().getFeatures(q));
+            List<SimpleFeature> actualFeatures =
+                    DataUtilities.list(actual.getFeatureSource().getFeatures(q));
+            assertEquals(expectedFeatures.size(), actualFeatures.size());
+            for (int j = 0; j < expectedFeatures.size(); j++) {
+                assertEquals(expectedFeatures.get(j).getID(), actualFeatures.get(j).getID());
+            }
+        }
+    }
+
     private DataStore createDataStore(ShapefileDataStoreFactory fac, URL url, boolean memoryMapped)
             throws IOException {
         Map<String, Serializable> params = new HashMap<>();
@@ -22,6 +22,7 @@
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -57,12 +58,15 @@
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.DefaultFeatureCollection;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
 import org.geotools.referencing.operation.transform.IdentityTransform;
 import org.junit.Test;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 
 /**
  * @version $Id$
@@ -158,6 +162,38 @@ public void testIndexFile() throws Exception {
         }
     }
 
+    @Test
+    public void testPackedSequences() throws Exception {
+        // polygons, with holes, lines and single point lines
+        for (String shapefile :
+                new String[] {
+                    STATEPOP, HOLETOUCHEDGE, "shapes/roads.shp", "shapes/pointtest.shp"
+                }) {
+            assertSameAsDefault(shapefile, new LiteCoordinateSequenceFactory());
+            assertSameAsDefault(shapefile, PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+        }
+    }
+
+    private void assertSameAsDefault(String shapefile, CoordinateSequenceFactory csf)
+            throws Exception {
+        final URL url = TestData.url(shapefile);
+        GeometryFactory packedFactory = new GeometryFactory(csf);
+        try (ShapefileReader expected =
+                        new ShapefileReader(
+                                new ShpFiles(url), false, false, new GeometryFactory());
+                ShapefileReader actual =
+                        new ShapefileReader(new ShpFiles(url), false, false, packedFactory)) {
+            while (expected.hasNext()) {
+                assertTrue(actual.hasNext());
+                Geometry g1 = (Geometry) expected.nextRecord().shape();
+                Geometry g2 = (Geometry) actual.nextRecord().shape();
+                assertTrue(g1.equalsExact(g2));
+                assertSame(packedFactory, g2.getFactory());
+            }
+            assertFalse(actual.hasNext());
+        }
+    }
+
     @Test
     public void testHolyPolygons() throws Exception {
         SimpleFeatureType type = DataUtilities.createType("junk", "a:MultiPolygon");
@@ -19,15 +19,58 @@
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import java.io.InputStream;
 import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 
 public class DbaseFileReaderTest {
+    @Test
+    public void testParseNumbers() throws Exception {
+        String[] integers = {"0", "  42", "-17  ", "+5", "007", "123456789012345678"};
+        for (String number : integers) {
+            byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+            assertThat(
+                    DbaseFileReader.parseLong(bytes, 0, bytes.length),
+                    is(Long.parseLong(number.trim())));
+        }
+        String[] notIntegers = {"", "   ", "1.5", "1e3", "-", "1234567890123456789", "12a"};
+        for (String number : notIntegers) {
+            byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+            assertThat(
+                    DbaseFileReader.parseLong(bytes, 0, bytes.length),
+                    is(DbaseFileReader.NOT_A_LONG));
+        }
+
+        Random random = new Random(0);
+        int fastParsed = 0;
+        for (int i = 0; i < 10000; i++) {
+            // numbers as the DBF writer would format them
+            int decimals = random.nextInt(12);
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10));
+            String number = String.format(Locale.ENGLISH, "%20." + decimals + "f", value);
+            byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+            double parsed = DbaseFileReader.parseDouble(bytes, 0, bytes.length);
+            // too many digits are left to the JDK parser
+            if (!Double.isNaN(parsed)) {
+                assertThat(number, parsed, is(Double.parseDouble(number)));
+                fastParsed++;
+            }
+        }
+        assertTrue(fastParsed > 5000);
+        // cases not handled by the fast path
+        for (String number : new String[] {"1e5", "NaN", "12345678901234567890.5", "1..2"}) {
+            byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+            assertTrue(Double.isNaN(DbaseFileReader.parseDouble(bytes, 0, bytes.length)));
+        }
+    }
+
     /*
        The nulls.dbf file contains 2 columns: gistool_id (integer) and att_loss (real).
        There are 4 records:
@@ -0,0 +1,346 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryMapCacheTest {
+
+    static final int FILE_SIZE = 1024;
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    File file;
+
+    URL url;
+
+    @Before
+    public void setup() throws Exception {
+        file = folder.newFile("test.shp");
+        byte[] contents = new byte[FILE_SIZE];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = (byte) i;
+        }
+        Files.write(file.toPath(), contents);
+        url = file.toURI().toURL();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        MemoryMapCache cache = new MemoryMapCache(FILE_SIZE * 4);
+        List<MemoryMapCache.Mapping> leases = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer b1 = cache.map(channel, url, MapMode.READ_ONLY, 0, 100, leases);
+            MappedByteBuffer b2 = cache.map(channel, url, MapMode.READ_ONLY, 0, 100, leases);
+            cache.map(channel, url, MapMode.READ_ONLY, 100, 100, leases);
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getMisses());
+            assertEquals(2, cache.getSize());
+            assertEquals(200, cache.getCachedBytes());
+            assertEquals(200, cache.getResidentBytes());
+
+            // independent duplicates
+            b1.position(50);
+            assertEquals(0, b2.position());
+            assertEquals(50, b1.get());
+        }
+        leases.forEach(MemoryMapCache.Mapping::release);
+
+        // released regions stay cached
+        assertEquals(200, cache.getResidentBytes());
+        cache.clean();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    public void testEvictionSparesRegionsInUse() throws Exception {
+        MemoryMapCache cache = new MemoryMapCache(200);
+        List<MemoryMapCache.Mapping> first = new ArrayList<>();
+        List<MemoryMapCache.Mapping> others = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            cache.map(channel, url, MapMode.READ_ONLY, 0, 100, first);
+            cache.map(channel, url, MapMode.READ_ONLY, 100, 100, others);
+            others.forEach(MemoryMapCache.Mapping::release);
+            others.clear();
+
+            // over the limit, the least recently used region is in use, the second one goes
+            MappedByteBuffer third = cache.map(channel, url, MapMode.READ_ONLY, 200, 100, others);
+            assertEquals(1, cache.getEvictions());
+            assertEquals(200, cache.getCachedBytes());
+            assertEquals((byte) 200, third.get(0));
+
+            // the region in use is evicted only after being released
+            cache.setMaxSize(100);
+            assertEquals(1, cache.getEvictions());
+            assertEquals(200, cache.getCachedBytes());
+            first.forEach(MemoryMapCache.Mapping::release);
+            assertEquals(2, cache.getEvictions());
+            assertEquals(100, cache.getCachedBytes());
+            assertEquals(100, cache.getResidentBytes());
+
+            // removing the file from cache while in use only unmaps on release
+            cache.cleanFileCache(url);
+            assertEquals(0, cache.getCachedBytes());
+            assertEquals(100, cache.getResidentBytes());
+            assertEquals((byte) 200, third.get(0));
+            others.forEach(MemoryMapCache.Mapping::release);
+            assertEquals(0, cache.getResidentBytes());
+        }
+    }
+
+    @Test
+    public void testSharedAmongShpFiles() throws Exception {
+        MemoryMapCache cache = MemoryMapCache.getInstance();
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        ShpFiles files1 = new ShpFiles(file);
+        ShpFiles files2 = new ShpFiles(file);
+        files1.setMemoryMapCacheEnabled(true);
+        files2.setMemoryMapCacheEnabled(true);
+        FileReader reader = () -> "MemoryMapCacheTest";
+        try {
+            try (FileChannel channel =
+                    (FileChannel) files1.getReadChannel(ShpFileType.SHP, reader)) {
+                channel.map(MapMode.READ_ONLY, 0, FILE_SIZE);
+            }
+            try (FileChannel channel =
+                    (FileChannel) files2.getReadChannel(ShpFileType.SHP, reader)) {
+                channel.map(MapMode.READ_ONLY, 0, FILE_SIZE);
+            }
+            assertEquals(misses + 1, cache.getMisses());
+            assertEquals(hits + 1, cache.getHits());
+        } finally {
+            files1.dispose();
+            files2.dispose();
+        }
+    }
+
+    @Test
+    public void testMapOutsideLock() throws Exception {
+        MemoryMapCache cache = new MemoryMapCache(FILE_SIZE * 4);
+        List<MemoryMapCache.Mapping> leases = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch mapping = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            FileChannel blocking = new BlockingChannel(channel, mapping, proceed);
+            Future<MappedByteBuffer> blocked =
+                    executor.submit(
+                            () -> cache.map(blocking, url, MapMode.READ_ONLY, 0, 100, leases));
+            assertTrue(mapping.await(10, TimeUnit.SECONDS));
+
+            // a slow mapping does not hold back the others
+            MappedByteBuffer other = cache.map(channel, url, MapMode.READ_ONLY, 100, 100, leases);
+            assertEquals((byte) 100, other.get(0));
+            assertEquals(1, cache.getSize());
+
+            proceed.countDown();
+            assertEquals((byte) 0, blocked.get(10, TimeUnit.SECONDS).get(0));
+            assertEquals(2, cache.getMisses());
+            assertEquals(200, cache.getResidentBytes());
+        } finally {
+            proceed.countDown();
+            executor.shutdownNow();
+        }
+        leases.forEach(MemoryMapCache.Mapping::release);
+        cache.clean();
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    public void testConcurrentMapSameRegion() throws Exception {
+        MemoryMapCache cache = new MemoryMapCache(FILE_SIZE * 4);
+        List<MemoryMapCache.Mapping> leases = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch mapping = new CountDownLatch(2);
+        CountDownLatch proceed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            FileChannel blocking = new BlockingChannel(channel, mapping, proceed);
+            List<Future<MappedByteBuffer>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(
+                        executor.submit(
+                                () -> cache.map(blocking, url, MapMode.READ_ONLY, 0, 100, leases)));
+            }
+            // both threads are mapping the same region at the same time
+            assertTrue(mapping.await(10, TimeUnit.SECONDS));
+            proceed.countDown();
+            for (Future<MappedByteBuffer> future : futures) {
+                assertEquals((byte) 50, future.get(10, TimeUnit.SECONDS).get(50));
+            }
+
+            // a single region is kept, the other one has been discarded
+            assertEquals(1, cache.getSize());
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+            assertEquals(100, cache.getCachedBytes());
+            assertEquals(100, cache.getResidentBytes());
+            assertEquals(2, leases.size());
+            assertTrue(leases.get(0) == leases.get(1));
+        } finally {
+            proceed.countDown();
+            executor.shutdownNow();
+        }
+        leases.forEach(MemoryMapCache.Mapping::release);
+        cache.clean();
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    /** Delegates to a channel, blocking in {@link #map} until allowed to proceed */
+    static class BlockingChannel extends FileChannel {
+
+        FileChannel delegate;
+
+        CountDownLatch mapping;
+
+        CountDownLatch proceed;
+
+        BlockingChannel(FileChannel delegate, CountDownLatch mapping, CountDownLatch proceed) {
+            this.delegate = delegate;
+            this.mapping = mapping;
+            this.proceed = proceed;
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            mapping.countDown();
+            try {
+                if (!proceed.await(10, TimeUnit.SECONDS)) {
+                    throw new IOException("Timed out waiting to map");
+                }
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target)
+                throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count)
+                throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            // the delegate is closed by its owner
+        }
+    }
+}
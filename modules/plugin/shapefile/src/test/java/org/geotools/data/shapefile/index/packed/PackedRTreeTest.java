@@ -0,0 +1,113 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.packed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.geotools.api.data.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.shapefile.index.TreeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Envelope;
+
+public class PackedRTreeTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsScan() throws Exception {
+        Random random = new Random(0);
+        PackedRTreeBuilder builder = new PackedRTreeBuilder(4);
+        List<Envelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 360 - 180;
+            double y = random.nextDouble() * 180 - 90;
+            Envelope env = new Envelope(x, x + random.nextDouble() * 5, y, y + random.nextDouble());
+            builder.add(i, 50 + i * 10, env);
+            envelopes.add(env);
+        }
+        PackedRTree tree = write(builder);
+        assertEquals(1000, tree.getNumItems());
+
+        for (int i = 0; i < 200; i++) {
+            double x = random.nextDouble() * 360 - 180;
+            double y = random.nextDouble() * 180 - 90;
+            Envelope area = new Envelope(x, x + random.nextDouble() * 40, y, y + 20);
+            List<Integer> expected = new ArrayList<>();
+            for (int j = 0; j < envelopes.size(); j++) {
+                if (envelopes.get(j).intersects(area)) {
+                    expected.add(j);
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            try (CloseableIterator<Data> it = tree.search(area)) {
+                while (it.hasNext()) {
+                    Data data = it.next();
+                    int recno = (Integer) data.getValue(0) - 1;
+                    assertEquals(Long.valueOf((50 + recno * 10) * 2), data.getValue(1));
+                    actual.add(recno);
+                }
+            }
+            // sorted by record number, like a scan
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testEmptyAndSingle() throws Exception {
+        PackedRTree empty = write(new PackedRTreeBuilder());
+        assertEquals(0, empty.getNumItems());
+        assertTrue(empty.getBounds().isNull());
+        try (CloseableIterator<Data> it = empty.search(new Envelope(-10, 10, -10, 10))) {
+            assertFalse(it.hasNext());
+        }
+
+        PackedRTreeBuilder builder = new PackedRTreeBuilder();
+        builder.add(0, 50, new Envelope(1, 2, 1, 2));
+        PackedRTree single = write(builder);
+        assertEquals(new Envelope(1, 2, 1, 2), single.getBounds());
+        try (CloseableIterator<Data> it = single.search(new Envelope(0, 1, 0, 1))) {
+            assertTrue(it.hasNext());
+            assertEquals(1, it.next().getValue(0));
+            assertFalse(it.hasNext());
+        }
+        try (CloseableIterator<Data> it = single.search(new Envelope(3, 4, 3, 4))) {
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test(expected = TreeException.class)
+    public void testInvalidFile() throws Exception {
+        new PackedRTree(ByteBuffer.wrap(new byte[100]));
+    }
+
+    private PackedRTree write(PackedRTreeBuilder builder) throws Exception {
+        File file = folder.newFile();
+        builder.write(file);
+        return new PackedRTree(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+}